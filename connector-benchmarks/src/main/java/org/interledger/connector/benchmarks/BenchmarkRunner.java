@@ -0,0 +1,40 @@
+package org.interledger.connector.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry-point for {@code benchmarks.jar}. Accepts the same arguments as {@code org.openjdk.jmh.Main}, but unless a
+ * result format or file is specified on the command-line, results are written as JSON to {@code jmh-result.json} so
+ * that runs can be compared against each other to spot regressions.
+ *
+ * <p>Unless profilers are specified on the command-line, the GC profiler is enabled so that every result also records
+ * the bytes allocated per operation ({@code gc.alloc.rate.norm}), which regress as readily as latency does.</p>
+ */
+public class BenchmarkRunner {
+
+  public static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+  public static void main(final String[] args) throws RunnerException, CommandLineOptionException {
+    final CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+
+    final ChainedOptionsBuilder optionsBuilder = new OptionsBuilder().parent(commandLineOptions);
+    if (!commandLineOptions.getResultFormat().hasValue()) {
+      optionsBuilder.resultFormat(ResultFormatType.JSON);
+    }
+    if (!commandLineOptions.getResult().hasValue()) {
+      optionsBuilder.result(DEFAULT_RESULT_FILE);
+    }
+    if (commandLineOptions.getProfilers().isEmpty()) {
+      optionsBuilder.addProfiler(GCProfiler.class);
+    }
+
+    new Runner(optionsBuilder.build()).run();
+  }
+}
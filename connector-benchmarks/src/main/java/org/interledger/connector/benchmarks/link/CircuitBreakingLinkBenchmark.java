@@ -0,0 +1,124 @@
+package org.interledger.connector.benchmarks.link;
+
+import org.interledger.connector.link.CircuitBreakingLink;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerProtocolException;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.AbstractLink;
+import org.interledger.link.Link;
+import org.interledger.link.LinkId;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.LinkType;
+
+import com.google.common.primitives.UnsignedLong;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-packet overhead that {@link CircuitBreakingLink} adds in front of every peer link, by sending the
+ * same packet through a link that fulfills it immediately, with and without the circuit breaker in front of it.
+ *
+ * <p>{@code perPacketDecoration} reproduces sending via a registry lookup and a freshly decorated function for every
+ * packet, for comparison with the breaker that {@link CircuitBreakingLink} resolves once per link. Run with
+ * {@code -prof gc} to compare allocation rates as well as latency.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CircuitBreakingLinkBenchmark {
+
+  private static final LinkId LINK_ID = LinkId.of("bob");
+
+  private InterledgerPreparePacket preparePacket;
+  private Link<?> rawLink;
+  private CircuitBreakingLink circuitBreakingLink;
+  private CircuitBreakerRegistry circuitBreakerRegistry;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    preparePacket = InterledgerPreparePacket.builder()
+      .destination(InterledgerAddress.of("test.bob.receiver"))
+      .amount(UnsignedLong.valueOf(100))
+      .executionCondition(InterledgerCondition.of(new byte[32]))
+      .expiresAt(Instant.now().plusSeconds(3600))
+      .build();
+
+    rawLink = new FulfillingLink();
+    rawLink.setLinkId(LINK_ID);
+
+    // The same configuration that the Connector uses by default.
+    final CircuitBreakerConfig circuitBreakerConfig = CircuitBreakerConfig.custom()
+      .ignoreExceptions(InterledgerProtocolException.class)
+      .enableAutomaticTransitionFromOpenToHalfOpen()
+      .build();
+    circuitBreakingLink = new CircuitBreakingLink(rawLink, circuitBreakerConfig);
+    circuitBreakerRegistry = CircuitBreakerRegistry.of(circuitBreakerConfig);
+  }
+
+  @Benchmark
+  public InterledgerResponsePacket rawLink() {
+    return rawLink.sendPacket(preparePacket);
+  }
+
+  @Benchmark
+  public InterledgerResponsePacket circuitBreakingLink() {
+    return circuitBreakingLink.sendPacket(preparePacket);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public InterledgerResponsePacket circuitBreakingLinkContended() {
+    return circuitBreakingLink.sendPacket(preparePacket);
+  }
+
+  @Benchmark
+  public InterledgerResponsePacket perPacketDecoration() {
+    final CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(rawLink.getLinkId().value());
+    return CircuitBreaker.decorateFunction(circuitBreaker, rawLink::sendPacket).apply(preparePacket);
+  }
+
+  /**
+   * A {@link Link} that fulfills every packet without doing any work, so that only the cost of wrapping it is
+   * measured.
+   */
+  private static final class FulfillingLink extends AbstractLink<LinkSettings> {
+
+    private static final InterledgerFulfillPacket FULFILL_PACKET = InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build();
+
+    private FulfillingLink() {
+      super(() -> InterledgerAddress.of("test.connector"), LinkSettings.builder()
+        .linkType(LinkType.of("FULFILLING"))
+        .build());
+    }
+
+    @Override
+    public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
+      return FULFILL_PACKET;
+    }
+  }
+}
@@ -0,0 +1,421 @@
+package org.interledger.connector.benchmarks.packetswitch;
+
+import org.interledger.codecs.ildcp.IldcpCodecContextFactory;
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.codecs.stream.StreamCodecContextFactory;
+import org.interledger.connector.ConnectorExceptionHandler;
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountRelationship;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.accounts.sub.LocalDestinationAddressUtils;
+import org.interledger.connector.balances.InMemoryBalanceTracker;
+import org.interledger.connector.caching.AccountSettingsLoadingCache;
+import org.interledger.connector.ccp.codecs.CcpCodecContextFactory;
+import org.interledger.connector.events.DefaultPacketEventPublisher;
+import org.interledger.connector.events.PacketEventPublisher;
+import org.interledger.connector.fx.JavaMoneyUtils;
+import org.interledger.connector.links.DefaultNextHopPacketMapper;
+import org.interledger.connector.links.LinkManager;
+import org.interledger.connector.links.NextHopInfo;
+import org.interledger.connector.links.filters.LinkFilter;
+import org.interledger.connector.links.filters.OutgoingBalanceLinkFilter;
+import org.interledger.connector.links.filters.OutgoingBulkheadLinkFilter;
+import org.interledger.connector.links.filters.OutgoingMaxPacketAmountLinkFilter;
+import org.interledger.connector.links.filters.OutgoingMetricsLinkFilter;
+import org.interledger.connector.links.filters.OutgoingStreamPaymentLinkFilter;
+import org.interledger.connector.metrics.MetricsService;
+import org.interledger.connector.metrics.PrometheusMetricsService;
+import org.interledger.connector.packetswitch.DefaultILPv4PacketSwitch;
+import org.interledger.connector.packetswitch.InterledgerAddressUtils;
+import org.interledger.connector.packetswitch.filters.AllowedDestinationPacketFilter;
+import org.interledger.connector.packetswitch.filters.BalanceIlpPacketFilter;
+import org.interledger.connector.packetswitch.filters.ExpiryPacketFilter;
+import org.interledger.connector.packetswitch.filters.MaxPacketAmountFilter;
+import org.interledger.connector.packetswitch.filters.PacketMetricsFilter;
+import org.interledger.connector.packetswitch.filters.PacketSwitchFilter;
+import org.interledger.connector.packetswitch.filters.PeerProtocolPacketFilter;
+import org.interledger.connector.packetswitch.filters.StreamPaymentIlpPacketFilter;
+import org.interledger.connector.packetswitch.filters.ValidateFulfillmentPacketFilter;
+import org.interledger.connector.payments.FulfillmentGeneratedEventAggregator;
+import org.interledger.connector.payments.FulfillmentGeneratedEventConverter;
+import org.interledger.connector.payments.InMemoryStreamPaymentManager;
+import org.interledger.connector.payments.SynchronousFulfillmentGeneratedEventAggregator;
+import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
+import org.interledger.connector.routing.InMemoryRoutingTable;
+import org.interledger.connector.routing.PaymentRouter;
+import org.interledger.connector.routing.Route;
+import org.interledger.connector.routing.RouteBroadcaster;
+import org.interledger.connector.settings.ConnectorSettings;
+import org.interledger.connector.settings.ImmutableConnectorSettings;
+import org.interledger.connector.settlement.SettlementService;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerPacket;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.Link;
+import org.interledger.link.LinkId;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.LoopbackLink;
+import org.interledger.link.PacketRejector;
+import org.interledger.stream.crypto.JavaxStreamEncryptionService;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.eventbus.EventBus;
+import com.google.common.primitives.UnsignedLong;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures what one prepare/fulfill round trip through {@link DefaultILPv4PacketSwitch} costs, and in particular how
+ * much it allocates. The switch is wired the way {@code SpringConnectorConfig} wires it (the same packet-switch and
+ * link filters, in the same order, with in-memory balances, metrics and STREAM payment tracking), and packets are
+ * routed from a peer account to a peer account whose {@link LoopbackLink} fulfills them.
+ *
+ * <p>Run with {@code -prof gc} (the default when run through {@code BenchmarkRunner}) and read
+ * {@code gc.alloc.rate.norm}, which is the number of bytes allocated per packet. {@code roundTrip} is the whole of it,
+ * from OER bytes in to OER bytes out, and the remaining benchmarks isolate its stages:</p>
+ *
+ * <ul>
+ *   <li>{@code oerDecode} and {@code oerEncodeFulfill}: the work done by the HTTP message converters.</li>
+ *   <li>{@code switchPacket}: the filter chains, next-hop mapping, the link and events. Whatever it allocates over
+ *   the sum of {@code nextHopPacket} and {@code packetEvents} is allocated by the filter chains themselves.</li>
+ *   <li>{@code nextHopPacket}: route lookup, FX and the next-hop packet, of which {@code fx} and
+ *   {@code preparePacketRebuild} are measured on their own too.</li>
+ *   <li>{@code packetEvents}: the exchange rate and the fulfillment event published for every fulfilled packet.</li>
+ * </ul>
+ *
+ * <p>Both accounts are denominated in USD, at different scales, because cross-currency rates would have to be
+ * fetched from a remote rate provider. The FX stage therefore measures the scale conversion and the JavaMoney
+ * plumbing, but not the rate lookup.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PacketSwitchAllocationBenchmark {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("g.benchmark.connector");
+  private static final AccountId SOURCE_ACCOUNT_ID = AccountId.of("alice");
+  private static final AccountId DESTINATION_ACCOUNT_ID = AccountId.of("bob");
+
+  private CodecContext ilpCodecContext;
+  private byte[] encodedPreparePacket;
+  private InterledgerPreparePacket preparePacket;
+  private InterledgerFulfillPacket fulfillPacket;
+  private InterledgerPreparePacket nextHopPreparePacket;
+  private AccountSettings sourceAccountSettings;
+  private AccountSettings destinationAccountSettings;
+
+  private StageExposingNextHopPacketMapper nextHopPacketMapper;
+  private PacketEventPublisher packetEventPublisher;
+  private DefaultILPv4PacketSwitch packetSwitch;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    final Supplier<InterledgerAddress> operatorAddressSupplier = () -> OPERATOR_ADDRESS;
+    final ConnectorSettings connectorSettings = ImmutableConnectorSettings.builder()
+      .operatorAddress(OPERATOR_ADDRESS)
+      .build();
+    final Supplier<ConnectorSettings> connectorSettingsSupplier = () -> connectorSettings;
+
+    sourceAccountSettings = AccountSettings.builder()
+      .accountId(SOURCE_ACCOUNT_ID)
+      .accountRelationship(AccountRelationship.PEER)
+      .assetCode("USD")
+      .assetScale(9)
+      .linkType(LoopbackLink.LINK_TYPE)
+      .build();
+    destinationAccountSettings = AccountSettings.builder()
+      .accountId(DESTINATION_ACCOUNT_ID)
+      .accountRelationship(AccountRelationship.PEER)
+      .assetCode("USD")
+      .assetScale(6)
+      .linkType(LoopbackLink.LINK_TYPE)
+      .build();
+
+    // Neither of these is used on the happy path: accounts are served from the cache, and nothing is settled or
+    // broadcast.
+    final AccountSettingsRepository accountSettingsRepository = unsupported(AccountSettingsRepository.class);
+    final SettlementService settlementService = unsupported(SettlementService.class);
+    final RouteBroadcaster routeBroadcaster = unsupported(RouteBroadcaster.class);
+
+    final EventBus eventBus = new EventBus();
+    final Cache<AccountId, Optional<AccountSettings>> accountSettingsCache = Caffeine.newBuilder()
+      .recordStats()
+      .expireAfterWrite(15, TimeUnit.MINUTES)
+      .maximumSize(5000)
+      .build();
+    accountSettingsCache.put(SOURCE_ACCOUNT_ID, Optional.of(sourceAccountSettings));
+    accountSettingsCache.put(DESTINATION_ACCOUNT_ID, Optional.of(destinationAccountSettings));
+    final AccountSettingsLoadingCache accountSettingsLoadingCache =
+      new AccountSettingsLoadingCache(accountSettingsRepository, accountSettingsCache, eventBus);
+
+    final InMemoryRoutingTable<Route> routingTable = new InMemoryRoutingTable<>();
+    routingTable.addRoute(Route.builder()
+      .routePrefix(InterledgerAddressPrefix.of("g.benchmark.bob"))
+      .nextHopAccountId(DESTINATION_ACCOUNT_ID)
+      .addPath(OPERATOR_ADDRESS, InterledgerAddress.of("g.benchmark.bob"))
+      .build());
+
+    final PacketRejector packetRejector = new PacketRejector(operatorAddressSupplier);
+    final MetricsService metricsService = new PrometheusMetricsService();
+    final InMemoryBalanceTracker balanceTracker = new InMemoryBalanceTracker();
+    final InterledgerAddressUtils addressUtils =
+      new InterledgerAddressUtils(connectorSettingsSupplier, accountSettingsRepository);
+    final FulfillmentGeneratedEventAggregator fulfillmentGeneratedEventAggregator =
+      new SynchronousFulfillmentGeneratedEventAggregator(new InMemoryStreamPaymentManager(),
+        new FulfillmentGeneratedEventConverter(new JavaxStreamEncryptionService(), StreamCodecContextFactory.oer()));
+
+    nextHopPacketMapper = new StageExposingNextHopPacketMapper(
+      connectorSettingsSupplier, routingTable::findNextHopRoute, addressUtils, new JavaMoneyUtils(),
+      accountSettingsLoadingCache
+    );
+    packetEventPublisher = new DefaultPacketEventPublisher(eventBus);
+
+    final List<PacketSwitchFilter> packetSwitchFilters = ImmutableList.of(
+      new PacketMetricsFilter(packetRejector, metricsService),
+      new ExpiryPacketFilter(packetRejector),
+      new AllowedDestinationPacketFilter(packetRejector, addressUtils),
+      new MaxPacketAmountFilter(packetRejector),
+      new BalanceIlpPacketFilter(packetRejector, balanceTracker),
+      new ValidateFulfillmentPacketFilter(packetRejector),
+      new PeerProtocolPacketFilter(
+        connectorSettingsSupplier,
+        packetRejector,
+        routeBroadcaster,
+        CcpCodecContextFactory.oer(),
+        IldcpCodecContextFactory.oer(),
+        settlementService
+      ),
+      new StreamPaymentIlpPacketFilter(packetRejector, fulfillmentGeneratedEventAggregator)
+    );
+    final List<LinkFilter> linkFilters = ImmutableList.of(
+      new OutgoingMetricsLinkFilter(operatorAddressSupplier, metricsService),
+      new OutgoingMaxPacketAmountLinkFilter(operatorAddressSupplier),
+      new OutgoingBulkheadLinkFilter(operatorAddressSupplier),
+      new OutgoingBalanceLinkFilter(operatorAddressSupplier, balanceTracker, settlementService, eventBus),
+      new OutgoingStreamPaymentLinkFilter(operatorAddressSupplier, fulfillmentGeneratedEventAggregator)
+    );
+
+    packetSwitch = new DefaultILPv4PacketSwitch(
+      packetSwitchFilters,
+      linkFilters,
+      new LoopbackLinkManager(operatorAddressSupplier, packetRejector),
+      nextHopPacketMapper,
+      new ConnectorExceptionHandler(connectorSettingsSupplier, packetRejector, packetEventPublisher),
+      packetRejector,
+      accountSettingsLoadingCache,
+      packetEventPublisher,
+      new LocalDestinationAddressUtils() {
+        @Override
+        public Supplier<InterledgerAddress> getConnectorOperatorAddress() {
+          return operatorAddressSupplier;
+        }
+
+        @Override
+        public boolean isLocalSpspFulfillmentEnabled() {
+          return false;
+        }
+      }
+    );
+
+    ilpCodecContext = InterledgerCodecContextFactory.oer();
+    preparePacket = InterledgerPreparePacket.builder()
+      .destination(InterledgerAddress.of("g.benchmark.bob.receiver"))
+      .amount(UnsignedLong.valueOf(1_000_000))
+      .executionCondition(LoopbackLink.LOOPBACK_FULFILLMENT.getCondition())
+      .expiresAt(Instant.now().plusSeconds(3600))
+      .data(new byte[256])
+      .build();
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ilpCodecContext.write(preparePacket, outputStream);
+    encodedPreparePacket = outputStream.toByteArray();
+
+    fulfillPacket = InterledgerFulfillPacket.builder()
+      .fulfillment(LoopbackLink.LOOPBACK_FULFILLMENT)
+      .build();
+    nextHopPreparePacket = nextHopPacketMapper.getNextHopPacket(sourceAccountSettings, preparePacket).nextHopPacket();
+  }
+
+  @Benchmark
+  public byte[] roundTrip() throws IOException {
+    final InterledgerPreparePacket incomingPreparePacket = (InterledgerPreparePacket) ilpCodecContext.read(
+      InterledgerPacket.class, new ByteArrayInputStream(encodedPreparePacket)
+    );
+    final InterledgerResponsePacket responsePacket =
+      packetSwitch.switchPacket(SOURCE_ACCOUNT_ID, incomingPreparePacket);
+
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ilpCodecContext.write(responsePacket, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public InterledgerPacket oerDecode() throws IOException {
+    return ilpCodecContext.read(InterledgerPacket.class, new ByteArrayInputStream(encodedPreparePacket));
+  }
+
+  @Benchmark
+  public byte[] oerEncodeFulfill() throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    ilpCodecContext.write(fulfillPacket, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public InterledgerResponsePacket switchPacket() {
+    return packetSwitch.switchPacket(SOURCE_ACCOUNT_ID, preparePacket);
+  }
+
+  @Benchmark
+  public NextHopInfo nextHopPacket() {
+    return nextHopPacketMapper.getNextHopPacket(sourceAccountSettings, preparePacket);
+  }
+
+  @Benchmark
+  public UnsignedLong fx() {
+    return nextHopPacketMapper.nextAmount(sourceAccountSettings, destinationAccountSettings, preparePacket);
+  }
+
+  @Benchmark
+  public NextHopInfo preparePacketRebuild() {
+    return NextHopInfo.builder()
+      .nextHopAccountId(DESTINATION_ACCOUNT_ID)
+      .nextHopPacket(InterledgerPreparePacket.builder()
+        .from(preparePacket)
+        .amount(nextHopPreparePacket.getAmount())
+        .expiresAt(nextHopPreparePacket.getExpiresAt())
+        .build())
+      .build();
+  }
+
+  @Benchmark
+  public BigDecimal packetEvents() {
+    final BigDecimal fxRate = nextHopPacketMapper.determineExchangeRate(
+      sourceAccountSettings, destinationAccountSettings, preparePacket
+    );
+    packetEventPublisher.publishFulfillment(
+      sourceAccountSettings,
+      destinationAccountSettings,
+      preparePacket,
+      nextHopPreparePacket,
+      fxRate,
+      fulfillPacket.getFulfillment()
+    );
+    return fxRate;
+  }
+
+  /**
+   * Creates an implementation of {@code type} that fails if it is used, for collaborators that the happy path never
+   * calls.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> T unsupported(final Class<T> type) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+      if (method.getName().equals("toString") && method.getParameterCount() == 0) {
+        return "Unsupported" + type.getSimpleName();
+      }
+      throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+    });
+  }
+
+  /**
+   * A {@link DefaultNextHopPacketMapper} that exposes its FX calculation so that it can be measured on its own.
+   */
+  private static final class StageExposingNextHopPacketMapper extends DefaultNextHopPacketMapper {
+
+    private StageExposingNextHopPacketMapper(
+      final Supplier<ConnectorSettings> connectorSettingsSupplier,
+      final PaymentRouter<Route> paymentRouter,
+      final InterledgerAddressUtils addressUtils,
+      final JavaMoneyUtils javaMoneyUtils,
+      final AccountSettingsLoadingCache accountSettingsLoadingCache
+    ) {
+      super(connectorSettingsSupplier, paymentRouter, addressUtils, javaMoneyUtils, accountSettingsLoadingCache);
+    }
+
+    private UnsignedLong nextAmount(
+      final AccountSettings sourceAccountSettings, final AccountSettings destinationAccountSettings,
+      final InterledgerPreparePacket sourcePacket
+    ) {
+      return determineNextAmount(sourceAccountSettings, destinationAccountSettings, sourcePacket);
+    }
+  }
+
+  /**
+   * A {@link LinkManager} with a single, already connected {@link LoopbackLink} that every account is sent to.
+   */
+  private static final class LoopbackLinkManager implements LinkManager {
+
+    private final Link<? extends LinkSettings> link;
+
+    private LoopbackLinkManager(
+      final Supplier<InterledgerAddress> operatorAddressSupplier, final PacketRejector packetRejector
+    ) {
+      this.link = new LoopbackLink(
+        operatorAddressSupplier, LinkSettings.builder().linkType(LoopbackLink.LINK_TYPE).build(), packetRejector
+      );
+      this.link.setLinkId(LinkId.of(DESTINATION_ACCOUNT_ID.value()));
+    }
+
+    @Override
+    public Link<? extends LinkSettings> getOrCreateLink(final AccountId accountId) {
+      return link;
+    }
+
+    @Override
+    public Link<? extends LinkSettings> getOrCreateLink(final AccountSettings accountSettings) {
+      return link;
+    }
+
+    @Override
+    public Link<? extends LinkSettings> getOrCreateLink(final AccountId accountId, final LinkSettings linkSettings) {
+      return link;
+    }
+
+    @Override
+    public Set<Link<? extends LinkSettings>> getAllConnectedLinks() {
+      return ImmutableSet.of(link);
+    }
+
+    @Override
+    public Link<? extends LinkSettings> getOrCreateSpspReceiverLink(final AccountSettings accountSettings) {
+      throw new UnsupportedOperationException("Local SPSP fulfillment is disabled");
+    }
+
+    @Override
+    public int prewarmLinks(final Collection<AccountId> accountIds) {
+      return 0;
+    }
+  }
+}
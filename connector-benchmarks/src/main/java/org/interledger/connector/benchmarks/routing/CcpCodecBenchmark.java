@@ -0,0 +1,100 @@
+package org.interledger.connector.benchmarks.routing;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.connector.ccp.CcpNewRoute;
+import org.interledger.connector.ccp.CcpRoutePathPart;
+import org.interledger.connector.ccp.CcpRouteUpdateRequest;
+import org.interledger.connector.ccp.ImmutableCcpNewRoute;
+import org.interledger.connector.ccp.ImmutableCcpRoutePathPart;
+import org.interledger.connector.ccp.ImmutableCcpWithdrawnRoute;
+import org.interledger.connector.ccp.codecs.CcpCodecContextFactory;
+import org.interledger.connector.routing.RoutingTableId;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.encoding.asn.framework.CodecContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures OER encoding and decoding of {@link CcpRouteUpdateRequest} packets containing {@code numRoutes} new routes
+ * (and a tenth as many withdrawn routes), using the same codecs registered by the Connector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CcpCodecBenchmark {
+
+  @Param( {"10", "100", "1000"})
+  public int numRoutes;
+
+  private CodecContext codecContext;
+  private CcpRouteUpdateRequest routeUpdateRequest;
+  private byte[] encodedRouteUpdateRequest;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    codecContext = CcpCodecContextFactory.register(InterledgerCodecContextFactory.oer());
+
+    final List<InterledgerAddressPrefix> prefixes = SyntheticRoutes.prefixes(numRoutes + numRoutes / 10, 42L);
+    final List<CcpRoutePathPart> pathParts = Collections.singletonList(
+      ImmutableCcpRoutePathPart.builder().routePathPart(SyntheticRoutes.OPERATOR_ADDRESS).build()
+    );
+    final List<CcpNewRoute> newRoutes = prefixes.subList(0, numRoutes).stream()
+      .map(prefix -> ImmutableCcpNewRoute.builder()
+        .prefix(prefix)
+        .path(pathParts)
+        .build())
+      .collect(Collectors.toList());
+
+    routeUpdateRequest = CcpRouteUpdateRequest.builder()
+      .speaker(SyntheticRoutes.OPERATOR_ADDRESS)
+      .routingTableId(RoutingTableId.of(UUID.randomUUID()))
+      .holdDownTime(45000L)
+      .currentEpochIndex(prefixes.size())
+      .fromEpochIndex(0)
+      .toEpochIndex(prefixes.size())
+      .newRoutes(newRoutes)
+      .withdrawnRoutePrefixes(prefixes.subList(numRoutes, prefixes.size()).stream()
+        .map(prefix -> ImmutableCcpWithdrawnRoute.builder().prefix(prefix).build())
+        .collect(Collectors.toList()))
+      .build();
+
+    encodedRouteUpdateRequest = encodeRouteUpdateRequest();
+  }
+
+  @Benchmark
+  public byte[] encodeRouteUpdateRequest() throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream(
+      encodedRouteUpdateRequest == null ? 32 : encodedRouteUpdateRequest.length
+    );
+    codecContext.write(routeUpdateRequest, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  @Benchmark
+  public CcpRouteUpdateRequest decodeRouteUpdateRequest() throws IOException {
+    return codecContext.read(CcpRouteUpdateRequest.class, new ByteArrayInputStream(encodedRouteUpdateRequest));
+  }
+}
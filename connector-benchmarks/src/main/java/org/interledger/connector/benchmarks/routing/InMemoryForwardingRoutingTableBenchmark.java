@@ -0,0 +1,86 @@
+package org.interledger.connector.benchmarks.routing;
+
+import org.interledger.connector.routing.InMemoryForwardingRoutingTable;
+import org.interledger.connector.routing.RouteUpdate;
+import org.interledger.core.InterledgerAddressPrefix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures reading the epoch log of an {@link InMemoryForwardingRoutingTable} the way {@code DefaultCcpSender} does
+ * when building route updates. The log is populated with one epoch per route plus {@code epochsPerRoute - 1} further
+ * epochs of churn per route, so that a peer which is almost caught up requests a small delta at a high epoch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryForwardingRoutingTableBenchmark {
+
+  @Param( {"1000", "10000", "100000"})
+  public int tableSize;
+
+  @Param( {"1", "10"})
+  public int epochsPerRoute;
+
+  /**
+   * The number of epochs requested in a single read, roughly what fits into one route update.
+   */
+  @Param( {"100"})
+  public int deltaSize;
+
+  private InMemoryForwardingRoutingTable forwardingRoutingTable;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    final List<InterledgerAddressPrefix> prefixes = SyntheticRoutes.prefixes(tableSize, 42L);
+
+    forwardingRoutingTable = new InMemoryForwardingRoutingTable();
+    int epoch = 0;
+    for (int round = 0; round < epochsPerRoute; round++) {
+      for (int i = 0; i < prefixes.size(); i++) {
+        final RouteUpdate routeUpdate = SyntheticRoutes.routeUpdate(prefixes.get(i), i + round, ++epoch);
+        // Like the routing service, clear the previous log entry for a prefix when it is superseded.
+        if (round > 0) {
+          forwardingRoutingTable.clearRouteInLogAtEpoch(epoch - prefixes.size());
+        }
+        forwardingRoutingTable.addRoute(routeUpdate);
+        forwardingRoutingTable.setEpochValue(epoch, routeUpdate);
+      }
+    }
+  }
+
+  /**
+   * A peer that is {@link #deltaSize} epochs behind the current epoch.
+   */
+  @Benchmark
+  public void getPartialRouteLogAtHighEpoch(final Blackhole blackhole) {
+    final int currentEpoch = forwardingRoutingTable.getCurrentEpoch();
+    forwardingRoutingTable.getPartialRouteLog(currentEpoch - deltaSize, deltaSize).forEach(blackhole::consume);
+  }
+
+  /**
+   * A newly connected peer that needs the first {@link #deltaSize} epochs.
+   */
+  @Benchmark
+  public void getPartialRouteLogFromStart(final Blackhole blackhole) {
+    forwardingRoutingTable.getPartialRouteLog(0, deltaSize).forEach(blackhole::consume);
+  }
+}
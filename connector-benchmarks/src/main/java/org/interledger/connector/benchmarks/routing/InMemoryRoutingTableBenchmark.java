@@ -0,0 +1,127 @@
+package org.interledger.connector.benchmarks.routing;
+
+import org.interledger.connector.routing.InMemoryRoutingTable;
+import org.interledger.connector.routing.Route;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link InMemoryRoutingTable} lookups on their own, and route churn (add followed by remove) while other
+ * threads are concurrently looking up next hops, which is what the packet path sees while CCP updates are applied.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InMemoryRoutingTableBenchmark {
+
+  private static final int NUM_DESTINATIONS = 1024;
+  private static final int NUM_CHURN_ROUTES = 1024;
+
+  @Param( {"1000", "10000", "100000"})
+  public int tableSize;
+
+  private InMemoryRoutingTable<Route> routingTable;
+  private InterledgerAddress[] hitDestinations;
+  private InterledgerAddress[] missDestinations;
+  private Route[] churnRoutes;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    // Generate extra prefixes that are not initially in the table so churn adds and removes real routes.
+    final List<InterledgerAddressPrefix> prefixes = SyntheticRoutes.prefixes(tableSize + NUM_CHURN_ROUTES, 42L);
+
+    routingTable = new InMemoryRoutingTable<>();
+    for (int i = 0; i < tableSize; i++) {
+      routingTable.addRoute(SyntheticRoutes.route(prefixes.get(i), i));
+    }
+
+    churnRoutes = new Route[NUM_CHURN_ROUTES];
+    for (int i = 0; i < NUM_CHURN_ROUTES; i++) {
+      churnRoutes[i] = SyntheticRoutes.route(prefixes.get(tableSize + i), i);
+    }
+
+    hitDestinations = new InterledgerAddress[NUM_DESTINATIONS];
+    missDestinations = new InterledgerAddress[NUM_DESTINATIONS];
+    for (int i = 0; i < NUM_DESTINATIONS; i++) {
+      hitDestinations[i] = SyntheticRoutes.destinationUnder(prefixes.get((i * 7919) % tableSize), i);
+      missDestinations[i] = SyntheticRoutes.unroutableDestination(i);
+    }
+  }
+
+  @Benchmark
+  public Optional<Route> findNextHopRouteHit() {
+    return routingTable.findNextHopRoute(hitDestinations[randomIndex(NUM_DESTINATIONS)]);
+  }
+
+  @Benchmark
+  public Optional<Route> findNextHopRouteMiss() {
+    return routingTable.findNextHopRoute(missDestinations[randomIndex(NUM_DESTINATIONS)]);
+  }
+
+  @Benchmark
+  @Group("churnWithConcurrentReaders")
+  @GroupThreads(1)
+  public Optional<Route> addAndRemoveRoute() {
+    final Route route = churnRoutes[randomIndex(NUM_CHURN_ROUTES)];
+    routingTable.addRoute(route);
+    return routingTable.removeRoute(route.routePrefix());
+  }
+
+  @Benchmark
+  @Group("churnWithConcurrentReaders")
+  @GroupThreads(3)
+  public Optional<Route> findNextHopRouteDuringChurn(final ReaderCounters readerCounters) {
+    try {
+      return routingTable.findNextHopRoute(hitDestinations[randomIndex(NUM_DESTINATIONS)]);
+    } catch (ConcurrentModificationException e) {
+      // Lookups are not synchronized with writes, so a lookup can observe the trie mid-update. Count these rather than
+      // failing the run so that they show up in the results next to throughput.
+      readerCounters.concurrentModifications++;
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Per-thread counters reported alongside the throughput of {@link #findNextHopRouteDuringChurn(ReaderCounters)}.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class ReaderCounters {
+
+    public long concurrentModifications;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      concurrentModifications = 0;
+    }
+  }
+
+  private static int randomIndex(final int bound) {
+    return ThreadLocalRandom.current().nextInt(bound);
+  }
+}
@@ -0,0 +1,79 @@
+package org.interledger.connector.benchmarks.routing;
+
+import org.interledger.connector.routing.InterledgerAddressPrefixMap;
+import org.interledger.connector.routing.Route;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures longest-prefix-match throughput of {@link InterledgerAddressPrefixMap#findNextHop(InterledgerAddress)} for
+ * destinations that are present in the table (hits) and destinations that are not (misses). Misses are the worst case
+ * because the search walks all the way back to the root prefix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterledgerAddressPrefixMapBenchmark {
+
+  private static final int NUM_DESTINATIONS = 1024;
+
+  @Param( {"1000", "10000", "100000"})
+  public int tableSize;
+
+  private InterledgerAddressPrefixMap<Route> prefixMap;
+  private InterledgerAddress[] hitDestinations;
+  private InterledgerAddress[] missDestinations;
+  private int index;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    final List<InterledgerAddressPrefix> prefixes = SyntheticRoutes.prefixes(tableSize, 42L);
+
+    prefixMap = new InterledgerAddressPrefixMap<>();
+    for (int i = 0; i < prefixes.size(); i++) {
+      prefixMap.putEntry(prefixes.get(i), SyntheticRoutes.route(prefixes.get(i), i));
+    }
+
+    hitDestinations = new InterledgerAddress[NUM_DESTINATIONS];
+    missDestinations = new InterledgerAddress[NUM_DESTINATIONS];
+    for (int i = 0; i < NUM_DESTINATIONS; i++) {
+      hitDestinations[i] = SyntheticRoutes.destinationUnder(prefixes.get((i * 7919) % prefixes.size()), i);
+      missDestinations[i] = SyntheticRoutes.unroutableDestination(i);
+    }
+  }
+
+  @Benchmark
+  public Optional<Route> findNextHopHit() {
+    return prefixMap.findNextHop(hitDestinations[nextIndex()]);
+  }
+
+  @Benchmark
+  public Optional<Route> findNextHopMiss() {
+    return prefixMap.findNextHop(missDestinations[nextIndex()]);
+  }
+
+  private int nextIndex() {
+    index = (index + 1) & (NUM_DESTINATIONS - 1);
+    return index;
+  }
+}
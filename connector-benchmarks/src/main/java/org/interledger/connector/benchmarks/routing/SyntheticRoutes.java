@@ -0,0 +1,93 @@
+package org.interledger.connector.benchmarks.routing;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.routing.ImmutableRouteUpdate;
+import org.interledger.connector.routing.Route;
+import org.interledger.connector.routing.RouteUpdate;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates deterministic, synthetic routing data that resembles what a Connector learns from its peers: prefixes under
+ * a handful of global allocation schemes, 2 to 5 segments deep, with the deeper segments concentrated under a smaller
+ * number of large connectors.
+ */
+public final class SyntheticRoutes {
+
+  public static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("g.benchmark.connector");
+
+  private static final String[] ALLOCATION_SCHEMES = {"g", "test", "test1", "test2", "example"};
+  private static final String[] REGIONS = {"us", "eu", "ap", "sa", "af", "xrp", "eth", "btc"};
+  private static final int NUM_PEERS = 16;
+
+  private SyntheticRoutes() {
+  }
+
+  /**
+   * Generate {@code numPrefixes} distinct route prefixes.
+   *
+   * @param numPrefixes The number of prefixes to generate.
+   * @param seed        A seed so that every benchmark run uses the same table.
+   *
+   * @return A {@link List} of distinct {@link InterledgerAddressPrefix}.
+   */
+  public static List<InterledgerAddressPrefix> prefixes(final int numPrefixes, final long seed) {
+    final Random random = new Random(seed);
+    final Set<InterledgerAddressPrefix> prefixes = new LinkedHashSet<>(numPrefixes * 2);
+    while (prefixes.size() < numPrefixes) {
+      final StringBuilder prefix = new StringBuilder()
+        .append(ALLOCATION_SCHEMES[random.nextInt(ALLOCATION_SCHEMES.length)])
+        .append('.')
+        .append(REGIONS[random.nextInt(REGIONS.length)]);
+
+      // Depth of 2-5 segments, skewed towards 3 and 4 like real connector/account hierarchies.
+      final int depth = 2 + random.nextInt(2) + random.nextInt(2) + (random.nextInt(4) == 0 ? 1 : 0);
+      for (int segment = 2; segment < depth; segment++) {
+        // Earlier segments have fewer distinct values (connectors) than later ones (accounts).
+        prefix.append('.').append(segment == 2 ? "connector" : "account").append(random.nextInt(segment * 64));
+      }
+      prefixes.add(InterledgerAddressPrefix.of(prefix.toString()));
+    }
+    return new ArrayList<>(prefixes);
+  }
+
+  /**
+   * Build a destination address that falls under {@code prefix} (i.e., a routing-table hit).
+   */
+  public static InterledgerAddress destinationUnder(final InterledgerAddressPrefix prefix, final int index) {
+    return InterledgerAddress.of(prefix.getValue() + ".receiver" + index);
+  }
+
+  /**
+   * Build a destination address that cannot match any generated prefix (i.e., a routing-table miss).
+   */
+  public static InterledgerAddress unroutableDestination(final int index) {
+    return InterledgerAddress.of("private.unroutable.connector" + index + ".receiver" + index);
+  }
+
+  public static AccountId peerFor(final int index) {
+    return AccountId.of("peer" + (index % NUM_PEERS));
+  }
+
+  public static Route route(final InterledgerAddressPrefix prefix, final int index) {
+    return Route.builder()
+      .routePrefix(prefix)
+      .nextHopAccountId(peerFor(index))
+      .addPath(OPERATOR_ADDRESS, InterledgerAddress.of("g.benchmark." + peerFor(index).value()))
+      .build();
+  }
+
+  public static RouteUpdate routeUpdate(final InterledgerAddressPrefix prefix, final int index, final int epoch) {
+    return ImmutableRouteUpdate.builder()
+      .routePrefix(prefix)
+      .route(route(prefix, index))
+      .epoch(epoch)
+      .build();
+  }
+}
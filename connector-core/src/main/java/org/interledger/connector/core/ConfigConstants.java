@@ -37,8 +37,10 @@ public interface ConfigConstants {
   String INTERLEDGER__CONNECTOR__GLOBAL_ROUTING_SETTINGS = INTERLEDGER__CONNECTOR + DOT + "globalRoutingSettings";
   String INTERLEDGER__CONNECTOR__GLOBAL_ROUTING_SETTINGS__ROUTING_SECRET =
     INTERLEDGER__CONNECTOR__GLOBAL_ROUTING_SETTINGS + DOT + "routingSecret";
+  String ROUTE_INGESTION = INTERLEDGER__CONNECTOR + DOT + "routeIngestion";
   String ADMIN_PASSWORD = INTERLEDGER__CONNECTOR + DOT + "adminPassword";
   String FX_CACHE_TTL = INTERLEDGER__CONNECTOR + DOT + CACHE + DOT + "fxTtl";
+  String FX_STARTUP_CHECK_ENABLED = INTERLEDGER__CONNECTOR + DOT + "fx" + DOT + "startupCheckEnabled";
 
   ////////////////////
   // Enabled Protocols
@@ -61,6 +63,30 @@ public interface ConfigConstants {
 
   String LOCAL_SPSP_FULFILLMENT_ENABLED = "localSpspFulfillmentEnabled";
 
+  ////////////////////
+  // Links
+  ////////////////////
+  String LINKS = INTERLEDGER__CONNECTOR + DOT + "links";
+  String ADAPTIVE_CONCURRENCY_LIMIT = LINKS + DOT + "adaptiveConcurrencyLimit";
+  String LINK_CACHE = LINKS + DOT + "cache";
+  String LINK_PREWARM = LINKS + DOT + "prewarm";
+
+  ////////////////////
+  // Metrics
+  ////////////////////
+  String METRICS = INTERLEDGER__CONNECTOR + DOT + "metrics";
+  String METRICS__PACKET_STAGE_TIMING = METRICS + DOT + "packetStageTiming";
+  String METRICS__PACKET_COUNTERS = METRICS + DOT + "packetCounters";
+  String METRICS__PACKET_TRACES = METRICS + DOT + "packetTraces";
+
+  ////////////////////
+  // ILP-over-HTTP
+  ////////////////////
+  String ILP_OVER_HTTP = INTERLEDGER__CONNECTOR + DOT + "ilpOverHttp";
+  String ILP_OVER_HTTP__NETTY_INGRESS = ILP_OVER_HTTP + DOT + "nettyIngress";
+  String ILP_OVER_HTTP__AUTH_PREWARM = ILP_OVER_HTTP + DOT + "authPrewarm";
+  String ILP_OVER_HTTP__ADMISSION = ILP_OVER_HTTP + DOT + "admission";
+
   ////////////////////
   // SPSP
   ////////////////////
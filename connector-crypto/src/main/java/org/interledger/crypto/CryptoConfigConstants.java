@@ -17,6 +17,19 @@ public class CryptoConfigConstants {
   public static final String INTERLEDGER_CONNECTOR_KEYSTORE_LOCATION_ID = INTERLEDGER_CONNECTOR_KEYSTORE_GCP + ".locationId";
   public static final String INTERLEDGER_CONNECTOR_KEYSTORE_KEYRING_ID = INTERLEDGER_CONNECTOR_KEYSTORE_GCP + ".keyringId";
 
+  ///////////////
+  // Decryption Cache
+  ///////////////
+
+  public static final String INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE =
+    INTERLEDGER_CONNECTOR_KEYSTORE + ".decryptionCache";
+  public static final String INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE_ENABLED =
+    INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE + DOT + ENABLED;
+  public static final String INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE_TTL =
+    INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE + ".ttl";
+  public static final String INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE_MAXIMUM_SIZE =
+    INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE + ".maximumSize";
+
   ///////////////
   // JKS
   ///////////////
@@ -0,0 +1,144 @@
+package org.interledger.crypto.impl;
+
+import org.interledger.crypto.EncryptedSecret;
+import org.interledger.crypto.EncryptionAlgorithm;
+import org.interledger.crypto.EncryptionService;
+import org.interledger.crypto.KeyMetadata;
+import org.interledger.crypto.KeyStoreType;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import javax.annotation.PreDestroy;
+
+/**
+ * <p>An {@link EncryptionService} that caches decrypted secrets for a short, fixed duration so that repeatedly
+ * decrypting the same {@link EncryptedSecret} (e.g., when links are created or when authentication decisions expire)
+ * isn't bound by the latency of the underlying service, which for a KMS is a network round-trip.</p>
+ *
+ * <p>Every caller receives its own copy of a decrypted secret, so callers can (and should) wipe it after use, as
+ * {@link #withDecrypted} does. The cached copy is overwritten with zeros as soon as it expires or is evicted, so a
+ * decrypted secret is held in memory for at most the configured time-to-live. Encryption is not cached.</p>
+ *
+ * <p>Hit and miss counts are recorded, and are available from {@link #getDecryptedSecrets()}.</p>
+ */
+public class CachingEncryptionService implements EncryptionService {
+
+  private final EncryptionService delegate;
+  private final Cache<EncryptedSecret, DecryptedSecret> decryptedSecrets;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param delegate    The {@link EncryptionService} that actually decrypts secrets.
+   * @param timeToLive  The maximum amount of time that a decrypted secret is cached for.
+   * @param maximumSize The maximum number of decrypted secrets to cache.
+   */
+  public CachingEncryptionService(
+    final EncryptionService delegate, final Duration timeToLive, final long maximumSize
+  ) {
+    this.delegate = Objects.requireNonNull(delegate);
+    this.decryptedSecrets = Caffeine.newBuilder()
+      .recordStats()
+      .maximumSize(maximumSize)
+      .expireAfterWrite(Objects.requireNonNull(timeToLive))
+      // Wipe on the thread that evicts the entry, rather than whenever a background task gets around to it.
+      .executor(Runnable::run)
+      .removalListener((RemovalListener<EncryptedSecret, DecryptedSecret>)
+        (encryptedSecret, decryptedSecret, cause) -> {
+          if (decryptedSecret != null) {
+            decryptedSecret.destroy();
+          }
+        })
+      .build();
+  }
+
+  @Override
+  public KeyStoreType keyStoreType() {
+    return delegate.keyStoreType();
+  }
+
+  @Override
+  public EncryptedSecret encrypt(KeyMetadata keyMetadata, EncryptionAlgorithm encryptionAlgorithm, byte[] plainText) {
+    return delegate.encrypt(keyMetadata, encryptionAlgorithm, plainText);
+  }
+
+  @Override
+  public byte[] decrypt(final EncryptedSecret encryptedSecret) {
+    Objects.requireNonNull(encryptedSecret);
+
+    // Concurrent misses for the same secret wait for a single call to the delegate.
+    final byte[] decrypted = decryptedSecrets.get(encryptedSecret, (secret) -> new DecryptedSecret(
+      delegate.decrypt(secret.keyMetadata(), secret.encryptionAlgorithm(), secret.cipherMessage())
+    )).copy();
+    if (decrypted != null) {
+      return decrypted;
+    }
+    // The cached secret was wiped between being looked up and being copied, so don't use the cache this time.
+    return delegate.decrypt(encryptedSecret);
+  }
+
+  @Override
+  public byte[] decrypt(KeyMetadata keyMetadata, EncryptionAlgorithm encryptionAlgorithm, byte[] cipherMessage) {
+    return decrypt(EncryptedSecret.builder()
+      .keyMetadata(keyMetadata)
+      .encryptionAlgorithm(encryptionAlgorithm)
+      .cipherMessage(cipherMessage)
+      .build());
+  }
+
+  /**
+   * Remove every decrypted secret from the cache, wiping each of them. Called on shutdown, so that cached secrets don't
+   * outlive this service.
+   */
+  @PreDestroy
+  public void invalidateAll() {
+    decryptedSecrets.invalidateAll();
+    decryptedSecrets.cleanUp();
+  }
+
+  /**
+   * Accessor for the underlying cache, so that its statistics can be published as metrics.
+   *
+   * @return The {@link Cache} of decrypted secrets.
+   */
+  public Cache<EncryptedSecret, DecryptedSecret> getDecryptedSecrets() {
+    return decryptedSecrets;
+  }
+
+  /**
+   * A decrypted secret that can only be read until it is destroyed, at which point it's overwritten with zeros.
+   */
+  public static final class DecryptedSecret {
+
+    private final byte[] value;
+    private boolean destroyed;
+
+    private DecryptedSecret(final byte[] value) {
+      this.value = Objects.requireNonNull(value);
+    }
+
+    /**
+     * Copy this secret.
+     *
+     * @return A copy of this secret, or {@code null} if it has already been destroyed.
+     */
+    synchronized byte[] copy() {
+      return destroyed ? null : Arrays.copyOf(value, value.length);
+    }
+
+    synchronized void destroy() {
+      Arrays.fill(value, (byte) 0);
+      destroyed = true;
+    }
+
+    @Override
+    public String toString() {
+      return "DecryptedSecret{value=[redacted]}";
+    }
+  }
+}
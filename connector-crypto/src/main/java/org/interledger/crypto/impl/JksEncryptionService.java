@@ -31,6 +31,16 @@ public class JksEncryptionService implements EncryptionService {
 
   private static final String CIPHER_ALGO = "AES/GCM/NoPadding";
 
+  // Cipher.getInstance performs a provider lookup, so each thread reuses its own instance (which is re-initialized
+  // with a fresh IV for every operation). Ciphers aren't thread-safe, so they can't be shared between threads.
+  private static final ThreadLocal<Cipher> CIPHERS = ThreadLocal.withInitial(() -> {
+    try {
+      return Cipher.getInstance(CIPHER_ALGO);
+    } catch (NoSuchAlgorithmException | NoSuchPaddingException e) {
+      throw new EncryptionException("Unable to create Cipher: ", e);
+    }
+  });
+
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final SecureRandom secureRandom;
@@ -73,7 +83,7 @@ public class JksEncryptionService implements EncryptionService {
 
     // See https://proandroiddev.com/security-best-practices-symmetric-encryption-with-aes-in-java-7616beaaade9
     try {
-      Cipher cipher = Cipher.getInstance(CIPHER_ALGO);
+      Cipher cipher = CIPHERS.get();
       // 128 is the recommended authentication tag length for GCM . More info can be found in pdf mentioned above
       final GCMParameterSpec parameterSpec = new GCMParameterSpec(128, iv);
       cipher.init(Cipher.ENCRYPT_MODE, secretKey, parameterSpec);
@@ -96,8 +106,8 @@ public class JksEncryptionService implements EncryptionService {
         .encryptionAlgorithm(EncryptionAlgorithm.AES_GCM)
         .cipherMessage(cipherMessage)
         .build();
-    } catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidAlgorithmParameterException |
-      InvalidKeyException | BadPaddingException | IllegalBlockSizeException e) {
+    } catch (InvalidAlgorithmParameterException | InvalidKeyException | BadPaddingException |
+      IllegalBlockSizeException e) {
       throw new EncryptionException("Unable to Encrypt: ", e);
     }
   }
@@ -120,7 +130,7 @@ public class JksEncryptionService implements EncryptionService {
       byte[] cipherText = new byte[byteBuffer.remaining()];
       byteBuffer.get(cipherText);
 
-      final Cipher cipher = Cipher.getInstance(CIPHER_ALGO);
+      final Cipher cipher = CIPHERS.get();
       cipher.init(Cipher.DECRYPT_MODE, secretKey, new GCMParameterSpec(128, iv));
       byte[] plainText = cipher.doFinal(cipherText);
       return plainText;
@@ -0,0 +1,104 @@
+package org.interledger.crypto.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.crypto.EncryptedSecret;
+import org.interledger.crypto.EncryptionService;
+import org.interledger.crypto.KeyStoreType;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.time.Duration;
+
+/**
+ * Unit tests for {@link CachingEncryptionService}.
+ */
+public class CachingEncryptionServiceTest {
+
+  private static final EncryptedSecret SECRET = EncryptedSecret.fromEncodedValue("enc:gcpkms:ring:bar:1:gs:AAAA");
+  private static final EncryptedSecret OTHER_SECRET = EncryptedSecret.fromEncodedValue("enc:gcpkms:ring:bar:1:gs:BBBB");
+
+  @Rule
+  public MockitoRule mockitoJUnit = MockitoJUnit.rule();
+
+  @Mock
+  private EncryptionService delegate;
+
+  private byte[] decrypted;
+  private CachingEncryptionService cachingEncryptionService;
+
+  @Before
+  public void setUp() {
+    decrypted = "shh".getBytes();
+    when(delegate.keyStoreType()).thenReturn(KeyStoreType.GCP);
+    when(delegate.decrypt(SECRET.keyMetadata(), SECRET.encryptionAlgorithm(), SECRET.cipherMessage()))
+      .thenReturn(decrypted);
+    when(delegate.decrypt(OTHER_SECRET.keyMetadata(), OTHER_SECRET.encryptionAlgorithm(), OTHER_SECRET.cipherMessage()))
+      .thenReturn("other".getBytes());
+    cachingEncryptionService = new CachingEncryptionService(delegate, Duration.ofMinutes(5), 10);
+  }
+
+  @Test
+  public void keyStoreType() {
+    assertThat(cachingEncryptionService.keyStoreType()).isEqualTo(KeyStoreType.GCP);
+  }
+
+  @Test
+  public void decryptIsCached() {
+    assertThat(cachingEncryptionService.decrypt(SECRET)).isEqualTo("shh".getBytes());
+    assertThat(cachingEncryptionService.decrypt(SECRET.keyMetadata(), SECRET.encryptionAlgorithm(),
+      SECRET.cipherMessage())).isEqualTo("shh".getBytes());
+    assertThat(cachingEncryptionService.decrypt(OTHER_SECRET)).isEqualTo("other".getBytes());
+
+    verify(delegate, times(1)).decrypt(SECRET.keyMetadata(), SECRET.encryptionAlgorithm(), SECRET.cipherMessage());
+    assertThat(cachingEncryptionService.getDecryptedSecrets().stats().hitCount()).isEqualTo(1);
+    assertThat(cachingEncryptionService.getDecryptedSecrets().stats().missCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void callersCanWipeTheirCopy() {
+    assertThat(cachingEncryptionService.<String>withDecrypted(SECRET, bytes -> new String(bytes))).isEqualTo("shh");
+    assertThat(cachingEncryptionService.isEqualDecrypted(SECRET, "shh".getBytes())).isTrue();
+    assertThat(cachingEncryptionService.decrypt(SECRET)).isEqualTo("shh".getBytes());
+  }
+
+  @Test
+  public void evictedSecretsAreWiped() {
+    cachingEncryptionService.decrypt(SECRET);
+
+    cachingEncryptionService.invalidateAll();
+
+    assertThat(decrypted).containsOnly(0);
+    assertThat(cachingEncryptionService.getDecryptedSecrets().estimatedSize()).isZero();
+  }
+
+  @Test
+  public void expiredSecretsAreWiped() throws InterruptedException {
+    cachingEncryptionService = new CachingEncryptionService(delegate, Duration.ofMillis(1), 10);
+    cachingEncryptionService.decrypt(SECRET);
+
+    Thread.sleep(10);
+    cachingEncryptionService.getDecryptedSecrets().cleanUp();
+
+    assertThat(decrypted).containsOnly(0);
+  }
+
+  @Test
+  public void encryptIsNotCached() {
+    when(delegate.encrypt(any(), any(), any())).thenReturn(SECRET);
+
+    cachingEncryptionService.encrypt(SECRET.keyMetadata(), SECRET.encryptionAlgorithm(), "shh".getBytes());
+    cachingEncryptionService.encrypt(SECRET.keyMetadata(), SECRET.encryptionAlgorithm(), "shh".getBytes());
+
+    verify(delegate, times(2)).encrypt(any(), any(), any());
+  }
+}
@@ -0,0 +1,69 @@
+package org.interledger.crypto.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.crypto.ByteArrayUtils;
+import org.interledger.crypto.EncryptedSecret;
+import org.interledger.crypto.EncryptionAlgorithm;
+import org.interledger.crypto.KeyMetadata;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Unit tests for {@link JksEncryptionService}.
+ */
+public class JksEncryptionServiceTest {
+
+  private static final KeyMetadata KEY_METADATA = KeyMetadata.builder()
+    .platformIdentifier("jks")
+    .keyringIdentifier("crypto.p12")
+    .keyIdentifier("secret0")
+    .keyVersion("1")
+    .build();
+
+  private JksEncryptionService encryptionService;
+
+  @Before
+  public void setUp() throws NoSuchAlgorithmException {
+    encryptionService = new JksEncryptionService(new SecretKeySpec(ByteArrayUtils.generate32RandomBytes(), "AES"));
+  }
+
+  @Test
+  public void encryptAndDecryptRepeatedly() {
+    for (int i = 0; i < 10; i++) {
+      final byte[] plainText = ("secret" + i).getBytes();
+      final EncryptedSecret encryptedSecret =
+        encryptionService.encrypt(KEY_METADATA, EncryptionAlgorithm.AES_GCM, plainText);
+      assertThat(encryptionService.decrypt(encryptedSecret)).isEqualTo(plainText);
+    }
+  }
+
+  @Test
+  public void encryptAndDecryptConcurrently() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      final List<Future<Boolean>> results = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        final byte[] plainText = ("secret" + i).getBytes();
+        results.add(executor.submit(() -> encryptionService.isEqualDecrypted(
+          encryptionService.encrypt(KEY_METADATA, EncryptionAlgorithm.AES_GCM, plainText), plainText
+        )));
+      }
+      for (Future<Boolean> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS)).isTrue();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,294 @@
+package org.interledger.connector.it.topologies.chain;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountRelationship;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.core.ConfigConstants;
+import org.interledger.connector.it.topologies.AbstractTopology;
+import org.interledger.connector.it.topology.AbstractBaseTopology;
+import org.interledger.connector.it.topology.Topology;
+import org.interledger.connector.it.topology.nodes.ConnectorServerNode;
+import org.interledger.connector.routing.StaticRoute;
+import org.interledger.connector.server.ConnectorServer;
+import org.interledger.connector.settings.ConnectorSettings;
+import org.interledger.connector.settings.EnabledFeatureSettings;
+import org.interledger.connector.settings.EnabledProtocolSettings;
+import org.interledger.connector.settings.GlobalRoutingSettings;
+import org.interledger.connector.settings.ImmutableConnectorSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.link.http.IlpOverHttpLink;
+import org.interledger.link.http.IlpOverHttpLinkSettings;
+import org.interledger.link.http.IncomingLinkSettings;
+import org.interledger.link.http.OutgoingLinkSettings;
+
+import com.google.common.primitives.UnsignedLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>A topology of {@code N} Connectors peered one after the other, all running in this JVM, for measuring how much
+ * latency each Connector adds to a packet (and how many packets a chain of Connectors can switch).</p>
+ *
+ * <p>Unlike the other topologies, this one needs no external services: every Connector uses its own in-memory H2
+ * database, falls back to the in-memory balance tracker because there is no Redis, and talks to its neighbours using
+ * ILP-over-HTTP on a random local port.</p>
+ *
+ * <p>Nodes in this topology are connected as follows:</p>
+ *
+ * <pre>
+ * ┌──────────┐               ┌──────────┐               ┌──────────┐               ┌─────────────┐
+ * │  Sender  ├─Ilp-over-Http─▷ test.c0  ├─Ilp-over-Http─▷ test.c1  ├─Ilp-over-Http─▷ test.c{N-1} │
+ * └──────────┘               └──────────┘               └──────────┘      ···      └─────────────┘
+ * </pre>
+ *
+ * <p>Every Connector can be pinged, and routes packets for any Connector after it to its next peer. The last
+ * Connector also fulfills STREAM payments addressed to {@code test.c{N-1}.spsp.receiver}. The first Connector accepts
+ * at most {@link #SENDER_MAX_PACKET_AMOUNT} per packet from the sender, so that STREAM payments are split into many
+ * packets.</p>
+ */
+public class ConnectorChainTopology extends AbstractTopology {
+
+  public static final int MIN_CONNECTORS = 2;
+  public static final int MAX_CONNECTORS = 10;
+
+  public static final AccountId SENDER_ACCOUNT = AccountId.of("sender");
+  public static final AccountId RECEIVER_ACCOUNT = AccountId.of("receiver");
+  public static final UnsignedLong SENDER_MAX_PACKET_AMOUNT = UnsignedLong.valueOf(1000);
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorChainTopology.class);
+
+  /**
+   * Construct a chain of {@code numConnectors} Connectors.
+   *
+   * @param numConnectors The number of Connectors in the chain (between {@link #MIN_CONNECTORS} and {@link
+   *                      #MAX_CONNECTORS}).
+   *
+   * @return The {@link Topology} of accounts and connectors.
+   */
+  public static Topology init(final int numConnectors) {
+    if (numConnectors < MIN_CONNECTORS || numConnectors > MAX_CONNECTORS) {
+      throw new IllegalArgumentException(String.format(
+        "numConnectors must be between %s and %s", MIN_CONNECTORS, MAX_CONNECTORS
+      ));
+    }
+
+    // Accounts can only be configured _after_ the topology starts, once every Connector's port is known.
+    final Topology topology = new Topology(ConnectorChainTopology.class.getSimpleName(),
+      new AbstractBaseTopology.PostConstructListener<Topology>() {
+        @Override
+        protected void doAfterTopologyStartup(Topology g) {
+          for (int i = 0; i < numConnectors; i++) {
+            final ConnectorServerNode node = g.getNode(connectorAddress(i).getValue(), ConnectorServerNode.class);
+            node.getILPv4Connector().getAccountSettingsRepository().deleteAll();
+            node.getILPv4Connector().getAccountManager().createAccount(constructPingAccountSettings());
+          }
+
+          final ConnectorServerNode firstNode =
+            g.getNode(connectorAddress(0).getValue(), ConnectorServerNode.class);
+          firstNode.getILPv4Connector().getAccountManager()
+            .createAccount(constructSenderAccountSettings(firstNode.getPort()));
+
+          final ConnectorServerNode lastNode =
+            g.getNode(connectorAddress(numConnectors - 1).getValue(), ConnectorServerNode.class);
+          lastNode.getILPv4Connector().getAccountManager().createAccount(constructReceiverAccountSettings());
+
+          // Peer each Connector with the next one...
+          for (int i = 0; i < numConnectors - 1; i++) {
+            final ConnectorServerNode node = g.getNode(connectorAddress(i).getValue(), ConnectorServerNode.class);
+            final ConnectorServerNode nextNode =
+              g.getNode(connectorAddress(i + 1).getValue(), ConnectorServerNode.class);
+
+            final AccountSettings nextPeerAccountSettings = constructPeerAccountSettings(
+              connectorName(i), connectorName(i + 1), nextNode.getPort()
+            );
+            node.getILPv4Connector().getAccountManager().createAccount(nextPeerAccountSettings);
+            nextNode.getILPv4Connector().getAccountManager().createAccount(
+              constructPeerAccountSettings(connectorName(i + 1), connectorName(i), node.getPort())
+            );
+
+            // Connect the link up-front so its construction isn't measured...
+            node.getILPv4Connector().getLinkManager().getOrCreateLink(nextPeerAccountSettings);
+          }
+        }
+      });
+
+    for (int i = 0; i < numConnectors; i++) {
+      final ConnectorServer server = new ConnectorServer(constructConnectorSettings(i, numConnectors));
+      server.setPort(0);
+      useH2(server, connectorName(i));
+      if (i == numConnectors - 1) {
+        server.setProperty(
+          ConfigConstants.ENABLED_FEATURES + DOT + ConfigConstants.LOCAL_SPSP_FULFILLMENT_ENABLED, ConfigConstants.TRUE
+        );
+        // STREAM receivers need a 32-byte server secret (the property's default is empty).
+        server.setProperty(ConfigConstants.SPSP__SERVER_SECRET, Base64.getEncoder().encodeToString(new byte[32]));
+      }
+      topology.addNode(connectorAddress(i),
+        new ConnectorServerNode(connectorName(i), server, constructStaticRoutes(i, numConnectors)));
+    }
+
+    final StringBuilder chain = new StringBuilder("sender");
+    for (int i = 0; i < numConnectors; i++) {
+      chain.append(" ─▷ ").append(connectorAddress(i).getValue());
+    }
+    LOGGER.info("\n\nSTARTING {}-CONNECTOR CHAIN TOPOLOGY\n{}\n", numConnectors, chain);
+    return topology;
+  }
+
+  /**
+   * The name of the {@code index}th Connector in the chain, which is also the account identifier of that Connector at
+   * its peers.
+   */
+  public static String connectorName(final int index) {
+    return "c" + index;
+  }
+
+  /**
+   * The operator address of the {@code index}th Connector in the chain.
+   */
+  public static InterledgerAddress connectorAddress(final int index) {
+    return InterledgerAddress.of(TEST + DOT + connectorName(index));
+  }
+
+  /**
+   * Each Connector gets its own in-memory H2 database (Connectors sharing one would see each other's accounts).
+   */
+  private static void useH2(final ConnectorServer connectorServer, final String databaseName) {
+    connectorServer.setProperty("spring.profiles.include", "h2-in-memory, migrate");
+    connectorServer.setProperty(
+      "spring.datasource.url", "jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+    );
+    connectorServer.setProperty("spring.jpa.database-platform", "org.hibernate.dialect.H2Dialect");
+    // Every account uses XRP, so there's no need to reach the FX rate provider at startup.
+    connectorServer.setProperty(ConfigConstants.FX_STARTUP_CHECK_ENABLED, ConfigConstants.FALSE);
+    // Logging every packet would dominate the latency being measured.
+    connectorServer.setProperty("logging.level.org.interledger", "WARN");
+  }
+
+  private static ConnectorSettings constructConnectorSettings(final int index, final int numConnectors) {
+    return ImmutableConnectorSettings.builder()
+      .operatorAddress(connectorAddress(index))
+      .enabledFeatures(EnabledFeatureSettings.builder()
+        .isRequire32ByteSharedSecrets(false)
+        .isLocalSpspFulfillmentEnabled(index == numConnectors - 1)
+        .build())
+      .enabledProtocols(EnabledProtocolSettings.builder()
+        .isIlpOverHttpEnabled(true)
+        .isPingProtocolEnabled(true)
+        .isPeerRoutingEnabled(false)
+        .isIldcpEnabled(false)
+        .build())
+      .globalPrefix(InterledgerAddressPrefix.TEST)
+      .globalRoutingSettings(GlobalRoutingSettings.builder()
+        //A simulated routing secret, which is a seed used for generating routing table auth values. Represents the
+        // plaintext value of `shh`, encrypted.
+        .routingSecret(ENCRYPTED_SHH)
+        .build()
+      )
+      .build();
+  }
+
+  /**
+   * Packets for any Connector after {@code index} in the chain are routed to the next Connector.
+   */
+  private static Set<StaticRoute> constructStaticRoutes(final int index, final int numConnectors) {
+    final Set<StaticRoute> staticRoutes = new HashSet<>();
+    for (int downstream = index + 1; downstream < numConnectors; downstream++) {
+      staticRoutes.add(StaticRoute.builder()
+        .routePrefix(InterledgerAddressPrefix.from(connectorAddress(downstream)))
+        .nextHopAccountId(AccountId.of(connectorName(index + 1)))
+        .build());
+    }
+    return staticRoutes;
+  }
+
+  /**
+   * An AccountSettings object that represents {@code peerName}'s account on {@code ownName}.
+   *
+   * @param ownName  The name of the Connector the account is on.
+   * @param peerName The name of the peer Connector that the account represents.
+   * @param peerPort The port that the peer Connector listens on.
+   */
+  private static AccountSettings constructPeerAccountSettings(
+    final String ownName, final String peerName, final int peerPort
+  ) {
+    return AccountSettings.builder()
+      .accountId(AccountId.of(peerName))
+      .description("ILP-over-HTTP account for " + peerName)
+      .accountRelationship(AccountRelationship.PEER)
+      .linkType(IlpOverHttpLink.LINK_TYPE)
+      .assetScale(9)
+      .assetCode(XRP)
+
+      // Incoming
+      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_AUTH_TYPE, IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
+      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_TOKEN_SUBJECT, peerName)
+      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_SHARED_SECRET, ENCRYPTED_SHH)
+
+      // Outgoing
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_AUTH_TYPE, IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_TOKEN_SUBJECT, ownName)
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_SHARED_SECRET, ENCRYPTED_SHH)
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_TOKEN_EXPIRY, EXPIRY_2MIN)
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_URL, createOutgoingLinkUrl(peerPort, AccountId.of(ownName)))
+
+      .build();
+  }
+
+  /**
+   * An AccountSettings object that represents the sender's account on the first Connector. The link for this account
+   * sends packets to the first Connector as the sender.
+   *
+   * @param port The port that the first Connector listens on.
+   */
+  private static AccountSettings constructSenderAccountSettings(final int port) {
+    return AccountSettings.builder()
+      .accountId(SENDER_ACCOUNT)
+      .description("ILP-over-HTTP account for the sender")
+      .accountRelationship(AccountRelationship.CHILD)
+      .linkType(IlpOverHttpLink.LINK_TYPE)
+      .assetScale(9)
+      .assetCode(XRP)
+      .maximumPacketAmount(SENDER_MAX_PACKET_AMOUNT)
+
+      // Incoming
+      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_AUTH_TYPE, IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
+      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_TOKEN_SUBJECT, SENDER_ACCOUNT.value())
+      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_SHARED_SECRET, ENCRYPTED_SHH)
+
+      // Outgoing
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_AUTH_TYPE, IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_TOKEN_SUBJECT, SENDER_ACCOUNT.value())
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_SHARED_SECRET, ENCRYPTED_SHH)
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_URL, createOutgoingLinkUrl(port, SENDER_ACCOUNT))
+
+      .build();
+  }
+
+  /**
+   * An AccountSettings object that represents the receiver of STREAM payments on the last Connector. Packets for this
+   * account are fulfilled by the Connector's SPSP receiver, so its link is never used.
+   */
+  private static AccountSettings constructReceiverAccountSettings() {
+    return AccountSettings.builder()
+      .accountId(RECEIVER_ACCOUNT)
+      .description("The receiver of STREAM payments")
+      .accountRelationship(AccountRelationship.CHILD)
+      .linkType(IlpOverHttpLink.LINK_TYPE)
+      .assetScale(9)
+      .assetCode(XRP)
+      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_AUTH_TYPE, IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
+      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_TOKEN_SUBJECT, RECEIVER_ACCOUNT.value())
+      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_SHARED_SECRET, ENCRYPTED_SHH)
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_AUTH_TYPE, IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_TOKEN_SUBJECT, RECEIVER_ACCOUNT.value())
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_SHARED_SECRET, ENCRYPTED_SHH)
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_URL, "https://example.com/receiver")
+      .build();
+  }
+}
@@ -1,5 +1,6 @@
 package org.interledger.connector.it.topologies.ilpoverhttp;
 
+import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountRateLimitSettings;
 import org.interledger.connector.accounts.AccountRelationship;
 import org.interledger.connector.accounts.AccountSettings;
@@ -192,9 +193,24 @@ public class TwoConnectorPeerIlpOverHttpTopology extends AbstractTopology {
    * not require any incoming connection settings.
    */
   private static AccountSettings constructPaulAccountSettingsOnAlice(final Denomination denomination, int alicePort) {
+    return constructSenderAccountSettingsOnAlice(PAUL_ACCOUNT, denomination, alicePort);
+  }
+
+  /**
+   * An AccountSettings object that represents a sender's account at Alice, like Paul's. The link for this account at
+   * Alice sends packets to Alice as this account, so it can be used to send packets from as many accounts as needed
+   * (e.g., for load tests).
+   *
+   * @param accountId    The {@link AccountId} of the sender's account.
+   * @param denomination The {@link Denomination} of the sender's account.
+   * @param alicePort    The port that Alice's server listens on.
+   */
+  public static AccountSettings constructSenderAccountSettingsOnAlice(
+    final AccountId accountId, final Denomination denomination, final int alicePort
+  ) {
     return AccountSettings.builder()
-      .accountId(PAUL_ACCOUNT)
-      .description("ILP-over-HTTP sender account for Paul")
+      .accountId(accountId)
+      .description("ILP-over-HTTP sender account for " + accountId.value())
       .accountRelationship(AccountRelationship.CHILD)
       .linkType(IlpOverHttpLink.LINK_TYPE)
       .assetScale(denomination.assetScale())
@@ -202,15 +218,15 @@ public class TwoConnectorPeerIlpOverHttpTopology extends AbstractTopology {
 
       // Incoming
       .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_AUTH_TYPE, IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
-      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_TOKEN_SUBJECT, PAUL)
+      .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_TOKEN_SUBJECT, accountId.value())
       .putCustomSettings(IncomingLinkSettings.HTTP_INCOMING_SHARED_SECRET, ENCRYPTED_SHH)
 
       // Outgoing settings needed by testPing
       .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_AUTH_TYPE, IlpOverHttpLinkSettings.AuthType.JWT_HS_256)
-      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_TOKEN_SUBJECT, PAUL)
+      .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_TOKEN_SUBJECT, accountId.value())
       .putCustomSettings(OutgoingLinkSettings.HTTP_OUTGOING_SHARED_SECRET, ENCRYPTED_SHH)
       .putCustomSettings(
-        OutgoingLinkSettings.HTTP_OUTGOING_URL, createOutgoingLinkUrl(alicePort, PAUL_ACCOUNT)
+        OutgoingLinkSettings.HTTP_OUTGOING_URL, createOutgoingLinkUrl(alicePort, accountId)
       )
 
       .build();
@@ -1,5 +1,7 @@
 package org.interledger.connector.it;
 
+import org.interledger.connector.it.chain.ConnectorChainHopLatencyIT;
+import org.interledger.connector.it.ilpoverhttp.TwoConnectorIlpOverHttpLoadTestIT;
 import org.interledger.connector.it.ilpoverhttp.TwoConnectorIlpOverHttpPingTestIT;
 import org.interledger.connector.it.markers.Performance;
 import org.junit.experimental.categories.Categories;
@@ -11,6 +13,10 @@ import org.junit.runners.Suite;
  */
 @RunWith(Categories.class)
 @Categories.IncludeCategory(Performance.class)
-@Suite.SuiteClasses({TwoConnectorIlpOverHttpPingTestIT.class}) // Note that Categories is a kind of Suite
+@Suite.SuiteClasses({
+  TwoConnectorIlpOverHttpPingTestIT.class,
+  TwoConnectorIlpOverHttpLoadTestIT.class,
+  ConnectorChainHopLatencyIT.class
+}) // Note that Categories is a kind of Suite
 public class PerformanceTestSuite {
 }
@@ -0,0 +1,321 @@
+package org.interledger.connector.it.chain;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.interledger.connector.core.ConfigConstants.ADMIN_PASSWORD;
+import static org.interledger.connector.core.ConfigConstants.DOT;
+import static org.interledger.connector.core.ConfigConstants.INTERLEDGER__CONNECTOR__GLOBAL_ROUTING_SETTINGS__ROUTING_SECRET;
+import static org.interledger.connector.it.topologies.AbstractTopology.XRP;
+import static org.interledger.connector.it.topologies.chain.ConnectorChainTopology.RECEIVER_ACCOUNT;
+import static org.interledger.connector.it.topologies.chain.ConnectorChainTopology.SENDER_ACCOUNT;
+import static org.interledger.connector.it.topologies.chain.ConnectorChainTopology.SENDER_MAX_PACKET_AMOUNT;
+import static org.interledger.connector.it.topologies.chain.ConnectorChainTopology.connectorAddress;
+import static org.interledger.crypto.CryptoConfigConstants.INTERLEDGER_CONNECTOR_KEYSTORE_JKS_ENABLED;
+import static org.interledger.crypto.CryptoConfigConstants.INTERLEDGER_CONNECTOR_KEYSTORE_JKS_FILENAME;
+import static org.interledger.crypto.CryptoConfigConstants.INTERLEDGER_CONNECTOR_KEYSTORE_JKS_PASSWORD;
+import static org.interledger.crypto.CryptoConfigConstants.INTERLEDGER_CONNECTOR_KEYSTORE_JKS_SECRET0_ALIAS;
+import static org.interledger.crypto.CryptoConfigConstants.INTERLEDGER_CONNECTOR_KEYSTORE_JKS_SECRET0_PASSWORD;
+
+import org.interledger.connector.core.ConfigConstants;
+import org.interledger.connector.it.markers.Performance;
+import org.interledger.connector.it.topologies.chain.ConnectorChainTopology;
+import org.interledger.connector.it.topology.Topology;
+import org.interledger.connector.it.topology.nodes.ConnectorServerNode;
+import org.interledger.connector.link.CircuitBreakingLink;
+import org.interledger.connector.ping.DefaultPingInitiator;
+import org.interledger.connector.ping.PingInitiator;
+import org.interledger.connector.server.spring.settings.javamoney.SpringServiceProvider;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.Link;
+import org.interledger.spsp.StreamConnectionDetails;
+import org.interledger.stream.Denomination;
+import org.interledger.stream.SendMoneyRequest;
+import org.interledger.stream.SendMoneyResult;
+import org.interledger.stream.receiver.ServerSecretSupplier;
+import org.interledger.stream.receiver.SpspStreamConnectionGenerator;
+import org.interledger.stream.sender.FixedSenderAmountPaymentTracker;
+import org.interledger.stream.sender.SimpleStreamSender;
+
+import com.google.common.primitives.UnsignedLong;
+import org.HdrHistogram.Histogram;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import javax.money.spi.Bootstrap;
+
+/**
+ * Sends pings and STREAM payments along a {@link ConnectorChainTopology} and records how much latency each additional
+ * Connector adds to a packet, and how many packets per second the whole chain can switch.
+ *
+ * <p>Every Connector in the chain runs in this JVM without any external services, so these tests can run on any
+ * machine (e.g., on every CI build) and catch regressions in the per-packet overhead of the Connector. Absolute
+ * numbers include the cost of ILP-over-HTTP on the loopback interface, so compare results from the same machine.</p>
+ *
+ * <p>Every run is tunable using system properties (see the constants in this class), and its artifacts are written to
+ * {@code target/chain-results/<runId>} (by default, the time the run started), so that results from different
+ * versions of the Connector can be compared.</p>
+ */
+@Category(Performance.class)
+public class ConnectorChainHopLatencyIT {
+
+  private static final String PROPERTY_PREFIX = "ilp.chain.";
+  private static final String RESULTS_DIR = PROPERTY_PREFIX + "resultsDir";
+  private static final String RUN_ID = PROPERTY_PREFIX + "runId";
+  private static final String CONNECTORS = PROPERTY_PREFIX + "connectors";
+  private static final String WARMUP_PINGS = PROPERTY_PREFIX + "warmupPings";
+  private static final String PINGS_PER_DESTINATION = PROPERTY_PREFIX + "pingsPerDestination";
+  private static final String THROUGHPUT_SECONDS = PROPERTY_PREFIX + "throughput.durationSeconds";
+  private static final String THROUGHPUT_CONCURRENCY = PROPERTY_PREFIX + "throughput.concurrency";
+  private static final String STREAM_PACKETS = PROPERTY_PREFIX + "stream.packets";
+
+  // Latencies are recorded in microseconds, but .hgrm files are reported in milliseconds.
+  private static final double MICROS_PER_MILLI = 1000.0;
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorChainHopLatencyIT.class);
+
+  private static final Path resultsDirectory = Paths.get(
+    System.getProperty(RESULTS_DIR, "target/chain-results"),
+    System.getProperty(RUN_ID, LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")))
+  );
+
+  private static int numConnectors;
+  private static Topology topology;
+
+  private Link<?> senderLink;
+  private PingInitiator pingInitiator;
+
+  @BeforeClass
+  public static void startTopology() {
+    // See AbstractIlpOverHttpIT, which this test doesn't extend because it requires a PubSub container.
+    Bootstrap.init(new SpringServiceProvider());
+
+    System.setProperty(ADMIN_PASSWORD, "password");
+
+    // For dev/test purposes this is fine, but not for real use-cases. Use KMS instead.
+    System.setProperty(INTERLEDGER_CONNECTOR_KEYSTORE_JKS_ENABLED, "true");
+    System.setProperty(INTERLEDGER_CONNECTOR_KEYSTORE_JKS_FILENAME, "crypto/crypto.p12");
+    System.setProperty(INTERLEDGER_CONNECTOR_KEYSTORE_JKS_PASSWORD, "password");
+    System.setProperty(INTERLEDGER_CONNECTOR_KEYSTORE_JKS_SECRET0_ALIAS, "secret0");
+    System.setProperty(INTERLEDGER_CONNECTOR_KEYSTORE_JKS_SECRET0_PASSWORD, "password");
+    System.setProperty(INTERLEDGER__CONNECTOR__GLOBAL_ROUTING_SETTINGS__ROUTING_SECRET,
+      "enc:JKS:crypto.p12:secret0:1:aes_gcm:AAAADKZPmASojt1iayb2bPy4D-Toq7TGLTN95HzCQAeJtz0=");
+    System.setProperty(ConfigConstants.ENABLED_PROTOCOLS + DOT + ConfigConstants.ILP_OVER_HTTP_ENABLED, "true");
+
+    numConnectors = Integer.getInteger(CONNECTORS, 4);
+    topology = ConnectorChainTopology.init(numConnectors);
+    LOGGER.info("Starting test topology `{}`...", topology.toString());
+    topology.start();
+    LOGGER.info("Test topology `{}` started!", topology.toString());
+  }
+
+  @AfterClass
+  public static void stopTopology() {
+    LOGGER.info("Stopping test topology `{}`...", topology.toString());
+    topology.stop();
+    LOGGER.info("Test topology `{}` stopped!", topology.toString());
+  }
+
+  @Before
+  public void setUp() {
+    final Link<?> link = getNode(0).getILPv4Connector().getLinkManager().getOrCreateLink(SENDER_ACCOUNT);
+    // The sender's link is wrapped in a circuit breaker, which isn't part of what's being measured.
+    this.senderLink = link instanceof CircuitBreakingLink
+      ? ((CircuitBreakingLink) link).<Link<?>>getLinkDelegateTyped()
+      : link;
+    // Pings expire before the HTTP client's read timeout (otherwise every ping is logged as a warning).
+    this.pingInitiator = new DefaultPingInitiator(senderLink, () -> Instant.now().plusSeconds(5));
+  }
+
+  /**
+   * Pings every Connector in the chain one after the other, and records the latency of pings that traverse 1 to
+   * {@code N} Connectors. The difference between the latencies of pings traversing {@code k} and {@code k-1}
+   * Connectors is the latency added by the {@code k}th Connector.
+   */
+  @Test
+  public void perHopLatency() throws IOException {
+    for (int i = 0; i < Integer.getInteger(WARMUP_PINGS, 500); i++) {
+      for (int index = 0; index < numConnectors; index++) {
+        pingInitiator.ping(connectorAddress(index), UnsignedLong.ONE);
+      }
+    }
+
+    final List<Histogram> latencies = new ArrayList<>();
+    for (int index = 0; index < numConnectors; index++) {
+      latencies.add(new Histogram(3));
+    }
+    final int pingsPerDestination = Integer.getInteger(PINGS_PER_DESTINATION, 2000);
+    long fulfilled = 0;
+    // Interleave the destinations so that they are all measured under the same conditions (e.g., GC, JIT).
+    for (int i = 0; i < pingsPerDestination; i++) {
+      for (int index = 0; index < numConnectors; index++) {
+        final long startNanos = System.nanoTime();
+        final InterledgerResponsePacket response = pingInitiator.ping(connectorAddress(index), UnsignedLong.ONE);
+        latencies.get(index).recordValue((System.nanoTime() - startNanos) / 1000);
+        if (response instanceof InterledgerFulfillPacket) {
+          fulfilled++;
+        }
+      }
+    }
+
+    Files.createDirectories(resultsDirectory);
+    final StringBuilder summary = new StringBuilder()
+      .append("connectors=").append(numConnectors).append('\n')
+      .append("pingsPerDestination=").append(pingsPerDestination).append('\n')
+      .append("fulfilled=").append(fulfilled).append('\n');
+    for (int index = 0; index < numConnectors; index++) {
+      final int hops = index + 1;
+      final Histogram histogram = latencies.get(index);
+      writePercentiles(resultsDirectory.resolve("hops-" + hops + ".hgrm"), histogram);
+      summary
+        .append("hops.").append(hops).append(".latencyMicros.p50=").append(histogram.getValueAtPercentile(50))
+        .append('\n')
+        .append("hops.").append(hops).append(".latencyMicros.p99=").append(histogram.getValueAtPercentile(99))
+        .append('\n');
+      if (index > 0) {
+        final Histogram previous = latencies.get(index - 1);
+        summary
+          .append("hops.").append(hops).append(".addedLatencyMicros.p50=")
+          .append(histogram.getValueAtPercentile(50) - previous.getValueAtPercentile(50)).append('\n')
+          .append("hops.").append(hops).append(".addedLatencyMicros.p99=")
+          .append(histogram.getValueAtPercentile(99) - previous.getValueAtPercentile(99)).append('\n');
+      }
+    }
+    // The slope from the first to the last Connector smooths out the noise in any single difference.
+    final Histogram first = latencies.get(0);
+    final Histogram last = latencies.get(numConnectors - 1);
+    summary
+      .append("meanAddedLatencyMicrosPerHop.p50=")
+      .append((last.getValueAtPercentile(50) - first.getValueAtPercentile(50)) / (numConnectors - 1)).append('\n')
+      .append("meanAddedLatencyMicrosPerHop.p99=")
+      .append((last.getValueAtPercentile(99) - first.getValueAtPercentile(99)) / (numConnectors - 1)).append('\n');
+    writeSummary("hop-latency-summary.txt", summary.toString());
+
+    assertThat(fulfilled).as("every ping should be fulfilled").isEqualTo((long) pingsPerDestination * numConnectors);
+  }
+
+  /**
+   * Pings the last Connector in the chain from many threads at once, each sending its next ping as soon as the
+   * previous one is answered, and records how many packets per second traverse the whole chain.
+   */
+  @Test
+  public void pingThroughput() throws InterruptedException, ExecutionException, IOException {
+    final int concurrency = Integer.getInteger(THROUGHPUT_CONCURRENCY, 16);
+    final Duration duration = Duration.ofSeconds(Integer.getInteger(THROUGHPUT_SECONDS, 10));
+    final InterledgerAddress destination = connectorAddress(numConnectors - 1);
+
+    final ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+    final List<Future<Histogram>> futures = new ArrayList<>();
+    final long startNanos = System.nanoTime();
+    final long deadlineNanos = startNanos + duration.toNanos();
+    for (int i = 0; i < concurrency; i++) {
+      futures.add(executor.submit(() -> {
+        final Histogram histogram = new Histogram(3);
+        while (System.nanoTime() < deadlineNanos) {
+          final long pingStartNanos = System.nanoTime();
+          final InterledgerResponsePacket response = pingInitiator.ping(destination, UnsignedLong.ONE);
+          if (response instanceof InterledgerFulfillPacket) {
+            histogram.recordValue((System.nanoTime() - pingStartNanos) / 1000);
+          }
+        }
+        return histogram;
+      }));
+    }
+    final Histogram latencies = new Histogram(3);
+    for (Future<Histogram> future : futures) {
+      latencies.add(future.get());
+    }
+    final long elapsedNanos = System.nanoTime() - startNanos;
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+
+    final double packetsPerSecond = latencies.getTotalCount() / (elapsedNanos / 1e9);
+    Files.createDirectories(resultsDirectory);
+    writePercentiles(resultsDirectory.resolve("throughput-" + concurrency + ".hgrm"), latencies);
+    writeSummary("throughput-summary.txt", "connectors=" + numConnectors + "\n" +
+      "concurrency=" + concurrency + "\n" +
+      "fulfilled=" + latencies.getTotalCount() + "\n" +
+      "fulfilledPacketsPerSecond=" + String.format("%.1f", packetsPerSecond) + "\n" +
+      "latencyMicros.p50=" + latencies.getValueAtPercentile(50) + "\n" +
+      "latencyMicros.p99=" + latencies.getValueAtPercentile(99) + "\n");
+
+    assertThat(latencies.getTotalCount()).as("pings should be fulfilled").isGreaterThan(0);
+  }
+
+  /**
+   * Sends a STREAM payment to the receiver on the last Connector in the chain, split into many packets, and records
+   * how long it took.
+   */
+  @Test
+  public void streamPayment() throws InterruptedException, ExecutionException, IOException {
+    final ConnectorServerNode lastNode = getNode(numConnectors - 1);
+    final StreamConnectionDetails connectionDetails = new SpspStreamConnectionGenerator().generateConnectionDetails(
+      lastNode.getServer().getContext().getBean(ServerSecretSupplier.class),
+      connectorAddress(numConnectors - 1).with("spsp").with(RECEIVER_ACCOUNT.value())
+    );
+
+    final UnsignedLong amount = SENDER_MAX_PACKET_AMOUNT.times(UnsignedLong.valueOf(Integer.getInteger(STREAM_PACKETS,
+      1000)));
+    final SendMoneyRequest sendMoneyRequest = SendMoneyRequest.builder()
+      .sourceAddress(connectorAddress(0).with(SENDER_ACCOUNT.value()))
+      .amount(amount)
+      .denomination(Denomination.builder().assetCode(XRP).assetScale((short) 9).build())
+      .destinationAddress(connectionDetails.destinationAddress())
+      .sharedSecret(connectionDetails.sharedSecret())
+      .paymentTracker(new FixedSenderAmountPaymentTracker(amount))
+      .build();
+
+    final long startNanos = System.nanoTime();
+    final SendMoneyResult result = new SimpleStreamSender(senderLink).sendMoney(sendMoneyRequest).get();
+    final long elapsedNanos = System.nanoTime() - startNanos;
+
+    Files.createDirectories(resultsDirectory);
+    writeSummary("stream-summary.txt", "connectors=" + numConnectors + "\n" +
+      "amount=" + amount + "\n" +
+      "amountDelivered=" + result.amountDelivered() + "\n" +
+      "totalPackets=" + result.totalPackets() + "\n" +
+      "fulfilledPackets=" + result.numFulfilledPackets() + "\n" +
+      "elapsedMillis=" + TimeUnit.NANOSECONDS.toMillis(elapsedNanos) + "\n" +
+      "packetsPerSecond=" + String.format("%.1f", result.totalPackets() / (elapsedNanos / 1e9)) + "\n");
+
+    assertThat(result.successfulPayment()).isTrue();
+    assertThat(result.amountDelivered()).isEqualTo(amount);
+  }
+
+  private static ConnectorServerNode getNode(final int index) {
+    return topology.getNode(connectorAddress(index).getValue(), ConnectorServerNode.class);
+  }
+
+  private static void writePercentiles(final Path file, final Histogram histogram) throws IOException {
+    try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8.name())) {
+      histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+    }
+  }
+
+  private static void writeSummary(final String fileName, final String summary) throws IOException {
+    Files.write(resultsDirectory.resolve(fileName), summary.getBytes(StandardCharsets.UTF_8));
+    LOGGER.info("\n{}", summary);
+  }
+}
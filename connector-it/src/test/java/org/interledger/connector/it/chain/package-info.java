@@ -0,0 +1,7 @@
+/**
+ * Contains Integration tests that measure how much latency each Connector in a chain of Connectors adds to a packet.
+ * These tests run entirely in this JVM (no containers), so be sure to annotate them with
+ * `@Category(Performance.class)` and add them to the `PerformanceTestSuite` so they get picked up by the CI build
+ * system.
+ */
+package org.interledger.connector.it.chain;
@@ -0,0 +1,226 @@
+package org.interledger.connector.it.ilpoverhttp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.interledger.connector.it.topologies.AbstractTopology.XRP;
+import static org.interledger.connector.it.topologies.ilpoverhttp.TwoConnectorPeerIlpOverHttpTopology.ALICE_CONNECTOR_ADDRESS;
+import static org.interledger.connector.it.topologies.ilpoverhttp.TwoConnectorPeerIlpOverHttpTopology.BOB_CONNECTOR_ADDRESS;
+
+import org.interledger.connector.ILPv4Connector;
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.it.AbstractIlpOverHttpIT;
+import org.interledger.connector.it.ContainerHelper;
+import org.interledger.connector.it.load.LoadGenerator;
+import org.interledger.connector.it.load.LoadProfile;
+import org.interledger.connector.it.load.LoadTestResult;
+import org.interledger.connector.it.markers.Performance;
+import org.interledger.connector.it.topologies.ilpoverhttp.TwoConnectorPeerIlpOverHttpTopology;
+import org.interledger.connector.it.topology.Topology;
+import org.interledger.connector.it.topology.nodes.ConnectorServerNode;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.link.Link;
+import org.interledger.stream.Denomination;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.Network;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Drives the {@link TwoConnectorPeerIlpOverHttpTopology} with sustained, open-loop load from many sender accounts at
+ * Alice to a mix of destinations, and records latency distributions, the throughput ceiling and the breakdown of
+ * errors as artifacts.
+ *
+ * <p>Packets to either Connector's address are fulfilled by its ping account, while packets to addresses under Bob
+ * that don't belong to any account are rejected by Bob. A fraction of packets is also sent with an unfulfillable
+ * condition so that they are rejected.</p>
+ *
+ * <p>Every run is tunable using system properties (see the constants in this class), and its artifacts are written to
+ * {@code target/load-results/<runId>} (by default, the time the run started), so that results from different versions
+ * of the Connector can be compared.</p>
+ */
+@Category(Performance.class)
+public class TwoConnectorIlpOverHttpLoadTestIT extends AbstractIlpOverHttpIT {
+
+  private static final String PROPERTY_PREFIX = "ilp.load.";
+  private static final String RESULTS_DIR = PROPERTY_PREFIX + "resultsDir";
+  private static final String RUN_ID = PROPERTY_PREFIX + "runId";
+  private static final String SENDER_ACCOUNTS = PROPERTY_PREFIX + "senderAccounts";
+  private static final String UNREACHABLE_DESTINATIONS = PROPERTY_PREFIX + "unreachableDestinations";
+  private static final String RATE = PROPERTY_PREFIX + "packetsPerSecond";
+  private static final String DURATION_SECONDS = PROPERTY_PREFIX + "durationSeconds";
+  private static final String WARMUP_SECONDS = PROPERTY_PREFIX + "warmupSeconds";
+  private static final String REJECT_RATIO = PROPERTY_PREFIX + "rejectRatio";
+  private static final String MAX_IN_FLIGHT = PROPERTY_PREFIX + "maxInFlight";
+  private static final String CEILING_START = PROPERTY_PREFIX + "ceiling.startPacketsPerSecond";
+  private static final String CEILING_STEP = PROPERTY_PREFIX + "ceiling.stepPacketsPerSecond";
+  private static final String CEILING_MAX = PROPERTY_PREFIX + "ceiling.maxPacketsPerSecond";
+  private static final String CEILING_STEP_DURATION_SECONDS = PROPERTY_PREFIX + "ceiling.stepDurationSeconds";
+  private static final String CEILING_MAX_P99_MILLIS = PROPERTY_PREFIX + "ceiling.maxP99Millis";
+  private static final String CEILING_MAX_ERROR_RATIO = PROPERTY_PREFIX + "ceiling.maxErrorRatio";
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(TwoConnectorIlpOverHttpLoadTestIT.class);
+  private static final Network network = Network.newNetwork();
+  private static Topology topology = TwoConnectorPeerIlpOverHttpTopology.init();
+  private static GenericContainer redis = ContainerHelper.redis(network);
+  private static GenericContainer postgres = ContainerHelper.postgres(network);
+
+  private static final Path resultsDirectory = Paths.get(
+    System.getProperty(RESULTS_DIR, "target/load-results"),
+    System.getProperty(RUN_ID, LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")))
+  );
+
+  private LoadGenerator loadGenerator;
+
+  @BeforeClass
+  public static void startTopology() {
+    LOGGER.info("Starting test topology `{}`...", topology.toString());
+    redis.start();
+    postgres.start();
+    topology.start();
+    LOGGER.info("Test topology `{}` started!", topology.toString());
+  }
+
+  @AfterClass
+  public static void stopTopology() {
+    LOGGER.info("Stopping test topology `{}`...", topology.toString());
+    topology.stop();
+    postgres.stop();
+    redis.stop();
+    LOGGER.info("Test topology `{}` stopped!", topology.toString());
+  }
+
+  @Before
+  public void setUp() {
+    final ILPv4Connector aliceConnector = this.getILPv4NodeFromGraph(getAliceConnectorAddress());
+    final int alicePort = topology.getNode(ALICE_CONNECTOR_ADDRESS.getValue(), ConnectorServerNode.class).getPort();
+    final Denomination denomination = Denomination.builder().assetCode(XRP).assetScale((short) 9).build();
+
+    final List<Link<?>> senderLinks = new ArrayList<>();
+    for (int i = 0; i < Integer.getInteger(SENDER_ACCOUNTS, 20); i++) {
+      final AccountId senderAccountId = AccountId.of("load-sender-" + i);
+      if (!aliceConnector.getAccountSettingsRepository().findByAccountId(senderAccountId).isPresent()) {
+        aliceConnector.getAccountManager().createAccount(
+          TwoConnectorPeerIlpOverHttpTopology.constructSenderAccountSettingsOnAlice(
+            senderAccountId, denomination, alicePort
+          )
+        );
+      }
+      senderLinks.add(getIlpOverHttpLinkFromGraph(getAliceConnectorAddress(), senderAccountId));
+    }
+
+    final List<InterledgerAddress> destinations = new ArrayList<>();
+    destinations.add(ALICE_CONNECTOR_ADDRESS);
+    destinations.add(BOB_CONNECTOR_ADDRESS);
+    destinations.addAll(IntStream.range(0, Integer.getInteger(UNREACHABLE_DESTINATIONS, 2))
+      .mapToObj(i -> BOB_CONNECTOR_ADDRESS.with("unreachable-" + i))
+      .collect(Collectors.toList()));
+
+    this.loadGenerator = new LoadGenerator(senderLinks, destinations);
+    this.resetBalanceTracking();
+  }
+
+  /**
+   * Sends packets at a fixed rate for a fixed duration and records the latency distribution and error breakdown.
+   */
+  @Test
+  public void sustainedLoad() throws InterruptedException, IOException {
+    final LoadProfile profile = baseProfile(
+      "sustained-" + Integer.getInteger(RATE, 200) + "pps", Duration.ofSeconds(Integer.getInteger(DURATION_SECONDS, 30))
+    );
+
+    final LoadTestResult result = loadGenerator.run(profile);
+    result.writeTo(resultsDirectory);
+
+    assertThat(result.completed()).as("every packet should be answered").isEqualTo(result.sent());
+    assertThat(result.outcomes()).containsKey("FULFILLED");
+  }
+
+  /**
+   * Increases the offered rate step by step until the Connector can no longer sustain it, and records the highest
+   * rate that was sustained.
+   */
+  @Test
+  public void throughputCeiling() throws InterruptedException, IOException {
+    final LoadProfile profile = baseProfile(
+      "ceiling", Duration.ofSeconds(Integer.getInteger(CEILING_STEP_DURATION_SECONDS, 10))
+    );
+    final Duration maxP99Latency = Duration.ofMillis(Long.getLong(CEILING_MAX_P99_MILLIS, 50));
+    final double maxErrorRatio = Double.parseDouble(System.getProperty(CEILING_MAX_ERROR_RATIO, "0.01"));
+
+    final List<LoadTestResult> results = loadGenerator.stepUntilSaturated(
+      profile,
+      Integer.getInteger(CEILING_START, 100),
+      Integer.getInteger(CEILING_STEP, 100),
+      Integer.getInteger(CEILING_MAX, 2000),
+      maxP99Latency,
+      maxErrorRatio
+    );
+    for (LoadTestResult result : results) {
+      result.writeTo(resultsDirectory);
+    }
+
+    final int ceiling = results.stream()
+      .filter(result -> result.isSustained(maxP99Latency, maxErrorRatio))
+      .mapToInt(result -> result.profile().targetPacketsPerSecond())
+      .max()
+      .orElse(0);
+    final String summary = "throughputCeilingPacketsPerSecond=" + ceiling + "\n" +
+      "maxP99Millis=" + maxP99Latency.toMillis() + "\n" +
+      "maxErrorRatio=" + maxErrorRatio + "\n";
+    Files.write(resultsDirectory.resolve("ceiling-summary.txt"), summary.getBytes(StandardCharsets.UTF_8));
+    LOGGER.info("Throughput ceiling: {} packets/second", ceiling);
+
+    assertThat(ceiling).as("the lowest rate should be sustained").isGreaterThan(0);
+  }
+
+  private LoadProfile baseProfile(final String name, final Duration duration) {
+    return new LoadProfile(
+      name,
+      Integer.getInteger(RATE, 200),
+      duration,
+      Duration.ofSeconds(Integer.getInteger(WARMUP_SECONDS, 5)),
+      Double.parseDouble(System.getProperty(REJECT_RATIO, "0.1")),
+      Integer.getInteger(MAX_IN_FLIGHT, 64),
+      UnsignedLong.ONE
+    );
+  }
+
+  @Override
+  protected Logger getLogger() {
+    return LOGGER;
+  }
+
+  @Override
+  protected Topology getTopology() {
+    return topology;
+  }
+
+  @Override
+  protected InterledgerAddress getAliceConnectorAddress() {
+    return ALICE_CONNECTOR_ADDRESS;
+  }
+
+  @Override
+  protected InterledgerAddress getBobConnectorAddress() {
+    return BOB_CONNECTOR_ADDRESS;
+  }
+}
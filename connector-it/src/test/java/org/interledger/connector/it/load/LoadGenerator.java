@@ -0,0 +1,256 @@
+package org.interledger.connector.it.load;
+
+import static org.interledger.link.PingLoopbackLink.PING_PROTOCOL_CONDITION;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.Link;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Sends ILP packets to a Connector at a fixed rate and records how long each one takes to be answered.
+ *
+ * <p>The generator is open-loop: packets are sent on a fixed schedule no matter how quickly earlier packets are
+ * answered, the way independent senders behave. Latency is measured from the time a packet was <i>scheduled</i> to be
+ * sent rather than when a sending thread got around to it, so a Connector that falls behind shows up as rising latency
+ * instead of silently lowering the offered rate (i.e., the results don't suffer from coordinated omission).</p>
+ *
+ * <p>Each packet is sent from one of many source links to one of many destinations. Fulfillable packets use the ping
+ * protocol condition, so they are fulfilled by any Connector's ping account. A configurable fraction of packets is
+ * sent with a random condition instead, so that the receiver rejects them.</p>
+ */
+public class LoadGenerator {
+
+  static final String FULFILLED = "FULFILLED";
+  static final String REJECTED = "REJECTED";
+  static final String FAILED = "FAILED";
+
+  // Latencies are recorded in microseconds; three significant digits is plenty for comparing runs.
+  private static final int SIGNIFICANT_DIGITS = 3;
+  private static final Duration PACKET_EXPIRY = Duration.ofSeconds(30);
+  private static final Duration COMPLETION_GRACE_PERIOD = Duration.ofSeconds(60);
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final List<Link<?>> sourceLinks;
+  private final List<InterledgerAddress> destinations;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param sourceLinks  The {@link Link}s to send packets with, each one representing a different source account.
+   * @param destinations The {@link InterledgerAddress}es to send packets to.
+   */
+  public LoadGenerator(final List<Link<?>> sourceLinks, final List<InterledgerAddress> destinations) {
+    this.sourceLinks = ImmutableList.copyOf(sourceLinks);
+    this.destinations = ImmutableList.copyOf(destinations);
+    if (this.sourceLinks.isEmpty() || this.destinations.isEmpty()) {
+      throw new IllegalArgumentException("At least one source link and one destination are required");
+    }
+  }
+
+  /**
+   * Send packets as described by {@code profile}.
+   *
+   * @param profile A {@link LoadProfile}.
+   *
+   * @return The {@link LoadTestResult} of the run, excluding any packets sent during warmup.
+   */
+  public LoadTestResult run(final LoadProfile profile) throws InterruptedException {
+    Objects.requireNonNull(profile);
+
+    final ExecutorService senders = Executors.newFixedThreadPool(
+      profile.maxInFlight(),
+      new ThreadFactoryBuilder().setNameFormat("ilp-load-sender-%d").setDaemon(true).build()
+    );
+    try {
+      if (!profile.warmup().isZero()) {
+        logger.info("Warming up. profile={}", profile);
+        sendAtRate(profile, profile.warmup(), senders, new Outcomes());
+      }
+
+      logger.info("Starting load run. profile={}", profile);
+      final Outcomes outcomes = new Outcomes();
+      final long startNanos = System.nanoTime();
+      final long sent = sendAtRate(profile, profile.duration(), senders, outcomes);
+      awaitCompletion(outcomes, sent);
+      final Duration elapsed = outcomes.elapsedSince(startNanos);
+
+      final LoadTestResult result = new LoadTestResult(
+        profile,
+        sent,
+        elapsed,
+        outcomes.all.getIntervalHistogram(),
+        outcomes.fulfilled.getIntervalHistogram(),
+        outcomes.rejected.getIntervalHistogram(),
+        outcomes.counts.entrySet().stream()
+          .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()))
+      );
+      logger.info("Finished load run. {}", result);
+      return result;
+    } finally {
+      senders.shutdownNow();
+    }
+  }
+
+  /**
+   * Run {@code baseProfile} at increasing rates, stopping after the first rate that the Connector can't sustain (or
+   * once {@code maxPacketsPerSecond} has been run).
+   *
+   * @param baseProfile           The {@link LoadProfile} to run at each rate.
+   * @param startPacketsPerSecond The first rate to run.
+   * @param stepPacketsPerSecond  How much to increase the rate by after each sustained run.
+   * @param maxPacketsPerSecond   The highest rate to run.
+   * @param maxP99Latency         The highest 99th percentile latency that counts as sustaining a rate.
+   * @param maxErrorRatio         The highest fraction of failed or temporarily rejected packets that counts as
+   *                              sustaining a rate.
+   *
+   * @return The {@link LoadTestResult} of every rate that was run, in order.
+   */
+  public List<LoadTestResult> stepUntilSaturated(
+    final LoadProfile baseProfile,
+    final int startPacketsPerSecond,
+    final int stepPacketsPerSecond,
+    final int maxPacketsPerSecond,
+    final Duration maxP99Latency,
+    final double maxErrorRatio
+  ) throws InterruptedException {
+    final List<LoadTestResult> results = new ArrayList<>();
+    for (int rate = startPacketsPerSecond; rate <= maxPacketsPerSecond; rate += stepPacketsPerSecond) {
+      final LoadTestResult result = run(baseProfile.withRate(baseProfile.name() + "-" + rate + "pps", rate));
+      results.add(result);
+      if (!result.isSustained(maxP99Latency, maxErrorRatio)) {
+        break;
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Schedule one packet every {@code 1/rate} seconds for {@code duration}, sleeping between packets rather than
+   * waiting for responses.
+   */
+  private long sendAtRate(
+    final LoadProfile profile, final Duration duration, final ExecutorService senders, final Outcomes outcomes
+  ) {
+    final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / profile.targetPacketsPerSecond();
+    final long numPackets = duration.toNanos() / intervalNanos;
+    final long startNanos = System.nanoTime();
+
+    for (long i = 0; i < numPackets; i++) {
+      final long intendedStartNanos = startNanos + i * intervalNanos;
+      long waitNanos;
+      while ((waitNanos = intendedStartNanos - System.nanoTime()) > 0) {
+        LockSupport.parkNanos(waitNanos);
+      }
+      senders.execute(() -> sendPacket(profile, intendedStartNanos, outcomes));
+    }
+    return numPackets;
+  }
+
+  private void sendPacket(final LoadProfile profile, final long intendedStartNanos, final Outcomes outcomes) {
+    final ThreadLocalRandom random = ThreadLocalRandom.current();
+    final Link<?> sourceLink = sourceLinks.get(random.nextInt(sourceLinks.size()));
+    final boolean fulfillable = random.nextDouble() >= profile.rejectRatio();
+    final InterledgerPreparePacket preparePacket = InterledgerPreparePacket.builder()
+      .destination(destinations.get(random.nextInt(destinations.size())))
+      .amount(profile.packetAmount())
+      .executionCondition(fulfillable ? PING_PROTOCOL_CONDITION : randomCondition(random))
+      .expiresAt(Instant.now().plus(PACKET_EXPIRY))
+      .build();
+
+    try {
+      final InterledgerResponsePacket responsePacket = sourceLink.sendPacket(preparePacket);
+      final long latencyMicros = outcomes.recordLatency(intendedStartNanos);
+      responsePacket.handle(
+        fulfillPacket -> {
+          outcomes.fulfilled.recordValue(latencyMicros);
+          outcomes.count(FULFILLED);
+        },
+        rejectPacket -> {
+          outcomes.rejected.recordValue(latencyMicros);
+          outcomes.count(REJECTED + ":" + rejectPacket.getCode().getCode());
+        }
+      );
+    } catch (Exception e) {
+      outcomes.recordLatency(intendedStartNanos);
+      outcomes.count(FAILED + ":" + e.getClass().getSimpleName());
+    }
+  }
+
+  private void awaitCompletion(final Outcomes outcomes, final long sent) throws InterruptedException {
+    final long deadlineNanos = System.nanoTime() + COMPLETION_GRACE_PERIOD.toNanos();
+    while (outcomes.completed.sum() < sent && System.nanoTime() < deadlineNanos) {
+      Thread.sleep(10);
+    }
+    if (outcomes.completed.sum() < sent) {
+      logger.warn("Gave up waiting for responses. sent={} completed={}", sent, outcomes.completed.sum());
+    }
+  }
+
+  private static InterledgerCondition randomCondition(final ThreadLocalRandom random) {
+    final byte[] condition = new byte[32];
+    random.nextBytes(condition);
+    return InterledgerCondition.of(condition);
+  }
+
+  /**
+   * The latencies and outcomes of the packets sent during a single run.
+   */
+  private static final class Outcomes {
+
+    private final Recorder all = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder fulfilled = new Recorder(SIGNIFICANT_DIGITS);
+    private final Recorder rejected = new Recorder(SIGNIFICANT_DIGITS);
+    private final Map<String, LongAdder> counts = new ConcurrentHashMap<>();
+    private final LongAdder completed = new LongAdder();
+    // Long.MIN_VALUE until a packet completes.
+    private final AtomicLong lastCompletionNanos = new AtomicLong(Long.MIN_VALUE);
+
+    private long recordLatency(final long intendedStartNanos) {
+      final long nowNanos = System.nanoTime();
+      final long latencyMicros = TimeUnit.NANOSECONDS.toMicros(nowNanos - intendedStartNanos);
+      all.recordValue(latencyMicros);
+      lastCompletionNanos.accumulateAndGet(nowNanos, Math::max);
+      return latencyMicros;
+    }
+
+    private void count(final String outcome) {
+      counts.computeIfAbsent(outcome, $ -> new LongAdder()).increment();
+      completed.increment();
+    }
+
+    /**
+     * How long a run that started at {@code startNanos} took, up to its last completed packet. If no packet completed
+     * (e.g., every packet timed out), the run lasted until now.
+     */
+    private Duration elapsedSince(final long startNanos) {
+      final long lastCompletionNanos = this.lastCompletionNanos.get();
+      final long endNanos = lastCompletionNanos == Long.MIN_VALUE ? System.nanoTime() : lastCompletionNanos;
+      return Duration.ofNanos(endNanos - startNanos);
+    }
+  }
+}
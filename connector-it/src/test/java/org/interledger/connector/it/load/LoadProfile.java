@@ -0,0 +1,110 @@
+package org.interledger.connector.it.load;
+
+import com.google.common.primitives.UnsignedLong;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Describes a single open-loop load run: how many packets per second to send, for how long, and what mix of packets to
+ * send.
+ */
+public final class LoadProfile {
+
+  private final String name;
+  private final int targetPacketsPerSecond;
+  private final Duration duration;
+  private final Duration warmup;
+  private final double rejectRatio;
+  private final int maxInFlight;
+  private final UnsignedLong packetAmount;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param name                   A name for this run, used to name its result artifacts.
+   * @param targetPacketsPerSecond The rate at which packets are sent, regardless of how quickly they are answered.
+   * @param duration               How long to send packets for (after the warmup).
+   * @param warmup                 How long to send packets for before any results are recorded.
+   * @param rejectRatio            The fraction (between 0 and 1) of packets sent with a condition that cannot be
+   *                               fulfilled, so that the receiver rejects them.
+   * @param maxInFlight            The number of threads sending packets. Packets that are due while all threads are
+   *                               busy wait for a thread, and that wait counts towards their latency.
+   * @param packetAmount           The amount of each packet.
+   */
+  public LoadProfile(
+    final String name,
+    final int targetPacketsPerSecond,
+    final Duration duration,
+    final Duration warmup,
+    final double rejectRatio,
+    final int maxInFlight,
+    final UnsignedLong packetAmount
+  ) {
+    this.name = Objects.requireNonNull(name);
+    this.targetPacketsPerSecond = targetPacketsPerSecond;
+    this.duration = Objects.requireNonNull(duration);
+    this.warmup = Objects.requireNonNull(warmup);
+    this.rejectRatio = rejectRatio;
+    this.maxInFlight = maxInFlight;
+    this.packetAmount = Objects.requireNonNull(packetAmount);
+
+    if (targetPacketsPerSecond <= 0) {
+      throw new IllegalArgumentException("targetPacketsPerSecond must be greater than 0");
+    }
+    if (rejectRatio < 0 || rejectRatio > 1) {
+      throw new IllegalArgumentException("rejectRatio must be between 0 and 1");
+    }
+    if (maxInFlight <= 0) {
+      throw new IllegalArgumentException("maxInFlight must be greater than 0");
+    }
+  }
+
+  /**
+   * Copy this profile, but with a different name and rate.
+   */
+  public LoadProfile withRate(final String name, final int targetPacketsPerSecond) {
+    return new LoadProfile(name, targetPacketsPerSecond, duration, warmup, rejectRatio, maxInFlight, packetAmount);
+  }
+
+  public String name() {
+    return name;
+  }
+
+  public int targetPacketsPerSecond() {
+    return targetPacketsPerSecond;
+  }
+
+  public Duration duration() {
+    return duration;
+  }
+
+  public Duration warmup() {
+    return warmup;
+  }
+
+  public double rejectRatio() {
+    return rejectRatio;
+  }
+
+  public int maxInFlight() {
+    return maxInFlight;
+  }
+
+  public UnsignedLong packetAmount() {
+    return packetAmount;
+  }
+
+  @Override
+  public String toString() {
+    return "LoadProfile{" +
+      "name='" + name + '\'' +
+      ", targetPacketsPerSecond=" + targetPacketsPerSecond +
+      ", duration=" + duration +
+      ", warmup=" + warmup +
+      ", rejectRatio=" + rejectRatio +
+      ", maxInFlight=" + maxInFlight +
+      ", packetAmount=" + packetAmount +
+      '}';
+  }
+}
@@ -0,0 +1,198 @@
+package org.interledger.connector.it.load;
+
+import static org.interledger.connector.it.load.LoadGenerator.FAILED;
+import static org.interledger.connector.it.load.LoadGenerator.REJECTED;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSortedMap;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The outcome of a single {@link LoadGenerator} run: latency distributions (in microseconds), achieved throughput and
+ * a breakdown of how every packet was answered.
+ *
+ * <p>Results can be written to a directory as artifacts that can be compared between versions of the Connector: each
+ * latency distribution as an HdrHistogram percentile distribution ({@code .hgrm}, which can be plotted using
+ * HdrHistogram's plotter), all distributions as an HdrHistogram log ({@code .hlog}), and a plain-text summary.</p>
+ */
+public class LoadTestResult {
+
+  // Latencies are recorded in microseconds, but reported in milliseconds.
+  private static final double MICROS_PER_MILLI = 1000.0;
+  // Temporary rejections (e.g., T03, T04, T05) mean the Connector is shedding load.
+  private static final String TEMPORARY_REJECTION = REJECTED + ":T";
+
+  private final LoadProfile profile;
+  private final long sent;
+  private final Duration elapsed;
+  private final Histogram allLatencies;
+  private final Histogram fulfilledLatencies;
+  private final Histogram rejectedLatencies;
+  private final Map<String, Long> outcomes;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param profile            The {@link LoadProfile} that was run.
+   * @param sent               The number of packets sent.
+   * @param elapsed            The time from the first packet being sent to the last packet being answered.
+   * @param allLatencies       The latency of every packet.
+   * @param fulfilledLatencies The latency of every fulfilled packet.
+   * @param rejectedLatencies  The latency of every rejected packet.
+   * @param outcomes           The number of packets per outcome (e.g., {@code FULFILLED} or {@code REJECTED:F99}).
+   */
+  public LoadTestResult(
+    final LoadProfile profile,
+    final long sent,
+    final Duration elapsed,
+    final Histogram allLatencies,
+    final Histogram fulfilledLatencies,
+    final Histogram rejectedLatencies,
+    final Map<String, Long> outcomes
+  ) {
+    this.profile = Objects.requireNonNull(profile);
+    this.sent = sent;
+    this.elapsed = Objects.requireNonNull(elapsed);
+    this.allLatencies = Objects.requireNonNull(allLatencies);
+    this.fulfilledLatencies = Objects.requireNonNull(fulfilledLatencies);
+    this.rejectedLatencies = Objects.requireNonNull(rejectedLatencies);
+    this.outcomes = ImmutableSortedMap.copyOf(outcomes);
+  }
+
+  public LoadProfile profile() {
+    return profile;
+  }
+
+  public long sent() {
+    return sent;
+  }
+
+  /**
+   * The number of packets that were answered (or failed) before the run gave up waiting.
+   */
+  public long completed() {
+    return outcomes.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  public Map<String, Long> outcomes() {
+    return ImmutableMap.copyOf(outcomes);
+  }
+
+  /**
+   * The number of packets that failed outright, or were temporarily rejected by a Connector that couldn't keep up.
+   */
+  public long errors() {
+    return outcomes.entrySet().stream()
+      .filter(entry -> entry.getKey().startsWith(FAILED) || entry.getKey().startsWith(TEMPORARY_REJECTION))
+      .mapToLong(Map.Entry::getValue)
+      .sum();
+  }
+
+  public double achievedPacketsPerSecond() {
+    return elapsed.isZero() ? 0 : completed() / (elapsed.toNanos() / 1e9);
+  }
+
+  public double latencyMillisAtPercentile(final double percentile) {
+    return allLatencies.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+  }
+
+  /**
+   * Whether the Connector kept up with the offered rate: every packet was answered, within {@code maxP99Latency} at the
+   * 99th percentile, with at most {@code maxErrorRatio} of packets failing or being temporarily rejected.
+   */
+  public boolean isSustained(final Duration maxP99Latency, final double maxErrorRatio) {
+    return completed() == sent
+      && allLatencies.getValueAtPercentile(99) <= maxP99Latency.toNanos() / 1000
+      && errors() <= sent * maxErrorRatio;
+  }
+
+  /**
+   * Write this result's artifacts into {@code directory}, naming each after the profile.
+   *
+   * @param directory The {@link Path} of the directory to write to (created if necessary).
+   */
+  public void writeTo(final Path directory) throws IOException {
+    Files.createDirectories(directory);
+    final String name = profile.name();
+
+    writePercentiles(directory.resolve(name + ".hgrm"), allLatencies);
+    writePercentiles(directory.resolve(name + "-fulfilled.hgrm"), fulfilledLatencies);
+    writePercentiles(directory.resolve(name + "-rejected.hgrm"), rejectedLatencies);
+
+    try (PrintStream out = newPrintStream(directory.resolve(name + ".hlog"))) {
+      final HistogramLogWriter logWriter = new HistogramLogWriter(out);
+      logWriter.outputComment("profile=" + profile);
+      logWriter.outputLogFormatVersion();
+      logWriter.outputLegend();
+      writeTagged(logWriter, "all", allLatencies);
+      writeTagged(logWriter, "fulfilled", fulfilledLatencies);
+      writeTagged(logWriter, "rejected", rejectedLatencies);
+    }
+
+    try (PrintStream out = newPrintStream(directory.resolve(name + "-summary.txt"))) {
+      out.println(toSummary());
+    }
+  }
+
+  /**
+   * A plain-text summary of this result, one {@code key=value} per line.
+   */
+  public String toSummary() {
+    final StringBuilder summary = new StringBuilder()
+      .append("profile=").append(profile).append('\n')
+      .append("targetPacketsPerSecond=").append(profile.targetPacketsPerSecond()).append('\n')
+      .append("achievedPacketsPerSecond=").append(String.format("%.1f", achievedPacketsPerSecond())).append('\n')
+      .append("sent=").append(sent).append('\n')
+      .append("completed=").append(completed()).append('\n')
+      .append("errors=").append(errors()).append('\n')
+      .append("latencyMillis.p50=").append(latencyMillisAtPercentile(50)).append('\n')
+      .append("latencyMillis.p90=").append(latencyMillisAtPercentile(90)).append('\n')
+      .append("latencyMillis.p99=").append(latencyMillisAtPercentile(99)).append('\n')
+      .append("latencyMillis.p99.9=").append(latencyMillisAtPercentile(99.9)).append('\n')
+      .append("latencyMillis.max=").append(allLatencies.getMaxValue() / MICROS_PER_MILLI);
+    outcomes.forEach((outcome, count) -> summary.append('\n').append("outcome.").append(outcome).append('=')
+      .append(count));
+    return summary.toString();
+  }
+
+  @Override
+  public String toString() {
+    return "LoadTestResult{" +
+      "name=" + profile.name() +
+      ", targetPacketsPerSecond=" + profile.targetPacketsPerSecond() +
+      ", achievedPacketsPerSecond=" + String.format("%.1f", achievedPacketsPerSecond()) +
+      ", sent=" + sent +
+      ", completed=" + completed() +
+      ", p50Millis=" + latencyMillisAtPercentile(50) +
+      ", p99Millis=" + latencyMillisAtPercentile(99) +
+      ", maxMillis=" + allLatencies.getMaxValue() / MICROS_PER_MILLI +
+      ", outcomes=" + outcomes +
+      '}';
+  }
+
+  private static void writePercentiles(final Path file, final Histogram histogram) throws IOException {
+    try (PrintStream out = newPrintStream(file)) {
+      histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+    }
+  }
+
+  private static void writeTagged(final HistogramLogWriter logWriter, final String tag, final Histogram histogram) {
+    final Histogram tagged = histogram.copy();
+    tagged.setTag(tag);
+    logWriter.outputIntervalHistogram(tagged);
+  }
+
+  private static PrintStream newPrintStream(final Path file) throws IOException {
+    return new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8.name());
+  }
+}
@@ -0,0 +1,147 @@
+package org.interledger.connector.link;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Limits the number of packets in-flight to a single peer, adapting that limit to the round-trip times observed for
+ * the peer's packets.</p>
+ *
+ * <p>The limit is adjusted using a gradient between a peer's long-term average round-trip time and the round-trip
+ * time of each new packet. While new packets complete about as fast as usual, the limit grows (by roughly the square
+ * root of the current limit, so that a small queue is always allowed to form). Once packets take longer than usual,
+ * the peer is assumed to be queueing them, and the limit shrinks in proportion to how much slower they have become.
+ * Packets that a peer drops (e.g., because they timed out or the peer is busy) shrink the limit by a fixed ratio.</p>
+ *
+ * <p>The limit only grows while the peer is actually being sent enough packets to test it, so an idle peer doesn't
+ * accumulate a limit that it has never proven it can handle.</p>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+  // A long-term RTT more than this many times the current RTT means the peer got faster, and the average is stale.
+  private static final double RTT_DRIFT_THRESHOLD = 2.0;
+  private static final double RTT_DRIFT_DECAY = 0.95;
+
+  // The limit never shrinks by more than this factor from a single sample.
+  private static final double MIN_GRADIENT = 0.5;
+
+  private final AdaptiveConcurrencyLimiterConfig config;
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  // Guarded by this.
+  private double estimatedLimit;
+  private double longRttNanos;
+  private long numSamples;
+
+  private volatile int limit;
+
+  /**
+   * Required-args constructor.
+   *
+   * @param config An {@link AdaptiveConcurrencyLimiterConfig}.
+   */
+  public AdaptiveConcurrencyLimiter(final AdaptiveConcurrencyLimiterConfig config) {
+    this.config = Objects.requireNonNull(config);
+    this.estimatedLimit = config.getInitialLimit();
+    this.limit = config.getInitialLimit();
+  }
+
+  /**
+   * Try to reserve a slot for a packet. A caller that gets a slot must eventually call exactly one of {@link
+   * #onSuccess(Duration)}, {@link #onDropped()}, or {@link #onIgnore()}.
+   *
+   * @return {@code true} if a slot was reserved; {@code false} if the limit has been reached.
+   */
+  public boolean tryAcquire() {
+    while (true) {
+      final int current = inFlight.get();
+      if (current >= limit) {
+        return false;
+      }
+      if (inFlight.compareAndSet(current, current + 1)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Release a slot for a packet that completed normally, taking {@code roundTripTime}.
+   *
+   * @param roundTripTime The {@link Duration} between sending the packet and receiving its response.
+   */
+  public void onSuccess(final Duration roundTripTime) {
+    Objects.requireNonNull(roundTripTime);
+    final int inFlightAtCompletion = inFlight.getAndDecrement();
+    this.recordRoundTrip(Math.max(1, roundTripTime.toNanos()), inFlightAtCompletion);
+  }
+
+  /**
+   * Release a slot for a packet that the peer dropped or could not handle in time.
+   */
+  public void onDropped() {
+    inFlight.decrementAndGet();
+    synchronized (this) {
+      this.setEstimatedLimit(estimatedLimit * config.getBackoffRatio());
+    }
+  }
+
+  /**
+   * Release a slot for a packet whose outcome says nothing about the peer (e.g., it was never actually sent).
+   */
+  public void onIgnore() {
+    inFlight.decrementAndGet();
+  }
+
+  /**
+   * The current number of packets that may be in-flight at once.
+   *
+   * @return An int.
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * The current number of packets in-flight.
+   *
+   * @return An int.
+   */
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  private synchronized void recordRoundTrip(final long rttNanos, final int inFlightAtCompletion) {
+    // Average over the first samples equally, and then exponentially over the long window.
+    numSamples++;
+    final double alpha = 1.0 / Math.min(numSamples, config.getLongWindow());
+    longRttNanos = longRttNanos + alpha * (rttNanos - longRttNanos);
+
+    // If the peer got a lot faster, don't wait for the whole window to learn that.
+    if (longRttNanos / rttNanos > RTT_DRIFT_THRESHOLD) {
+      longRttNanos = longRttNanos * RTT_DRIFT_DECAY;
+    }
+
+    // Growing the limit is only justified if the peer is being sent enough packets to test the current one.
+    if (inFlightAtCompletion < estimatedLimit / 2) {
+      return;
+    }
+
+    final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, config.getRttTolerance() * longRttNanos / rttNanos));
+    final double queueSize = Math.sqrt(estimatedLimit);
+    final double newLimit = estimatedLimit * gradient + queueSize;
+    this.setEstimatedLimit(estimatedLimit * (1 - config.getSmoothing()) + newLimit * config.getSmoothing());
+  }
+
+  private void setEstimatedLimit(final double newEstimatedLimit) {
+    estimatedLimit = Math.max(config.getMinLimit(), Math.min(config.getMaxLimit(), newEstimatedLimit));
+    limit = (int) estimatedLimit;
+  }
+
+  @VisibleForTesting
+  synchronized double getLongRttNanos() {
+    return longRttNanos;
+  }
+}
@@ -0,0 +1,188 @@
+package org.interledger.connector.link;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Configuration for an {@link AdaptiveConcurrencyLimiter}.
+ */
+public class AdaptiveConcurrencyLimiterConfig {
+
+  public static final int DEFAULT_INITIAL_LIMIT = 20;
+  public static final int DEFAULT_MIN_LIMIT = 1;
+  public static final int DEFAULT_MAX_LIMIT = 1000;
+  public static final double DEFAULT_RTT_TOLERANCE = 1.5;
+  public static final double DEFAULT_SMOOTHING = 0.2;
+  public static final int DEFAULT_LONG_WINDOW = 600;
+  public static final double DEFAULT_BACKOFF_RATIO = 0.9;
+
+  private final int initialLimit;
+  private final int minLimit;
+  private final int maxLimit;
+  private final double rttTolerance;
+  private final double smoothing;
+  private final int longWindow;
+  private final double backoffRatio;
+
+  private AdaptiveConcurrencyLimiterConfig(final Builder builder) {
+    this.initialLimit = builder.initialLimit;
+    this.minLimit = builder.minLimit;
+    this.maxLimit = builder.maxLimit;
+    this.rttTolerance = builder.rttTolerance;
+    this.smoothing = builder.smoothing;
+    this.longWindow = builder.longWindow;
+    this.backoffRatio = builder.backoffRatio;
+  }
+
+  /**
+   * Create a builder that starts from the default configuration.
+   *
+   * @return A {@link Builder}.
+   */
+  public static Builder custom() {
+    return new Builder();
+  }
+
+  /**
+   * Create the default configuration.
+   *
+   * @return An {@link AdaptiveConcurrencyLimiterConfig}.
+   */
+  public static AdaptiveConcurrencyLimiterConfig ofDefaults() {
+    return custom().build();
+  }
+
+  /**
+   * The limit that a peer starts with before any round-trip times have been observed.
+   *
+   * @return An int.
+   */
+  public int getInitialLimit() {
+    return initialLimit;
+  }
+
+  /**
+   * The lowest the limit will ever go, no matter how slow a peer becomes.
+   *
+   * @return An int.
+   */
+  public int getMinLimit() {
+    return minLimit;
+  }
+
+  /**
+   * The highest the limit will ever go, no matter how fast a peer is.
+   *
+   * @return An int.
+   */
+  public int getMaxLimit() {
+    return maxLimit;
+  }
+
+  /**
+   * How much slower than its long-term average a peer's round-trip time may become before the limit starts to shrink.
+   * For example, {@code 1.5} tolerates round trips that take 50% longer than usual.
+   *
+   * @return A double.
+   */
+  public double getRttTolerance() {
+    return rttTolerance;
+  }
+
+  /**
+   * How much weight each new limit estimate carries relative to the current limit, between 0 and 1.
+   *
+   * @return A double.
+   */
+  public double getSmoothing() {
+    return smoothing;
+  }
+
+  /**
+   * The number of samples that the long-term average round-trip time is taken over.
+   *
+   * @return An int.
+   */
+  public int getLongWindow() {
+    return longWindow;
+  }
+
+  /**
+   * The factor that the limit is multiplied by whenever a packet is dropped by a peer (e.g., times out or is rejected
+   * because the peer is busy).
+   *
+   * @return A double.
+   */
+  public double getBackoffRatio() {
+    return backoffRatio;
+  }
+
+  /**
+   * A builder for {@link AdaptiveConcurrencyLimiterConfig}.
+   */
+  public static class Builder {
+
+    private int initialLimit = DEFAULT_INITIAL_LIMIT;
+    private int minLimit = DEFAULT_MIN_LIMIT;
+    private int maxLimit = DEFAULT_MAX_LIMIT;
+    private double rttTolerance = DEFAULT_RTT_TOLERANCE;
+    private double smoothing = DEFAULT_SMOOTHING;
+    private int longWindow = DEFAULT_LONG_WINDOW;
+    private double backoffRatio = DEFAULT_BACKOFF_RATIO;
+
+    private Builder() {
+    }
+
+    public Builder initialLimit(final int initialLimit) {
+      this.initialLimit = initialLimit;
+      return this;
+    }
+
+    public Builder minLimit(final int minLimit) {
+      this.minLimit = minLimit;
+      return this;
+    }
+
+    public Builder maxLimit(final int maxLimit) {
+      this.maxLimit = maxLimit;
+      return this;
+    }
+
+    public Builder rttTolerance(final double rttTolerance) {
+      this.rttTolerance = rttTolerance;
+      return this;
+    }
+
+    public Builder smoothing(final double smoothing) {
+      this.smoothing = smoothing;
+      return this;
+    }
+
+    public Builder longWindow(final int longWindow) {
+      this.longWindow = longWindow;
+      return this;
+    }
+
+    public Builder backoffRatio(final double backoffRatio) {
+      this.backoffRatio = backoffRatio;
+      return this;
+    }
+
+    /**
+     * Build the config.
+     *
+     * @return An {@link AdaptiveConcurrencyLimiterConfig}.
+     */
+    public AdaptiveConcurrencyLimiterConfig build() {
+      Preconditions.checkArgument(minLimit > 0, "minLimit must be greater than 0");
+      Preconditions.checkArgument(maxLimit >= minLimit, "maxLimit must not be less than minLimit");
+      Preconditions.checkArgument(
+        initialLimit >= minLimit && initialLimit <= maxLimit, "initialLimit must be between minLimit and maxLimit"
+      );
+      Preconditions.checkArgument(rttTolerance >= 1.0, "rttTolerance must be at least 1.0");
+      Preconditions.checkArgument(smoothing > 0 && smoothing <= 1.0, "smoothing must be in (0, 1]");
+      Preconditions.checkArgument(longWindow > 0, "longWindow must be greater than 0");
+      Preconditions.checkArgument(backoffRatio > 0 && backoffRatio < 1.0, "backoffRatio must be in (0, 1)");
+      return new AdaptiveConcurrencyLimiterConfig(this);
+    }
+  }
+}
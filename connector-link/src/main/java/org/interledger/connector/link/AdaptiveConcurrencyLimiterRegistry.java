@@ -0,0 +1,50 @@
+package org.interledger.connector.link;
+
+import org.interledger.link.LinkId;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Holds the {@link AdaptiveConcurrencyLimiter} for each link. Links are re-constructed frequently, so a link's limiter
+ * has to outlive any particular instance of that link in order to learn anything about its peer.
+ */
+public class AdaptiveConcurrencyLimiterRegistry {
+
+  private final AdaptiveConcurrencyLimiterConfig config;
+  private final Map<LinkId, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+  /**
+   * Required-args constructor.
+   *
+   * @param config The {@link AdaptiveConcurrencyLimiterConfig} used for every limiter in this registry.
+   */
+  public AdaptiveConcurrencyLimiterRegistry(final AdaptiveConcurrencyLimiterConfig config) {
+    this.config = Objects.requireNonNull(config);
+  }
+
+  /**
+   * Get the limiter for {@code linkId}, creating it if necessary.
+   *
+   * @param linkId A {@link LinkId}.
+   *
+   * @return The {@link AdaptiveConcurrencyLimiter} for {@code linkId}.
+   */
+  public AdaptiveConcurrencyLimiter limiter(final LinkId linkId) {
+    Objects.requireNonNull(linkId);
+    // Avoid computeIfAbsent in the common case, since it locks even when the key is present in Java 8.
+    final AdaptiveConcurrencyLimiter limiter = limiters.get(linkId);
+    return limiter != null ? limiter : limiters.computeIfAbsent(linkId, $ -> new AdaptiveConcurrencyLimiter(config));
+  }
+
+  /**
+   * All limiters created so far, keyed by link.
+   *
+   * @return An unmodifiable view of the limiters in this registry.
+   */
+  public Map<LinkId, AdaptiveConcurrencyLimiter> getAllLimiters() {
+    return Collections.unmodifiableMap(limiters);
+  }
+}
@@ -18,6 +18,7 @@ import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 /**
@@ -29,6 +30,9 @@ public class CircuitBreakingLink extends AbstractLink<LinkSettings> implements L
 
   private final CircuitBreakerRegistry circuitBreakerRegistry;
 
+  // Resolved from the registry on first use, and again only if this link's id changes.
+  private volatile CircuitBreaker circuitBreaker;
+
   /**
    * Required-args constructor.
    *
@@ -75,12 +79,20 @@ public class CircuitBreakingLink extends AbstractLink<LinkSettings> implements L
   public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
     Objects.requireNonNull(preparePacket);
 
-    // TODO: Once a load-test is in place, consider not looking this up for _every_ packet send.
-    final CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(this.getLinkId().value());
-
-    // The circuitBreaker will catch any exceptions that aren't InterledgerProtocolException and consider those for
-    // breaking purposes.
-    return CircuitBreaker.decorateFunction(circuitBreaker, linkDelegate::sendPacket).apply(preparePacket);
+    final CircuitBreaker circuitBreaker = this.getCircuitBreaker();
+
+    // Equivalent to `CircuitBreaker.decorateFunction`, without allocating a decorated function for every packet. The
+    // circuitBreaker records any exceptions that aren't InterledgerProtocolException for breaking purposes.
+    circuitBreaker.acquirePermission();
+    final long start = System.nanoTime();
+    try {
+      final InterledgerResponsePacket responsePacket = linkDelegate.sendPacket(preparePacket);
+      circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+      return responsePacket;
+    } catch (RuntimeException e) {
+      circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+      throw e;
+    }
   }
 
   @Override
@@ -91,6 +103,8 @@ public class CircuitBreakingLink extends AbstractLink<LinkSettings> implements L
   @Override
   public void setLinkId(final LinkId linkId) {
     this.linkDelegate.setLinkId(linkId);
+    // Circuit breakers are keyed by link id, so resolve the breaker for the new id on the next send.
+    this.circuitBreaker = null;
   }
 
   @Override
@@ -124,6 +138,12 @@ public class CircuitBreakingLink extends AbstractLink<LinkSettings> implements L
 
   @VisibleForTesting
   CircuitBreaker getCircuitBreaker() {
-    return circuitBreakerRegistry.circuitBreaker(this.getLinkId().value());
+    CircuitBreaker circuitBreaker = this.circuitBreaker;
+    if (circuitBreaker == null) {
+      // Benign race: concurrent callers get the same breaker from the registry.
+      circuitBreaker = circuitBreakerRegistry.circuitBreaker(this.getLinkId().value());
+      this.circuitBreaker = circuitBreaker;
+    }
+    return circuitBreaker;
   }
 }
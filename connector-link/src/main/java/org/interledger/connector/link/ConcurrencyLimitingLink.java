@@ -0,0 +1,150 @@
+package org.interledger.connector.link;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerProtocolException;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.AbstractLink;
+import org.interledger.link.Link;
+import org.interledger.link.LinkHandler;
+import org.interledger.link.LinkId;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.exceptions.LinkHandlerAlreadyRegisteredException;
+
+import com.google.common.collect.ImmutableSet;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * <p>A {@link Link} that wraps an internal Link-delegate and limits the number of packets in-flight to its peer using
+ * an {@link AdaptiveConcurrencyLimiter}.</p>
+ *
+ * <p>Once the limit has been reached, packets are rejected immediately with {@link
+ * InterledgerErrorCode#T03_CONNECTOR_BUSY} instead of being sent, so that a peer that is slowing down is sent only as
+ * many packets as it can handle at a stable latency, rather than being sent everything until packets start timing
+ * out.</p>
+ */
+public class ConcurrencyLimitingLink extends AbstractLink<LinkSettings> implements Link<LinkSettings> {
+
+  /**
+   * Reject codes that indicate the peer (or something behind it) couldn't keep up, and so should be sent fewer
+   * packets at once.
+   */
+  private static final Set<InterledgerErrorCode> DROPPED_CODES = ImmutableSet.of(
+    InterledgerErrorCode.T01_PEER_UNREACHABLE,
+    InterledgerErrorCode.T02_PEER_BUSY,
+    InterledgerErrorCode.T03_CONNECTOR_BUSY,
+    InterledgerErrorCode.T05_RATE_LIMITED,
+    InterledgerErrorCode.R00_TRANSFER_TIMED_OUT
+  );
+
+  private final Link<?> linkDelegate;
+
+  private final AdaptiveConcurrencyLimiterRegistry limiterRegistry;
+
+  /**
+   * Required-args constructor.
+   *
+   * @param linkDelegate    The {@link Link} to limit concurrency for.
+   * @param limiterRegistry The {@link AdaptiveConcurrencyLimiterRegistry} that holds this link's limiter.
+   */
+  public ConcurrencyLimitingLink(
+    final Link<?> linkDelegate,
+    final AdaptiveConcurrencyLimiterRegistry limiterRegistry
+  ) {
+    super(linkDelegate.getOperatorAddressSupplier(), linkDelegate.getLinkSettings());
+
+    this.linkDelegate = Objects.requireNonNull(linkDelegate);
+    this.limiterRegistry = Objects.requireNonNull(limiterRegistry);
+  }
+
+  @Override
+  public InterledgerResponsePacket sendPacket(final InterledgerPreparePacket preparePacket) {
+    Objects.requireNonNull(preparePacket);
+
+    final AdaptiveConcurrencyLimiter limiter = limiterRegistry.limiter(this.getLinkId());
+    if (!limiter.tryAcquire()) {
+      return InterledgerRejectPacket.builder()
+        .code(InterledgerErrorCode.T03_CONNECTOR_BUSY)
+        .triggeredBy(getOperatorAddressSupplier().get())
+        .message(String.format("Too many packets in-flight to peer. concurrencyLimit=%s", limiter.getLimit()))
+        .build();
+    }
+
+    final long startNanos = System.nanoTime();
+    final InterledgerResponsePacket responsePacket;
+    try {
+      responsePacket = linkDelegate.sendPacket(preparePacket);
+    } catch (CallNotPermittedException e) {
+      // The circuit breaker is open, so the packet was never sent.
+      limiter.onIgnore();
+      throw e;
+    } catch (InterledgerProtocolException e) {
+      this.release(limiter, e.getInterledgerRejectPacket(), startNanos);
+      throw e;
+    } catch (RuntimeException e) {
+      limiter.onDropped();
+      throw e;
+    }
+
+    this.release(limiter, responsePacket, startNanos);
+    return responsePacket;
+  }
+
+  private void release(
+    final AdaptiveConcurrencyLimiter limiter, final InterledgerResponsePacket responsePacket, final long startNanos
+  ) {
+    if (responsePacket instanceof InterledgerRejectPacket
+      && DROPPED_CODES.contains(((InterledgerRejectPacket) responsePacket).getCode())) {
+      limiter.onDropped();
+    } else {
+      limiter.onSuccess(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+  }
+
+  @Override
+  public LinkId getLinkId() {
+    return this.linkDelegate.getLinkId();
+  }
+
+  @Override
+  public void setLinkId(final LinkId linkId) {
+    this.linkDelegate.setLinkId(linkId);
+  }
+
+  @Override
+  public Supplier<InterledgerAddress> getOperatorAddressSupplier() {
+    return this.linkDelegate.getOperatorAddressSupplier();
+  }
+
+  @Override
+  public LinkSettings getLinkSettings() {
+    return this.linkDelegate.getLinkSettings();
+  }
+
+  @Override
+  public void registerLinkHandler(LinkHandler dataHandler) throws LinkHandlerAlreadyRegisteredException {
+    this.linkDelegate.registerLinkHandler(dataHandler);
+  }
+
+  @Override
+  public Optional<LinkHandler> getLinkHandler() {
+    return this.linkDelegate.getLinkHandler();
+  }
+
+  @Override
+  public void unregisterLinkHandler() {
+    this.linkDelegate.unregisterLinkHandler();
+  }
+
+  public <T> T getLinkDelegateTyped() {
+    return (T) this.linkDelegate;
+  }
+}
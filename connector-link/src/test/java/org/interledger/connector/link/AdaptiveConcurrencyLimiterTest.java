@@ -0,0 +1,104 @@
+package org.interledger.connector.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for {@link AdaptiveConcurrencyLimiter}.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+  private AdaptiveConcurrencyLimiter limiter;
+
+  @Before
+  public void setUp() {
+    limiter = new AdaptiveConcurrencyLimiter(AdaptiveConcurrencyLimiterConfig.custom()
+      .initialLimit(10)
+      .minLimit(2)
+      .maxLimit(50)
+      .build()
+    );
+  }
+
+  @Test
+  public void tryAcquireUpToLimit() {
+    IntStream.range(0, 10).forEach($ -> assertThat(limiter.tryAcquire()).isTrue());
+    assertThat(limiter.tryAcquire()).isFalse();
+    assertThat(limiter.getInFlight()).isEqualTo(10);
+
+    limiter.onIgnore();
+    assertThat(limiter.getInFlight()).isEqualTo(9);
+    assertThat(limiter.getLimit()).isEqualTo(10);
+    assertThat(limiter.tryAcquire()).isTrue();
+  }
+
+  @Test
+  public void limitGrowsAtStableLatency() {
+    IntStream.range(0, 20).forEach($ -> saturateAndComplete(Duration.ofMillis(50)));
+
+    assertThat(limiter.getLimit()).isGreaterThan(10);
+  }
+
+  @Test
+  public void limitDoesNotGrowWhileUnderutilized() {
+    IntStream.range(0, 20).forEach($ -> {
+      limiter.tryAcquire();
+      limiter.onSuccess(Duration.ofMillis(50));
+    });
+
+    assertThat(limiter.getLimit()).isEqualTo(10);
+  }
+
+  @Test
+  public void limitShrinksWhenLatencyRises() {
+    IntStream.range(0, 20).forEach($ -> saturateAndComplete(Duration.ofMillis(50)));
+    final int stableLimit = limiter.getLimit();
+
+    IntStream.range(0, 20).forEach($ -> saturateAndComplete(Duration.ofMillis(500)));
+
+    assertThat(limiter.getLimit()).isLessThan(stableLimit);
+  }
+
+  @Test
+  public void limitBacksOffOnDrops() {
+    IntStream.range(0, 50).forEach($ -> {
+      limiter.tryAcquire();
+      limiter.onDropped();
+    });
+
+    assertThat(limiter.getLimit()).isEqualTo(2);
+    assertThat(limiter.getInFlight()).isEqualTo(0);
+  }
+
+  @Test
+  public void longRttRecoversWhenPeerGetsFaster() {
+    IntStream.range(0, 20).forEach($ -> {
+      limiter.tryAcquire();
+      limiter.onSuccess(Duration.ofMillis(500));
+    });
+    final double slowRtt = limiter.getLongRttNanos();
+
+    IntStream.range(0, 20).forEach($ -> {
+      limiter.tryAcquire();
+      limiter.onSuccess(Duration.ofMillis(10));
+    });
+
+    assertThat(limiter.getLongRttNanos()).isLessThan(slowRtt / 2);
+  }
+
+  /**
+   * Fill the limiter, and then complete every packet with {@code roundTripTime}.
+   */
+  private void saturateAndComplete(final Duration roundTripTime) {
+    int acquired = 0;
+    while (limiter.tryAcquire()) {
+      acquired++;
+    }
+    IntStream.range(0, acquired).forEach($ -> limiter.onSuccess(roundTripTime));
+  }
+}
@@ -189,6 +189,24 @@ public class CircuitBreakingLinkTest {
     assertThat(result.failed().get().getClass().getName()).isEqualTo(RuntimeException.class.getName());
   }
 
+  @Test
+  public void circuitBreakerIsResolvedOncePerLinkId() {
+    link.sendPacket(PREPARE_PACKET);
+    final CircuitBreaker circuitBreaker = link.getCircuitBreaker();
+    link.sendPacket(PREPARE_PACKET);
+
+    assertThat(link.getCircuitBreaker()).isSameAs(circuitBreaker);
+    assertThat(circuitBreaker.getName()).isEqualTo(LINK_ID_VALUE);
+    assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isEqualTo(2);
+    verify(linkDelegateMock, times(1)).getLinkId();
+
+    when(linkDelegateMock.getLinkId()).thenReturn(LinkId.of("456"));
+    link.setLinkId(LinkId.of("456"));
+
+    assertThat(link.getCircuitBreaker()).isNotSameAs(circuitBreaker);
+    assertThat(link.getCircuitBreaker().getName()).isEqualTo("456");
+  }
+
   @Test
   public void getLinkId() {
     this.link.setLinkId(LINK_ID);
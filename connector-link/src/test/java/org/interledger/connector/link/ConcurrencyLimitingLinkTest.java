@@ -0,0 +1,169 @@
+package org.interledger.connector.link;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerProtocolException;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.link.Link;
+import org.interledger.link.LinkId;
+import org.interledger.link.LinkSettings;
+
+import com.google.common.primitives.UnsignedLong;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Unit tests for {@link ConcurrencyLimitingLink}.
+ */
+public class ConcurrencyLimitingLinkTest {
+
+  private static final InterledgerPreparePacket PREPARE_PACKET = InterledgerPreparePacket.builder()
+    .destination(InterledgerAddress.of("example.recipient"))
+    .amount(UnsignedLong.valueOf(10))
+    .executionCondition(InterledgerCondition.of(new byte[32]))
+    .expiresAt(Instant.now().plusSeconds(50))
+    .build();
+
+  private static final InterledgerFulfillPacket FULFILL_PACKET = InterledgerFulfillPacket.builder()
+    .fulfillment(InterledgerFulfillment.of(new byte[32]))
+    .build();
+
+  private static final LinkId LINK_ID = LinkId.of("123");
+
+  @Mock
+  private Link<LinkSettings> linkDelegateMock;
+
+  @Mock
+  private LinkSettings delegateLinkSettingsMock;
+
+  private AdaptiveConcurrencyLimiterRegistry limiterRegistry;
+  private AdaptiveConcurrencyLimiter limiter;
+  private ConcurrencyLimitingLink link;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+
+    when(linkDelegateMock.getLinkId()).thenReturn(LINK_ID);
+    when(linkDelegateMock.getOperatorAddressSupplier()).thenReturn(() -> InterledgerAddress.of("example.operator"));
+    when(linkDelegateMock.getLinkSettings()).thenReturn(delegateLinkSettingsMock);
+
+    limiterRegistry = new AdaptiveConcurrencyLimiterRegistry(
+      AdaptiveConcurrencyLimiterConfig.custom().initialLimit(2).build()
+    );
+    limiter = limiterRegistry.limiter(LINK_ID);
+    link = new ConcurrencyLimitingLink(linkDelegateMock, limiterRegistry);
+  }
+
+  @Test
+  public void sendPacketWithinLimit() {
+    when(linkDelegateMock.sendPacket(PREPARE_PACKET)).thenReturn(FULFILL_PACKET);
+
+    assertThat(link.sendPacket(PREPARE_PACKET)).isEqualTo(FULFILL_PACKET);
+    assertThat(limiter.getInFlight()).isEqualTo(0);
+    assertThat(limiter.getLongRttNanos()).isPositive();
+  }
+
+  @Test
+  public void rejectWhenLimitReached() {
+    limiter.tryAcquire();
+    limiter.tryAcquire();
+
+    final InterledgerResponsePacket response = link.sendPacket(PREPARE_PACKET);
+
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class)
+      .extracting("code", "message", "triggeredBy")
+      .containsExactly(
+        InterledgerErrorCode.T03_CONNECTOR_BUSY,
+        "Too many packets in-flight to peer. concurrencyLimit=2",
+        Optional.of(InterledgerAddress.of("example.operator"))
+      );
+    verify(linkDelegateMock, times(0)).sendPacket(PREPARE_PACKET);
+  }
+
+  @Test
+  public void busyRejectFromPeerShrinksLimit() {
+    limiterRegistry = new AdaptiveConcurrencyLimiterRegistry(
+      AdaptiveConcurrencyLimiterConfig.custom().initialLimit(20).build()
+    );
+    link = new ConcurrencyLimitingLink(linkDelegateMock, limiterRegistry);
+    when(linkDelegateMock.sendPacket(PREPARE_PACKET)).thenReturn(reject(InterledgerErrorCode.T03_CONNECTOR_BUSY));
+
+    link.sendPacket(PREPARE_PACKET);
+
+    assertThat(limiterRegistry.limiter(LINK_ID).getLimit()).isEqualTo(18);
+    assertThat(limiterRegistry.limiter(LINK_ID).getInFlight()).isEqualTo(0);
+  }
+
+  @Test
+  public void finalRejectFromPeerIsASuccessfulRoundTrip() {
+    when(linkDelegateMock.sendPacket(PREPARE_PACKET)).thenReturn(reject(InterledgerErrorCode.F02_UNREACHABLE));
+
+    link.sendPacket(PREPARE_PACKET);
+
+    assertThat(limiter.getLimit()).isEqualTo(2);
+    assertThat(limiter.getLongRttNanos()).isPositive();
+  }
+
+  @Test
+  public void protocolExceptionReleasesSlot() {
+    when(linkDelegateMock.sendPacket(PREPARE_PACKET))
+      .thenThrow(new InterledgerProtocolException(reject(InterledgerErrorCode.R00_TRANSFER_TIMED_OUT)));
+
+    assertThatThrownBy(() -> link.sendPacket(PREPARE_PACKET)).isInstanceOf(InterledgerProtocolException.class);
+    assertThat(limiter.getInFlight()).isEqualTo(0);
+  }
+
+  @Test
+  public void openCircuitIsIgnored() {
+    when(linkDelegateMock.sendPacket(PREPARE_PACKET))
+      .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("test")));
+
+    assertThatThrownBy(() -> link.sendPacket(PREPARE_PACKET)).isInstanceOf(CallNotPermittedException.class);
+    assertThat(limiter.getInFlight()).isEqualTo(0);
+    assertThat(limiter.getLimit()).isEqualTo(2);
+    assertThat(limiter.getLongRttNanos()).isZero();
+  }
+
+  @Test
+  public void unexpectedExceptionReleasesSlot() {
+    when(linkDelegateMock.sendPacket(PREPARE_PACKET)).thenThrow(new RuntimeException("foo"));
+
+    assertThatThrownBy(() -> link.sendPacket(PREPARE_PACKET)).hasMessage("foo");
+    assertThat(limiter.getInFlight()).isEqualTo(0);
+  }
+
+  @Test
+  public void limiterOutlivesLink() {
+    final ConcurrencyLimitingLink otherLink = new ConcurrencyLimitingLink(linkDelegateMock, limiterRegistry);
+    limiter.tryAcquire();
+    limiter.tryAcquire();
+
+    assertThat(otherLink.sendPacket(PREPARE_PACKET)).isInstanceOf(InterledgerRejectPacket.class);
+  }
+
+  private InterledgerRejectPacket reject(InterledgerErrorCode errorCode) {
+    return InterledgerRejectPacket.builder()
+      .triggeredBy(InterledgerAddress.of("example.peer"))
+      .code(errorCode)
+      .build();
+  }
+}
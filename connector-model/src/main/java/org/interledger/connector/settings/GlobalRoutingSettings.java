@@ -96,6 +96,48 @@ public interface GlobalRoutingSettings {
     return 50;
   }
 
+  /**
+   * An optionally-defined path to a file that the Connector's routing tables are periodically snapshotted to, and
+   * restored from on startup. If empty, routing table snapshots are disabled.
+   */
+  Optional<String> routingTableSnapshotPath();
+
+  /**
+   * The frequency at which routing tables are snapshotted, if {@link #routingTableSnapshotPath()} is defined.
+   */
+  @Value.Default
+  default Duration routingTableSnapshotInterval() {
+    return Duration.ofSeconds(30);
+  }
+
+  /**
+   * Determines if, amongst routes with the same peer weight and path length, the Connector prefers next hops whose
+   * links currently have the lowest measured round-trip time and failure rate. Defaults to {@code false}, in which
+   * case equally-ranked routes are tie-broken by account identifier.
+   */
+  @Value.Default
+  default boolean isLatencyAwareRouteSelectionEnabled() {
+    return false;
+  }
+
+  /**
+   * The frequency at which best routes are re-evaluated against current link quality, if {@link
+   * #isLatencyAwareRouteSelectionEnabled()} is {@code true}.
+   */
+  @Value.Default
+  default Duration latencyAwareRouteSelectionInterval() {
+    return Duration.ofSeconds(10);
+  }
+
+  /**
+   * The fraction by which an equally-ranked route's link cost must be lower than the current best route's for it to
+   * become the new best route. Prevents routes from flapping between peers with similar latency.
+   */
+  @Value.Default
+  default double latencyAwareRouteSelectionHysteresis() {
+    return 0.2;
+  }
+
   @Value.Check
   default void verify() {
     // NOTE: It is acceptable to not have a default-route in certain scenarios. In these scenarios, if the route isn't
@@ -87,4 +87,37 @@ public interface IlpOverHttpConnectionSettings {
   default int maxRequestsPerHost() {
    return 50;
   }
+
+  /**
+   * Whether to negotiate HTTP/2 with peers over TLS (via ALPN). Peers that don't support HTTP/2 fall back to HTTP/1.1.
+   *
+   * @return {@code true} if HTTP/2 should be negotiated; {@code false} to only ever use HTTP/1.1.
+   */
+  @Value.Default
+  default boolean isHttp2Enabled() {
+    return true;
+  }
+
+  /**
+   * Whether to speak cleartext HTTP/2 (h2c) to peers with an {@code http} URL without first negotiating it. Only
+   * enable this if every such peer accepts h2c (e.g., intra-datacenter peers). Can be overridden per peer.
+   *
+   * @return {@code true} to use h2c with prior knowledge for {@code http} peers; {@code false} otherwise.
+   */
+  @Value.Default
+  default boolean isHttp2PriorKnowledge() {
+    return false;
+  }
+
+  /**
+   * The maximum number of concurrent requests (i.e., HTTP/2 streams) this Connector sends to any single peer; further
+   * requests are rejected with {@code T03} (Connector Busy) until a stream frees up, rather than waiting for one. Can
+   * be overridden per peer. A value of 0 means no limit other than what the peer advertises.
+   *
+   * @return Maximum numbers of concurrent requests per peer.
+   */
+  @Value.Default
+  default int maxConcurrentStreamsPerPeer() {
+    return 0;
+  }
 }
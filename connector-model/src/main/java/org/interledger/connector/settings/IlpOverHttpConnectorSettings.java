@@ -18,4 +18,26 @@ public interface IlpOverHttpConnectorSettings {
     return IlpOverHttpConnectionSettings.builder().build();
   }
 
+  /**
+   * Whether the ILP-over-HTTP endpoint accepts cleartext HTTP/2 (h2c), either via prior knowledge or an HTTP/1.1
+   * upgrade, in addition to HTTP/1.1. HTTP/1.1 clients are unaffected.
+   *
+   * @return {@code true} if h2c is accepted; {@code false} otherwise.
+   */
+  @Value.Default
+  default boolean isH2cEnabled() {
+    return true;
+  }
+
+  /**
+   * The maximum number of concurrent streams a peer may open on a single incoming HTTP/2 connection. Since a peer
+   * multiplexes all of its packets over one or a few connections, this effectively limits in-flight packets per peer.
+   *
+   * @return The maximum number of concurrent streams per incoming HTTP/2 connection.
+   */
+  @Value.Default
+  default int maxConcurrentStreams() {
+    return 256;
+  }
+
 }
@@ -1,7 +1,9 @@
 package org.interledger.connector.persistence.entities;
 
+import static org.interledger.connector.persistence.entities.DataConstants.ColumnNames.ACCOUNT_TOKEN_FINGERPRINT_IDX_COLUMNS;
 import static org.interledger.connector.persistence.entities.DataConstants.ColumnNames.ACCOUNT_TOKEN_IDX_COLUMNS;
 import static org.interledger.connector.persistence.entities.DataConstants.IndexNames.ACCESS_TOKENS_ACCT_ID_IDX;
+import static org.interledger.connector.persistence.entities.DataConstants.IndexNames.ACCESS_TOKENS_FINGERPRINT_IDX;
 import static org.interledger.connector.persistence.entities.DataConstants.TableNames.ACCESS_TOKENS;
 
 import org.interledger.connector.accounts.AccountId;
@@ -19,7 +21,8 @@ import javax.persistence.Table;
 @Entity
 @Access(AccessType.FIELD)
 @Table(name = ACCESS_TOKENS, indexes = {
-  @Index(name = ACCESS_TOKENS_ACCT_ID_IDX, columnList = ACCOUNT_TOKEN_IDX_COLUMNS)
+  @Index(name = ACCESS_TOKENS_ACCT_ID_IDX, columnList = ACCOUNT_TOKEN_IDX_COLUMNS),
+  @Index(name = ACCESS_TOKENS_FINGERPRINT_IDX, columnList = ACCOUNT_TOKEN_FINGERPRINT_IDX_COLUMNS)
 })
 @SuppressWarnings( {"PMD"})
 public class AccessTokenEntity extends AbstractEntity {
@@ -35,6 +38,14 @@ public class AccessTokenEntity extends AbstractEntity {
   @Column(name = "ENCRYPTED_TOKEN")
   private String encryptedToken;
 
+  /**
+   * A non-secret, deterministic fingerprint of the raw token that is indexed so that a token can be found without
+   * checking it against every {@link #encryptedToken} of an account. Null for tokens created before fingerprints were
+   * introduced.
+   */
+  @Column(name = "TOKEN_FINGERPRINT")
+  private String tokenFingerprint;
+
   public AccountId getAccountId() {
     return accountId;
   }
@@ -55,6 +66,14 @@ public class AccessTokenEntity extends AbstractEntity {
     this.encryptedToken = encryptedToken;
   }
 
+  public String getTokenFingerprint() {
+    return tokenFingerprint;
+  }
+
+  public void setTokenFingerprint(String tokenFingerprint) {
+    this.tokenFingerprint = tokenFingerprint;
+  }
+
   /**
    * Overridden to use natural identifier.
    *
@@ -91,6 +110,7 @@ public class AccessTokenEntity extends AbstractEntity {
       "id=" + id +
       ", accountId='" + accountId + '\'' +
       ", encryptedToken='" + encryptedToken + '\'' +
+      ", tokenFingerprint='" + tokenFingerprint + '\'' +
       ", createdAt=" + getCreatedDate() +
       '}';
   }
@@ -19,6 +19,7 @@ public interface DataConstants {
 
     // ACCOUNT TOKEN
     String ACCOUNT_TOKEN_IDX_COLUMNS = "ACCOUNT_ID";
+    String ACCOUNT_TOKEN_FINGERPRINT_IDX_COLUMNS = "ACCOUNT_ID,TOKEN_FINGERPRINT";
 
     // FX_RATE_OVERRIDES
     String ASSET_CODE_IDX_COLUMNS = "ASSET_CODE_FROM,ASSET_CODE_TO";
@@ -33,6 +34,7 @@ public interface DataConstants {
 
     // ACCOUNT_SETTINGS
     String ACCESS_TOKENS_ACCT_ID_IDX = "ACCESS_TOKENS_ACCT_ID_IDX";
+    String ACCESS_TOKENS_FINGERPRINT_IDX = "ACCESS_TOKENS_FINGERPRINT_IDX";
 
     // DELETED_ACCOUNT_SETTINGS
     String DELETED_ACCT_REL_IDX = "DELETED_ACCT_REL_IDX";
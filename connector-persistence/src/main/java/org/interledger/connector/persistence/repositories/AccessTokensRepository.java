@@ -36,6 +36,25 @@ public interface AccessTokensRepository
    */
   List<AccessTokenEntity> findByAccountId(AccountId accountId);
 
+  /**
+   * Find the {@link AccessTokenEntity}s of an account that have a particular token fingerprint, using an index.
+   *
+   * @param accountId        A {@link String} corresponding to {@link AccessTokenEntity#getAccountId()}.
+   * @param tokenFingerprint The fingerprint corresponding to {@link AccessTokenEntity#getTokenFingerprint()}.
+   *
+   * @return List of {@link AccessTokenEntity}.
+   */
+  List<AccessTokenEntity> findByAccountIdAndTokenFingerprint(AccountId accountId, String tokenFingerprint);
+
+  /**
+   * Find the {@link AccessTokenEntity}s of an account that were created before tokens were fingerprinted.
+   *
+   * @param accountId A {@link String} corresponding to {@link AccessTokenEntity#getAccountId()}.
+   *
+   * @return List of {@link AccessTokenEntity}.
+   */
+  List<AccessTokenEntity> findByAccountIdAndTokenFingerprintIsNull(AccountId accountId);
+
   void deleteByAccountId(AccountId accountId);
 
   void deleteByAccountIdAndId(AccountId accountId, Long id);
@@ -6,6 +6,7 @@ import org.interledger.connector.accounts.AccountRelationship;
 import org.interledger.connector.accounts.AccountSettings;
 import org.interledger.connector.accounts.SettlementEngineAccountId;
 import org.interledger.connector.persistence.entities.AccountSettingsEntity;
+import org.interledger.link.LinkType;
 
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
@@ -89,6 +90,15 @@ public interface AccountSettingsRepository
    */
   List<AccountSettingsEntity> findAccountSettingsEntitiesByConnectionInitiatorIsTrue();
 
+  /**
+   * Find all {@link AccountSettingsEntity} objects for accounts that use a particular type of link.
+   *
+   * @param linkType The {@link LinkType} to filter by.
+   *
+   * @return A {@link List} of {@link AccountSettingsEntity}.
+   */
+  List<AccountSettingsEntity> findByLinkType(LinkType linkType);
+
   /**
    * Find the first {@link AccountSettingsEntity} that this connector has with a relationship of {@code relationship}.
    *
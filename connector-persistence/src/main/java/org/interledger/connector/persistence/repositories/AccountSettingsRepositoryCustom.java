@@ -5,6 +5,7 @@ import org.interledger.connector.accounts.AccountRelationship;
 import org.interledger.connector.accounts.AccountSettings;
 import org.interledger.connector.accounts.SettlementEngineAccountId;
 import org.interledger.connector.persistence.entities.AccountSettingsEntity;
+import org.interledger.link.LinkType;
 
 import java.util.Collection;
 import java.util.List;
@@ -52,6 +53,15 @@ public interface AccountSettingsRepositoryCustom {
    */
   List<AccountSettings> findAccountSettingsEntitiesByConnectionInitiatorIsTrueWithConversion();
 
+  /**
+   * Performs a database lookup to find all account settings objects for accounts that use a particular type of link.
+   *
+   * @param linkType The {@link LinkType} to filter by.
+   *
+   * @return A {@link List} of {@link AccountSettings}.
+   */
+  List<AccountSettings> findByLinkTypeWithConversion(LinkType linkType);
+
   /**
    * Find an {@link AccountSettings} by its settlement engine identifier.
    *
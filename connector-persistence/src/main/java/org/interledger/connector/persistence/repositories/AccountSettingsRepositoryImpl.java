@@ -6,6 +6,7 @@ import org.interledger.connector.accounts.AccountSettings;
 import org.interledger.connector.accounts.InvalidAccountIdProblem;
 import org.interledger.connector.accounts.SettlementEngineAccountId;
 import org.interledger.connector.persistence.entities.AccountSettingsEntity;
+import org.interledger.link.LinkType;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,6 +84,19 @@ public class AccountSettingsRepositoryImpl implements AccountSettingsRepositoryC
       .collect(Collectors.toList());
   }
 
+  @Override
+  public List<AccountSettings> findByLinkTypeWithConversion(LinkType linkType) {
+    Objects.requireNonNull(linkType);
+    return accountSettingsRepository.findByLinkType(linkType).stream()
+      // Check to see if the AccountId is going to be able to be marshalled to a valid AccountId. Generally this
+      // should never be a problem, but it's possible that invalid accountId chars made their way into the datastore
+      // (either manually or via old implementations). In this case, we want to WARN on this condition, but otherwise
+      // ignore this entry.
+      .filter(filterAccountByValidAccountId::test)
+      .map(accountSettingsEntity -> conversionService.convert(accountSettingsEntity, AccountSettings.class))
+      .collect(Collectors.toList());
+  }
+
   @Override
   public Optional<AccountSettings> findBySettlementEngineAccountIdWithConversion(
     SettlementEngineAccountId seAccountId
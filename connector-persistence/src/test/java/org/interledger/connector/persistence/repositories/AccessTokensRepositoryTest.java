@@ -131,6 +131,22 @@ public class AccessTokensRepositoryTest {
     assertThat(accessTokensRepository.findByAccountIdAndId(otherAccountId, other.getId())).isPresent();
   }
 
+  @Test
+  public void findByAccountIdAndTokenFingerprint() {
+    final AccountId accountId = AccountId.of(generateUuid());
+    final AccessTokenEntity legacy = accessTokensRepository.save(newEntity(accountId));
+    final AccessTokenEntity toSave = newEntity(accountId);
+    toSave.setTokenFingerprint("fingerprint");
+    final AccessTokenEntity saved = accessTokensRepository.save(toSave);
+
+    assertThat(accessTokensRepository.findByAccountIdAndTokenFingerprint(accountId, "fingerprint"))
+      .containsExactly(saved);
+    assertThat(accessTokensRepository.findByAccountIdAndTokenFingerprint(accountId, "other")).isEmpty();
+    assertThat(accessTokensRepository.findByAccountIdAndTokenFingerprint(AccountId.of(generateUuid()), "fingerprint"))
+      .isEmpty();
+    assertThat(accessTokensRepository.findByAccountIdAndTokenFingerprintIsNull(accountId)).containsExactly(legacy);
+  }
+
   //////////////////
   // Private Helpers
   //////////////////
@@ -151,6 +167,7 @@ public class AccessTokensRepositoryTest {
 
     assertThat(entity1.getAccountId()).isEqualTo(entity2.getAccountId());
     assertThat(entity1.getEncryptedToken()).isEqualTo(entity2.getEncryptedToken());
+    assertThat(entity1.getTokenFingerprint()).isEqualTo(entity2.getTokenFingerprint());
     assertThat(entity1.getCreatedDate()).isEqualTo(entity2.getCreatedDate());
     assertThat(entity1.getId()).isEqualTo(entity2.getId());
   }
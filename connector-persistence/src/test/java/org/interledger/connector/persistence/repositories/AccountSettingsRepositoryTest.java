@@ -685,6 +685,30 @@ public class AccountSettingsRepositoryTest {
     assertThat(initiatorAccounts.contains(accountSettings3)).isTrue();
   }
 
+  @Test
+  public void findByLinkTypeWithConversion() {
+    final AccountSettings httpAccountSettings = AccountSettings.builder()
+      .accountId(AccountId.of(generateUuid()))
+      .assetCode("XRP")
+      .assetScale(9)
+      .linkType(LinkType.of("ILP_OVER_HTTP"))
+      .accountRelationship(AccountRelationship.PEER)
+      .build();
+    accountSettingsRepository.save(new AccountSettingsEntity(httpAccountSettings));
+    final AccountSettings loopbackAccountSettings = AccountSettings.builder()
+      .accountId(AccountId.of(generateUuid()))
+      .assetCode("XRP")
+      .assetScale(9)
+      .linkType(LinkType.of("Loopback"))
+      .accountRelationship(AccountRelationship.PEER)
+      .build();
+    accountSettingsRepository.save(new AccountSettingsEntity(loopbackAccountSettings));
+
+    List<AccountSettings> httpAccounts =
+      accountSettingsRepository.findByLinkTypeWithConversion(LinkType.of("ILP_OVER_HTTP"));
+    assertThat(httpAccounts).containsExactly(httpAccountSettings);
+  }
+
   @Test
   public void findBySettlementEngineAccountIdWithConversion() {
     final SettlementEngineAccountId settlementEngineAccountId =
@@ -53,4 +53,20 @@ public interface CcpReceiver {
    */
   Optional<IncomingRoute> getIncomingRouteForPrefix(final InterledgerAddressPrefix addressPrefix);
 
+  /**
+   * Take a point-in-time copy of the routes received from the remote peer, along with the routing table id and epoch
+   * they correspond to.
+   *
+   * @return An {@link IncomingRoutesSnapshot}.
+   */
+  IncomingRoutesSnapshot snapshot();
+
+  /**
+   * Replace the routing state of this receiver with the contents of {@code snapshot}, so that subsequent route control
+   * requests ask the remote peer only for updates newer than the snapshot.
+   *
+   * @param snapshot An {@link IncomingRoutesSnapshot} previously taken for the same peer.
+   */
+  void restore(IncomingRoutesSnapshot snapshot);
+
 }
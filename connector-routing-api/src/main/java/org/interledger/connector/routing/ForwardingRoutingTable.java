@@ -62,4 +62,15 @@ public interface ForwardingRoutingTable<R extends RouteUpdate> extends RoutingTa
   void clearRouteInLogAtEpoch(int epoch);
 
   void setEpochValue(int epoch, R route);
+
+  /**
+   * Replace the contents of this routing table, including its identifier and route update log, with previously
+   * captured state. Every epoch between 1 and {@code currentEpoch} that has no entry in {@code routeUpdates} is treated
+   * as cleared.
+   *
+   * @param routingTableId The {@link RoutingTableId} this table should use.
+   * @param currentEpoch   The current epoch of the restored table.
+   * @param routeUpdates   A {@link List} of every non-cleared entry in the route update log.
+   */
+  void restore(RoutingTableId routingTableId, int currentEpoch, List<R> routeUpdates);
 }
@@ -0,0 +1,68 @@
+package org.interledger.connector.routing;
+
+import org.interledger.connector.accounts.AccountId;
+
+import org.immutables.value.Value;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A point-in-time copy of the routing state held by a {@link CcpReceiver} for a single peer, used to restore that
+ * receiver after a restart so that it only needs to request route updates it hasn't yet seen.
+ */
+@Value.Immutable
+public interface IncomingRoutesSnapshot {
+
+  static ImmutableIncomingRoutesSnapshot.Builder builder() {
+    return ImmutableIncomingRoutesSnapshot.builder();
+  }
+
+  /**
+   * The peer that sent the routes in this snapshot.
+   *
+   * @return An {@link AccountId}.
+   */
+  AccountId peerAccountId();
+
+  /**
+   * The identifier of the peer's routing table that {@link #epoch()} refers to, if any routes have been received.
+   *
+   * @return An optionally-present {@link RoutingTableId}.
+   */
+  Optional<RoutingTableId> routingTableId();
+
+  /**
+   * The epoch index up to which the peer had sent route updates.
+   *
+   * @return An int.
+   */
+  int epoch();
+
+  /**
+   * The moment after which the routes in this snapshot should no longer be trusted, absent a fresh update from the
+   * peer.
+   *
+   * @return An {@link Instant}.
+   */
+  Instant routingTableExpiry();
+
+  /**
+   * All routes that had been received from the peer.
+   *
+   * @return A {@link List} of type {@link IncomingRoute}.
+   */
+  List<IncomingRoute> incomingRoutes();
+
+  /**
+   * Determines if this snapshot has expired as of {@code now}.
+   *
+   * @param now The current {@link Instant}.
+   *
+   * @return {@code true} if the routes in this snapshot should no longer be used; {@code false} otherwise.
+   */
+  default boolean isExpired(final Instant now) {
+    return !routingTableExpiry().isAfter(now);
+  }
+}
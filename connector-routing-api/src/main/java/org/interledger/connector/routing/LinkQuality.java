@@ -0,0 +1,50 @@
+package org.interledger.connector.routing;
+
+import org.interledger.connector.accounts.AccountId;
+
+import org.immutables.value.Value;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * A point-in-time estimate of how well the link to a particular peer account is currently performing, as measured by
+ * the packets this Connector has recently sent over it.
+ */
+@Value.Immutable
+public interface LinkQuality {
+
+  static ImmutableLinkQuality.Builder builder() {
+    return ImmutableLinkQuality.builder();
+  }
+
+  /**
+   * The account the link connects to.
+   */
+  AccountId accountId();
+
+  /**
+   * A smoothed estimate of the time between sending a prepare packet over the link and receiving its fulfill. Empty if
+   * no packet sent over the link has been fulfilled yet.
+   */
+  Optional<Duration> roundTripTime();
+
+  /**
+   * A smoothed estimate, between 0 and 1, of the fraction of recent packets that failed on this link, either because
+   * the link itself failed or because the peer rejected with a temporary or relative error.
+   */
+  double failureRate();
+
+  /**
+   * The number of outcomes that contributed to this estimate.
+   */
+  long numSamples();
+
+  /**
+   * Whether the circuit breaker for this link was recently observed to be open.
+   */
+  @Value.Default
+  default boolean isCircuitOpen() {
+    return false;
+  }
+}
@@ -0,0 +1,45 @@
+package org.interledger.connector.routing;
+
+import org.interledger.connector.accounts.AccountId;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Keeps a rolling estimate of the round-trip time and failure rate of the link to each peer account, so that route
+ * selection can prefer next hops that are currently fast and healthy.
+ */
+public interface LinkQualityTracker {
+
+  /**
+   * Record that a packet sent to {@code accountId} was fulfilled.
+   *
+   * @param accountId     The {@link AccountId} the packet was sent to.
+   * @param roundTripTime The time between sending the prepare packet and receiving its fulfillment.
+   */
+  void recordFulfill(AccountId accountId, Duration roundTripTime);
+
+  /**
+   * Record that a packet sent to {@code accountId} failed, either because the link threw an exception or because the
+   * packet was rejected with an error that indicates the path through this peer is unhealthy.
+   *
+   * @param accountId The {@link AccountId} the packet was sent to.
+   */
+  void recordFailure(AccountId accountId);
+
+  /**
+   * Record that a packet to {@code accountId} was not sent because the circuit breaker for its link is open.
+   *
+   * @param accountId The {@link AccountId} the packet was to be sent to.
+   */
+  void recordCircuitOpen(AccountId accountId);
+
+  /**
+   * The current {@link LinkQuality} estimate for {@code accountId}.
+   *
+   * @param accountId The {@link AccountId} of a peer.
+   *
+   * @return An optionally-present {@link LinkQuality}; empty if nothing has been sent to {@code accountId} yet.
+   */
+  Optional<LinkQuality> getLinkQuality(AccountId accountId);
+}
@@ -3,6 +3,7 @@ package org.interledger.connector.routing;
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountSettings;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -51,4 +52,14 @@ public interface RouteBroadcaster {
    * @return
    */
   Stream<RoutableAccount> getAllCcpEnabledAccounts();
+
+  /**
+   * Restore previously snapshotted incoming routes. Each snapshot is restored into the {@link CcpReceiver} of its peer
+   * when that peer is registered with this broadcaster, before the first route control request is sent, so that the
+   * peer only needs to send newer route updates. Snapshots for peers that are already registered are restored
+   * immediately.
+   *
+   * @param snapshots A {@link Collection} of {@link IncomingRoutesSnapshot}, at most one per peer.
+   */
+  void restoreIncomingRoutes(Collection<IncomingRoutesSnapshot> snapshots);
 }
@@ -0,0 +1,62 @@
+package org.interledger.connector.routing;
+
+import org.immutables.value.Value;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A point-in-time copy of all of the routing state held by a Connector: the local routing table used to make routing
+ * decisions, the forwarding routing table (and its update log) advertised to peers, and the incoming routes received
+ * from each peer.
+ */
+@Value.Immutable
+public interface RoutingTableSnapshot {
+
+  static ImmutableRoutingTableSnapshot.Builder builder() {
+    return ImmutableRoutingTableSnapshot.builder();
+  }
+
+  /**
+   * The moment this snapshot was taken.
+   *
+   * @return An {@link Instant}.
+   */
+  Instant createdAt();
+
+  /**
+   * Every route in the local routing table.
+   *
+   * @return A {@link List} of type {@link Route}.
+   */
+  List<Route> localRoutes();
+
+  /**
+   * The identifier of the forwarding routing table.
+   *
+   * @return A {@link RoutingTableId}.
+   */
+  RoutingTableId forwardingRoutingTableId();
+
+  /**
+   * The current epoch of the forwarding routing table.
+   *
+   * @return An int.
+   */
+  int forwardingRoutingTableEpoch();
+
+  /**
+   * Every entry in the forwarding routing table's update log that has not been superseded by a later update. Any
+   * epoch between 1 and {@link #forwardingRoutingTableEpoch()} that is missing from this list was cleared.
+   *
+   * @return A {@link List} of type {@link RouteUpdate}, ordered by epoch.
+   */
+  List<RouteUpdate> forwardingRouteUpdates();
+
+  /**
+   * The incoming routes received from each CCP-enabled peer.
+   *
+   * @return A {@link List} of type {@link IncomingRoutesSnapshot}.
+   */
+  List<IncomingRoutesSnapshot> incomingRoutes();
+}
@@ -2,6 +2,7 @@ package org.interledger.connector.routing;
 
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.ccp.CcpConstants;
+import org.interledger.connector.ccp.CcpNewRoute;
 import org.interledger.connector.ccp.CcpRouteControlRequest;
 import org.interledger.connector.ccp.CcpRoutePathPart;
 import org.interledger.connector.ccp.CcpRouteUpdateRequest;
@@ -9,6 +10,7 @@ import org.interledger.connector.ccp.CcpSyncMode;
 import org.interledger.connector.ccp.CcpWithdrawnRoute;
 import org.interledger.connector.ccp.ImmutableCcpRouteControlRequest;
 import org.interledger.connector.link.CircuitBreakingLink;
+import org.interledger.connector.link.ConcurrencyLimitingLink;
 import org.interledger.connector.settings.ConnectorSettings;
 import org.interledger.core.InterledgerAddressPrefix;
 import org.interledger.core.InterledgerErrorCode;
@@ -36,6 +38,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -64,6 +67,12 @@ public class DefaultCcpReceiver implements CcpReceiver {
   // Contains the identifier used used by our peer. We'll reset the epoch to 0 if the identifier changes.
   private Instant routingTableExpiry = Instant.EPOCH;
 
+  // If present, large route updates are applied on this executor instead of on the thread that received them.
+  private final Optional<RouteIngestionExecutor> ingestionExecutor;
+
+  // The number of route updates from this peer that have been accepted but not yet fully applied.
+  private final AtomicInteger numPendingIngestions = new AtomicInteger();
+
   /**
    * Required-args Constructor. Note that each instance of a CCP Receiver should have its own incoming routing table.
    */
@@ -78,7 +87,28 @@ public class DefaultCcpReceiver implements CcpReceiver {
       peerAccountId,
       link,
       ccpCodecContext,
-      new InMemoryRoutingTable<>()
+      new InMemoryRoutingTable<>(),
+      Optional.empty()
+    );
+  }
+
+  /**
+   * Required-args Constructor for a receiver that applies large route updates on {@code ingestionExecutor}.
+   */
+  public DefaultCcpReceiver(
+    final Supplier<ConnectorSettings> connectorSettingsSupplier,
+    final AccountId peerAccountId,
+    final Link link,
+    final CodecContext ccpCodecContext,
+    final RouteIngestionExecutor ingestionExecutor
+  ) {
+    this(
+      connectorSettingsSupplier,
+      peerAccountId,
+      link,
+      ccpCodecContext,
+      new InMemoryRoutingTable<>(),
+      Optional.of(ingestionExecutor)
     );
   }
 
@@ -89,16 +119,36 @@ public class DefaultCcpReceiver implements CcpReceiver {
     final Link link,
     final CodecContext ccpCodecContext,
     final RoutingTable<IncomingRoute> incomingRoutes
+  ) {
+    this(connectorSettingsSupplier, peerAccountId, link, ccpCodecContext, incomingRoutes, Optional.empty());
+  }
+
+  @VisibleForTesting
+  DefaultCcpReceiver(
+    final Supplier<ConnectorSettings> connectorSettingsSupplier,
+    final AccountId peerAccountId,
+    final Link link,
+    final CodecContext ccpCodecContext,
+    final RoutingTable<IncomingRoute> incomingRoutes,
+    final Optional<RouteIngestionExecutor> ingestionExecutor
   ) {
     this.connectorSettingsSupplier = Objects.requireNonNull(connectorSettingsSupplier);
     this.ccpCodecContext = Objects.requireNonNull(ccpCodecContext);
     this.peerAccountId = peerAccountId;
     this.link = Objects.requireNonNull(link);
     this.incomingRoutes = Objects.requireNonNull(incomingRoutes);
+    this.ingestionExecutor = Objects.requireNonNull(ingestionExecutor);
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>If this receiver was constructed with a {@link RouteIngestionExecutor}, large updates are validated and
+   * acknowledged immediately, but their routes are applied asynchronously. In that case, the returned list contains
+   * every prefix the update will touch rather than only the prefixes that actually changed.</p>
+   */
   @Override
-  public List<InterledgerAddressPrefix> handleRouteUpdateRequest(
+  public synchronized List<InterledgerAddressPrefix> handleRouteUpdateRequest(
     final CcpRouteUpdateRequest routeUpdateRequest
   ) {
     Objects.requireNonNull(routeUpdateRequest);
@@ -113,6 +163,7 @@ public class DefaultCcpReceiver implements CcpReceiver {
         this.routingTableId.map(RoutingTableId::value).map(UUID::toString).orElse("n/a"),
         routeUpdateRequest.routingTableId()
       );
+      this.routingTableId = Optional.of(routeUpdateRequest.routingTableId());
       this.epoch = 0;
     }
 
@@ -142,6 +193,15 @@ public class DefaultCcpReceiver implements CcpReceiver {
       return Collections.emptyList();
     }
 
+    final int numRouteChanges =
+      routeUpdateRequest.withdrawnRoutePrefixes().size() + routeUpdateRequest.newRoutes().size();
+    if (ingestionExecutor.isPresent()
+      && (ingestionExecutor.get().shouldIngestAsync(numRouteChanges) || numPendingIngestions.get() > 0)) {
+      // Any update that arrives while an earlier one is still pending must go through the executor too, or else its
+      // changes could be applied before those of the earlier epochs.
+      return this.ingestAsync(ingestionExecutor.get(), routeUpdateRequest);
+    }
+
     final ImmutableList.Builder<InterledgerAddressPrefix> changedPrefixesBuilder = ImmutableList.builder();
 
     // Withdrawn Routes...
@@ -160,17 +220,7 @@ public class DefaultCcpReceiver implements CcpReceiver {
 
     // New Routes
     routeUpdateRequest.newRoutes().stream()
-      .map(ccpNewRoute -> ImmutableIncomingRoute.builder()
-        .peerAccountId(peerAccountId)
-        .routePrefix(ccpNewRoute.prefix())
-        .path(
-          ccpNewRoute.path().stream()
-            .map(CcpRoutePathPart::routePathPart)
-            .collect(Collectors.toList())
-        )
-        .auth(ccpNewRoute.auth())
-        .build()
-      )
+      .map(this::toIncomingRoute)
       .forEach(newIncomingRoute -> {
         if (this.incomingRoutes.addRoute(newIncomingRoute) != null) {
           changedPrefixesBuilder.add(newIncomingRoute.routePrefix());
@@ -186,6 +236,87 @@ public class DefaultCcpReceiver implements CcpReceiver {
     return changedPrefixes;
   }
 
+  /**
+   * Submit the changes in {@code routeUpdateRequest} to {@code executor} and advance this receiver's epoch without
+   * waiting for them to be applied.
+   *
+   * @param executor           The {@link RouteIngestionExecutor} to apply the route changes on.
+   * @param routeUpdateRequest A validated {@link CcpRouteUpdateRequest}.
+   *
+   * @return A {@link List} of every prefix that the update will touch once it has been applied.
+   *
+   * @throws InterledgerProtocolException with a T03 reject if the executor has too many pending route changes.
+   */
+  private List<InterledgerAddressPrefix> ingestAsync(
+    final RouteIngestionExecutor executor, final CcpRouteUpdateRequest routeUpdateRequest
+  ) throws InterledgerProtocolException {
+    final ImmutableList.Builder<InterledgerAddressPrefix> touchedPrefixesBuilder = ImmutableList.builder();
+    final ImmutableList.Builder<RouteIngestionExecutor.RouteChange> routeChangesBuilder =
+      ImmutableList.builder();
+
+    routeUpdateRequest.withdrawnRoutePrefixes().stream()
+      .map(CcpWithdrawnRoute::prefix)
+      .forEach(withdrawnRoutePrefix -> {
+        touchedPrefixesBuilder.add(withdrawnRoutePrefix);
+        routeChangesBuilder.add(RouteIngestionExecutor.RouteChange.of(
+          withdrawnRoutePrefix, () -> this.removeIncomingRoute(withdrawnRoutePrefix)
+        ));
+      });
+
+    routeUpdateRequest.newRoutes().stream()
+      .map(this::toIncomingRoute)
+      .forEach(newIncomingRoute -> {
+        touchedPrefixesBuilder.add(newIncomingRoute.routePrefix());
+        routeChangesBuilder.add(RouteIngestionExecutor.RouteChange.of(
+          newIncomingRoute.routePrefix(), () -> this.addIncomingRoute(newIncomingRoute)
+        ));
+      });
+
+    numPendingIngestions.incrementAndGet();
+    if (!executor.trySubmit(peerAccountId, routeChangesBuilder.build(), numPendingIngestions::decrementAndGet)) {
+      numPendingIngestions.decrementAndGet();
+      // Don't advance the epoch so that the peer re-sends these routes once it notices the reject.
+      throw new InterledgerProtocolException(
+        InterledgerRejectPacket.builder()
+          .code(InterledgerErrorCode.T03_CONNECTOR_BUSY)
+          .message("Too many route updates are pending. Please try again later.")
+          .triggeredBy(connectorSettingsSupplier.get().operatorAddress())
+          .build()
+      );
+    }
+
+    this.epoch = routeUpdateRequest.toEpochIndex();
+
+    final List<InterledgerAddressPrefix> touchedPrefixes = touchedPrefixesBuilder.build();
+    logger.debug("Accepted route update for ingestion. prefixCount={} fromEpoch={} toEpoch={}",
+      touchedPrefixes.size(), routeUpdateRequest.fromEpochIndex(), routeUpdateRequest.toEpochIndex()
+    );
+    return touchedPrefixes;
+  }
+
+  // Route changes applied by the RouteIngestionExecutor take this receiver's monitor, just like inline updates, so that
+  // they never interleave with a snapshot.
+  private synchronized void removeIncomingRoute(final InterledgerAddressPrefix addressPrefix) {
+    this.incomingRoutes.removeRoute(addressPrefix);
+  }
+
+  private synchronized void addIncomingRoute(final IncomingRoute incomingRoute) {
+    this.incomingRoutes.addRoute(incomingRoute);
+  }
+
+  private IncomingRoute toIncomingRoute(final CcpNewRoute ccpNewRoute) {
+    return ImmutableIncomingRoute.builder()
+      .peerAccountId(peerAccountId)
+      .routePrefix(ccpNewRoute.prefix())
+      .path(
+        ccpNewRoute.path().stream()
+          .map(CcpRoutePathPart::routePathPart)
+          .collect(Collectors.toList())
+      )
+      .auth(ccpNewRoute.auth())
+      .build();
+  }
+
   public InterledgerResponsePacket sendRouteControl() {
     Preconditions.checkNotNull(link, "Link must be assigned before using a CcpReceiver!");
 
@@ -263,7 +394,7 @@ public class DefaultCcpReceiver implements CcpReceiver {
   }
 
   @Override
-  public void forEachIncomingRoute(final BiConsumer<InterledgerAddressPrefix, IncomingRoute> action) {
+  public synchronized void forEachIncomingRoute(final BiConsumer<InterledgerAddressPrefix, IncomingRoute> action) {
     this.incomingRoutes.forEach(action);
   }
 
@@ -273,6 +404,41 @@ public class DefaultCcpReceiver implements CcpReceiver {
     return incomingRoutes.getRouteByPrefix(addressPrefix);
   }
 
+  @Override
+  public synchronized IncomingRoutesSnapshot snapshot() {
+    final ImmutableList.Builder<IncomingRoute> incomingRoutesBuilder = ImmutableList.builder();
+    this.incomingRoutes.forEach((prefix, incomingRoute) -> incomingRoutesBuilder.add(incomingRoute));
+
+    return IncomingRoutesSnapshot.builder()
+      .peerAccountId(peerAccountId)
+      .routingTableId(routingTableId)
+      .epoch(epoch)
+      .routingTableExpiry(routingTableExpiry)
+      .incomingRoutes(incomingRoutesBuilder.build())
+      .build();
+  }
+
+  @Override
+  public synchronized void restore(final IncomingRoutesSnapshot snapshot) {
+    Objects.requireNonNull(snapshot);
+    Preconditions.checkArgument(
+      peerAccountId.equals(snapshot.peerAccountId()),
+      "Snapshot for peerAccountId=%s cannot be restored into receiver for peerAccountId=%s",
+      snapshot.peerAccountId(), peerAccountId
+    );
+
+    this.incomingRoutes.reset();
+    snapshot.incomingRoutes().forEach(this.incomingRoutes::addRoute);
+    this.routingTableId = snapshot.routingTableId();
+    this.epoch = snapshot.epoch();
+    this.routingTableExpiry = snapshot.routingTableExpiry();
+
+    logger.info("Restored incoming routes from snapshot. peerAccountId={} routingTableId={} epoch={} numRoutes={}",
+      peerAccountId, routingTableId.map(RoutingTableId::value).map(UUID::toString).orElse("n/a"), epoch,
+      snapshot.incomingRoutes().size()
+    );
+  }
+
   /**
    * Bump up the routingTableExpiry of this routing table by the number of milliseconds indicated in {@code
    * holdDownTimeMillis}.
@@ -334,6 +500,8 @@ public class DefaultCcpReceiver implements CcpReceiver {
       if (IlpOverHttpLink.class.isAssignableFrom(circuitBreakingLink.getLinkDelegateTyped().getClass())) {
         return circuitBreakingLink.<IlpOverHttpLink>getLinkDelegateTyped().getOutgoingUrl().toString();
       }
+    } else if (ConcurrencyLimitingLink.class.isAssignableFrom(link.getClass())) {
+      return getOutgoingUrl(((ConcurrencyLimitingLink) link).<Link>getLinkDelegateTyped());
     }
     return "n/a";
   }
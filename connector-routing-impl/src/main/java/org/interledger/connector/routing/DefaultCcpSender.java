@@ -5,6 +5,8 @@ import org.interledger.connector.accounts.AccountSettings;
 import org.interledger.connector.ccp.CcpConstants;
 import org.interledger.connector.ccp.CcpNewRoute;
 import org.interledger.connector.ccp.CcpRouteControlRequest;
+import org.interledger.connector.ccp.CcpRoutePathPart;
+import org.interledger.connector.ccp.CcpRouteProperty;
 import org.interledger.connector.ccp.CcpRouteUpdateRequest;
 import org.interledger.connector.ccp.CcpSyncMode;
 import org.interledger.connector.ccp.CcpWithdrawnRoute;
@@ -14,6 +16,8 @@ import org.interledger.connector.ccp.ImmutableCcpRouteUpdateRequest;
 import org.interledger.connector.ccp.ImmutableCcpWithdrawnRoute;
 import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
 import org.interledger.connector.settings.ConnectorSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
 import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.encoding.asn.framework.CodecContext;
 import org.interledger.link.Link;
@@ -29,9 +33,9 @@ import org.springframework.scheduling.concurrent.ConcurrentTaskScheduler;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.Instant;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
 import java.util.StringJoiner;
 import java.util.UUID;
 import java.util.concurrent.Executors;
@@ -40,7 +44,6 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 import javax.annotation.PreDestroy;
 
@@ -49,6 +52,20 @@ import javax.annotation.PreDestroy;
  */
 public class DefaultCcpSender implements CcpSender {
 
+  /**
+   * The maximum number of bytes that may be placed in the data field of an ILP Prepare packet. Each route update is
+   * sized to fit within this budget.
+   */
+  @VisibleForTesting
+  static final int MAX_ROUTE_UPDATE_BYTES = 32767;
+
+  // OER quantity prefix for a SEQUENCE OF (a length byte plus up to 4 bytes of count).
+  private static final int SEQUENCE_OF_QUANTITY_BYTES = 5;
+
+  // routingTableId (16 bytes), four uint32 values (currentEpoch, fromEpoch, toEpoch, holdDownTime), and the quantity
+  // prefixes of the new and withdrawn route collections. The speaker address is accounted for separately.
+  private static final int ROUTE_UPDATE_FIXED_BYTES = 16 + (4 * 4) + (2 * SEQUENCE_OF_QUANTITY_BYTES);
+
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final Supplier<ConnectorSettings> connectorSettingsSupplier;
@@ -66,6 +83,9 @@ public class DefaultCcpSender implements CcpSender {
   private final AtomicReference<RoutingTableId> lastKnownRoutingTableId;
   private final ConcurrentTaskScheduler scheduler;
 
+  // Re-used for every route update sent to this peer so that a full-sized update doesn't need to grow a fresh buffer.
+  private final ByteArrayOutputStream serializationBuffer;
+
   // This holds the scheduled route update task. If nothing is scheduled, then this value will be null.
   private ScheduledFuture<?> scheduledTask;
 
@@ -99,6 +119,7 @@ public class DefaultCcpSender implements CcpSender {
     // CHILD accounts should typically not receive route-updates nor request them from this connector (this assumption
     // may be revisited in the future depending on real-world use-cases).
     this.scheduler = new ConcurrentTaskScheduler(Executors.newSingleThreadScheduledExecutor());
+    this.serializationBuffer = new ByteArrayOutputStream(MAX_ROUTE_UPDATE_BYTES);
   }
 
   @Override
@@ -115,6 +136,9 @@ public class DefaultCcpSender implements CcpSender {
 
     this.syncMode.set(routeControlRequest.mode());
 
+    // If the peer already knows about one of our routing tables (e.g., because it restored its routes from a
+    // snapshot), then we only need to send the epochs it hasn't seen, but only if that is still our current table.
+    routeControlRequest.lastKnownRoutingTableId().ifPresent(lastKnownRoutingTableId::set);
     if (lastKnownRoutingTableId.get().equals(this.forwardingRoutingTable.getRoutingTableId()) == false) {
       logger.debug(
         "Peer {} has old routing table id, resetting lastKnownEpoch to 0. theirTableId={} correctTableId={}",
@@ -122,6 +146,14 @@ public class DefaultCcpSender implements CcpSender {
         lastKnownRoutingTableId,
         this.forwardingRoutingTable.getRoutingTableId());
       this.lastKnownEpoch.set(0);
+    } else if (routeControlRequest.lastKnownEpoch() > this.forwardingRoutingTable.getCurrentEpoch()) {
+      logger.debug(
+        "Peer {} is ahead of our routing table, resetting lastKnownEpoch to 0. theirEpoch={} currentEpoch={}",
+        peerAccountId,
+        routeControlRequest.lastKnownEpoch(),
+        this.forwardingRoutingTable.getCurrentEpoch()
+      );
+      this.lastKnownEpoch.set(0);
     } else {
       logger.debug("Peer epoch set. peerAccountId={} lastKnownEpoch={} currentEpoch={}",
         peerAccountId,
@@ -183,6 +215,11 @@ public class DefaultCcpSender implements CcpSender {
 
   /**
    * Send a route update to a remote peer.
+   *
+   * <p>Each update is sized to fill (but not exceed) {@link #MAX_ROUTE_UPDATE_BYTES} of encoded route data, rather
+   * than being limited to a fixed number of epochs. If, after a successful update, the peer is still behind this
+   * connector's current epoch, a follow-up update is immediately queued on this sender's scheduler so that a peer
+   * that is many epochs behind can converge without waiting for multiple broadcast intervals.</p>
    */
   // @Async -- No need to manage this thread via Spring because this operation is manually scheduled in
   // response to route control requests, which have threads governed by Jetty.
@@ -192,102 +229,104 @@ public class DefaultCcpSender implements CcpSender {
     // Perform route update, catch and log any exceptions...
     try {
       final int nextRequestedEpoch = this.lastKnownEpoch.get();
+      final int currentEpoch = this.forwardingRoutingTable.getCurrentEpoch();
+      final InterledgerAddress speaker = this.connectorSettingsSupplier.get().operatorAddress();
+
+      // Find all updates from the nextRequestedEpoch index onwards inside of the routing table's Log. The returned
+      // Iterable is a lazy view, so only the entries that fit into this update are actually walked.
+      final Iterable<RouteUpdate> allUpdatesToSend = this.forwardingRoutingTable.getPartialRouteLog(
+        nextRequestedEpoch, Math.max(0, currentEpoch - nextRequestedEpoch)
+      );
+
+      // This value doesn't vary per-route, so only look it up once per update.
+      final boolean thisLinkIsParent = this
+        .accountSettingsRepository.findByAccountIdWithConversion(peerAccountId)
+        .map(AccountSettings::isParentAccount)
+        .orElse(false);
+      // Many routes typically share the same next-hop, so only consult the repository once per account per update.
+      final Map<AccountId, Boolean> nextHopRelationIsPeerOrParentCache = new HashMap<>();
 
-      // Find all updates from the nextRequestedEpoch index to the (nextRequestedEpoch + maxPerTable) inside of the
-      // routing table's Log. These are the udpates that should be sent to the remote peer.
-
-      int skip = nextRequestedEpoch;
-      // arbitrarily limiting to 50 to match JS connector. This may need to be larger or dynamic in the future.
-      int limit = 50;
-      // TODO:FIXME
-      //        (int) (nextRequestedEpoch + this.connectorSettingsSupplier.get().getRouteBroadcastSettings()
-      //          .maxEpochsPerRoutingTable());
-      final Iterable<RouteUpdate> allUpdatesToSend = this.forwardingRoutingTable.getPartialRouteLog(skip, limit);
-
-      // Despite asking for N updates, there may not be that many to send, so compute the `toEpoch` properly.
-      final int toEpoch =
-        nextRequestedEpoch + (int) StreamSupport.stream(allUpdatesToSend.spliterator(), false).count();
-
-      // Filter the List....
-      final List<RouteUpdate> filteredUpdatesToSend = StreamSupport.stream(allUpdatesToSend.spliterator(), false)
-        .map(routeUpdate -> {
-
-          // If there are no routes in the update, then skip it...
-          if (!routeUpdate.route().isPresent()) {
-            return routeUpdate;
-          } else {
-            final Route actualRoute = routeUpdate.route().get();
-            // Don't send peer their own routes (i.e., withdraw this route)
-            if (actualRoute.nextHopAccountId().equals(peerAccountId)) {
-              return null;
-            }
-
-            // Don't advertise Peer or Supplier (Parent) routes to Suppliers (Parents).
-            final boolean nextHopRelationIsPeerOrParent = this
-              .accountSettingsRepository.findByAccountIdWithConversion(actualRoute.nextHopAccountId())
+      final ImmutableList.Builder<CcpNewRoute> newRoutesBuilder = ImmutableList.builder();
+      final ImmutableList.Builder<CcpWithdrawnRoute> withdrawnRoutesBuilder = ImmutableList.builder();
+
+      int remainingBytes = MAX_ROUTE_UPDATE_BYTES - ROUTE_UPDATE_FIXED_BYTES - encodedAddressSize(speaker.getValue());
+      int numEpochsConsumed = 0;
+      for (final RouteUpdate routeUpdate : allUpdatesToSend) {
+        // A null entry is an epoch whose route was superseded (see `clearRouteInLogAtEpoch`), so there's nothing to send
+        // for it, but the epoch must still be accounted for.
+        if (routeUpdate == null) {
+          numEpochsConsumed++;
+          continue;
+        }
+
+        if (!routeUpdate.route().isPresent()) {
+          final CcpWithdrawnRoute withdrawnRoute = ImmutableCcpWithdrawnRoute.builder()
+            .prefix(routeUpdate.routePrefix())
+            .build();
+          final int encodedSize = encodedSize(withdrawnRoute);
+          if (encodedSize > remainingBytes && numEpochsConsumed > 0) {
+            break;
+          }
+          remainingBytes -= encodedSize;
+          withdrawnRoutesBuilder.add(withdrawnRoute);
+        } else {
+          final Route actualRoute = routeUpdate.route().get();
+          // Don't send peer their own routes (i.e., withdraw this route)
+          if (actualRoute.nextHopAccountId().equals(peerAccountId)) {
+            numEpochsConsumed++;
+            continue;
+          }
+
+          // Don't advertise Peer or Supplier (Parent) routes to Suppliers (Parents).
+          final boolean nextHopRelationIsPeerOrParent = nextHopRelationIsPeerOrParentCache.computeIfAbsent(
+            actualRoute.nextHopAccountId(),
+            nextHopAccountId -> this.accountSettingsRepository.findByAccountIdWithConversion(nextHopAccountId)
               .map(AccountSettings::isPeerOrParentAccount)
               .orElseGet(() -> {
-                logger.error("NextHop Route {} was not found in the PeerManager!", actualRoute.nextHopAccountId());
+                logger.error("NextHop Route {} was not found in the PeerManager!", nextHopAccountId);
                 return false;
-              });
-
-            final boolean thisLinkIsParent = this
-              .accountSettingsRepository.findByAccountIdWithConversion(peerAccountId)
-              .map(AccountSettings::isParentAccount)
-              .orElse(false);
-
-            if (thisLinkIsParent || nextHopRelationIsPeerOrParent) {
-              // If the current link is our parent; OR, if the next-hop is a peer or Parent, then withdraw the
-              // route. We only advertise routes to peers/children where the next-hop is a child.
-              return null;
-            } else {
-              return routeUpdate;
-            }
+              })
+          );
+
+          if (thisLinkIsParent || nextHopRelationIsPeerOrParent) {
+            // If the current link is our parent; OR, if the next-hop is a peer or Parent, then withdraw the
+            // route. We only advertise routes to peers/children where the next-hop is a child.
+            numEpochsConsumed++;
+            continue;
           }
-        })
-        .filter(Objects::nonNull)
-        .collect(Collectors.toList());
 
-      final ImmutableList.Builder<CcpNewRoute> newRoutesBuilder = ImmutableList.builder();
-      final ImmutableList.Builder<CcpWithdrawnRoute> withdrawnRoutesBuilder = ImmutableList.builder();
-
-      // Populate newRoutesBuilder....
-      filteredUpdatesToSend.stream()
-        .filter(routeUpdate -> routeUpdate.route().isPresent())
-        .map(RouteUpdate::route)
-        .filter(Optional::isPresent)
-        .map(Optional::get)
-        .map(routingTableEntry ->
-          ImmutableCcpNewRoute.builder()
-            .prefix(routingTableEntry.routePrefix())
-            .auth(routingTableEntry.auth())
+          final CcpNewRoute newRoute = ImmutableCcpNewRoute.builder()
+            .prefix(actualRoute.routePrefix())
+            .auth(actualRoute.auth())
             .path(
-              routingTableEntry.path().stream()
+              actualRoute.path().stream()
                 .map(address -> ImmutableCcpRoutePathPart.builder()
                   .routePathPart(address)
                   .build()
                 )
                 .collect(Collectors.toList())
             )
-            .build()
-        ).forEach(newRoutesBuilder::add);
-
-      // Populate withdrawnRoutesBuilder....
-      filteredUpdatesToSend.stream()
-        .filter(routeUpdate -> !routeUpdate.route().isPresent())
-        .map(routingTableEntry ->
-          ImmutableCcpWithdrawnRoute.builder()
-            .prefix(routingTableEntry.routePrefix())
-            .build()
-        ).forEach(withdrawnRoutesBuilder::add);
+            .build();
+          final int encodedSize = encodedSize(newRoute);
+          if (encodedSize > remainingBytes && numEpochsConsumed > 0) {
+            break;
+          }
+          remainingBytes -= encodedSize;
+          newRoutesBuilder.add(newRoute);
+        }
+        numEpochsConsumed++;
+      }
+
+      // Despite asking for N updates, there may not be room to send them all, so compute the `toEpoch` properly.
+      final int toEpoch = nextRequestedEpoch + numEpochsConsumed;
 
       // Construct RouteUpdateRequest
       final CcpRouteUpdateRequest ccpRouteUpdateRequest = ImmutableCcpRouteUpdateRequest.builder()
-        .speaker(this.connectorSettingsSupplier.get().operatorAddress())
+        .speaker(speaker)
         .routingTableId(this.forwardingRoutingTable.getRoutingTableId())
         .holdDownTime(this.connectorSettingsSupplier.get().globalRoutingSettings().routeExpiry().toMillis())
-        .currentEpochIndex(this.forwardingRoutingTable.getCurrentEpoch())
-        .fromEpochIndex(this.lastKnownEpoch.get())
+        .currentEpochIndex(currentEpoch)
+        .fromEpochIndex(nextRequestedEpoch)
         .toEpochIndex(toEpoch)
         .newRoutes(newRoutesBuilder.build())
         .withdrawnRoutePrefixes(withdrawnRoutesBuilder.build())
@@ -296,8 +335,7 @@ public class DefaultCcpSender implements CcpSender {
       // Try to send the ccpRouteUpdateRequest....
 
       // We anticipate that they're going to be happy with our route update and ccpRouteUpdateRequest the next one.
-      final int previousNextRequestedEpoch = this.lastKnownEpoch.get();
-      this.lastKnownEpoch.compareAndSet(previousNextRequestedEpoch, toEpoch);
+      this.lastKnownEpoch.compareAndSet(nextRequestedEpoch, toEpoch);
 
       final InterledgerPreparePacket preparePacket = InterledgerPreparePacket.builder()
         .amount(UnsignedLong.ZERO)
@@ -310,8 +348,10 @@ public class DefaultCcpSender implements CcpSender {
         .data(serializeCcpPacket(ccpRouteUpdateRequest))
         .build();
       logger.info(
-        "CcpSender sending RouteUpdate Request: targetPeerAccountId={}. ccpRouteUpdateRequest={} outgoingPreparePacket={}",
-        this.peerAccountId, ccpRouteUpdateRequest, preparePacket
+        "CcpSender sending RouteUpdate Request: targetPeerAccountId={} fromEpoch={} toEpoch={} currentEpoch={} "
+          + "numNewRoutes={} numWithdrawnRoutes={} numBytes={}",
+        this.peerAccountId, nextRequestedEpoch, toEpoch, currentEpoch, ccpRouteUpdateRequest.newRoutes().size(),
+        ccpRouteUpdateRequest.withdrawnRoutePrefixes().size(), preparePacket.getData().length
       );
 
       // NOTE: This entire method is generally called only from within this class via the ScheduledTask. Thus, not
@@ -319,8 +359,21 @@ public class DefaultCcpSender implements CcpSender {
       // changes, then consider making this call in a separate thread.
       this.link.sendPacket(preparePacket).handle(fulfillPacket -> {
         logger.debug("Route update succeeded. targetPeerAccountId={} fulfillPacket={}", peerAccountId, fulfillPacket);
+        // If the peer is still behind, don't wait for the next broadcast interval to send it the rest of the log.
+        if (toEpoch > nextRequestedEpoch && toEpoch < currentEpoch && syncMode.get() == CcpSyncMode.MODE_SYNC) {
+          logger.debug(
+            "Peer is still behind, sending follow-up route update. targetPeerAccountId={} toEpoch={} currentEpoch={}",
+            peerAccountId, toEpoch, currentEpoch
+          );
+          this.scheduler.execute(this::sendRouteUpdateRequest);
+        }
       }, rejectPacket -> {
         logger.error("Route update failed! targetPeerAccountId={} rejectPacket={}", peerAccountId, rejectPacket);
+        if (rejectPacket.getCode().getErrorFamily() == InterledgerErrorCode.ErrorFamily.TEMPORARY) {
+          // The peer didn't accept these epochs (e.g., because it is busy ingesting earlier routes), so re-send them on
+          // the next broadcast instead of skipping ahead.
+          this.lastKnownEpoch.compareAndSet(toEpoch, nextRequestedEpoch);
+        }
       });
 
     } catch (RuntimeException e) {
@@ -333,12 +386,66 @@ public class DefaultCcpSender implements CcpSender {
   protected byte[] serializeCcpPacket(final CcpRouteUpdateRequest ccpRouteUpdateRequest) {
     Objects.requireNonNull(ccpRouteUpdateRequest);
 
-    try {
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-      ccpCodecContext.write(ccpRouteUpdateRequest, outputStream);
-      return outputStream.toByteArray();
-    } catch (IOException e) {
-      throw new RuntimeException(e.getMessage(), e);
+    // Route updates are generally serialized on this sender's single scheduler thread, but synchronize anyway so
+    // that the re-used buffer is never shared between concurrent callers.
+    synchronized (serializationBuffer) {
+      try {
+        serializationBuffer.reset();
+        ccpCodecContext.write(ccpRouteUpdateRequest, serializationBuffer);
+        return serializationBuffer.toByteArray();
+      } catch (IOException e) {
+        throw new RuntimeException(e.getMessage(), e);
+      }
+    }
+  }
+
+  /**
+   * Computes an upper-bound of the number of bytes that {@code newRoute} will occupy in an OER-encoded
+   * {@link CcpRouteUpdateRequest}.
+   */
+  @VisibleForTesting
+  static int encodedSize(final CcpNewRoute newRoute) {
+    Objects.requireNonNull(newRoute);
+
+    int size = encodedAddressSize(newRoute.prefix().getValue());
+    size += SEQUENCE_OF_QUANTITY_BYTES;
+    for (CcpRoutePathPart pathPart : newRoute.path()) {
+      size += encodedAddressSize(pathPart.routePathPart().getValue());
+    }
+    size += newRoute.auth().length;
+    size += SEQUENCE_OF_QUANTITY_BYTES;
+    for (CcpRouteProperty property : newRoute.properties()) {
+      // meta (uint8) + id (uint16) + length-prefixed value.
+      size += 3 + encodedOctetStringSize(property.value().length);
+    }
+    return size;
+  }
+
+  /**
+   * Computes an upper-bound of the number of bytes that {@code withdrawnRoute} will occupy in an OER-encoded
+   * {@link CcpRouteUpdateRequest}.
+   */
+  @VisibleForTesting
+  static int encodedSize(final CcpWithdrawnRoute withdrawnRoute) {
+    Objects.requireNonNull(withdrawnRoute);
+    return encodedAddressSize(withdrawnRoute.prefix().getValue());
+  }
+
+  private static int encodedAddressSize(final String address) {
+    // ILP addresses are restricted to ASCII, so the number of chars is the number of encoded bytes.
+    return encodedOctetStringSize(address.length());
+  }
+
+  private static int encodedOctetStringSize(final int numBytes) {
+    // OER length determinants are a single byte up to 127, and otherwise a length-of-length byte followed by the length.
+    if (numBytes < 128) {
+      return 1 + numBytes;
+    } else if (numBytes < 256) {
+      return 2 + numBytes;
+    } else if (numBytes < 65536) {
+      return 3 + numBytes;
+    } else {
+      return 5 + numBytes;
     }
   }
 
@@ -346,6 +453,11 @@ public class DefaultCcpSender implements CcpSender {
     return syncMode.get();
   }
 
+  @VisibleForTesting
+  protected int getLastKnownEpoch() {
+    return lastKnownEpoch.get();
+  }
+
   @VisibleForTesting
   protected ForwardingRoutingTable<RouteUpdate> getForwardingRoutingTable() {
     return this.forwardingRoutingTable;
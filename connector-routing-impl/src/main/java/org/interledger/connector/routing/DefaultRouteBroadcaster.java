@@ -12,6 +12,7 @@ import com.google.common.collect.Maps;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -42,6 +43,9 @@ public class DefaultRouteBroadcaster implements RouteBroadcaster {
   // A Map of accounts -> RoutableAccounts that currently have CCP sender/receivers running.
   private final Map<AccountId, RoutableAccount> ccpEnabledAccounts;
 
+  // Snapshots of incoming routes that are waiting for their peer to be registered.
+  private final Map<AccountId, IncomingRoutesSnapshot> pendingIncomingRoutesSnapshots;
+
   private final AccountSettingsRepository accountSettingsRepository;
   private final LinkManager linkManager;
 
@@ -50,6 +54,9 @@ public class DefaultRouteBroadcaster implements RouteBroadcaster {
   // a single threadpool for all routing.
   private final ExecutorService executorService;
 
+  // If present, shared by every CCP receiver to apply large route updates off of the packet thread.
+  private final Optional<RouteIngestionExecutor> routeIngestionExecutor;
+
   /**
    * Required-args Constructor.
    */
@@ -60,6 +67,40 @@ public class DefaultRouteBroadcaster implements RouteBroadcaster {
     final AccountSettingsRepository accountSettingsRepository,
     final LinkManager linkManager,
     final ExecutorService executorService
+  ) {
+    this(
+      connectorSettingsSupplier, ccpCodecContext, outgoingRoutingTable, accountSettingsRepository, linkManager,
+      executorService, Optional.empty()
+    );
+  }
+
+  /**
+   * Required-args Constructor for a broadcaster whose CCP receivers apply large route updates on {@code
+   * routeIngestionExecutor}.
+   */
+  public DefaultRouteBroadcaster(
+    final Supplier<ConnectorSettings> connectorSettingsSupplier,
+    final CodecContext ccpCodecContext,
+    final ForwardingRoutingTable<RouteUpdate> outgoingRoutingTable,
+    final AccountSettingsRepository accountSettingsRepository,
+    final LinkManager linkManager,
+    final ExecutorService executorService,
+    final RouteIngestionExecutor routeIngestionExecutor
+  ) {
+    this(
+      connectorSettingsSupplier, ccpCodecContext, outgoingRoutingTable, accountSettingsRepository, linkManager,
+      executorService, Optional.of(routeIngestionExecutor)
+    );
+  }
+
+  private DefaultRouteBroadcaster(
+    final Supplier<ConnectorSettings> connectorSettingsSupplier,
+    final CodecContext ccpCodecContext,
+    final ForwardingRoutingTable<RouteUpdate> outgoingRoutingTable,
+    final AccountSettingsRepository accountSettingsRepository,
+    final LinkManager linkManager,
+    final ExecutorService executorService,
+    final Optional<RouteIngestionExecutor> routeIngestionExecutor
   ) {
     this.connectorSettingsSupplier = Objects.requireNonNull(connectorSettingsSupplier);
     this.ccpCodecContext = Objects.requireNonNull(ccpCodecContext);
@@ -67,8 +108,10 @@ public class DefaultRouteBroadcaster implements RouteBroadcaster {
     this.accountSettingsRepository = Objects.requireNonNull(accountSettingsRepository);
     this.linkManager = Objects.requireNonNull(linkManager);
     this.executorService = Objects.requireNonNull(executorService);
+    this.routeIngestionExecutor = Objects.requireNonNull(routeIngestionExecutor);
 
     this.ccpEnabledAccounts = Maps.newConcurrentMap();
+    this.pendingIncomingRoutesSnapshots = Maps.newConcurrentMap();
   }
 
   @Override
@@ -150,6 +193,19 @@ public class DefaultRouteBroadcaster implements RouteBroadcaster {
     return this.ccpEnabledAccounts.values().stream();
   }
 
+  @Override
+  public void restoreIncomingRoutes(final Collection<IncomingRoutesSnapshot> snapshots) {
+    Objects.requireNonNull(snapshots);
+    snapshots.forEach(snapshot -> {
+      final RoutableAccount existingPeer = this.ccpEnabledAccounts.get(snapshot.peerAccountId());
+      if (existingPeer != null) {
+        existingPeer.ccpReceiver().restore(snapshot);
+      } else {
+        this.pendingIncomingRoutesSnapshots.put(snapshot.peerAccountId(), snapshot);
+      }
+    });
+  }
+
   private CcpSender constructCcpSender(final AccountId peerAccountId, final Link link) {
     Objects.requireNonNull(peerAccountId);
     Objects.requireNonNull(link);
@@ -161,7 +217,15 @@ public class DefaultRouteBroadcaster implements RouteBroadcaster {
   private CcpReceiver constructCcpReceiver(final AccountId peerAccountId, final Link link) {
     Objects.requireNonNull(peerAccountId);
     Objects.requireNonNull(link);
-    return new DefaultCcpReceiver(connectorSettingsSupplier, peerAccountId, link, ccpCodecContext);
+    final CcpReceiver ccpReceiver = routeIngestionExecutor
+      .map(executor -> new DefaultCcpReceiver(
+        connectorSettingsSupplier, peerAccountId, link, ccpCodecContext, executor
+      ))
+      .orElseGet(() -> new DefaultCcpReceiver(connectorSettingsSupplier, peerAccountId, link, ccpCodecContext));
+
+    // Restore any snapshotted routes before the first route control request so that the peer only sends newer updates.
+    Optional.ofNullable(pendingIncomingRoutesSnapshots.remove(peerAccountId)).ifPresent(ccpReceiver::restore);
+    return ccpReceiver;
   }
 
   /**
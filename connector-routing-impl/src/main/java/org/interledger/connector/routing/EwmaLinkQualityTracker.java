@@ -0,0 +1,136 @@
+package org.interledger.connector.routing;
+
+import org.interledger.connector.accounts.AccountId;
+
+import com.google.common.base.Preconditions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An implementation of {@link LinkQualityTracker} that keeps an exponentially-weighted moving average (EWMA) of the
+ * round-trip time and failure rate of each peer link, so that recent outcomes dominate the estimate without having to
+ * store any history.
+ */
+public class EwmaLinkQualityTracker implements LinkQualityTracker {
+
+  /**
+   * The weight of each new sample. 0.1 means the estimate mostly reflects roughly the last 10-20 packets.
+   */
+  public static final double DEFAULT_SMOOTHING_FACTOR = 0.1;
+
+  /**
+   * How long a link is reported as having an open circuit after the last time that was observed. This matches the
+   * default time a resilience4j circuit breaker stays open before it lets trial calls through again.
+   */
+  public static final Duration DEFAULT_CIRCUIT_OPEN_DURATION = Duration.ofSeconds(60);
+
+  private final Map<AccountId, Estimate> estimates = new ConcurrentHashMap<>();
+
+  private final double smoothingFactor;
+  private final Duration circuitOpenDuration;
+  private final Clock clock;
+
+  public EwmaLinkQualityTracker() {
+    this(DEFAULT_SMOOTHING_FACTOR, DEFAULT_CIRCUIT_OPEN_DURATION, Clock.systemUTC());
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param smoothingFactor     The weight, between 0 (exclusive) and 1 (inclusive), given to each new sample.
+   * @param circuitOpenDuration How long a link is reported as having an open circuit after that was last observed.
+   * @param clock               A {@link Clock}.
+   */
+  public EwmaLinkQualityTracker(final double smoothingFactor, final Duration circuitOpenDuration, final Clock clock) {
+    Preconditions.checkArgument(
+      smoothingFactor > 0 && smoothingFactor <= 1, "smoothingFactor must be greater than 0 and at most 1"
+    );
+    this.smoothingFactor = smoothingFactor;
+    this.circuitOpenDuration = Objects.requireNonNull(circuitOpenDuration);
+    this.clock = Objects.requireNonNull(clock);
+  }
+
+  @Override
+  public void recordFulfill(final AccountId accountId, final Duration roundTripTime) {
+    Objects.requireNonNull(roundTripTime);
+    estimateFor(accountId).recordFulfill(roundTripTime.toNanos());
+  }
+
+  @Override
+  public void recordFailure(final AccountId accountId) {
+    estimateFor(accountId).recordFailure();
+  }
+
+  @Override
+  public void recordCircuitOpen(final AccountId accountId) {
+    estimateFor(accountId).recordCircuitOpen(clock.instant());
+  }
+
+  @Override
+  public Optional<LinkQuality> getLinkQuality(final AccountId accountId) {
+    Objects.requireNonNull(accountId);
+    return Optional.ofNullable(estimates.get(accountId))
+      .map(estimate -> estimate.toLinkQuality(accountId, clock.instant()));
+  }
+
+  private Estimate estimateFor(final AccountId accountId) {
+    Objects.requireNonNull(accountId);
+    return estimates.computeIfAbsent(accountId, $ -> new Estimate());
+  }
+
+  /**
+   * The mutable estimate for a single link. Updates are cheap, so each estimate is simply synchronized.
+   */
+  private final class Estimate {
+
+    private double roundTripTimeNanos;
+    private double failureRate;
+    private long numSamples;
+    private boolean hasRoundTripTime;
+    private Instant lastCircuitOpen = Instant.MIN;
+
+    synchronized void recordFulfill(final long roundTripTimeNanos) {
+      this.roundTripTimeNanos = hasRoundTripTime
+        ? smooth(this.roundTripTimeNanos, roundTripTimeNanos)
+        : roundTripTimeNanos;
+      this.hasRoundTripTime = true;
+      this.failureRate = smooth(this.failureRate, 0);
+      this.numSamples++;
+      // A fulfill means the circuit is no longer open, even if it was recently.
+      this.lastCircuitOpen = Instant.MIN;
+    }
+
+    synchronized void recordFailure() {
+      this.failureRate = smooth(this.failureRate, 1);
+      this.numSamples++;
+    }
+
+    synchronized void recordCircuitOpen(final Instant now) {
+      recordFailure();
+      this.lastCircuitOpen = now;
+    }
+
+    synchronized LinkQuality toLinkQuality(final AccountId accountId, final Instant now) {
+      final Optional<Duration> roundTripTime = hasRoundTripTime
+        ? Optional.of(Duration.ofNanos((long) roundTripTimeNanos))
+        : Optional.empty();
+      return LinkQuality.builder()
+        .accountId(accountId)
+        .roundTripTime(roundTripTime)
+        .failureRate(failureRate)
+        .numSamples(numSamples)
+        .isCircuitOpen(lastCircuitOpen.plus(circuitOpenDuration).isAfter(now))
+        .build();
+    }
+
+    private double smooth(final double estimate, final double sample) {
+      return estimate + smoothingFactor * (sample - estimate);
+    }
+  }
+}
@@ -0,0 +1,293 @@
+package org.interledger.connector.routing;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.CRC32;
+
+/**
+ * <p>An implementation of {@link RoutingTableSnapshotStore} that persists snapshots to a single file in a compact
+ * binary format.</p>
+ *
+ * <p>Snapshots are written to a temporary file that is then atomically moved over the previous snapshot, so a crash
+ * while writing never leaves a partially-written snapshot in place. Each file carries a checksum of its contents, and
+ * any file that can't be verified is ignored.</p>
+ */
+public class FileRoutingTableSnapshotStore implements RoutingTableSnapshotStore {
+
+  // "ILPR"
+  @VisibleForTesting
+  static final int MAGIC = 0x494C5052;
+  @VisibleForTesting
+  static final short FORMAT_VERSION = 1;
+
+  // magic (4 bytes), version (2 bytes), payload length (4 bytes), and payload CRC32 (8 bytes).
+  private static final int HEADER_BYTES = 4 + 2 + 4 + 8;
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final Path snapshotPath;
+  private final Path tempPath;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param snapshotPath The {@link Path} of the file that snapshots are persisted to.
+   */
+  public FileRoutingTableSnapshotStore(final Path snapshotPath) {
+    this.snapshotPath = Objects.requireNonNull(snapshotPath);
+    this.tempPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+  }
+
+  @Override
+  public synchronized void write(final RoutingTableSnapshot snapshot) {
+    Objects.requireNonNull(snapshot);
+
+    try {
+      final byte[] payload = serialize(snapshot);
+      final CRC32 crc32 = new CRC32();
+      crc32.update(payload);
+
+      final Path parent = snapshotPath.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+
+      final byte[] file = ByteBuffer.allocate(HEADER_BYTES + payload.length)
+        .putInt(MAGIC)
+        .putShort(FORMAT_VERSION)
+        .putInt(payload.length)
+        .putLong(crc32.getValue())
+        .put(payload)
+        .array();
+
+      Files.write(tempPath, file);
+      Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      logger.debug("Wrote routing table snapshot. path={} numBytes={}", snapshotPath, file.length);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to write routing table snapshot to " + snapshotPath, e);
+    }
+  }
+
+  @Override
+  public synchronized Optional<RoutingTableSnapshot> read() {
+    try {
+      final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(snapshotPath));
+
+      if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) {
+        logger.warn("Ignoring routing table snapshot with an unrecognized format. path={}", snapshotPath);
+        return Optional.empty();
+      }
+      final short version = buffer.getShort();
+      if (version != FORMAT_VERSION) {
+        logger.warn("Ignoring routing table snapshot with unsupported version. path={} version={}",
+          snapshotPath, version
+        );
+        return Optional.empty();
+      }
+      final int payloadLength = buffer.getInt();
+      final long expectedChecksum = buffer.getLong();
+      if (payloadLength != buffer.remaining()) {
+        logger.warn("Ignoring truncated routing table snapshot. path={}", snapshotPath);
+        return Optional.empty();
+      }
+
+      final ByteBuffer payload = buffer.slice();
+      final CRC32 crc32 = new CRC32();
+      crc32.update(payload.duplicate());
+      if (crc32.getValue() != expectedChecksum) {
+        logger.warn("Ignoring corrupt routing table snapshot. path={}", snapshotPath);
+        return Optional.empty();
+      }
+
+      return Optional.of(deserialize(payload));
+    } catch (NoSuchFileException e) {
+      logger.info("No routing table snapshot found. path={}", snapshotPath);
+      return Optional.empty();
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Unable to read routing table snapshot. path={}", snapshotPath, e);
+      return Optional.empty();
+    }
+  }
+
+  //////////////////
+  // Serialization
+  //////////////////
+
+  @VisibleForTesting
+  static byte[] serialize(final RoutingTableSnapshot snapshot) throws IOException {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    final DataOutputStream out = new DataOutputStream(bytes);
+
+    out.writeLong(snapshot.createdAt().toEpochMilli());
+
+    writeList(out, snapshot.localRoutes(), FileRoutingTableSnapshotStore::writeRoute);
+
+    writeRoutingTableId(out, snapshot.forwardingRoutingTableId());
+    out.writeInt(snapshot.forwardingRoutingTableEpoch());
+    writeList(out, snapshot.forwardingRouteUpdates(), (o, routeUpdate) -> {
+      o.writeInt(routeUpdate.epoch());
+      writeString(o, routeUpdate.routePrefix().getValue());
+      o.writeBoolean(routeUpdate.route().isPresent());
+      if (routeUpdate.route().isPresent()) {
+        writeRoute(o, routeUpdate.route().get());
+      }
+    });
+
+    writeList(out, snapshot.incomingRoutes(), (o, incomingRoutesSnapshot) -> {
+      writeString(o, incomingRoutesSnapshot.peerAccountId().value());
+      o.writeBoolean(incomingRoutesSnapshot.routingTableId().isPresent());
+      if (incomingRoutesSnapshot.routingTableId().isPresent()) {
+        writeRoutingTableId(o, incomingRoutesSnapshot.routingTableId().get());
+      }
+      o.writeInt(incomingRoutesSnapshot.epoch());
+      o.writeLong(incomingRoutesSnapshot.routingTableExpiry().toEpochMilli());
+      // The peerAccountId of each incoming route is the same as the snapshot's, so it isn't repeated.
+      writeList(o, incomingRoutesSnapshot.incomingRoutes(), (o2, incomingRoute) -> {
+        writeString(o2, incomingRoute.routePrefix().getValue());
+        writeList(o2, incomingRoute.path(), (o3, address) -> writeString(o3, address.getValue()));
+        writeBytes(o2, incomingRoute.auth());
+      });
+    });
+
+    out.flush();
+    return bytes.toByteArray();
+  }
+
+  @VisibleForTesting
+  static RoutingTableSnapshot deserialize(final ByteBuffer in) {
+    try {
+      final ImmutableRoutingTableSnapshot.Builder builder = RoutingTableSnapshot.builder()
+        .createdAt(Instant.ofEpochMilli(in.getLong()))
+        .localRoutes(readList(in, FileRoutingTableSnapshotStore::readRoute))
+        .forwardingRoutingTableId(readRoutingTableId(in))
+        .forwardingRoutingTableEpoch(in.getInt())
+        .forwardingRouteUpdates(readList(in, i -> ImmutableRouteUpdate.builder()
+          .epoch(i.getInt())
+          .routePrefix(InterledgerAddressPrefix.of(readString(i)))
+          .route(i.get() != 0 ? Optional.of(readRoute(i)) : Optional.empty())
+          .build()
+        ));
+
+      builder.incomingRoutes(readList(in, i -> {
+        final AccountId peerAccountId = AccountId.of(readString(i));
+        final Optional<RoutingTableId> routingTableId =
+          i.get() != 0 ? Optional.of(readRoutingTableId(i)) : Optional.empty();
+        return IncomingRoutesSnapshot.builder()
+          .peerAccountId(peerAccountId)
+          .routingTableId(routingTableId)
+          .epoch(i.getInt())
+          .routingTableExpiry(Instant.ofEpochMilli(i.getLong()))
+          .incomingRoutes(readList(i, i2 -> ImmutableIncomingRoute.builder()
+            .peerAccountId(peerAccountId)
+            .routePrefix(InterledgerAddressPrefix.of(readString(i2)))
+            .path(readList(i2, i3 -> InterledgerAddress.of(readString(i3))))
+            .auth(readBytes(i2))
+            .build()
+          ))
+          .build();
+      }));
+
+      return builder.build();
+    } catch (BufferUnderflowException e) {
+      throw new IllegalStateException("Routing table snapshot ended unexpectedly", e);
+    }
+  }
+
+  private static void writeRoute(final DataOutputStream out, final Route route) throws IOException {
+    writeString(out, route.routePrefix().getValue());
+    writeString(out, route.nextHopAccountId().value());
+    writeList(out, route.path(), (o, address) -> writeString(o, address.getValue()));
+    out.writeBoolean(route.expiresAt().isPresent());
+    if (route.expiresAt().isPresent()) {
+      out.writeLong(route.expiresAt().get().toEpochMilli());
+    }
+    writeBytes(out, route.auth());
+  }
+
+  private static Route readRoute(final ByteBuffer in) {
+    return ImmutableRoute.builder()
+      .routePrefix(InterledgerAddressPrefix.of(readString(in)))
+      .nextHopAccountId(AccountId.of(readString(in)))
+      .path(readList(in, i -> InterledgerAddress.of(readString(i))))
+      .expiresAt(in.get() != 0 ? Optional.of(Instant.ofEpochMilli(in.getLong())) : Optional.empty())
+      .auth(readBytes(in))
+      .build();
+  }
+
+  private static void writeRoutingTableId(final DataOutputStream out, final RoutingTableId routingTableId)
+    throws IOException {
+    out.writeLong(routingTableId.value().getMostSignificantBits());
+    out.writeLong(routingTableId.value().getLeastSignificantBits());
+  }
+
+  private static RoutingTableId readRoutingTableId(final ByteBuffer in) {
+    return RoutingTableId.of(new UUID(in.getLong(), in.getLong()));
+  }
+
+  private static void writeString(final DataOutputStream out, final String value) throws IOException {
+    writeBytes(out, value.getBytes(UTF_8));
+  }
+
+  private static String readString(final ByteBuffer in) {
+    return new String(readBytes(in), UTF_8);
+  }
+
+  private static void writeBytes(final DataOutputStream out, final byte[] value) throws IOException {
+    out.writeInt(value.length);
+    out.write(value);
+  }
+
+  private static byte[] readBytes(final ByteBuffer in) {
+    final byte[] value = new byte[in.getInt()];
+    in.get(value);
+    return value;
+  }
+
+  private static <T> void writeList(final DataOutputStream out, final List<T> values, final Writer<T> writer)
+    throws IOException {
+    out.writeInt(values.size());
+    for (T value : values) {
+      writer.write(out, value);
+    }
+  }
+
+  private static <T> List<T> readList(final ByteBuffer in, final Function<ByteBuffer, T> reader) {
+    final int size = in.getInt();
+    final ImmutableList.Builder<T> values = ImmutableList.builder();
+    for (int i = 0; i < size; i++) {
+      values.add(reader.apply(in));
+    }
+    return values.build();
+  }
+
+  @FunctionalInterface
+  private interface Writer<T> {
+
+    void write(DataOutputStream out, T value) throws IOException;
+  }
+}
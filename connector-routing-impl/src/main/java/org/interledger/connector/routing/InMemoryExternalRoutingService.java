@@ -19,19 +19,30 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.eventbus.EventBus;
 import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.PreDestroy;
 
 /**
  * <p>An implementation of {@link ExternalRoutingService} that manages an in-memory routing table used to route
@@ -77,6 +88,7 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
   private final Decryptor decryptor;
 
   // Local routing table, used for actually routing packets.
+  // Guarded by this service's monitor, like the outgoing table, so that updates and snapshots never interleave.
   private final RoutingTable<Route> localRoutingTable;
 
   // This is the master outgoing routing table, used for routes that this connector broadcasts to peer accounts.
@@ -91,6 +103,18 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
 
   private final LocalDestinationAddressPaymentRouter localDestinationAddressPaymentRouter;
 
+  // If present, the routing tables are periodically snapshotted to this store and restored from it on startup.
+  private final Optional<RoutingTableSnapshotStore> routingTableSnapshotStore;
+
+  // Only created if routingTableSnapshotStore is present.
+  private ScheduledExecutorService snapshotScheduler;
+
+  // If present, equally-ranked routes are ranked by link quality, and best routes are periodically re-selected.
+  private final Optional<LinkQualityTracker> linkQualityTracker;
+
+  // Only created if linkQualityTracker is present.
+  private ScheduledExecutorService routeSelectionScheduler;
+
   // Used to limit the number of warnings emitted for a missing default route.
   private int numDefaultRouteWarnings = 0;
 
@@ -117,11 +141,89 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
     final RoutingTable<Route> localRoutingTable,
     final ForwardingRoutingTable<RouteUpdate> outgoingRoutingTable,
     final RouteBroadcaster routeBroadcaster
+  ) {
+    this(
+      eventBus, connectorSettingsSupplier, decryptor, accountSettingsRepository, staticRoutesRepository,
+      localDestinationAddressPaymentRouter, localRoutingTable, outgoingRoutingTable, routeBroadcaster, Optional.empty()
+    );
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param eventBus                             A {@link EventBus}.
+   * @param connectorSettingsSupplier            A {@link Supplier} for {@link ConnectorSettings}.
+   * @param decryptor                            A {@link Decryptor}.
+   * @param accountSettingsRepository            A {@link AccountSettingsRepository}.
+   * @param staticRoutesRepository               A {@link StaticRoutesRepository}.
+   * @param localDestinationAddressPaymentRouter A {@link LocalDestinationAddressPaymentRouter}.
+   * @param localRoutingTable                    A {@link RoutingTable}.
+   * @param outgoingRoutingTable                 A {@link ForwardingRoutingTable}.
+   * @param routeBroadcaster                     A {@link RouteBroadcaster}.
+   * @param routingTableSnapshotStore            An optionally-present {@link RoutingTableSnapshotStore} used to
+   *                                             persist the routing tables across restarts.
+   */
+  public InMemoryExternalRoutingService(
+    final EventBus eventBus,
+    final Supplier<ConnectorSettings> connectorSettingsSupplier,
+    final Decryptor decryptor,
+    final AccountSettingsRepository accountSettingsRepository,
+    final StaticRoutesRepository staticRoutesRepository,
+    final LocalDestinationAddressPaymentRouter localDestinationAddressPaymentRouter,
+    final RoutingTable<Route> localRoutingTable,
+    final ForwardingRoutingTable<RouteUpdate> outgoingRoutingTable,
+    final RouteBroadcaster routeBroadcaster,
+    final Optional<RoutingTableSnapshotStore> routingTableSnapshotStore
+  ) {
+    this(
+      eventBus, connectorSettingsSupplier, decryptor, accountSettingsRepository, staticRoutesRepository,
+      localDestinationAddressPaymentRouter, localRoutingTable, outgoingRoutingTable, routeBroadcaster,
+      routingTableSnapshotStore, Optional.empty()
+    );
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param eventBus                             A {@link EventBus}.
+   * @param connectorSettingsSupplier            A {@link Supplier} for {@link ConnectorSettings}.
+   * @param decryptor                            A {@link Decryptor}.
+   * @param accountSettingsRepository            A {@link AccountSettingsRepository}.
+   * @param staticRoutesRepository               A {@link StaticRoutesRepository}.
+   * @param localDestinationAddressPaymentRouter A {@link LocalDestinationAddressPaymentRouter}.
+   * @param localRoutingTable                    A {@link RoutingTable}.
+   * @param outgoingRoutingTable                 A {@link ForwardingRoutingTable}.
+   * @param routeBroadcaster                     A {@link RouteBroadcaster}.
+   * @param routingTableSnapshotStore            An optionally-present {@link RoutingTableSnapshotStore} used to
+   *                                             persist the routing tables across restarts.
+   * @param linkQualityTracker                   An optionally-present {@link LinkQualityTracker}. If present,
+   *                                             equally-ranked routes are ranked by the quality of their peer's link,
+   *                                             and best routes are periodically re-selected as link quality changes.
+   */
+  public InMemoryExternalRoutingService(
+    final EventBus eventBus,
+    final Supplier<ConnectorSettings> connectorSettingsSupplier,
+    final Decryptor decryptor,
+    final AccountSettingsRepository accountSettingsRepository,
+    final StaticRoutesRepository staticRoutesRepository,
+    final LocalDestinationAddressPaymentRouter localDestinationAddressPaymentRouter,
+    final RoutingTable<Route> localRoutingTable,
+    final ForwardingRoutingTable<RouteUpdate> outgoingRoutingTable,
+    final RouteBroadcaster routeBroadcaster,
+    final Optional<RoutingTableSnapshotStore> routingTableSnapshotStore,
+    final Optional<LinkQualityTracker> linkQualityTracker
   ) {
     this.eventBus = Objects.requireNonNull(eventBus);
     this.eventBus.register(this);
 
-    this.routingTableEntryComparator = new RoutingTableEntryComparator(accountSettingsRepository);
+    this.linkQualityTracker = Objects.requireNonNull(linkQualityTracker);
+    this.routingTableEntryComparator = linkQualityTracker
+      .<RoutingTableEntryComparator>map(tracker -> new LatencyAwareRoutingTableEntryComparator(
+        accountSettingsRepository,
+        tracker,
+        connectorSettingsSupplier.get().globalRoutingSettings().latencyAwareRouteSelectionHysteresis()
+      ))
+      .orElseGet(() -> new RoutingTableEntryComparator(accountSettingsRepository));
 
     this.connectorSettingsSupplier = Objects.requireNonNull(connectorSettingsSupplier);
     this.decryptor = decryptor;
@@ -131,11 +233,52 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
     this.localRoutingTable = Objects.requireNonNull(localRoutingTable);
     this.outgoingRoutingTable = Objects.requireNonNull(outgoingRoutingTable);
     this.routeBroadcaster = routeBroadcaster;
+    this.routingTableSnapshotStore = Objects.requireNonNull(routingTableSnapshotStore);
   }
 
   @Override
   public void start() {
     this.initRoutingTables();
+
+    routingTableSnapshotStore.ifPresent($ -> {
+      if (snapshotScheduler == null) {
+        final long intervalMillis =
+          connectorSettingsSupplier.get().globalRoutingSettings().routingTableSnapshotInterval().toMillis();
+        this.snapshotScheduler = Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("routing-table-snapshot").setDaemon(true).build()
+        );
+        snapshotScheduler.scheduleWithFixedDelay(
+          this::writeSnapshot, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS
+        );
+      }
+    });
+
+    linkQualityTracker.ifPresent($ -> {
+      if (routeSelectionScheduler == null) {
+        final long intervalMillis =
+          connectorSettingsSupplier.get().globalRoutingSettings().latencyAwareRouteSelectionInterval().toMillis();
+        this.routeSelectionScheduler = Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat("latency-aware-route-selection").setDaemon(true).build()
+        );
+        routeSelectionScheduler.scheduleWithFixedDelay(
+          this::reselectRoutesSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS
+        );
+      }
+    });
+  }
+
+  /**
+   * Stop snapshotting the routing tables, writing one final snapshot so that the next startup sees the latest routes.
+   */
+  @PreDestroy
+  public void shutdown() {
+    if (routeSelectionScheduler != null) {
+      routeSelectionScheduler.shutdownNow();
+    }
+    if (snapshotScheduler != null) {
+      snapshotScheduler.shutdownNow();
+      this.writeSnapshot();
+    }
   }
 
   @Override
@@ -169,7 +312,9 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
     if (!staticRoutesRepository.deleteStaticRouteByPrefix(prefix)) {
       throw new StaticRouteNotFoundProblem(prefix);
     } else {
-      localRoutingTable.removeRoute(prefix);
+      synchronized (this) {
+        localRoutingTable.removeRoute(prefix);
+      }
     }
   }
 
@@ -208,11 +353,17 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
    * attempts to register each associated account in the {@link RouteBroadcaster}.</li>
    * </ol>
    */
-  private void initRoutingTables() {
+  private synchronized void initRoutingTables() {
     logger.debug("Entering #initRoutingTables...");
 
     localRoutingTable.reset();
 
+    // Restore the routing tables from the most recent snapshot (if any) so that previously learned routes can be used
+    // immediately, rather than only after every peer has re-sent its routes.
+    routingTableSnapshotStore
+      .flatMap(RoutingTableSnapshotStore::read)
+      .ifPresent(this::restoreFromSnapshot);
+
     // TODO: No need to add a route for our own address because this is currently handled via Filter, but determine
     //  if this works correctly with CCP (e.g., we want to broadcast routes that are our children).
     // final InterledgerAddress ourAddress = this.connectorSettingsSupplier.get().operatorAddress();
@@ -278,6 +429,106 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
 
   }
 
+  /**
+   * Restore the local and forwarding routing tables, and the incoming routes of each CCP peer, from {@code snapshot}.
+   * Incoming routes whose routing table has expired are discarded, along with any local or forwarding routes that
+   * were learned from them.
+   *
+   * @param snapshot A {@link RoutingTableSnapshot}.
+   */
+  @VisibleForTesting
+  protected synchronized void restoreFromSnapshot(final RoutingTableSnapshot snapshot) {
+    Objects.requireNonNull(snapshot);
+
+    final Instant now = Instant.now();
+    final Set<AccountId> expiredPeers = snapshot.incomingRoutes().stream()
+      .filter(incomingRoutesSnapshot -> incomingRoutesSnapshot.isExpired(now))
+      .map(IncomingRoutesSnapshot::peerAccountId)
+      .collect(Collectors.toSet());
+
+    // Incoming routes are restored into each CcpReceiver as its peer is registered below.
+    routeBroadcaster.restoreIncomingRoutes(
+      snapshot.incomingRoutes().stream()
+        .filter(incomingRoutesSnapshot -> !expiredPeers.contains(incomingRoutesSnapshot.peerAccountId()))
+        .collect(Collectors.toList())
+    );
+
+    snapshot.localRoutes().stream()
+      .filter(route -> !route.expiresAt().filter(expiresAt -> !expiresAt.isAfter(now)).isPresent())
+      .filter(route -> !expiredPeers.contains(route.nextHopAccountId()))
+      .forEach(localRoutingTable::addRoute);
+
+    // Only restore the forwarding table if nothing has been logged to it yet, since peers may already have been sent
+    // routes from the current table.
+    if (outgoingRoutingTable.getCurrentEpoch() == 0) {
+      outgoingRoutingTable.restore(
+        snapshot.forwardingRoutingTableId(), snapshot.forwardingRoutingTableEpoch(), snapshot.forwardingRouteUpdates()
+      );
+
+      // Withdraw any advertised routes that were learned from a peer whose routes have since expired.
+      snapshot.forwardingRouteUpdates().stream()
+        .filter(routeUpdate -> routeUpdate.route()
+          .map(Route::nextHopAccountId)
+          .filter(expiredPeers::contains)
+          .isPresent()
+        )
+        .forEach(routeUpdate -> this.updateForwardingRoute(routeUpdate.routePrefix(), Optional.empty()));
+    }
+
+    logger.info(
+      "Restored routing tables from snapshot. snapshotCreatedAt={} numLocalRoutes={} forwardingEpoch={} "
+        + "numPeers={} numExpiredPeers={}",
+      snapshot.createdAt(), snapshot.localRoutes().size(), outgoingRoutingTable.getCurrentEpoch(),
+      snapshot.incomingRoutes().size(), expiredPeers.size()
+    );
+  }
+
+  /**
+   * Take a point-in-time snapshot of every routing table managed by this service. The local and forwarding tables are
+   * copied while holding the same monitor as every method that updates them, and each peer's incoming routes are copied
+   * while holding that peer's {@link CcpReceiver} monitor, so no copy ever contains a partially-applied update.
+   *
+   * @return A {@link RoutingTableSnapshot}.
+   */
+  @VisibleForTesting
+  protected synchronized RoutingTableSnapshot snapshot() {
+    final ImmutableList.Builder<Route> localRoutes = ImmutableList.builder();
+    this.localRoutingTable.forEach((prefix, route) -> localRoutes.add(route));
+
+    final int forwardingRoutingTableEpoch = this.outgoingRoutingTable.getCurrentEpoch();
+    final List<RouteUpdate> forwardingRouteUpdates = StreamSupport.stream(
+      this.outgoingRoutingTable.getPartialRouteLog(0, forwardingRoutingTableEpoch).spliterator(), false
+    )
+      // Cleared epochs are implied by their absence.
+      .filter(Objects::nonNull)
+      .collect(Collectors.toList());
+
+    return RoutingTableSnapshot.builder()
+      .createdAt(Instant.now())
+      .localRoutes(localRoutes.build())
+      .forwardingRoutingTableId(this.outgoingRoutingTable.getRoutingTableId())
+      .forwardingRoutingTableEpoch(forwardingRoutingTableEpoch)
+      .forwardingRouteUpdates(forwardingRouteUpdates)
+      .incomingRoutes(
+        this.routeBroadcaster.getAllCcpEnabledAccounts()
+          .map(RoutableAccount::ccpReceiver)
+          .map(CcpReceiver::snapshot)
+          .collect(Collectors.toList())
+      )
+      .build();
+  }
+
+  private void writeSnapshot() {
+    routingTableSnapshotStore.ifPresent(store -> {
+      try {
+        store.write(this.snapshot());
+      } catch (RuntimeException e) {
+        // The store may be temporarily unable to write (e.g., a full disk), so just try again on the next interval.
+        logger.warn("Unable to snapshot routing tables", e);
+      }
+    });
+  }
+
   private void addStaticRoute(StaticRoute staticRoute) {
     // ...attempt to register a CCP-enabled account (duplicate requests are fine).
     routeBroadcaster.registerCcpEnabledAccount(staticRoute.nextHopAccountId());
@@ -292,7 +543,7 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
    * @param addressPrefix An {@link InterledgerAddressPrefix} to update details for.
    */
   @VisibleForTesting
-  protected void updatePrefix(final InterledgerAddressPrefix addressPrefix) {
+  protected synchronized void updatePrefix(final InterledgerAddressPrefix addressPrefix) {
     Objects.requireNonNull(addressPrefix);
 
     final Optional<Route> newBestRoute = this.getCurrentBestPeerRouteForPrefix(addressPrefix);
@@ -408,11 +659,28 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
       })
       .map(Route::nextHopAccountId);
 
-    // Only if there's a newBestNextHop, update the forwarding tables...
-    newBestNextHop.ifPresent(nbnh -> {
+    // Don't look in the log, but look in the actual Routing table for the prefix...
+    final Optional<RouteUpdate> currentBest = this.outgoingRoutingTable.getRouteByPrefix(addressPrefix);
+
+    // If there's no longer a route to advertise, withdraw the current one (if any) in a new epoch.
+    if (!newBestNextHop.isPresent()) {
+      currentBest.filter(ru -> ru.route().isPresent()).ifPresent(ru -> {
+        final int newEpoch = this.outgoingRoutingTable.getCurrentEpoch() + 1;
+        final RouteUpdate withdrawal = ImmutableRouteUpdate.builder()
+          .routePrefix(addressPrefix)
+          .epoch(newEpoch)
+          .build();
+
+        this.outgoingRoutingTable.removeRoute(addressPrefix);
+        logger.debug("Logging route withdrawal. update={}", withdrawal);
+        outgoingRoutingTable.clearRouteInLogAtEpoch(ru.epoch());
+        outgoingRoutingTable.setEpochValue(newEpoch, withdrawal);
+      });
+      return;
+    }
 
-      // Don't look in the log, but look in the actual Routing table for the prefix...
-      final Optional<RouteUpdate> currentBest = this.outgoingRoutingTable.getRouteByPrefix(addressPrefix);
+    // Otherwise, update the forwarding tables...
+    newBestNextHop.ifPresent(nbnh -> {
       final Optional<AccountId> currentBestNextHop = currentBest
         .map(RouteUpdate::route)
         .filter(Optional::isPresent)
@@ -509,16 +777,10 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
                   .map(ccpReceiver -> ccpReceiver.getIncomingRouteForPrefix(addressPrefix))
                   .filter(Optional::isPresent)
                   .map(Optional::get)
-                  .sorted(routingTableEntryComparator)
+                  .sorted(routingTableEntryComparator.forSelection())
                   .collect(Collectors.<IncomingRoute>toList()).stream()
                   .findFirst()
-                  .map(bestRoute -> (Route) ImmutableRoute.builder()
-                    .routePrefix(bestRoute.routePrefix())
-                    .nextHopAccountId(bestRoute.peerAccountId())
-                    .path(bestRoute.path())
-                    .auth(bestRoute.auth())
-                    .build()
-                  )
+                  .map(this::toRoute)
                   .orElse(null);
               });
           }
@@ -526,6 +788,79 @@ public class InMemoryExternalRoutingService implements ExternalRoutingService {
     );
   }
 
+  /**
+   * Re-select the best route for every prefix advertised by a CCP peer, so that route selection follows changes in
+   * link quality. A prefix without a local route gets the best advertised route. A prefix whose local route was
+   * learned from a peer only moves to another peer if {@link RoutingTableEntryComparator#shouldReplace} allows it,
+   * which keeps routes from flapping. Prefixes with a static route, and local routes that were not learned from a CCP
+   * peer (e.g., the default route), are left as-is.
+   *
+   * <p>This runs on its own scheduler, so it holds the same monitor as {@link #updatePrefix} to keep the two from
+   * interleaving their updates to the local and forwarding routing tables.</p>
+   */
+  @VisibleForTesting
+  protected synchronized void reselectRoutes() {
+    final Set<InterledgerAddressPrefix> staticRoutePrefixes = staticRoutesRepository.getAllStaticRoutes().stream()
+      .map(StaticRoute::routePrefix)
+      .collect(Collectors.toSet());
+
+    // Every link's cost is read once for the whole pass, so all prefixes are re-selected against the same link quality.
+    final Comparator<IncomingRoute> selectionComparator = routingTableEntryComparator.forSelection();
+
+    final Map<InterledgerAddressPrefix, List<IncomingRoute>> candidatesByPrefix = new HashMap<>();
+    this.routeBroadcaster.getAllCcpEnabledAccounts()
+      .map(RoutableAccount::ccpReceiver)
+      .forEach(ccpReceiver -> ccpReceiver.forEachIncomingRoute((prefix, incomingRoute) ->
+        candidatesByPrefix.computeIfAbsent(prefix, $ -> new ArrayList<>()).add(incomingRoute)
+      ));
+
+    candidatesByPrefix.forEach((addressPrefix, candidates) -> {
+      if (staticRoutePrefixes.contains(addressPrefix)) {
+        return;
+      }
+
+      final IncomingRoute bestCandidate = candidates.stream().min(selectionComparator).get();
+      final boolean shouldUpdate = this.localRoutingTable.getRouteByPrefix(addressPrefix)
+        .map(currentRoute -> candidates.stream()
+          .filter(candidate -> candidate.peerAccountId().equals(currentRoute.nextHopAccountId()))
+          .findFirst()
+          .map(incumbent -> !incumbent.peerAccountId().equals(bestCandidate.peerAccountId())
+            && routingTableEntryComparator.shouldReplace(incumbent, bestCandidate))
+          .orElse(false)
+        )
+        .orElse(true);
+
+      if (shouldUpdate) {
+        final Optional<Route> newBestRoute = Optional.of(toRoute(bestCandidate));
+        if (this.updateLocalRoute(addressPrefix, newBestRoute)) {
+          logger.info(
+            "Re-selected best route for prefix by link quality. prefix={} nextHop={} linkQuality={}",
+            addressPrefix.getValue(), bestCandidate.peerAccountId(),
+            linkQualityTracker.flatMap(tracker -> tracker.getLinkQuality(bestCandidate.peerAccountId()))
+          );
+          this.updateForwardingRoute(addressPrefix, newBestRoute);
+        }
+      }
+    });
+  }
+
+  private void reselectRoutesSafely() {
+    try {
+      this.reselectRoutes();
+    } catch (RuntimeException e) {
+      logger.warn("Unable to re-select routes by link quality", e);
+    }
+  }
+
+  private Route toRoute(final IncomingRoute incomingRoute) {
+    return ImmutableRoute.builder()
+      .routePrefix(incomingRoute.routePrefix())
+      .nextHopAccountId(incomingRoute.peerAccountId())
+      .path(incomingRoute.path())
+      .auth(incomingRoute.auth())
+      .build();
+  }
+
   /**
    * Constructs the value of {@link Route#auth()} by HMAC'ing {@code addressPrefix} using a routing-secret configured
    * for this Connector.
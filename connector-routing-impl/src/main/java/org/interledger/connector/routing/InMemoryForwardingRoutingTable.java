@@ -74,4 +74,27 @@ public class InMemoryForwardingRoutingTable extends InMemoryRoutingTable<RouteUp
     }
     this.currentEpoch.set(epoch);
   }
+
+  @Override
+  public void restore(
+    final RoutingTableId routingTableId, final int currentEpoch, final List<RouteUpdate> routeUpdates
+  ) {
+    Objects.requireNonNull(routingTableId);
+    Objects.requireNonNull(routeUpdates);
+
+    this.reset();
+    this.routeUpdateLog.clear();
+
+    // The log must contain an entry for every epoch so that `getPartialRouteLog` can index into it by position.
+    for (int epoch = 1; epoch <= currentEpoch; epoch++) {
+      this.routeUpdateLog.put(epoch, null);
+    }
+    routeUpdates.forEach(routeUpdate -> {
+      this.routeUpdateLog.put(routeUpdate.epoch(), routeUpdate);
+      this.addRoute(routeUpdate);
+    });
+
+    this.routingTableId.set(routingTableId);
+    this.currentEpoch.set(currentEpoch);
+  }
 }
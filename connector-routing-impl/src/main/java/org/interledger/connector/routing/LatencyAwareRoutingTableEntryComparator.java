@@ -0,0 +1,133 @@
+package org.interledger.connector.routing;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A {@link RoutingTableEntryComparator} that, amongst routes with equal peer weight and path length, prefers the route
+ * whose link currently has the lowest cost according to a {@link LinkQualityTracker}. The cost of a link is its
+ * smoothed round-trip time, inflated by its failure rate so that a fast link that mostly rejects is not preferred over
+ * a slightly slower healthy one.
+ *
+ * <p>To keep the best route for a prefix from flapping between peers with similar latency,
+ * {@link #shouldReplace(IncomingRoute, IncomingRoute)} only allows an equally-ranked challenger to replace the current
+ * best route if its cost is lower by more than a configurable fraction.</p>
+ *
+ * <p>Link quality changes as packets complete, so sorting with this comparator directly can see a link's cost change
+ * part-way through and break the {@link Comparator} contract. Select routes with {@link #forSelection()} instead,
+ * which reads each peer's cost only once.</p>
+ */
+class LatencyAwareRoutingTableEntryComparator extends RoutingTableEntryComparator {
+
+  /**
+   * How much a link's failure rate inflates its cost: a link that fails 10% of the time costs twice its round-trip
+   * time.
+   */
+  @VisibleForTesting
+  static final double FAILURE_RATE_PENALTY = 10;
+
+  /**
+   * The number of outcomes a link must have recorded before its cost is trusted enough to replace a current best
+   * route.
+   */
+  @VisibleForTesting
+  static final long MIN_SAMPLES = 10;
+
+  // Links whose latency has never been measured sort after all measured links, but ahead of links with an open circuit.
+  private static final double UNKNOWN_COST = Double.MAX_VALUE;
+  private static final double CIRCUIT_OPEN_COST = Double.POSITIVE_INFINITY;
+
+  private final LinkQualityTracker linkQualityTracker;
+  private final double hysteresis;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param accountSettingsRepository A {@link AccountSettingsRepository}.
+   * @param linkQualityTracker        A {@link LinkQualityTracker} to rank equally-ranked routes with.
+   * @param hysteresis                The fraction, between 0 and 1, by which a challenger's cost must be lower than
+   *                                  the current best route's cost for it to replace the current best route.
+   */
+  LatencyAwareRoutingTableEntryComparator(
+    final AccountSettingsRepository accountSettingsRepository,
+    final LinkQualityTracker linkQualityTracker,
+    final double hysteresis
+  ) {
+    super(accountSettingsRepository);
+    Preconditions.checkArgument(hysteresis >= 0 && hysteresis < 1, "hysteresis must be at least 0 and less than 1");
+    this.linkQualityTracker = Objects.requireNonNull(linkQualityTracker);
+    this.hysteresis = hysteresis;
+  }
+
+  @Override
+  protected int compareLinkQuality(final IncomingRoute entryA, final IncomingRoute entryB) {
+    return Double.compare(cost(entryA), cost(entryB));
+  }
+
+  /**
+   * Returns a {@link Comparator} that ranks routes like this one, but that reads the cost of each peer's link only the
+   * first time it is needed, and then reuses that cost for the rest of the selection.
+   */
+  @Override
+  public Comparator<IncomingRoute> forSelection() {
+    final Map<AccountId, Double> costs = new HashMap<>();
+    return Comparator.nullsLast(
+      ((Comparator<IncomingRoute>) this::compareRank)
+        .thenComparingDouble(route -> costs.computeIfAbsent(route.peerAccountId(), $ -> cost(route)))
+        .thenComparing(IncomingRoute::peerAccountId)
+    );
+  }
+
+  @Override
+  public boolean shouldReplace(final IncomingRoute incumbent, final IncomingRoute challenger) {
+    Objects.requireNonNull(incumbent);
+    Objects.requireNonNull(challenger);
+
+    final int rank = compareRank(challenger, incumbent);
+    if (rank != 0) {
+      return rank < 0;
+    }
+
+    final Optional<LinkQuality> incumbentQuality = linkQualityTracker.getLinkQuality(incumbent.peerAccountId());
+    final Optional<LinkQuality> challengerQuality = linkQualityTracker.getLinkQuality(challenger.peerAccountId());
+    if (!challengerQuality.isPresent() || challengerQuality.get().isCircuitOpen()) {
+      return false;
+    }
+    if (incumbentQuality.map(LinkQuality::isCircuitOpen).orElse(false)) {
+      return true;
+    }
+    if (!incumbentQuality.isPresent() || challengerQuality.get().numSamples() < MIN_SAMPLES) {
+      return false;
+    }
+    if (!challengerQuality.get().roundTripTime().isPresent()) {
+      return false;
+    }
+
+    return cost(challengerQuality.get()) < cost(incumbentQuality.get()) * (1 - hysteresis);
+  }
+
+  @VisibleForTesting
+  double cost(final IncomingRoute route) {
+    return linkQualityTracker.getLinkQuality(route.peerAccountId())
+      .map(LatencyAwareRoutingTableEntryComparator::cost)
+      .orElse(UNKNOWN_COST);
+  }
+
+  private static double cost(final LinkQuality linkQuality) {
+    if (linkQuality.isCircuitOpen()) {
+      return CIRCUIT_OPEN_COST;
+    }
+    return linkQuality.roundTripTime()
+      .map(roundTripTime -> roundTripTime.toNanos() * (1 + FAILURE_RATE_PENALTY * linkQuality.failureRate()))
+      .orElse(UNKNOWN_COST);
+  }
+}
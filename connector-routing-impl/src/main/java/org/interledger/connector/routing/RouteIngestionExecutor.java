@@ -0,0 +1,188 @@
+package org.interledger.connector.routing;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.metrics.MetricsService;
+import org.interledger.core.InterledgerAddressPrefix;
+
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * <p>Applies the route changes contained in large CCP route updates on a single background thread so that a burst of
+ * routing information does not stall the packet thread that received it.</p>
+ *
+ * <p>Every change is applied in the order it was submitted. Because each {@link DefaultCcpReceiver} submits its changes
+ * in epoch order, this preserves per-peer epoch ordering. A single thread is deliberate: each change is applied while
+ * holding its receiver's monitor, so applying changes on more threads would only add contention, and one writer keeps
+ * concurrent route lookups racing against no more than one change at a time.</p>
+ *
+ * <p>The total number of submitted-but-not-yet-applied route changes is bounded. When this bound is reached, new
+ * submissions are refused so that the caller can push back on its peer instead of queueing without limit.</p>
+ */
+public class RouteIngestionExecutor {
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ExecutorService executorService;
+  private final int maxPendingRouteChanges;
+  private final Semaphore pendingRouteChangePermits;
+  private final int asyncThreshold;
+  private final MetricsService metricsService;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param maxPendingRouteChanges The maximum number of route changes that may be waiting to be applied before new
+   *                               submissions are refused.
+   * @param asyncThreshold         The minimum number of route changes in a single update for that update to be
+   *                               applied on this executor instead of inline by the receiver.
+   * @param metricsService         A {@link MetricsService} used to track ingestion lag and refused updates.
+   */
+  public RouteIngestionExecutor(
+    final int maxPendingRouteChanges,
+    final int asyncThreshold,
+    final MetricsService metricsService
+  ) {
+    Preconditions.checkArgument(maxPendingRouteChanges > 0, "maxPendingRouteChanges must be greater than 0");
+    Preconditions.checkArgument(asyncThreshold >= 0, "asyncThreshold must not be negative");
+
+    this.maxPendingRouteChanges = maxPendingRouteChanges;
+    this.pendingRouteChangePermits = new Semaphore(maxPendingRouteChanges);
+    this.asyncThreshold = asyncThreshold;
+    this.metricsService = Objects.requireNonNull(metricsService);
+    this.executorService = Executors.newSingleThreadExecutor(
+      new ThreadFactoryBuilder().setNameFormat("ccp-route-ingestion").setDaemon(true).build()
+    );
+  }
+
+  /**
+   * Determines if an update containing {@code numRouteChanges} changes is large enough to be applied on this
+   * executor.
+   *
+   * @param numRouteChanges The number of new and withdrawn routes in a route update.
+   *
+   * @return {@code true} if the update should be submitted to this executor; {@code false} if it is cheaper to apply
+   *   it inline.
+   */
+  public boolean shouldIngestAsync(final int numRouteChanges) {
+    return numRouteChanges >= asyncThreshold;
+  }
+
+  /**
+   * Submit a list of route changes received from {@code peerAccountId}. The changes are applied in the order they
+   * appear in {@code routeChanges}, after every change submitted before them.
+   *
+   * @param peerAccountId The {@link AccountId} of the peer that sent the route changes.
+   * @param routeChanges  A {@link List} of {@link RouteChange} to apply.
+   * @param onComplete    A {@link Runnable} that is executed once every change in {@code routeChanges} has been
+   *                      applied.
+   *
+   * @return {@code true} if the changes were accepted for ingestion; {@code false} if too many route changes are
+   *   already pending, in which case none of the changes were accepted.
+   */
+  public boolean trySubmit(
+    final AccountId peerAccountId, final List<RouteChange> routeChanges, final Runnable onComplete
+  ) {
+    Objects.requireNonNull(peerAccountId);
+    Objects.requireNonNull(routeChanges);
+    Objects.requireNonNull(onComplete);
+
+    if (routeChanges.isEmpty()) {
+      onComplete.run();
+      return true;
+    }
+
+    // An update larger than the entire bound can never be accepted, so let it through on its own once nothing else is
+    // pending rather than refusing it forever.
+    final int numPermits = Math.min(routeChanges.size(), maxPendingRouteChanges);
+    if (!pendingRouteChangePermits.tryAcquire(numPermits)) {
+      logger.warn(
+        "Too many pending route changes; refusing route update. peerAccountId={} numRouteChanges={} "
+          + "numPendingRouteChanges={}",
+        peerAccountId, routeChanges.size(), getNumPendingRouteChanges()
+      );
+      metricsService.trackCcpRouteUpdateRefused(peerAccountId, routeChanges.size());
+      return false;
+    }
+
+    final long submittedAtNanos = System.nanoTime();
+    executorService.execute(() -> {
+      try {
+        routeChanges.forEach(routeChange -> {
+          try {
+            routeChange.apply();
+          } catch (RuntimeException e) {
+            logger.error(
+              "Unable to apply route change. peerAccountId={} prefix={}", peerAccountId, routeChange.prefix(), e
+            );
+          }
+        });
+      } finally {
+        pendingRouteChangePermits.release(numPermits);
+        metricsService.trackCcpRouteUpdateIngested(
+          peerAccountId, routeChanges.size(), Duration.ofNanos(System.nanoTime() - submittedAtNanos)
+        );
+        onComplete.run();
+      }
+    });
+
+    return true;
+  }
+
+  /**
+   * The number of route changes that have been accepted but not yet fully applied.
+   *
+   * @return An int.
+   */
+  public int getNumPendingRouteChanges() {
+    return maxPendingRouteChanges - pendingRouteChangePermits.availablePermits();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executorService.shutdown();
+    try {
+      executorService.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * A single change to an incoming routing table, keyed by the prefix it affects.
+   */
+  public static final class RouteChange {
+
+    private final InterledgerAddressPrefix prefix;
+    private final Runnable change;
+
+    private RouteChange(final InterledgerAddressPrefix prefix, final Runnable change) {
+      this.prefix = Objects.requireNonNull(prefix);
+      this.change = Objects.requireNonNull(change);
+    }
+
+    public static RouteChange of(final InterledgerAddressPrefix prefix, final Runnable change) {
+      return new RouteChange(prefix, change);
+    }
+
+    public InterledgerAddressPrefix prefix() {
+      return prefix;
+    }
+
+    void apply() {
+      change.run();
+    }
+  }
+}
@@ -1,8 +1,9 @@
 package org.interledger.connector.routing;
 
-import com.google.common.annotations.VisibleForTesting;
 import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
 
+import com.google.common.annotations.VisibleForTesting;
+
 import java.util.Comparator;
 import java.util.Objects;
 
@@ -27,6 +28,25 @@ class RoutingTableEntryComparator implements Comparator<IncomingRoute> {
       return -1;
     }
 
+    final int rank = compareRank(entryA, entryB);
+    if (rank != 0) {
+      return rank;
+    }
+
+    final int linkQuality = compareLinkQuality(entryA, entryB);
+    if (linkQuality != 0) {
+      return linkQuality;
+    }
+
+    // Finally, tie-break by AccountId
+    return entryA.peerAccountId().compareTo(entryB.peerAccountId());
+  }
+
+  /**
+   * Compares two routes by the relationship weight of their peer accounts, and then by path length. Routes that
+   * compare as equal here are considered equally-ranked.
+   */
+  protected int compareRank(final IncomingRoute entryA, final IncomingRoute entryB) {
     // First sort by peer weight
     int weight1 = getWeight(entryA);
     int weight2 = getWeight(entryB);
@@ -39,12 +59,41 @@ class RoutingTableEntryComparator implements Comparator<IncomingRoute> {
     int sizePathA = entryA.path().size();
     int sizePathB = entryB.path().size();
 
-    if (sizePathA != sizePathB) {
-      return sizePathA - sizePathB;
-    }
+    return sizePathA - sizePathB;
+  }
 
-    // Finally, tie-break by AccountId
-    return entryA.peerAccountId().compareTo(entryB.peerAccountId());
+  /**
+   * Compares two equally-ranked routes by how well the links to their peers are currently performing. This
+   * implementation does not consider link quality, so all equally-ranked routes are tie-broken by AccountId.
+   */
+  protected int compareLinkQuality(final IncomingRoute entryA, final IncomingRoute entryB) {
+    return 0;
+  }
+
+  /**
+   * Returns a {@link Comparator} for one selection of the best route amongst a set of candidates (e.g., a single sort).
+   * Anything the returned comparator reads that can change while the candidates are being compared is read at most
+   * once per peer, so that its ordering stays consistent for the whole selection. Do not reuse it for a later
+   * selection.
+   *
+   * <p>This implementation only reads values that don't change during a selection, so it returns itself.</p>
+   *
+   * @return A {@link Comparator} for {@link IncomingRoute}.
+   */
+  public Comparator<IncomingRoute> forSelection() {
+    return this;
+  }
+
+  /**
+   * Determines if {@code challenger} should replace {@code incumbent} as the best route for a prefix.
+   *
+   * @param incumbent The {@link IncomingRoute} currently used as the best route.
+   * @param challenger The {@link IncomingRoute} that currently sorts first amongst all candidates.
+   *
+   * @return {@code true} if the best route should change to {@code challenger}.
+   */
+  public boolean shouldReplace(final IncomingRoute incumbent, final IncomingRoute challenger) {
+    return compare(challenger, incumbent) < 0;
   }
 
   /**
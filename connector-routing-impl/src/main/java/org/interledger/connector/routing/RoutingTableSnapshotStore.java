@@ -0,0 +1,25 @@
+package org.interledger.connector.routing;
+
+import java.util.Optional;
+
+/**
+ * Persists {@link RoutingTableSnapshot}s so that a Connector can restore its routing tables when it restarts instead
+ * of waiting for every peer to re-send its entire routing table.
+ */
+public interface RoutingTableSnapshotStore {
+
+  /**
+   * Persist {@code snapshot}, replacing any previously persisted snapshot.
+   *
+   * @param snapshot The {@link RoutingTableSnapshot} to persist.
+   */
+  void write(RoutingTableSnapshot snapshot);
+
+  /**
+   * Load the most recently persisted snapshot.
+   *
+   * @return The persisted {@link RoutingTableSnapshot}, or {@link Optional#empty()} if no snapshot exists or it could
+   *   not be read.
+   */
+  Optional<RoutingTableSnapshot> read();
+}
@@ -0,0 +1,225 @@
+package org.interledger.connector.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.ccp.CcpNewRoute;
+import org.interledger.connector.ccp.CcpRouteUpdateRequest;
+import org.interledger.connector.ccp.ImmutableCcpNewRoute;
+import org.interledger.connector.ccp.ImmutableCcpRoutePathPart;
+import org.interledger.connector.ccp.ImmutableCcpRouteUpdateRequest;
+import org.interledger.connector.ccp.codecs.CcpCodecContextFactory;
+import org.interledger.connector.metrics.MetricsService;
+import org.interledger.connector.settings.ConnectorSettings;
+import org.interledger.connector.settings.ImmutableConnectorSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerProtocolException;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.Link;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for {@link DefaultCcpReceiver}.
+ */
+public class DefaultCcpReceiverTest {
+
+  private static final AccountId PEER_ACCOUNT = AccountId.of("peer");
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.connector");
+  private static final InterledgerAddress PEER_ADDRESS = InterledgerAddress.of("test.peer");
+  private static final RoutingTableId ROUTING_TABLE_ID = RoutingTableId.of(UUID.randomUUID());
+
+  @Mock
+  private Link<?> linkMock;
+
+  private CodecContext codecContext;
+  private ConnectorSettings connectorSettings;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    this.codecContext = CcpCodecContextFactory.register(InterledgerCodecContextFactory.oer());
+    this.connectorSettings = ImmutableConnectorSettings.builder()
+      .operatorAddress(OPERATOR_ADDRESS)
+      .build();
+  }
+
+  @Test
+  public void handleRouteUpdateRequestInline() {
+    final DefaultCcpReceiver ccpReceiver = new DefaultCcpReceiver(
+      () -> connectorSettings, PEER_ACCOUNT, linkMock, codecContext
+    );
+
+    ccpReceiver.handleRouteUpdateRequest(routeUpdateRequest(0, 3, newRoutes(0, 3)));
+
+    IntStream.range(0, 3).forEach(index ->
+      assertThat(ccpReceiver.getIncomingRouteForPrefix(prefix(index))).isPresent()
+    );
+  }
+
+  @Test
+  public void handleRouteUpdateRequestIngestsLargeUpdatesAsynchronously() throws InterruptedException {
+    final RouteIngestionExecutor executor = new RouteIngestionExecutor(1000, 10, mock(MetricsService.class));
+    try {
+      final DefaultCcpReceiver ccpReceiver = new DefaultCcpReceiver(
+        () -> connectorSettings, PEER_ACCOUNT, linkMock, codecContext, executor
+      );
+
+      final List<InterledgerAddressPrefix> touchedPrefixes = ccpReceiver.handleRouteUpdateRequest(
+        routeUpdateRequest(0, 1, newRoutes(0, 50))
+      );
+      // Small, but must still queue behind the large update that is ahead of it.
+      ccpReceiver.handleRouteUpdateRequest(routeUpdateRequest(1, 2, newRoutes(50, 51)));
+
+      assertThat(touchedPrefixes).hasSize(50);
+      final long deadline = System.currentTimeMillis() + 5000;
+      while (executor.getNumPendingRouteChanges() > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      IntStream.range(0, 51).forEach(index ->
+        assertThat(ccpReceiver.getIncomingRouteForPrefix(prefix(index))).isPresent()
+      );
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void asyncIngestionNeverInterleavesWithSnapshot() throws InterruptedException {
+    final RouteIngestionExecutor executor = new RouteIngestionExecutor(1000, 10, mock(MetricsService.class));
+    try {
+      final DefaultCcpReceiver ccpReceiver = new DefaultCcpReceiver(
+        () -> connectorSettings, PEER_ACCOUNT, linkMock, codecContext, executor
+      );
+
+      // While the receiver's monitor is held (as it is while taking a snapshot), no submitted change may be applied.
+      synchronized (ccpReceiver) {
+        ccpReceiver.handleRouteUpdateRequest(routeUpdateRequest(0, 1, newRoutes(0, 50)));
+        Thread.sleep(100);
+        assertThat(ccpReceiver.snapshot().incomingRoutes()).isEmpty();
+      }
+
+      final long deadline = System.currentTimeMillis() + 5000;
+      while (executor.getNumPendingRouteChanges() > 0 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertThat(ccpReceiver.snapshot().incomingRoutes()).hasSize(50);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void handleRouteUpdateRequestRejectsWithT03WhenIngestionIsBusy() {
+    final RouteIngestionExecutor executorMock = mock(RouteIngestionExecutor.class);
+    when(executorMock.shouldIngestAsync(anyInt())).thenReturn(true);
+    when(executorMock.trySubmit(any(), anyList(), any())).thenReturn(false);
+
+    final DefaultCcpReceiver ccpReceiver = new DefaultCcpReceiver(
+      () -> connectorSettings, PEER_ACCOUNT, linkMock, codecContext, new InMemoryRoutingTable<>(),
+      Optional.of(executorMock)
+    );
+
+    final InterledgerProtocolException exception = catchThrowableOfType(
+      () -> ccpReceiver.handleRouteUpdateRequest(routeUpdateRequest(0, 1, newRoutes(0, 3))),
+      InterledgerProtocolException.class
+    );
+    assertThat(exception.getInterledgerRejectPacket().getCode()).isEqualTo(InterledgerErrorCode.T03_CONNECTOR_BUSY);
+    assertThat(exception.getInterledgerRejectPacket().getTriggeredBy()).hasValue(OPERATOR_ADDRESS);
+
+    // The epoch must not have advanced, so the next update in sequence is treated as a gap.
+    assertThat(ccpReceiver.handleRouteUpdateRequest(routeUpdateRequest(1, 2, newRoutes(3, 6)))).isEmpty();
+    verify(executorMock, times(1)).trySubmit(any(), anyList(), any());
+  }
+
+  @Test
+  public void snapshotAndRestore() {
+    final DefaultCcpReceiver ccpReceiver = new DefaultCcpReceiver(
+      () -> connectorSettings, PEER_ACCOUNT, linkMock, codecContext
+    );
+    ccpReceiver.handleRouteUpdateRequest(routeUpdateRequest(0, 3, newRoutes(0, 3)));
+
+    final IncomingRoutesSnapshot snapshot = ccpReceiver.snapshot();
+    assertThat(snapshot.peerAccountId()).isEqualTo(PEER_ACCOUNT);
+    assertThat(snapshot.routingTableId()).hasValue(ROUTING_TABLE_ID);
+    assertThat(snapshot.epoch()).isEqualTo(3);
+    assertThat(snapshot.isExpired(Instant.now())).isFalse();
+    assertThat(snapshot.incomingRoutes()).hasSize(3);
+
+    final DefaultCcpReceiver restoredReceiver = new DefaultCcpReceiver(
+      () -> connectorSettings, PEER_ACCOUNT, linkMock, codecContext
+    );
+    restoredReceiver.restore(snapshot);
+
+    assertThat(restoredReceiver.snapshot()).isEqualTo(snapshot);
+    IntStream.range(0, 3).forEach(index ->
+      assertThat(restoredReceiver.getIncomingRouteForPrefix(prefix(index))).isPresent()
+    );
+
+    // The restored receiver continues from the snapshotted epoch rather than from 0.
+    restoredReceiver.handleRouteUpdateRequest(routeUpdateRequest(3, 4, newRoutes(3, 4)));
+    assertThat(restoredReceiver.getIncomingRouteForPrefix(prefix(3))).isPresent();
+    assertThat(restoredReceiver.snapshot().epoch()).isEqualTo(4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void restoreSnapshotForAnotherPeer() {
+    final DefaultCcpReceiver ccpReceiver = new DefaultCcpReceiver(
+      () -> connectorSettings, PEER_ACCOUNT, linkMock, codecContext
+    );
+    ccpReceiver.restore(IncomingRoutesSnapshot.builder()
+      .peerAccountId(AccountId.of("another-peer"))
+      .epoch(0)
+      .routingTableExpiry(Instant.now())
+      .build());
+  }
+
+  private CcpRouteUpdateRequest routeUpdateRequest(
+    final int fromEpoch, final int toEpoch, final List<CcpNewRoute> newRoutes
+  ) {
+    return ImmutableCcpRouteUpdateRequest.builder()
+      .speaker(PEER_ADDRESS)
+      .routingTableId(ROUTING_TABLE_ID)
+      .holdDownTime(45000L)
+      .currentEpochIndex(toEpoch)
+      .fromEpochIndex(fromEpoch)
+      .toEpochIndex(toEpoch)
+      .newRoutes(newRoutes)
+      .build();
+  }
+
+  private List<CcpNewRoute> newRoutes(final int fromIndex, final int toIndex) {
+    return IntStream.range(fromIndex, toIndex)
+      .mapToObj(index -> ImmutableCcpNewRoute.builder()
+        .prefix(prefix(index))
+        .path(Lists.newArrayList(ImmutableCcpRoutePathPart.builder().routePathPart(PEER_ADDRESS).build()))
+        .build())
+      .collect(Collectors.toList());
+  }
+
+  private InterledgerAddressPrefix prefix(final int index) {
+    return InterledgerAddressPrefix.of("test.peer.route" + index);
+  }
+}
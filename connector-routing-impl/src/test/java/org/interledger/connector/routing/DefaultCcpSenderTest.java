@@ -0,0 +1,245 @@
+package org.interledger.connector.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.ccp.CcpConstants;
+import org.interledger.connector.ccp.CcpNewRoute;
+import org.interledger.connector.ccp.CcpRouteUpdateRequest;
+import org.interledger.connector.ccp.CcpSyncMode;
+import org.interledger.connector.ccp.CcpWithdrawnRoute;
+import org.interledger.connector.ccp.ImmutableCcpNewRoute;
+import org.interledger.connector.ccp.ImmutableCcpRouteControlRequest;
+import org.interledger.connector.ccp.ImmutableCcpRoutePathPart;
+import org.interledger.connector.ccp.ImmutableCcpRouteUpdateRequest;
+import org.interledger.connector.ccp.ImmutableCcpWithdrawnRoute;
+import org.interledger.connector.ccp.codecs.CcpCodecContextFactory;
+import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
+import org.interledger.connector.settings.ConnectorSettings;
+import org.interledger.connector.settings.GlobalRoutingSettings;
+import org.interledger.connector.settings.ImmutableConnectorSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.Link;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for {@link DefaultCcpSender}.
+ */
+public class DefaultCcpSenderTest {
+
+  private static final AccountId PEER_ACCOUNT = AccountId.of("peer");
+  private static final AccountId CHILD_ACCOUNT = AccountId.of("child");
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.connector");
+
+  // Enough routes (with long prefixes) that a full table can't fit into a single route update.
+  private static final int NUM_ROUTES = 2000;
+
+  @Mock
+  private AccountSettingsRepository accountSettingsRepositoryMock;
+
+  @Mock
+  private Link<?> linkMock;
+
+  private CodecContext codecContext;
+  private ForwardingRoutingTable<RouteUpdate> forwardingRoutingTable;
+  private List<CcpRouteUpdateRequest> sentRouteUpdates;
+  private DefaultCcpSender ccpSender;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+
+    this.codecContext = CcpCodecContextFactory.register(InterledgerCodecContextFactory.oer());
+    this.forwardingRoutingTable = new InMemoryForwardingRoutingTable();
+    this.sentRouteUpdates = Collections.synchronizedList(Lists.newArrayList());
+
+    final AccountSettings childAccountSettings = mock(AccountSettings.class);
+    when(childAccountSettings.isPeerOrParentAccount()).thenReturn(false);
+    when(accountSettingsRepositoryMock.findByAccountIdWithConversion(CHILD_ACCOUNT))
+      .thenReturn(Optional.of(childAccountSettings));
+
+    when(linkMock.sendPacket(any())).thenAnswer(invocation -> {
+      final InterledgerPreparePacket preparePacket = invocation.getArgument(0);
+      assertThat(preparePacket.getDestination()).isEqualTo(CcpConstants.CCP_UPDATE_DESTINATION_ADDRESS);
+      sentRouteUpdates.add(
+        codecContext.read(CcpRouteUpdateRequest.class, new ByteArrayInputStream(preparePacket.getData()))
+      );
+      return InterledgerFulfillPacket.builder()
+        .fulfillment(CcpConstants.PEER_PROTOCOL_EXECUTION_FULFILLMENT)
+        .build();
+    });
+
+    final ConnectorSettings connectorSettings = ImmutableConnectorSettings.builder()
+      .operatorAddress(OPERATOR_ADDRESS)
+      .globalRoutingSettings(GlobalRoutingSettings.builder()
+        // Long enough that only follow-up updates can converge the peer within the test.
+        .routeBroadcastInterval(Duration.ofMinutes(5))
+        .build())
+      .build();
+
+    this.ccpSender = new DefaultCcpSender(
+      () -> connectorSettings, PEER_ACCOUNT, linkMock, forwardingRoutingTable, accountSettingsRepositoryMock,
+      codecContext
+    );
+  }
+
+  @Test
+  public void sendRouteUpdateRequestFillsButDoesNotExceedPacketDataLimit() {
+    populateRoutingTable(NUM_ROUTES);
+
+    // In IDLE mode, no follow-ups are sent, so each call sends exactly one update.
+    int numSends = 0;
+    while (ccpSender.getLastKnownEpoch() < forwardingRoutingTable.getCurrentEpoch() && numSends < NUM_ROUTES) {
+      ccpSender.sendRouteUpdateRequest();
+      numSends++;
+    }
+
+    assertThat(sentRouteUpdates).hasSize(numSends);
+    assertThat(numSends).isGreaterThan(1).isLessThan(NUM_ROUTES / 50);
+    assertContiguousAndComplete(sentRouteUpdates);
+
+    for (CcpRouteUpdateRequest routeUpdate : sentRouteUpdates) {
+      assertThat(serializedSize(routeUpdate)).isLessThanOrEqualTo(DefaultCcpSender.MAX_ROUTE_UPDATE_BYTES);
+    }
+  }
+
+  @Test
+  public void sendsFollowUpUpdatesWhilePeerIsBehind() throws InterruptedException {
+    populateRoutingTable(NUM_ROUTES);
+
+    ccpSender.handleRouteControlRequest(ImmutableCcpRouteControlRequest.builder()
+      .mode(CcpSyncMode.MODE_SYNC)
+      .lastKnownEpoch(0)
+      .build());
+
+    // The lastKnownEpoch is advanced before each update is sent, so wait for the final update to actually arrive.
+    final long deadline = System.currentTimeMillis() + 10000;
+    while (lastReceivedToEpoch() < forwardingRoutingTable.getCurrentEpoch() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    ccpSender.stopBroadcasting();
+
+    assertThat(ccpSender.getLastKnownEpoch()).isEqualTo(forwardingRoutingTable.getCurrentEpoch());
+    assertThat(sentRouteUpdates.size()).isGreaterThan(1);
+    assertContiguousAndComplete(sentRouteUpdates);
+  }
+
+  @Test
+  public void sendRouteUpdateRequestSkipsClearedEpochs() {
+    populateRoutingTable(3);
+    forwardingRoutingTable.clearRouteInLogAtEpoch(2);
+
+    ccpSender.sendRouteUpdateRequest();
+
+    assertThat(sentRouteUpdates).hasSize(1);
+    assertThat(sentRouteUpdates.get(0).fromEpochIndex()).isEqualTo(0);
+    assertThat(sentRouteUpdates.get(0).toEpochIndex()).isEqualTo(3);
+    assertThat(sentRouteUpdates.get(0).newRoutes()).hasSize(2);
+  }
+
+  @Test
+  public void encodedSizeIsAnUpperBound() {
+    final CcpNewRoute newRoute = ImmutableCcpNewRoute.builder()
+      .prefix(prefix(1))
+      .path(Lists.newArrayList(
+        ImmutableCcpRoutePathPart.builder().routePathPart(OPERATOR_ADDRESS).build(),
+        ImmutableCcpRoutePathPart.builder().routePathPart(OPERATOR_ADDRESS.with("child")).build()
+      ))
+      .build();
+    final CcpWithdrawnRoute withdrawnRoute = ImmutableCcpWithdrawnRoute.builder().prefix(prefix(2)).build();
+
+    final CcpRouteUpdateRequest emptyRequest = routeUpdateRequest(
+      Collections.emptyList(), Collections.emptyList()
+    );
+    final int emptySize = serializedSize(emptyRequest);
+
+    assertThat(DefaultCcpSender.encodedSize(newRoute)).isGreaterThanOrEqualTo(
+      serializedSize(routeUpdateRequest(Lists.newArrayList(newRoute), Collections.emptyList())) - emptySize
+    );
+    assertThat(DefaultCcpSender.encodedSize(withdrawnRoute)).isGreaterThanOrEqualTo(
+      serializedSize(routeUpdateRequest(Collections.emptyList(), Lists.newArrayList(withdrawnRoute))) - emptySize
+    );
+  }
+
+  private int lastReceivedToEpoch() {
+    synchronized (sentRouteUpdates) {
+      return sentRouteUpdates.isEmpty() ? 0 : sentRouteUpdates.get(sentRouteUpdates.size() - 1).toEpochIndex();
+    }
+  }
+
+  private void populateRoutingTable(final int numRoutes) {
+    for (int epoch = 1; epoch <= numRoutes; epoch++) {
+      final RouteUpdate routeUpdate = ImmutableRouteUpdate.builder()
+        .epoch(epoch)
+        .routePrefix(prefix(epoch))
+        .route(ImmutableRoute.builder()
+          .routePrefix(prefix(epoch))
+          .nextHopAccountId(CHILD_ACCOUNT)
+          .addPath(OPERATOR_ADDRESS, OPERATOR_ADDRESS.with("child"))
+          .build())
+        .build();
+      forwardingRoutingTable.addRoute(routeUpdate);
+      forwardingRoutingTable.setEpochValue(epoch, routeUpdate);
+    }
+  }
+
+  private InterledgerAddressPrefix prefix(final int index) {
+    return InterledgerAddressPrefix.of("test.connector.child.a-fairly-long-segment-to-fill-packets.route" + index);
+  }
+
+  private void assertContiguousAndComplete(final List<CcpRouteUpdateRequest> routeUpdates) {
+    int expectedFromEpoch = 0;
+    for (CcpRouteUpdateRequest routeUpdate : routeUpdates) {
+      assertThat(routeUpdate.fromEpochIndex()).isEqualTo(expectedFromEpoch);
+      assertThat(routeUpdate.toEpochIndex()).isGreaterThan(routeUpdate.fromEpochIndex());
+      expectedFromEpoch = routeUpdate.toEpochIndex();
+    }
+    assertThat(expectedFromEpoch).isEqualTo(forwardingRoutingTable.getCurrentEpoch());
+
+    final List<InterledgerAddressPrefix> sentPrefixes = routeUpdates.stream()
+      .flatMap(routeUpdate -> routeUpdate.newRoutes().stream())
+      .map(CcpNewRoute::prefix)
+      .collect(Collectors.toList());
+    assertThat(sentPrefixes).hasSize(forwardingRoutingTable.getCurrentEpoch()).doesNotHaveDuplicates();
+  }
+
+  private CcpRouteUpdateRequest routeUpdateRequest(
+    final List<CcpNewRoute> newRoutes, final List<CcpWithdrawnRoute> withdrawnRoutes
+  ) {
+    return ImmutableCcpRouteUpdateRequest.builder()
+      .speaker(OPERATOR_ADDRESS)
+      .routingTableId(forwardingRoutingTable.getRoutingTableId())
+      .holdDownTime(45000L)
+      .currentEpochIndex(0)
+      .fromEpochIndex(0)
+      .toEpochIndex(0)
+      .newRoutes(newRoutes)
+      .withdrawnRoutePrefixes(withdrawnRoutes)
+      .build();
+  }
+
+  private int serializedSize(final CcpRouteUpdateRequest routeUpdateRequest) {
+    return ccpSender.serializeCcpPacket(routeUpdateRequest).length;
+  }
+}
@@ -0,0 +1,100 @@
+package org.interledger.connector.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.connector.accounts.AccountId;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+/**
+ * Unit tests for {@link EwmaLinkQualityTracker}.
+ */
+public class EwmaLinkQualityTrackerTest {
+
+  private static final AccountId PEER = AccountId.of("peer");
+  private static final Clock CLOCK = Clock.fixed(Instant.parse("2020-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+  private EwmaLinkQualityTracker tracker;
+
+  @Before
+  public void setUp() {
+    tracker = new EwmaLinkQualityTracker(0.5, Duration.ofSeconds(60), CLOCK);
+  }
+
+  @Test
+  public void getLinkQualityForUnknownAccount() {
+    assertThat(tracker.getLinkQuality(PEER)).isEmpty();
+  }
+
+  @Test
+  public void recordFulfill() {
+    tracker.recordFulfill(PEER, Duration.ofMillis(100));
+
+    LinkQuality linkQuality = tracker.getLinkQuality(PEER).get();
+    // The first sample seeds the estimate.
+    assertThat(linkQuality.roundTripTime()).hasValue(Duration.ofMillis(100));
+    assertThat(linkQuality.failureRate()).isEqualTo(0);
+    assertThat(linkQuality.numSamples()).isEqualTo(1);
+    assertThat(linkQuality.isCircuitOpen()).isFalse();
+
+    tracker.recordFulfill(PEER, Duration.ofMillis(200));
+
+    linkQuality = tracker.getLinkQuality(PEER).get();
+    assertThat(linkQuality.roundTripTime()).hasValue(Duration.ofMillis(150));
+    assertThat(linkQuality.numSamples()).isEqualTo(2);
+  }
+
+  @Test
+  public void recordFailure() {
+    tracker.recordFailure(PEER);
+
+    LinkQuality linkQuality = tracker.getLinkQuality(PEER).get();
+    assertThat(linkQuality.roundTripTime()).isEmpty();
+    assertThat(linkQuality.failureRate()).isEqualTo(0.5);
+
+    tracker.recordFailure(PEER);
+    assertThat(tracker.getLinkQuality(PEER).get().failureRate()).isEqualTo(0.75);
+
+    tracker.recordFulfill(PEER, Duration.ofMillis(100));
+    linkQuality = tracker.getLinkQuality(PEER).get();
+    assertThat(linkQuality.failureRate()).isEqualTo(0.375);
+    assertThat(linkQuality.numSamples()).isEqualTo(3);
+  }
+
+  @Test
+  public void recordCircuitOpen() {
+    tracker.recordCircuitOpen(PEER);
+
+    LinkQuality linkQuality = tracker.getLinkQuality(PEER).get();
+    assertThat(linkQuality.isCircuitOpen()).isTrue();
+    assertThat(linkQuality.failureRate()).isEqualTo(0.5);
+
+    // A fulfill means the circuit has closed again.
+    tracker.recordFulfill(PEER, Duration.ofMillis(100));
+    assertThat(tracker.getLinkQuality(PEER).get().isCircuitOpen()).isFalse();
+  }
+
+  @Test
+  public void circuitOpenExpires() {
+    tracker = new EwmaLinkQualityTracker(0.5, Duration.ZERO, CLOCK);
+
+    tracker.recordCircuitOpen(PEER);
+
+    assertThat(tracker.getLinkQuality(PEER).get().isCircuitOpen()).isFalse();
+  }
+
+  @Test
+  public void accountsAreTrackedSeparately() {
+    tracker.recordFulfill(PEER, Duration.ofMillis(100));
+    tracker.recordFailure(AccountId.of("other"));
+
+    assertThat(tracker.getLinkQuality(PEER).get().failureRate()).isEqualTo(0);
+    assertThat(tracker.getLinkQuality(AccountId.of("other")).get().roundTripTime()).isEmpty();
+  }
+}
@@ -0,0 +1,133 @@
+package org.interledger.connector.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+import org.interledger.crypto.ByteArrayUtils;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Unit tests for {@link FileRoutingTableSnapshotStore}.
+ */
+public class FileRoutingTableSnapshotStoreTest {
+
+  private static final AccountId PEER_ACCOUNT = AccountId.of("peer");
+  private static final InterledgerAddress PEER_ADDRESS = InterledgerAddress.of("test.peer");
+  private static final InterledgerAddressPrefix PEER_PREFIX = InterledgerAddressPrefix.of("test.peer");
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private Path snapshotPath;
+  private FileRoutingTableSnapshotStore store;
+
+  @Before
+  public void setUp() throws IOException {
+    this.snapshotPath = temporaryFolder.getRoot().toPath().resolve("routing").resolve("routing-table.snapshot");
+    this.store = new FileRoutingTableSnapshotStore(snapshotPath);
+  }
+
+  @Test
+  public void readWhenNoSnapshotExists() {
+    assertThat(store.read()).isEmpty();
+  }
+
+  @Test
+  public void writeAndRead() {
+    final RoutingTableSnapshot snapshot = snapshot();
+
+    store.write(snapshot);
+
+    assertThat(snapshotPath).exists();
+    assertThat(store.read()).hasValue(snapshot);
+  }
+
+  @Test
+  public void writeReplacesPreviousSnapshot() {
+    store.write(snapshot());
+    final RoutingTableSnapshot emptySnapshot = RoutingTableSnapshot.builder()
+      .createdAt(Instant.now().truncatedTo(ChronoUnit.MILLIS))
+      .forwardingRoutingTableId(RoutingTableId.of(UUID.randomUUID()))
+      .forwardingRoutingTableEpoch(0)
+      .build();
+
+    store.write(emptySnapshot);
+
+    assertThat(store.read()).hasValue(emptySnapshot);
+  }
+
+  @Test
+  public void readIgnoresCorruptSnapshot() throws IOException {
+    store.write(snapshot());
+    final byte[] bytes = Files.readAllBytes(snapshotPath);
+    bytes[bytes.length - 1] ^= 0x01;
+    Files.write(snapshotPath, bytes);
+
+    assertThat(store.read()).isEmpty();
+  }
+
+  @Test
+  public void readIgnoresUnrecognizedFile() throws IOException {
+    Files.createDirectories(snapshotPath.getParent());
+    Files.write(snapshotPath, "not a snapshot".getBytes());
+
+    assertThat(store.read()).isEmpty();
+  }
+
+  private RoutingTableSnapshot snapshot() {
+    // Instants are persisted with millisecond precision.
+    final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    final Route route = Route.builder()
+      .routePrefix(PEER_PREFIX)
+      .nextHopAccountId(PEER_ACCOUNT)
+      .path(Lists.newArrayList(PEER_ADDRESS))
+      .expiresAt(now.plusSeconds(60))
+      .auth(ByteArrayUtils.generate32RandomBytes())
+      .build();
+
+    return RoutingTableSnapshot.builder()
+      .createdAt(now)
+      .addLocalRoutes(route)
+      .forwardingRoutingTableId(RoutingTableId.of(UUID.randomUUID()))
+      .forwardingRoutingTableEpoch(3)
+      .addForwardingRouteUpdates(
+        ImmutableRouteUpdate.builder().routePrefix(PEER_PREFIX).epoch(2).route(route).build(),
+        ImmutableRouteUpdate.builder().routePrefix(PEER_PREFIX.with("withdrawn")).epoch(3).build()
+      )
+      .addIncomingRoutes(
+        IncomingRoutesSnapshot.builder()
+          .peerAccountId(PEER_ACCOUNT)
+          .routingTableId(RoutingTableId.of(UUID.randomUUID()))
+          .epoch(7)
+          .routingTableExpiry(now.plusSeconds(45))
+          .addIncomingRoutes(ImmutableIncomingRoute.builder()
+            .peerAccountId(PEER_ACCOUNT)
+            .routePrefix(PEER_PREFIX)
+            .path(Lists.newArrayList(PEER_ADDRESS, PEER_ADDRESS.with("next")))
+            .auth(ByteArrayUtils.generate32RandomBytes())
+            .build())
+          .build(),
+        IncomingRoutesSnapshot.builder()
+          .peerAccountId(AccountId.of("idle-peer"))
+          .epoch(0)
+          .routingTableExpiry(Instant.EPOCH)
+          .build()
+      )
+      .build();
+  }
+}
@@ -3,6 +3,7 @@ package org.interledger.connector.routing;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -11,6 +12,7 @@ import static org.mockito.Mockito.when;
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountRelationship;
 import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.persistence.entities.AccountSettingsEntity;
 import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
 import org.interledger.connector.persistence.repositories.StaticRoutesRepository;
 import org.interledger.connector.settings.ConnectorSettings;
@@ -31,10 +33,16 @@ import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 /**
  * Unit tests for {@link InMemoryExternalRoutingService}.
@@ -277,6 +285,218 @@ public class InMemoryExternalRoutingServiceTest {
     assertThat(actual).isNotPresent();
   }
 
+  @Test
+  public void restoreFromSnapshotHonorsExpiry() {
+    final AccountId livePeer = AccountId.of("livePeer");
+    final AccountId expiredPeer = AccountId.of("expiredPeer");
+    final Route liveRoute = Route.builder()
+      .routePrefix(InterledgerAddressPrefix.of("g.live"))
+      .nextHopAccountId(livePeer)
+      .build();
+    final Route expiredPeerRoute = Route.builder()
+      .routePrefix(InterledgerAddressPrefix.of("g.expired"))
+      .nextHopAccountId(expiredPeer)
+      .build();
+    final Route expiredRoute = Route.builder()
+      .routePrefix(InterledgerAddressPrefix.of("g.stale"))
+      .nextHopAccountId(livePeer)
+      .expiresAt(Instant.now().minusSeconds(1))
+      .build();
+    final IncomingRoutesSnapshot liveIncomingRoutes = IncomingRoutesSnapshot.builder()
+      .peerAccountId(livePeer)
+      .epoch(4)
+      .routingTableExpiry(Instant.now().plusSeconds(60))
+      .build();
+    final RoutingTableId forwardingRoutingTableId = RoutingTableId.of(UUID.randomUUID());
+
+    final InMemoryRoutingTable<Route> localRoutingTable = new InMemoryRoutingTable<>();
+    final InMemoryForwardingRoutingTable forwardingRoutingTable = new InMemoryForwardingRoutingTable();
+    service = new InMemoryExternalRoutingService(
+      eventBus,
+      connectorSettingsSupplier,
+      decryptor,
+      accountSettingsRepository,
+      staticRoutesRepository,
+      localDestinationAddressPaymentRouter,
+      localRoutingTable,
+      forwardingRoutingTable,
+      routeBroadcaster
+    );
+
+    service.restoreFromSnapshot(RoutingTableSnapshot.builder()
+      .createdAt(Instant.now())
+      .addLocalRoutes(liveRoute, expiredPeerRoute, expiredRoute)
+      .forwardingRoutingTableId(forwardingRoutingTableId)
+      .forwardingRoutingTableEpoch(2)
+      .addForwardingRouteUpdates(
+        ImmutableRouteUpdate.builder().routePrefix(liveRoute.routePrefix()).route(liveRoute).epoch(1).build(),
+        ImmutableRouteUpdate.builder()
+          .routePrefix(expiredPeerRoute.routePrefix()).route(expiredPeerRoute).epoch(2).build()
+      )
+      .addIncomingRoutes(
+        liveIncomingRoutes,
+        IncomingRoutesSnapshot.builder()
+          .peerAccountId(expiredPeer)
+          .epoch(9)
+          .routingTableExpiry(Instant.now().minusSeconds(1))
+          .build()
+      )
+      .build());
+
+    verify(routeBroadcaster).restoreIncomingRoutes(Lists.newArrayList(liveIncomingRoutes));
+
+    assertThat(service.getAllRoutes()).containsExactly(liveRoute);
+
+    // The route learned from the expired peer is withdrawn in a new epoch.
+    assertThat(forwardingRoutingTable.getRoutingTableId()).isEqualTo(forwardingRoutingTableId);
+    assertThat(forwardingRoutingTable.getCurrentEpoch()).isEqualTo(3);
+    assertThat(forwardingRoutingTable.getRouteByPrefix(liveRoute.routePrefix())).isPresent();
+    assertThat(forwardingRoutingTable.getRouteByPrefix(expiredPeerRoute.routePrefix())).isEmpty();
+    assertThat(forwardingRoutingTable.getPartialRouteLog(1, 2)).containsExactly(
+      null, ImmutableRouteUpdate.builder().routePrefix(expiredPeerRoute.routePrefix()).epoch(3).build()
+    );
+  }
+
+  @Test
+  public void snapshot() {
+    final Route route = Route.builder()
+      .routePrefix(InterledgerAddressPrefix.of("g.live"))
+      .nextHopAccountId(AccountId.of("livePeer"))
+      .build();
+    final ImmutableRouteUpdate routeUpdate = ImmutableRouteUpdate.builder()
+      .routePrefix(route.routePrefix())
+      .route(route)
+      .epoch(1)
+      .build();
+    final IncomingRoutesSnapshot incomingRoutesSnapshot = IncomingRoutesSnapshot.builder()
+      .peerAccountId(route.nextHopAccountId())
+      .epoch(4)
+      .routingTableExpiry(Instant.now().plusSeconds(60))
+      .build();
+    final CcpReceiver ccpReceiverMock = mock(CcpReceiver.class);
+    when(ccpReceiverMock.snapshot()).thenReturn(incomingRoutesSnapshot);
+    when(routeBroadcaster.getAllCcpEnabledAccounts()).thenReturn(Stream.of(ImmutableRoutableAccount.builder()
+      .accountId(route.nextHopAccountId())
+      .ccpSender(mock(CcpSender.class))
+      .ccpReceiver(ccpReceiverMock)
+      .build()));
+
+    final InMemoryRoutingTable<Route> localRoutingTable = new InMemoryRoutingTable<>();
+    localRoutingTable.addRoute(route);
+    final InMemoryForwardingRoutingTable forwardingRoutingTable = new InMemoryForwardingRoutingTable();
+    forwardingRoutingTable.addRoute(routeUpdate);
+    forwardingRoutingTable.setEpochValue(1, routeUpdate);
+    forwardingRoutingTable.setEpochValue(2, routeUpdate.withEpoch(2));
+    forwardingRoutingTable.clearRouteInLogAtEpoch(1);
+    service = new InMemoryExternalRoutingService(
+      eventBus,
+      connectorSettingsSupplier,
+      decryptor,
+      accountSettingsRepository,
+      staticRoutesRepository,
+      localDestinationAddressPaymentRouter,
+      localRoutingTable,
+      forwardingRoutingTable,
+      routeBroadcaster
+    );
+
+    final RoutingTableSnapshot snapshot = service.snapshot();
+
+    assertThat(snapshot.localRoutes()).containsExactly(route);
+    assertThat(snapshot.forwardingRoutingTableId()).isEqualTo(forwardingRoutingTable.getRoutingTableId());
+    assertThat(snapshot.forwardingRoutingTableEpoch()).isEqualTo(2);
+    assertThat(snapshot.forwardingRouteUpdates()).containsExactly(routeUpdate.withEpoch(2));
+    assertThat(snapshot.incomingRoutes()).containsExactly(incomingRoutesSnapshot);
+  }
+
+  @Test
+  public void reselectRoutesByLinkQuality() {
+    final AccountId fastPeer = AccountId.of("fastPeer");
+    final AccountId slowPeer = AccountId.of("slowPeer");
+    final InterledgerAddressPrefix dynamicPrefix = InterledgerAddressPrefix.of("g.dynamic");
+    final InterledgerAddressPrefix staticPrefix = InterledgerAddressPrefix.of("g.static");
+
+    when(connectorSettings.operatorAddress()).thenReturn(InterledgerAddress.of("g.connector"));
+    when(connectorSettings.globalPrefix()).thenReturn(InterledgerAddressPrefix.of("g"));
+    when(globalRoutingSettings.latencyAwareRouteSelectionHysteresis()).thenReturn(0.2);
+    when(accountSettingsRepository.findByAccountId(any(AccountId.class))).thenAnswer(invocation ->
+      Optional.of(new AccountSettingsEntity(AccountSettings.builder()
+        .assetCode("XRP")
+        .assetScale(9)
+        .linkType(LinkType.of("ILPOVERHTTP"))
+        .accountId(invocation.getArgument(0))
+        .accountRelationship(AccountRelationship.PEER)
+        .build()))
+    );
+    when(staticRoutesRepository.getAllStaticRoutes()).thenReturn(Sets.newHashSet(StaticRoute.builder()
+      .routePrefix(staticPrefix)
+      .nextHopAccountId(slowPeer)
+      .build()));
+    final RoutableAccount fastAccount = routableAccount(fastPeer, dynamicPrefix, staticPrefix);
+    final RoutableAccount slowAccount = routableAccount(slowPeer, dynamicPrefix, staticPrefix);
+    when(routeBroadcaster.getAllCcpEnabledAccounts()).thenAnswer($ -> Stream.of(fastAccount, slowAccount));
+
+    final EwmaLinkQualityTracker linkQualityTracker = new EwmaLinkQualityTracker();
+    final InMemoryRoutingTable<Route> localRoutingTable = new InMemoryRoutingTable<>();
+    final InMemoryForwardingRoutingTable forwardingRoutingTable = new InMemoryForwardingRoutingTable();
+    service = new InMemoryExternalRoutingService(
+      eventBus,
+      connectorSettingsSupplier,
+      decryptor,
+      accountSettingsRepository,
+      staticRoutesRepository,
+      localDestinationAddressPaymentRouter,
+      localRoutingTable,
+      forwardingRoutingTable,
+      routeBroadcaster,
+      Optional.empty(),
+      Optional.of(linkQualityTracker)
+    );
+
+    // Only the slow peer has been measured, so it wins.
+    IntStream.range(0, 10).forEach($ -> linkQualityTracker.recordFulfill(slowPeer, Duration.ofMillis(200)));
+    service.reselectRoutes();
+    assertThat(localRoutingTable.getRouteByPrefix(dynamicPrefix).map(Route::nextHopAccountId)).hasValue(slowPeer);
+    assertThat(localRoutingTable.getRouteByPrefix(staticPrefix)).isEmpty();
+    assertThat(forwardingRoutingTable.getCurrentEpoch()).isEqualTo(1);
+
+    // The fast peer has to build up enough samples before it can replace the slow peer.
+    IntStream.range(0, 5).forEach($ -> linkQualityTracker.recordFulfill(fastPeer, Duration.ofMillis(50)));
+    service.reselectRoutes();
+    assertThat(localRoutingTable.getRouteByPrefix(dynamicPrefix).map(Route::nextHopAccountId)).hasValue(slowPeer);
+
+    IntStream.range(0, 5).forEach($ -> linkQualityTracker.recordFulfill(fastPeer, Duration.ofMillis(50)));
+    service.reselectRoutes();
+    assertThat(localRoutingTable.getRouteByPrefix(dynamicPrefix).map(Route::nextHopAccountId)).hasValue(fastPeer);
+    assertThat(forwardingRoutingTable.getCurrentEpoch()).isEqualTo(2);
+    assertThat(forwardingRoutingTable.getRouteByPrefix(dynamicPrefix)
+      .flatMap(RouteUpdate::route)
+      .map(Route::nextHopAccountId)).hasValue(fastPeer);
+
+    // Once the fast peer's circuit opens, traffic moves back to the slow peer.
+    linkQualityTracker.recordCircuitOpen(fastPeer);
+    service.reselectRoutes();
+    assertThat(localRoutingTable.getRouteByPrefix(dynamicPrefix).map(Route::nextHopAccountId)).hasValue(slowPeer);
+  }
+
+  private RoutableAccount routableAccount(final AccountId accountId, final InterledgerAddressPrefix... prefixes) {
+    final CcpReceiver ccpReceiverMock = mock(CcpReceiver.class);
+    doAnswer(invocation -> {
+      final BiConsumer<InterledgerAddressPrefix, IncomingRoute> action = invocation.getArgument(0);
+      Stream.of(prefixes).forEach(prefix -> action.accept(prefix, ImmutableIncomingRoute.builder()
+        .routePrefix(prefix)
+        .peerAccountId(accountId)
+        .path(Lists.newArrayList(InterledgerAddress.of("g." + accountId.value())))
+        .build()));
+      return null;
+    }).when(ccpReceiverMock).forEachIncomingRoute(any());
+    return ImmutableRoutableAccount.builder()
+      .accountId(accountId)
+      .ccpSender(mock(CcpSender.class))
+      .ccpReceiver(ccpReceiverMock)
+      .build();
+  }
+
   private Set<StaticRoute> defaultRoutes() {
     return Sets.newHashSet(shawn, lassiter);
   }
@@ -6,10 +6,12 @@ import org.interledger.connector.accounts.AccountId;
 import org.interledger.core.InterledgerAddressPrefix;
 import org.interledger.crypto.ByteArrayUtils;
 
+import com.google.common.collect.Lists;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.time.Instant;
+import java.util.UUID;
 
 public class InMemoryForwardingRoutingTableTest {
 
@@ -77,6 +79,27 @@ public class InMemoryForwardingRoutingTableTest {
     assertThat(routingTable.getCurrentEpoch()).isEqualTo(0);
   }
 
+  @Test
+  public void restore() {
+    routingTable.setEpochValue(1, createRouteUpdate(1, BOB_ACCT, BOB_PREFIX));
+
+    final RoutingTableId restoredId = RoutingTableId.of(UUID.randomUUID());
+    final ImmutableRouteUpdate bobRouteUpdate = createRouteUpdate(1, BOB_ACCT, BOB_PREFIX).withEpoch(2);
+    final ImmutableRouteUpdate aliceRouteUpdate = createRouteUpdate(1, ALICE_ACCT, ALICE_PREFIX).withEpoch(4);
+    routingTable.restore(restoredId, 5, Lists.newArrayList(bobRouteUpdate, aliceRouteUpdate));
+
+    assertThat(routingTable.getRoutingTableId()).isEqualTo(restoredId);
+    assertThat(routingTable.getCurrentEpoch()).isEqualTo(5);
+    assertThat(routingTable.getPartialRouteLog(0, 10))
+      .containsExactly(null, bobRouteUpdate, null, aliceRouteUpdate, null);
+    assertThat(routingTable.getRouteByPrefix(BOB_PREFIX)).hasValue(bobRouteUpdate);
+    assertThat(routingTable.getRouteByPrefix(ALICE_PREFIX)).hasValue(aliceRouteUpdate);
+
+    // New updates continue from the restored epoch.
+    routingTable.setEpochValue(6, createRouteUpdate(1, BOB_ACCT, BOB_PREFIX).withEpoch(6));
+    assertThat(routingTable.getPartialRouteLog(5, 10)).hasSize(1);
+  }
+
   private ImmutableRouteUpdate createRouteUpdate(int epoch, AccountId nextHop, InterledgerAddressPrefix prefix) {
     return ImmutableRouteUpdate.builder().route(
       Route.builder().nextHopAccountId(nextHop)
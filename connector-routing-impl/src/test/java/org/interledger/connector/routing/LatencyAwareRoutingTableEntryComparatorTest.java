@@ -0,0 +1,167 @@
+package org.interledger.connector.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerAddressPrefix;
+
+import com.google.common.collect.Lists;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for {@link LatencyAwareRoutingTableEntryComparator}.
+ */
+public class LatencyAwareRoutingTableEntryComparatorTest {
+
+  private static final InterledgerAddressPrefix PREFIX = InterledgerAddressPrefix.of("g.destination");
+
+  private static final AccountId FAST = AccountId.of("fast");
+  private static final AccountId SLOW = AccountId.of("slow");
+  private static final AccountId UNKNOWN = AccountId.of("unknown");
+
+  @Mock
+  private AccountSettingsRepository accountSettingsRepositoryMock;
+
+  private EwmaLinkQualityTracker linkQualityTracker;
+  private LatencyAwareRoutingTableEntryComparator comparator;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    linkQualityTracker = new EwmaLinkQualityTracker(0.5, Duration.ofSeconds(60), Clock.systemUTC());
+    comparator = new LatencyAwareRoutingTableEntryComparator(accountSettingsRepositoryMock, linkQualityTracker, 0.2) {
+      @Override
+      protected int getWeight(final IncomingRoute route) {
+        return 0;
+      }
+    };
+  }
+
+  @Test
+  public void prefersLowerLatencyAmongstEquallyRankedRoutes() {
+    record(FAST, 10, Duration.ofMillis(50));
+    record(SLOW, 10, Duration.ofMillis(200));
+
+    assertThat(sort(route(SLOW, 2), route(UNKNOWN, 2), route(FAST, 2)))
+      .containsExactly(FAST, SLOW, UNKNOWN);
+  }
+
+  @Test
+  public void pathLengthOutranksLatency() {
+    record(FAST, 10, Duration.ofMillis(50));
+    record(SLOW, 10, Duration.ofMillis(200));
+
+    assertThat(sort(route(FAST, 3), route(SLOW, 2))).containsExactly(SLOW, FAST);
+    assertThat(comparator.shouldReplace(route(SLOW, 2), route(FAST, 3))).isFalse();
+    assertThat(comparator.shouldReplace(route(FAST, 3), route(SLOW, 2))).isTrue();
+  }
+
+  @Test
+  public void failuresInflateCost() {
+    record(FAST, 10, Duration.ofMillis(50));
+    record(SLOW, 10, Duration.ofMillis(80));
+    linkQualityTracker.recordFailure(FAST);
+
+    // 50ms with a 50% failure rate costs more than a healthy 80ms link.
+    assertThat(sort(route(FAST, 2), route(SLOW, 2))).containsExactly(SLOW, FAST);
+  }
+
+  @Test
+  public void openCircuitSortsLast() {
+    record(SLOW, 10, Duration.ofMillis(200));
+    record(FAST, 10, Duration.ofMillis(50));
+    linkQualityTracker.recordCircuitOpen(FAST);
+
+    assertThat(sort(route(FAST, 2), route(UNKNOWN, 2), route(SLOW, 2))).containsExactly(SLOW, UNKNOWN, FAST);
+  }
+
+  @Test
+  public void forSelectionReadsEachLinkCostOnce() {
+    record(FAST, 10, Duration.ofMillis(50));
+    record(SLOW, 10, Duration.ofMillis(200));
+    final LinkQualityTracker linkQualityTrackerSpy = spy(linkQualityTracker);
+    final Comparator<IncomingRoute> selectionComparator =
+      new LatencyAwareRoutingTableEntryComparator(accountSettingsRepositoryMock, linkQualityTrackerSpy, 0.2) {
+        @Override
+        protected int getWeight(final IncomingRoute route) {
+          return 0;
+        }
+      }.forSelection();
+
+    assertThat(selectionComparator.compare(route(SLOW, 2), route(FAST, 2))).isPositive();
+    // The slow link becoming the fastest part-way through a selection must not change how it sorts.
+    record(SLOW, 10, Duration.ofMillis(1));
+    assertThat(selectionComparator.compare(route(SLOW, 2), route(FAST, 2))).isPositive();
+    assertThat(selectionComparator.compare(route(SLOW, 2), route(UNKNOWN, 2))).isNegative();
+
+    verify(linkQualityTrackerSpy, times(3)).getLinkQuality(any());
+  }
+
+  @Test
+  public void shouldReplaceOnlyWhenBetterByMoreThanHysteresis() {
+    record(SLOW, 10, Duration.ofMillis(100));
+
+    record(FAST, 10, Duration.ofMillis(85));
+    assertThat(comparator.shouldReplace(route(SLOW, 2), route(FAST, 2))).isFalse();
+
+    record(FAST, 10, Duration.ofMillis(70));
+    assertThat(comparator.shouldReplace(route(SLOW, 2), route(FAST, 2))).isTrue();
+  }
+
+  @Test
+  public void shouldNotReplaceWithoutEnoughSamples() {
+    record(SLOW, 10, Duration.ofMillis(100));
+    record(FAST, (int) LatencyAwareRoutingTableEntryComparator.MIN_SAMPLES - 1, Duration.ofMillis(10));
+
+    assertThat(comparator.compare(route(FAST, 2), route(SLOW, 2))).isNegative();
+    assertThat(comparator.shouldReplace(route(SLOW, 2), route(FAST, 2))).isFalse();
+  }
+
+  @Test
+  public void shouldReplaceIncumbentWithOpenCircuit() {
+    record(SLOW, 1, Duration.ofMillis(200));
+    record(FAST, 10, Duration.ofMillis(50));
+    linkQualityTracker.recordCircuitOpen(FAST);
+
+    assertThat(comparator.shouldReplace(route(FAST, 2), route(SLOW, 2))).isTrue();
+    assertThat(comparator.shouldReplace(route(SLOW, 2), route(FAST, 2))).isFalse();
+    assertThat(comparator.shouldReplace(route(FAST, 2), route(UNKNOWN, 2))).isFalse();
+  }
+
+  private void record(final AccountId accountId, final int numFulfills, final Duration roundTripTime) {
+    IntStream.range(0, numFulfills).forEach($ -> linkQualityTracker.recordFulfill(accountId, roundTripTime));
+  }
+
+  private List<AccountId> sort(final IncomingRoute... routes) {
+    return Lists.newArrayList(routes).stream()
+      .sorted(comparator.forSelection())
+      .map(IncomingRoute::peerAccountId)
+      .collect(Collectors.toList());
+  }
+
+  private IncomingRoute route(final AccountId peerAccountId, final int pathLength) {
+    return ImmutableIncomingRoute.builder()
+      .routePrefix(PREFIX)
+      .peerAccountId(peerAccountId)
+      .path(IntStream.range(0, pathLength)
+        .mapToObj(i -> InterledgerAddress.of("g.hop" + i))
+        .collect(Collectors.toList()))
+      .build();
+  }
+}
@@ -0,0 +1,156 @@
+package org.interledger.connector.routing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.metrics.MetricsService;
+import org.interledger.connector.routing.RouteIngestionExecutor.RouteChange;
+import org.interledger.core.InterledgerAddressPrefix;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for {@link RouteIngestionExecutor}.
+ */
+public class RouteIngestionExecutorTest {
+
+  private static final AccountId PEER_ACCOUNT = AccountId.of("peer");
+
+  @Mock
+  private MetricsService metricsServiceMock;
+
+  private RouteIngestionExecutor executor;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    this.executor = new RouteIngestionExecutor(10, 5, metricsServiceMock);
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdown();
+  }
+
+  @Test
+  public void shouldIngestAsync() {
+    assertThat(executor.shouldIngestAsync(4)).isFalse();
+    assertThat(executor.shouldIngestAsync(5)).isTrue();
+    assertThat(executor.shouldIngestAsync(100)).isTrue();
+  }
+
+  @Test
+  public void appliesChangesInSubmissionOrder() throws InterruptedException {
+    final List<Integer> appliedChanges = Collections.synchronizedList(Lists.newArrayList());
+    final CountDownLatch completed = new CountDownLatch(2);
+
+    assertThat(executor.trySubmit(PEER_ACCOUNT, Lists.newArrayList(
+      RouteChange.of(prefix(1), () -> appliedChanges.add(1)),
+      RouteChange.of(prefix(2), () -> appliedChanges.add(2))
+    ), completed::countDown)).isTrue();
+    assertThat(executor.trySubmit(PEER_ACCOUNT, Lists.newArrayList(
+      RouteChange.of(prefix(1), () -> appliedChanges.add(3))
+    ), completed::countDown)).isTrue();
+
+    assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(appliedChanges).containsExactly(1, 2, 3);
+    assertThat(executor.getNumPendingRouteChanges()).isEqualTo(0);
+  }
+
+  @Test
+  public void appliesEveryChange() throws InterruptedException {
+    final List<InterledgerAddressPrefix> appliedPrefixes = Collections.synchronizedList(Lists.newArrayList());
+    final List<RouteChange> routeChanges = IntStream.range(0, 10)
+      .mapToObj(this::prefix)
+      .map(prefix -> RouteChange.of(prefix, () -> appliedPrefixes.add(prefix)))
+      .collect(Collectors.toList());
+    final CountDownLatch completed = new CountDownLatch(1);
+
+    assertThat(executor.trySubmit(PEER_ACCOUNT, routeChanges, completed::countDown)).isTrue();
+
+    assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(appliedPrefixes).containsExactlyElementsOf(
+      routeChanges.stream().map(RouteChange::prefix).collect(Collectors.toList())
+    );
+    verify(metricsServiceMock).trackCcpRouteUpdateIngested(eq(PEER_ACCOUNT), eq(10), any(Duration.class));
+  }
+
+  @Test
+  public void refusesSubmissionsWhileTooManyChangesArePending() throws InterruptedException {
+    final CountDownLatch blocker = new CountDownLatch(1);
+    final CountDownLatch completed = new CountDownLatch(1);
+
+    // Fill the executor with 8 of its 10 permits, all of which block.
+    final List<RouteChange> blockingChanges = IntStream.range(0, 8)
+      .mapToObj(i -> RouteChange.of(prefix(i), () -> awaitUninterruptibly(blocker)))
+      .collect(Collectors.toList());
+    assertThat(executor.trySubmit(PEER_ACCOUNT, blockingChanges, completed::countDown)).isTrue();
+    assertThat(executor.getNumPendingRouteChanges()).isEqualTo(8);
+
+    final List<RouteChange> moreChanges = IntStream.range(0, 3)
+      .mapToObj(i -> RouteChange.of(prefix(i), () -> {
+      }))
+      .collect(Collectors.toList());
+    assertThat(executor.trySubmit(PEER_ACCOUNT, moreChanges, () -> {
+    })).isFalse();
+    verify(metricsServiceMock).trackCcpRouteUpdateRefused(PEER_ACCOUNT, 3);
+
+    blocker.countDown();
+    assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+
+    final CountDownLatch moreCompleted = new CountDownLatch(1);
+    assertThat(executor.trySubmit(PEER_ACCOUNT, moreChanges, moreCompleted::countDown)).isTrue();
+    assertThat(moreCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+  }
+
+  @Test
+  public void acceptsSubmissionLargerThanTheBoundWhenIdle() throws InterruptedException {
+    final List<RouteChange> routeChanges = IntStream.range(0, 25)
+      .mapToObj(i -> RouteChange.of(prefix(i), () -> {
+      }))
+      .collect(Collectors.toList());
+    final CountDownLatch completed = new CountDownLatch(1);
+
+    assertThat(executor.trySubmit(PEER_ACCOUNT, routeChanges, completed::countDown)).isTrue();
+
+    assertThat(completed.await(5, TimeUnit.SECONDS)).isTrue();
+    verify(metricsServiceMock, timeout(5000))
+      .trackCcpRouteUpdateIngested(eq(PEER_ACCOUNT), eq(25), any(Duration.class));
+  }
+
+  @Test
+  public void emptySubmissionCompletesImmediately() {
+    final CountDownLatch completed = new CountDownLatch(1);
+    assertThat(executor.trySubmit(PEER_ACCOUNT, Collections.emptyList(), completed::countDown)).isTrue();
+    assertThat(completed.getCount()).isEqualTo(0);
+  }
+
+  private InterledgerAddressPrefix prefix(final int index) {
+    return InterledgerAddressPrefix.of("test.peer.route" + index);
+  }
+
+  private static void awaitUninterruptibly(final CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package org.interledger.connector.server;
 
+import org.interledger.connector.core.ConfigConstants;
 import org.interledger.connector.server.spring.SpringProfileUtils;
 import org.interledger.connector.settings.ConnectorSettings;
 import org.interledger.link.Link;
@@ -96,16 +97,18 @@ public class ConnectorServer extends Server {
     // Tests that Spring-configured JavaMoney is working properly...
     // these values will come from whatever is configured in JavaMoneyConfig (e.g., CryptoCompare).
     /////////////
-    final CurrencyConversion usdConversion = MonetaryConversions.getConversion("USD");
+    if (getContext().getEnvironment().getProperty(ConfigConstants.FX_STARTUP_CHECK_ENABLED, Boolean.class, true)) {
+      final CurrencyConversion usdConversion = MonetaryConversions.getConversion("USD");
 
-    final Money xrpInUsd = Money.of(1, CURRENCY_XRP).with(usdConversion);
-    logger.info("Current FX: 1 XRP => ${}", xrpInUsd);
+      final Money xrpInUsd = Money.of(1, CURRENCY_XRP).with(usdConversion);
+      logger.info("Current FX: 1 XRP => ${}", xrpInUsd);
 
-    final Money eurInUsd = Money.of(1, CURRENCY_EUR).with(usdConversion);
-    logger.info("Current FX: 1 EUR => ${}", eurInUsd);
+      final Money eurInUsd = Money.of(1, CURRENCY_EUR).with(usdConversion);
+      logger.info("Current FX: 1 EUR => ${}", eurInUsd);
 
-    final Money usdInUsd = Money.of(1, CURRENCY_USD).with(usdConversion);
-    logger.info("Current FX: 1 USD => ${}", usdInUsd);
+      final Money usdInUsd = Money.of(1, CURRENCY_USD).with(usdConversion);
+      logger.info("Current FX: 1 USD => ${}", usdInUsd);
+    }
 
     // Round `XRP` to the nearest `Drop`
     // (see https://jaxenter.de/go-for-the-money-einfuehrung-in-das-money-and-currency-api-38668)
@@ -0,0 +1,323 @@
+package org.interledger.connector.server.ilpoverhttp;
+
+import static org.interledger.connector.server.spring.controllers.PathConstants.ACCOUNT_ID;
+import static org.interledger.connector.server.spring.controllers.PathConstants.SLASH_ACCOUNTS;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.packetswitch.ILPv4PacketSwitch;
+import org.interledger.connector.packetswitch.admission.IngressAdmissionController;
+import org.interledger.connector.server.spring.auth.ilpoverhttp.BearerAuthentication;
+import org.interledger.connector.server.spring.auth.ilpoverhttp.BearerTokenSecurityContextRepository;
+import org.interledger.connector.server.spring.controllers.IlpHttpController;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.crypto.ByteArrayUtils;
+import org.interledger.encoding.asn.framework.CodecContext;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+import org.zalando.problem.StatusType;
+import org.zalando.problem.ThrowableProblem;
+import org.zalando.problem.spring.common.MediaTypes;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * <p>An ILP-over-HTTP endpoint served by Reactor Netty instead of the servlet container, for Connectors whose peers
+ * send enough small packets that the servlet stack's per-request overhead (filter chain, Spring Security, message
+ * converters) dominates CPU usage.</p>
+ *
+ * <p>Requests to {@code /accounts/{accountId}/ilp} are read into pooled buffers and decoded on Netty's event loop.
+ * Authentication and the packet switch may block (for example, on a database lookup or on a call to the next-hop
+ * peer), so they run on a separate bounded pool of worker threads. Bearer tokens are authenticated by the same {@link
+ * AuthenticationProvider} as {@link IlpHttpController}, so both endpoints accept exactly the same credentials. The
+ * body is only read once its sender has been authenticated, and never beyond the size of the largest possible ILP
+ * Prepare packet.</p>
+ */
+public class NettyIlpOverHttpIngress {
+
+  @VisibleForTesting
+  static final String ILP_PATH = SLASH_ACCOUNTS + "/{" + ACCOUNT_ID + "}/ilp";
+
+  // An ILP Prepare packet carries at most 32767 bytes of data and a 1023-byte address, plus a small fixed-size header.
+  @VisibleForTesting
+  static final int MAX_BODY_BYTES = 40 * 1024;
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ILPv4PacketSwitch packetSwitch;
+  private final AuthenticationProvider authenticationProvider;
+  private final CodecContext ilpCodecContext;
+  private final ObjectMapper problemObjectMapper;
+  private final String host;
+  private final int port;
+  private final int workerThreads;
+  private final Optional<IngressAdmissionController> admissionController;
+
+  // Only used to key cached authentication decisions, as the servlet endpoint does.
+  private final HashFunction tokenHashFunction = Hashing.hmacSha256(ByteArrayUtils.generate32RandomBytes());
+
+  private Scheduler workerScheduler;
+  private DisposableServer server;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param packetSwitch           The {@link ILPv4PacketSwitch} to send incoming packets to.
+   * @param authenticationProvider An {@link AuthenticationProvider} that authenticates {@link BearerAuthentication}s.
+   * @param ilpCodecContext        A {@link CodecContext} for ILP packets.
+   * @param problemObjectMapper    An {@link ObjectMapper} that can serialize {@link Problem}s.
+   * @param host                   The host (or address) to listen on.
+   * @param port                   The port to listen on, or 0 to listen on any free port.
+   * @param workerThreads          The maximum number of threads that authenticate and switch packets.
+   * @param admissionController    An optional {@link IngressAdmissionController} that decides which packets are
+   *                               switched, based in part on how long they waited for a worker thread.
+   */
+  public NettyIlpOverHttpIngress(
+    final ILPv4PacketSwitch packetSwitch,
+    final AuthenticationProvider authenticationProvider,
+    final CodecContext ilpCodecContext,
+    final ObjectMapper problemObjectMapper,
+    final String host,
+    final int port,
+    final int workerThreads,
+    final Optional<IngressAdmissionController> admissionController
+  ) {
+    this.packetSwitch = Objects.requireNonNull(packetSwitch);
+    this.authenticationProvider = Objects.requireNonNull(authenticationProvider);
+    this.ilpCodecContext = Objects.requireNonNull(ilpCodecContext);
+    this.problemObjectMapper = Objects.requireNonNull(problemObjectMapper);
+    this.host = Objects.requireNonNull(host);
+    this.port = port;
+    this.workerThreads = workerThreads;
+    this.admissionController = Objects.requireNonNull(admissionController);
+  }
+
+  /**
+   * Start listening for ILP-over-HTTP requests.
+   */
+  public synchronized void start() {
+    if (server != null) {
+      return;
+    }
+    workerScheduler = Schedulers.newBoundedElastic(workerThreads, Integer.MAX_VALUE, "ilp-over-http-ingress");
+    server = HttpServer.create()
+      .host(host)
+      .port(port)
+      // Peers that speak cleartext HTTP/2 multiplex all of their packets over a single connection.
+      .protocol(HttpProtocol.HTTP11, HttpProtocol.H2C)
+      .route(routes -> routes.post(ILP_PATH, this::sendData))
+      .bindNow();
+    logger.info("ILP-over-HTTP Netty ingress listening. address={}", server.address());
+  }
+
+  /**
+   * Stop listening, and wait for in-flight requests to finish.
+   */
+  public synchronized void stop() {
+    if (server == null) {
+      return;
+    }
+    server.disposeNow();
+    workerScheduler.dispose();
+    server = null;
+  }
+
+  /**
+   * The port that this ingress is listening on, which is only known up-front if it wasn't started on port 0.
+   *
+   * @return The port that this ingress is listening on.
+   */
+  public synchronized int getPort() {
+    if (server == null) {
+      throw new IllegalStateException("Netty ingress is not started");
+    }
+    return server.port();
+  }
+
+  @VisibleForTesting
+  Mono<Void> sendData(final HttpServerRequest request, final HttpServerResponse response) {
+    final long receivedAtNanos = System.nanoTime();
+    final AccountId accountId;
+    final BearerAuthentication bearerAuthentication;
+    try {
+      checkContentType(request.requestHeaders().get(HttpHeaderNames.CONTENT_TYPE));
+      checkContentLength(request.requestHeaders().get(HttpHeaderNames.CONTENT_LENGTH));
+      accountId = accountId(request.param(ACCOUNT_ID));
+      bearerAuthentication = bearerAuthentication(
+        accountId, request.requestHeaders().get(HttpHeaderNames.AUTHORIZATION)
+      );
+    } catch (Exception e) {
+      return sendProblem(response, e);
+    }
+
+    // Authenticate before reading the body, so that an unauthenticated peer can't make this Connector buffer anything.
+    return Mono.fromRunnable(() -> authenticate(bearerAuthentication))
+      .subscribeOn(workerScheduler)
+      .then(receiveBody(request))
+      // Decode while the pooled buffer is still retained, on the event loop.
+      .map(this::readPreparePacket)
+      .switchIfEmpty(Mono.error(() -> Problem.valueOf(Status.BAD_REQUEST, "Request body is empty")))
+      .publishOn(workerScheduler)
+      .map(preparePacket -> admissionController
+        .map(controller -> controller.switchPacket(accountId, preparePacket, receivedAtNanos))
+        .orElseGet(() -> packetSwitch.switchPacket(accountId, preparePacket)))
+      .flatMap(responsePacket -> response
+        .header(HttpHeaderNames.CONTENT_TYPE, MediaType.APPLICATION_OCTET_STREAM_VALUE)
+        .send(Mono.fromCallable(() -> writeResponsePacket(response.alloc(), responsePacket)))
+        .then())
+      .onErrorResume(e -> sendProblem(response, e));
+  }
+
+  /**
+   * Aggregate the request body, failing once it grows beyond {@link #MAX_BODY_BYTES}. This covers bodies sent without
+   * a {@code Content-Length}, which can't be checked up-front.
+   */
+  private Mono<ByteBuf> receiveBody(final HttpServerRequest request) {
+    // Inbound buffers are only ever emitted on the connection's event loop.
+    final long[] bodyBytes = new long[1];
+    return ByteBufFlux.fromInbound(request.receive().doOnNext(buffer -> {
+      bodyBytes[0] += buffer.readableBytes();
+      if (bodyBytes[0] > MAX_BODY_BYTES) {
+        throw bodyTooLarge();
+      }
+    })).aggregate();
+  }
+
+  private void checkContentType(final String contentType) {
+    final String mimeType = Optional.ofNullable(contentType)
+      .map(value -> value.split(";")[0].trim())
+      .orElse("");
+    if (!MediaType.APPLICATION_OCTET_STREAM_VALUE.equalsIgnoreCase(mimeType)
+      && !IlpHttpController.APPLICATION_ILP_OCTET_STREAM_VALUE.equalsIgnoreCase(mimeType)) {
+      throw Problem.valueOf(Status.UNSUPPORTED_MEDIA_TYPE, "Unsupported Content-Type: " + contentType);
+    }
+  }
+
+  private void checkContentLength(final String contentLength) {
+    if (contentLength == null) {
+      return;
+    }
+    final long length;
+    try {
+      length = Long.parseLong(contentLength.trim());
+    } catch (NumberFormatException e) {
+      throw Problem.valueOf(Status.BAD_REQUEST, "Invalid Content-Length: " + contentLength);
+    }
+    if (length > MAX_BODY_BYTES) {
+      throw bodyTooLarge();
+    }
+  }
+
+  private ThrowableProblem bodyTooLarge() {
+    return Problem.valueOf(
+      Status.REQUEST_ENTITY_TOO_LARGE, "Request body is larger than an ILP Prepare packet can be: " + MAX_BODY_BYTES
+    );
+  }
+
+  private AccountId accountId(final String accountId) {
+    try {
+      return AccountId.of(accountId);
+    } catch (RuntimeException e) {
+      throw Problem.valueOf(Status.BAD_REQUEST, "Invalid accountId: " + e.getMessage());
+    }
+  }
+
+  private BearerAuthentication bearerAuthentication(final AccountId accountId, final String authorizationHeader) {
+    final byte[] token = BearerTokenSecurityContextRepository.parseToken(authorizationHeader)
+      .orElseThrow(() -> Problem.valueOf(Status.UNAUTHORIZED, "Bearer token is required"));
+    return BearerAuthentication.builder()
+      .isAuthenticated(false)
+      .principal(accountId.value())
+      .hmacSha256(tokenHashFunction.hashBytes(token))
+      .bearerToken(token)
+      .build();
+  }
+
+  private void authenticate(final BearerAuthentication bearerAuthentication) {
+    final Authentication authentication;
+    try {
+      authentication = authenticationProvider.authenticate(bearerAuthentication);
+    } catch (AuthenticationException e) {
+      logger.debug(e.getMessage(), e);
+      throw Problem.valueOf(Status.UNAUTHORIZED, e.getMessage());
+    }
+    if (authentication == null || !authentication.isAuthenticated()) {
+      throw Problem.valueOf(
+        Status.UNAUTHORIZED, "Authentication failed for principal: " + bearerAuthentication.getName()
+      );
+    }
+  }
+
+  private InterledgerPreparePacket readPreparePacket(final ByteBuf body) {
+    try {
+      return ilpCodecContext.read(InterledgerPreparePacket.class, new ByteBufInputStream(body));
+    } catch (Exception e) {
+      throw Problem.valueOf(Status.BAD_REQUEST, "Unable to decode ILP Prepare packet: " + e.getMessage());
+    }
+  }
+
+  private ByteBuf writeResponsePacket(final ByteBufAllocator alloc, final InterledgerResponsePacket responsePacket)
+    throws IOException {
+    final ByteBuf buffer = alloc.buffer();
+    try {
+      ilpCodecContext.write(responsePacket, new ByteBufOutputStream(buffer));
+      return buffer;
+    } catch (IOException | RuntimeException e) {
+      buffer.release();
+      throw e;
+    }
+  }
+
+  private Mono<Void> sendProblem(final HttpServerResponse response, final Throwable throwable) {
+    final ThrowableProblem problem;
+    if (throwable instanceof ThrowableProblem) {
+      problem = (ThrowableProblem) throwable;
+    } else {
+      logger.error("Unable to handle ILP-over-HTTP request", throwable);
+      problem = Problem.valueOf(Status.INTERNAL_SERVER_ERROR, throwable.getMessage());
+    }
+
+    final byte[] body;
+    try {
+      body = problemObjectMapper.writeValueAsBytes(problem);
+    } catch (JsonProcessingException e) {
+      return response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).send().then();
+    }
+    final StatusType status = Optional.ofNullable(problem.getStatus()).orElse(Status.INTERNAL_SERVER_ERROR);
+    return response
+      .status(status.getStatusCode())
+      .header(HttpHeaderNames.CONTENT_TYPE, MediaTypes.PROBLEM_VALUE)
+      .send(Mono.just(Unpooled.wrappedBuffer(body)))
+      .then();
+  }
+}
@@ -0,0 +1,56 @@
+package org.interledger.connector.server.ilpoverhttp;
+
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+
+import java.util.Objects;
+
+/**
+ * <p>A Jetty {@link QueuedThreadPool} that measures how long each job waited in its queue before a thread picked it
+ * up. Jetty stamps a request (see {@code Request#getTimeStamp()}) only once a thread has started handling it, so that
+ * stamp never includes this wait, which is where requests queue up once every thread is busy.</p>
+ *
+ * <p>The wait of the job that is running on the current thread can be taken (once) by whatever that job ends up
+ * calling, e.g., the ILP-over-HTTP controller that is handling the request the job read.</p>
+ */
+public class QueueDelayTrackingThreadPool extends QueuedThreadPool {
+
+  // Holds a single element so that recording a delay never allocates.
+  private static final ThreadLocal<long[]> QUEUE_DELAY_NANOS = ThreadLocal.withInitial(() -> new long[1]);
+
+  /**
+   * No-args Constructor, with the same defaults as {@link QueuedThreadPool#QueuedThreadPool()}.
+   */
+  public QueueDelayTrackingThreadPool() {
+    super();
+  }
+
+  @Override
+  public void execute(final Runnable job) {
+    Objects.requireNonNull(job);
+    final long queuedAtNanos = System.nanoTime();
+    super.execute(() -> {
+      final long[] queueDelayNanos = QUEUE_DELAY_NANOS.get();
+      queueDelayNanos[0] = System.nanoTime() - queuedAtNanos;
+      try {
+        job.run();
+      } finally {
+        queueDelayNanos[0] = 0;
+      }
+    });
+  }
+
+  /**
+   * How long the job that is running on the current thread waited in this pool's queue, in nanoseconds. This is only
+   * returned once per job, after which it returns 0, so that a job that handles many requests (e.g., one that keeps
+   * reading from a connection, or a thread Jetty keeps in reserve) doesn't attribute the wait it started with to every
+   * one of them.
+   *
+   * @return The number of nanoseconds, or 0 if the current thread isn't running a job from this pool.
+   */
+  public static long takeQueueDelayNanos() {
+    final long[] queueDelayNanos = QUEUE_DELAY_NANOS.get();
+    final long delayNanos = queueDelayNanos[0];
+    queueDelayNanos[0] = 0;
+    return delayNanos;
+  }
+}
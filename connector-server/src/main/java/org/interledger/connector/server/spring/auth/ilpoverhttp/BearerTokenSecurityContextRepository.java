@@ -56,7 +56,19 @@ public class BearerTokenSecurityContextRepository implements SecurityContextRepo
   }
 
   private Optional<byte[]> parseToken(HttpServletRequest request) {
-    return Optional.ofNullable(request.getHeader("Authorization"))
+    return parseToken(request.getHeader("Authorization"));
+  }
+
+  /**
+   * Parse the token from an {@code Authorization} header, which is either a Bearer token or a token without the
+   * "Bearer " prefix.
+   *
+   * @param authorizationHeader The value of the {@code Authorization} header, or {@code null} if there is none.
+   *
+   * @return The token, or empty if there is no header or it holds Basic auth credentials.
+   */
+  public static Optional<byte[]> parseToken(String authorizationHeader) {
+    return Optional.ofNullable(authorizationHeader)
       .map(authHeader -> {
         if (authHeader.startsWith("Basic ")) {
           // we don't handle Basic auth
@@ -10,6 +10,7 @@ import org.interledger.connector.persistence.repositories.AccountSettingsReposit
 import org.interledger.connector.settings.ConnectorSettings;
 import org.interledger.crypto.Decryptor;
 import org.interledger.crypto.EncryptedSecret;
+import org.interledger.link.http.IlpOverHttpLink;
 import org.interledger.link.http.IlpOverHttpLinkSettings;
 import org.interledger.link.http.IncomingLinkSettings;
 import org.interledger.link.http.JwtAuthSettings;
@@ -65,17 +66,24 @@ import java.util.function.Supplier;
  * <p>Note that the cache expiry of an authentication decision will be extended after every request that uses the same
  * token, so a cache expiry will not occur until after X minutes have elapsed with no requests using a given
  * token).</p>
+ *
+ * <p>The incoming link settings of each account (which only contain encrypted secrets) are cached separately, so that
+ * concurrent cache misses for the same account trigger a single database load. Calling {@link #prewarm()} fills that
+ * cache for every ILP-over-HTTP account ahead of the first request from each peer.</p>
  */
 @SuppressWarnings("UnstableApiUsage")
 public class IlpOverHttpAuthenticationProvider implements AuthenticationProvider {
 
   private static final String AUTH_DECISIONS_CACHE_NAME = "ilpOverHttpAuthenticationDecisionsCache";
+  private static final String INCOMING_LINK_SETTINGS_CACHE_NAME = "ilpOverHttpIncomingLinkSettingsCache";
 
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
   private final Decryptor decryptor;
 
   // See Javadoc above for how this is used.
   private final Cache<DecisionsCacheKey, AuthenticationDecision> authenticationDecisions;
+  // Loads are performed at most once per account at a time, no matter how many requests miss concurrently.
+  private final LoadingCache<AccountId, Optional<IncomingLinkSettings>> incomingLinkSettingsCache;
   private AccountSettingsRepository accountSettingsRepository;
   private AccessTokenManager accessTokenManager;
   private LinkSettingsFactory linkSettingsFactory;
@@ -113,6 +121,43 @@ public class IlpOverHttpAuthenticationProvider implements AuthenticationProvider
             authenticationDecision.getPrincipal()))
       .build();
     Objects.requireNonNull(cacheMetrics).addCache(AUTH_DECISIONS_CACHE_NAME, authenticationDecisions);
+
+    incomingLinkSettingsCache = Caffeine.newBuilder()
+      .recordStats() // Publish stats to prometheus
+      .maximumSize(5000)
+      .expireAfterWrite(30, TimeUnit.MINUTES)
+      .build(this::loadIncomingLinkSettings);
+    cacheMetrics.addCache(INCOMING_LINK_SETTINGS_CACHE_NAME, incomingLinkSettingsCache);
+  }
+
+  /**
+   * <p>Load the incoming link settings of every ILP-over-HTTP account into the cache, and decrypt each account's
+   * incoming secret once (immediately discarding the result) so that the {@link Decryptor} has established any
+   * connections it needs (e.g., to a KMS) before peers send their first packets.</p>
+   *
+   * <p>Authentication decisions themselves can't be pre-computed because they depend on the token that each peer
+   * presents, but after pre-warming, a peer's first request only has to verify its token.</p>
+   *
+   * @return The number of accounts that were pre-warmed.
+   */
+  public int prewarm() {
+    final List<AccountSettings> ilpOverHttpAccounts =
+      accountSettingsRepository.findByLinkTypeWithConversion(IlpOverHttpLink.LINK_TYPE);
+    int prewarmed = 0;
+    for (AccountSettings accountSettings : ilpOverHttpAccounts) {
+      try {
+        final IlpOverHttpLinkSettings ilpOverHttpLinkSettings = linkSettingsFactory.constructTyped(accountSettings);
+        final Optional<IncomingLinkSettings> incomingLinkSettings = ilpOverHttpLinkSettings.incomingLinkSettings();
+        incomingLinkSettingsCache.put(accountSettings.accountId(), incomingLinkSettings);
+        incomingLinkSettings
+          .flatMap(this::incomingSecret)
+          .ifPresent(encryptedSecret -> decryptor.withDecrypted(encryptedSecret, decrypted -> null));
+        prewarmed++;
+      } catch (Exception e) {
+        logger.warn("Unable to pre-warm ILP-over-HTTP authentication for accountId={}", accountSettings.accountId(), e);
+      }
+    }
+    return prewarmed;
   }
 
   @Override
@@ -158,6 +203,7 @@ public class IlpOverHttpAuthenticationProvider implements AuthenticationProvider
         }
       });
     authenticationDecisions.invalidateAll(toInvalidate);
+    incomingLinkSettingsCache.invalidate(event.accountId());
   }
 
   private RuntimeException handleBadCredentialsException(BadCredentialsException e, Authentication authentication) {
@@ -339,6 +385,10 @@ public class IlpOverHttpAuthenticationProvider implements AuthenticationProvider
   }
 
   private Optional<IncomingLinkSettings> getIncomingLinkSettings(AccountId accountId) {
+    return incomingLinkSettingsCache.get(accountId);
+  }
+
+  private Optional<IncomingLinkSettings> loadIncomingLinkSettings(AccountId accountId) {
     final AccountSettings accountSettings =
       accountSettingsRepository.findByAccountIdWithConversion(accountId)
         .orElseThrow(() -> new AccountNotFoundProblem(accountId));
@@ -348,6 +398,17 @@ public class IlpOverHttpAuthenticationProvider implements AuthenticationProvider
     return ilpOverHttpLinkSettings.incomingLinkSettings();
   }
 
+  private Optional<EncryptedSecret> incomingSecret(IncomingLinkSettings incomingLinkSettings) {
+    if (incomingLinkSettings.authType().equals(IlpOverHttpLinkSettings.AuthType.SIMPLE)) {
+      return incomingLinkSettings.simpleAuthSettings()
+        .map(simpleAuthSettings -> EncryptedSecret.fromEncodedValue(simpleAuthSettings.authToken()));
+    } else {
+      return incomingLinkSettings.jwtAuthSettings()
+        .flatMap(JwtAuthSettings::encryptedTokenSharedSecret)
+        .map(EncryptedSecret::fromEncodedValue);
+    }
+  }
+
   private static SimpleCredentials getSimpleCredentials(AccountId accountId, byte[] token) {
     return SimpleCredentials.builder()
       .principal(accountId)
@@ -6,6 +6,8 @@ import static org.interledger.connector.core.ConfigConstants.ILP_OVER_HTTP_ENABL
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountIdResolver;
 import org.interledger.connector.packetswitch.ILPv4PacketSwitch;
+import org.interledger.connector.packetswitch.admission.IngressAdmissionController;
+import org.interledger.connector.server.ilpoverhttp.QueueDelayTrackingThreadPool;
 import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.core.InterledgerResponsePacket;
 
@@ -19,6 +21,7 @@ import org.springframework.web.bind.annotation.RestController;
 import org.zalando.problem.spring.common.MediaTypes;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A RESTful controller for handling ILP over HTTP request/response payloads.
@@ -46,9 +49,13 @@ public class IlpHttpController {
   public static final MediaType APPLICATION_ILP_OCTET_STREAM = MediaType.valueOf(APPLICATION_ILP_OCTET_STREAM_VALUE);
 
   private final ILPv4PacketSwitch ilPv4PacketSwitch;
+  private final Optional<IngressAdmissionController> admissionController;
 
-  public IlpHttpController(final ILPv4PacketSwitch ilPv4PacketSwitch) {
+  public IlpHttpController(
+    final ILPv4PacketSwitch ilPv4PacketSwitch, final Optional<IngressAdmissionController> admissionController
+  ) {
     this.ilPv4PacketSwitch = Objects.requireNonNull(ilPv4PacketSwitch);
+    this.admissionController = Objects.requireNonNull(admissionController);
   }
 
   /**
@@ -71,7 +78,19 @@ public class IlpHttpController {
     @PathVariable(PathConstants.ACCOUNT_ID) AccountId accountId,
     @RequestBody final InterledgerPreparePacket preparePacket
   ) {
+    if (admissionController.isPresent()) {
+      return admissionController.get().switchPacket(accountId, preparePacket, queuedAtNanos());
+    }
     return this.ilPv4PacketSwitch.switchPacket(accountId, preparePacket);
   }
 
+  /**
+   * When the request being handled was queued for a Jetty thread, in {@link System#nanoTime()} units, so that the
+   * admission controller sees how long the request waited for a thread. This is only measured when Jetty runs on a
+   * {@link QueueDelayTrackingThreadPool}; otherwise, the request is treated as not having waited at all.
+   */
+  private long queuedAtNanos() {
+    return System.nanoTime() - QueueDelayTrackingThreadPool.takeQueueDelayNanos();
+  }
+
 }
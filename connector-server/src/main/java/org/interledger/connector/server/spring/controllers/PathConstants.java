@@ -18,6 +18,8 @@ public class PathConstants {
   public static final String SLASH_SE_ACCOUNT_ID = "/{" + SE_ACCOUNT_ID + ":.+}";
   public static final String SLASH_SETTLEMENTS = "/settlements";
   public static final String SLASH_MESSAGES = "/messages";
+  public static final String SLASH_PACKET_TRACES = "/packet-traces";
+  public static final String SLASH_SELF_TEST = "/self-test";
   public static final String SLASH_ROUTES = "/routes";
   public static final String SLASH_ROUTES_STATIC = SLASH_ROUTES + "/static";
   public static final String SLASH_ACCOUNTS_ILP_PATH = SLASH_ACCOUNTS + SLASH_ACCOUNT_ID + "/ilp";
@@ -0,0 +1,62 @@
+package org.interledger.connector.server.spring.controllers.admin;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.packetswitch.trace.PacketTrace;
+import org.interledger.connector.packetswitch.trace.PacketTraceBuffer;
+import org.interledger.connector.server.spring.controllers.PathConstants;
+
+import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.zalando.problem.spring.common.MediaTypes;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Allows an admin to see how a sample of recently switched packets were handled (see {@link PacketTraceBuffer}).
+ */
+@RestController(PathConstants.SLASH_PACKET_TRACES)
+public class PacketTracesController {
+
+  private static final int MAX_LIMIT = 1000;
+
+  private final PacketTraceBuffer packetTraceBuffer;
+
+  public PacketTracesController(final PacketTraceBuffer packetTraceBuffer) {
+    this.packetTraceBuffer = Objects.requireNonNull(packetTraceBuffer);
+  }
+
+  /**
+   * Find the most recent packet traces, newest first.
+   *
+   * @param accountId  If present, only traces of packets received from or forwarded to this account are returned.
+   * @param rejectCode If present, only traces of packets rejected with this code (e.g., {@code F02}) are returned.
+   * @param limit      The maximum number of traces to return (at most 1000).
+   *
+   * @return An {@link HttpEntity} that contains a {@link PagedModel} of {@link PacketTrace}.
+   */
+  @RequestMapping(
+    path = PathConstants.SLASH_PACKET_TRACES,
+    method = RequestMethod.GET,
+    produces = {APPLICATION_JSON_VALUE, org.springframework.hateoas.MediaTypes.HAL_JSON_VALUE, MediaTypes.PROBLEM_VALUE}
+  )
+  public HttpEntity<PagedModel<PacketTrace>> getPacketTraces(
+    @RequestParam(name = "accountId", required = false) final Optional<String> accountId,
+    @RequestParam(name = "rejectCode", required = false) final Optional<String> rejectCode,
+    @RequestParam(name = "limit", defaultValue = "100") final int limit
+  ) {
+    final List<PacketTrace> traces = packetTraceBuffer.find(
+      accountId.map(AccountId::of), rejectCode, Math.max(0, Math.min(limit, MAX_LIMIT))
+    );
+    return new HttpEntity<>(
+      new PagedModel<>(traces, new PagedModel.PageMetadata(traces.size(), 0, traces.size(), 1))
+    );
+  }
+}
@@ -0,0 +1,68 @@
+package org.interledger.connector.server.spring.controllers.admin;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.selftest.LoopbackSelfTest;
+import org.interledger.connector.selftest.SelfTestProblem;
+import org.interledger.connector.selftest.SelfTestResult;
+import org.interledger.connector.server.spring.controllers.PathConstants;
+
+import com.google.common.primitives.UnsignedLong;
+import org.springframework.http.HttpEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.zalando.problem.Status;
+import org.zalando.problem.spring.common.MediaTypes;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Allows an admin to put synthetic load on this Connector and see the throughput and latency it achieved (see {@link
+ * LoopbackSelfTest}).
+ */
+@RestController(PathConstants.SLASH_SELF_TEST)
+public class SelfTestController {
+
+  private final LoopbackSelfTest loopbackSelfTest;
+
+  public SelfTestController(final LoopbackSelfTest loopbackSelfTest) {
+    this.loopbackSelfTest = Objects.requireNonNull(loopbackSelfTest);
+  }
+
+  /**
+   * Send Ping packets from an existing account to this Connector's Ping account, and respond once they have all been
+   * answered.
+   *
+   * @param accountId        The account to send packets from. Its balance and rate limit apply to these packets.
+   * @param durationSeconds  How long to send packets for (at most 60 seconds).
+   * @param packetsPerSecond The rate to send packets at (at most 10,000).
+   * @param concurrency      The maximum number of packets in flight at once (at most 64).
+   * @param amount           The amount of each packet, in the units of {@code accountId}.
+   *
+   * @return An {@link HttpEntity} that contains a {@link SelfTestResult}.
+   */
+  @RequestMapping(
+    path = PathConstants.SLASH_SELF_TEST,
+    method = RequestMethod.POST,
+    produces = {APPLICATION_JSON_VALUE, MediaTypes.PROBLEM_VALUE}
+  )
+  public HttpEntity<SelfTestResult> runSelfTest(
+    @RequestParam(name = "accountId") final String accountId,
+    @RequestParam(name = "durationSeconds", defaultValue = "10") final int durationSeconds,
+    @RequestParam(name = "packetsPerSecond", defaultValue = "100") final int packetsPerSecond,
+    @RequestParam(name = "concurrency", defaultValue = "8") final int concurrency,
+    @RequestParam(name = "amount", defaultValue = "0") final long amount
+  ) {
+    if (amount < 0) {
+      throw new SelfTestProblem("amount must not be negative", Status.BAD_REQUEST);
+    }
+    return new HttpEntity<>(loopbackSelfTest.run(
+      AccountId.of(accountId), Duration.ofSeconds(durationSeconds), packetsPerSecond, concurrency,
+      UnsignedLong.valueOf(amount)
+    ));
+  }
+}
@@ -9,8 +9,6 @@ import static ch.qos.logback.classic.Level.WARN_INT;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.PatternLayout;
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.Map;
 
@@ -20,7 +18,13 @@ import java.util.Map;
  */
 public class GCPCloudLoggingJSONLayout extends PatternLayout {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final int BUFFER_SIZE = 1024;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    // Every log line is encoded into the logging thread's buffer, rather than building an event object and serializing
+    // it with a general-purpose JSON mapper.
+    private static final ThreadLocal<StringBuilder> BUFFERS =
+        ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_SIZE));
 
     @Override
     public String doLayout(ILoggingEvent event) {
@@ -32,26 +36,68 @@ public class GCPCloudLoggingJSONLayout extends PatternLayout {
      * For testing without having to deal wth the complexity of super.doLayout()
      * Uses formattedMessage instead of event.getMessage()
      */
-    private String doLayoutInternal(String formattedMessage, ILoggingEvent event) {
-        GCPCloudLoggingEvent gcpLogEvent =
-            new GCPCloudLoggingEvent(formattedMessage, convertTimestampToGCPLogTimestamp(event.getTimeStamp()),
-                mapLevelToGCPLevel(event.getLevel()), event.getThreadName());
-
-        try {
-            // Add a newline so that each JSON log entry is on its own line.
-            // Note that it is also important that the JSON log entry does not span multiple lines.
-            return objectMapper.writeValueAsString(gcpLogEvent) + "\n";
-        } catch (JsonProcessingException e) {
-            return "";
+    String doLayoutInternal(String formattedMessage, ILoggingEvent event) {
+        final StringBuilder json = BUFFERS.get();
+        json.setLength(0);
+
+        final long millisSinceEpoch = event.getTimeStamp();
+        json.append("{\"message\":");
+        appendString(json, formattedMessage);
+        json.append(",\"timestamp\":{\"seconds\":").append(millisSinceEpoch / 1000L) // remove the milliseconds
+            // strip out just the milliseconds and convert to nanoseconds
+            .append(",\"nanos\":").append(((int) (millisSinceEpoch % 1000)) * 1_000_000)
+            .append("},\"thread\":");
+        appendString(json, event.getThreadName());
+        json.append(",\"severity\":");
+        appendString(json, mapLevelToGCPLevel(event.getLevel()));
+        // Add a newline so that each JSON log entry is on its own line.
+        // Note that it is also important that the JSON log entry does not span multiple lines.
+        json.append("}\n");
+
+        final String result = json.toString();
+        if (json.capacity() > BUFFER_SIZE * 16) {
+            // Don't keep a buffer that an unusually long message (e.g., a stack trace) grew.
+            BUFFERS.remove();
         }
+        return result;
     }
 
-    private static GCPCloudLoggingEvent.GCPCloudLoggingTimestamp convertTimestampToGCPLogTimestamp(
-        long millisSinceEpoch) {
-        int nanos =
-            ((int) (millisSinceEpoch % 1000)) * 1_000_000; // strip out just the milliseconds and convert to nanoseconds
-        long seconds = millisSinceEpoch / 1000L; // remove the milliseconds
-        return new GCPCloudLoggingEvent.GCPCloudLoggingTimestamp(seconds, nanos);
+    /**
+     * Append {@code value} as a JSON string, escaping quotes, backslashes and control characters (including newlines).
+     */
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 0xF]);
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
     }
 
     private static String mapLevelToGCPLevel(Level level) {
@@ -71,84 +117,6 @@ public class GCPCloudLoggingJSONLayout extends PatternLayout {
         }
     }
 
-    /* Must be public for Jackson JSON conversion */
-    public static class GCPCloudLoggingEvent {
-        private String message;
-        private GCPCloudLoggingTimestamp timestamp;
-        private String thread;
-        private String severity;
-
-        public GCPCloudLoggingEvent(String message, GCPCloudLoggingTimestamp timestamp, String severity,
-            String thread) {
-            super();
-            this.message = message;
-            this.timestamp = timestamp;
-            this.thread = thread;
-            this.severity = severity;
-        }
-
-        public String getMessage() {
-            return message;
-        }
-
-        public void setMessage(String message) {
-            this.message = message;
-        }
-
-        public GCPCloudLoggingTimestamp getTimestamp() {
-            return timestamp;
-        }
-
-        public void setTimestamp(GCPCloudLoggingTimestamp timestamp) {
-            this.timestamp = timestamp;
-        }
-
-        public String getThread() {
-            return thread;
-        }
-
-        public void setThread(String thread) {
-            this.thread = thread;
-        }
-
-        public String getSeverity() {
-            return severity;
-        }
-
-        public void setSeverity(String severity) {
-            this.severity = severity;
-        }
-
-        /* Must be public for JSON marshalling logic */
-        public static class GCPCloudLoggingTimestamp {
-            private long seconds;
-            private int nanos;
-
-            public GCPCloudLoggingTimestamp(long seconds, int nanos) {
-                super();
-                this.seconds = seconds;
-                this.nanos = nanos;
-            }
-
-            public long getSeconds() {
-                return seconds;
-            }
-
-            public void setSeconds(long seconds) {
-                this.seconds = seconds;
-            }
-
-            public int getNanos() {
-                return nanos;
-            }
-
-            public void setNanos(int nanos) {
-                this.nanos = nanos;
-            }
-
-        }
-    }
-
     @Override
     public Map<String, String> getDefaultConverterMap() {
         return PatternLayout.defaultConverterMap;
@@ -1,7 +1,16 @@
 package org.interledger.connector.server.spring.settings;
 
+import static org.interledger.connector.core.ConfigConstants.ADAPTIVE_CONCURRENCY_LIMIT;
+import static org.interledger.connector.core.ConfigConstants.ENABLED;
+import static org.interledger.connector.core.ConfigConstants.TRUE;
+
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.interledger.connector.link.AdaptiveConcurrencyLimiterConfig;
+import org.interledger.connector.link.AdaptiveConcurrencyLimiterRegistry;
+import org.interledger.connector.metrics.AdaptiveConcurrencyLimitCollector;
 import org.interledger.core.InterledgerProtocolException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -28,5 +37,31 @@ public class ResiliencyConfig {
       .build();
   }
 
-
+  /**
+   * Only created if adaptive concurrency limiting is enabled, in which case every outgoing link limits the number of
+   * packets in-flight to its peer using a limiter from this registry.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = ADAPTIVE_CONCURRENCY_LIMIT, name = ENABLED, havingValue = TRUE)
+  AdaptiveConcurrencyLimiterRegistry adaptiveConcurrencyLimiterRegistry(
+    @Value("${" + ADAPTIVE_CONCURRENCY_LIMIT + ".initialLimit:"
+      + AdaptiveConcurrencyLimiterConfig.DEFAULT_INITIAL_LIMIT + "}") final int initialLimit,
+    @Value("${" + ADAPTIVE_CONCURRENCY_LIMIT + ".minLimit:"
+      + AdaptiveConcurrencyLimiterConfig.DEFAULT_MIN_LIMIT + "}") final int minLimit,
+    @Value("${" + ADAPTIVE_CONCURRENCY_LIMIT + ".maxLimit:"
+      + AdaptiveConcurrencyLimiterConfig.DEFAULT_MAX_LIMIT + "}") final int maxLimit,
+    @Value("${" + ADAPTIVE_CONCURRENCY_LIMIT + ".rttTolerance:"
+      + AdaptiveConcurrencyLimiterConfig.DEFAULT_RTT_TOLERANCE + "}") final double rttTolerance
+  ) {
+    final AdaptiveConcurrencyLimiterRegistry registry = new AdaptiveConcurrencyLimiterRegistry(
+      AdaptiveConcurrencyLimiterConfig.custom()
+        .initialLimit(initialLimit)
+        .minLimit(minLimit)
+        .maxLimit(maxLimit)
+        .rttTolerance(rttTolerance)
+        .build()
+    );
+    new AdaptiveConcurrencyLimitCollector(registry).register();
+    return registry;
+  }
 }
@@ -1,6 +1,9 @@
 package org.interledger.connector.server.spring.settings;
 
 import static org.interledger.connector.accounts.sub.LocalDestinationAddressUtils.PING_ACCOUNT_ID;
+import static org.interledger.connector.core.ConfigConstants.METRICS__PACKET_STAGE_TIMING;
+import static org.interledger.connector.core.ConfigConstants.METRICS__PACKET_TRACES;
+import static org.interledger.connector.core.ConfigConstants.ROUTE_INGESTION;
 
 import org.interledger.connector.ConnectorExceptionHandler;
 import org.interledger.connector.DefaultILPv4Connector;
@@ -42,11 +45,13 @@ import org.interledger.connector.links.LinkSettingsValidator;
 import org.interledger.connector.links.NextHopPacketMapper;
 import org.interledger.connector.links.filters.LinkFilter;
 import org.interledger.connector.links.filters.OutgoingBalanceLinkFilter;
+import org.interledger.connector.links.filters.OutgoingBulkheadLinkFilter;
 import org.interledger.connector.links.filters.OutgoingMaxPacketAmountLinkFilter;
 import org.interledger.connector.links.filters.OutgoingMetricsLinkFilter;
 import org.interledger.connector.links.filters.OutgoingStreamPaymentLinkFilter;
 import org.interledger.connector.localsend.LocalPacketSwitchLinkFactory;
 import org.interledger.connector.metrics.MetricsService;
+import org.interledger.connector.metrics.PacketStageTimer;
 import org.interledger.connector.packetswitch.DefaultILPv4PacketSwitch;
 import org.interledger.connector.packetswitch.ILPv4PacketSwitch;
 import org.interledger.connector.packetswitch.InterledgerAddressUtils;
@@ -60,6 +65,7 @@ import org.interledger.connector.packetswitch.filters.PeerProtocolPacketFilter;
 import org.interledger.connector.packetswitch.filters.RateLimitIlpPacketFilter;
 import org.interledger.connector.packetswitch.filters.StreamPaymentIlpPacketFilter;
 import org.interledger.connector.packetswitch.filters.ValidateFulfillmentPacketFilter;
+import org.interledger.connector.packetswitch.trace.PacketTraceBuffer;
 import org.interledger.connector.payments.DefaultSendPaymentService;
 import org.interledger.connector.payments.FulfillmentGeneratedEventAggregator;
 import org.interledger.connector.payments.FulfillmentGeneratedEventConverter;
@@ -83,15 +89,20 @@ import org.interledger.connector.persistence.repositories.StaticRoutesRepository
 import org.interledger.connector.persistence.repositories.StreamPaymentsRepository;
 import org.interledger.connector.pubsub.RedisPubSubConfig;
 import org.interledger.connector.routing.DefaultRouteBroadcaster;
+import org.interledger.connector.routing.EwmaLinkQualityTracker;
 import org.interledger.connector.routing.ExternalRoutingService;
 import org.interledger.connector.routing.ForwardingRoutingTable;
 import org.interledger.connector.routing.InMemoryExternalRoutingService;
 import org.interledger.connector.routing.InMemoryForwardingRoutingTable;
 import org.interledger.connector.routing.InMemoryRoutingTable;
+import org.interledger.connector.routing.LinkQualityTracker;
 import org.interledger.connector.routing.LocalDestinationAddressPaymentRouter;
+import org.interledger.connector.routing.FileRoutingTableSnapshotStore;
 import org.interledger.connector.routing.RouteBroadcaster;
 import org.interledger.connector.routing.RouteUpdate;
+import org.interledger.connector.routing.RouteIngestionExecutor;
 import org.interledger.connector.routing.StaticRoutesManager;
+import org.interledger.connector.selftest.LoopbackSelfTest;
 import org.interledger.connector.server.spring.gcp.GcpPubSubConfig;
 import org.interledger.connector.server.spring.settings.crypto.CryptoConfig;
 import org.interledger.connector.server.spring.settings.javamoney.JavaMoneyConfig;
@@ -100,6 +111,7 @@ import org.interledger.connector.server.spring.settings.metrics.MetricsConfigura
 import org.interledger.connector.server.spring.settings.web.SpringConnectorWebMvc;
 import org.interledger.connector.server.wallet.spring.config.WalletConfig;
 import org.interledger.connector.settings.ConnectorSettings;
+import org.interledger.connector.settings.GlobalRoutingSettings;
 import org.interledger.connector.settings.properties.ConnectorSettingsFromPropertyFile;
 import org.interledger.connector.settlement.SettlementEngineClient;
 import org.interledger.connector.settlement.SettlementService;
@@ -141,6 +153,7 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.nio.file.Paths;
 import java.time.Clock;
 import java.util.Arrays;
 import java.util.List;
@@ -373,8 +386,10 @@ public class SpringConnectorConfig {
     final StaticRoutesRepository staticRoutesRepository,
     final LocalDestinationAddressPaymentRouter localDestinationAddressPaymentRouter,
     final ForwardingRoutingTable<RouteUpdate> outgoingRoutingTable,
-    final RouteBroadcaster routeBroadcaster
+    final RouteBroadcaster routeBroadcaster,
+    final LinkQualityTracker linkQualityTracker
   ) {
+    final GlobalRoutingSettings globalRoutingSettings = connectorSettingsSupplier.get().globalRoutingSettings();
     return new InMemoryExternalRoutingService(
       eventBus,
       connectorSettingsSupplier,
@@ -384,17 +399,27 @@ public class SpringConnectorConfig {
       localDestinationAddressPaymentRouter,
       new InMemoryRoutingTable(),
       outgoingRoutingTable,
-      routeBroadcaster
+      routeBroadcaster,
+      globalRoutingSettings.routingTableSnapshotPath()
+        .map(Paths::get)
+        .map(FileRoutingTableSnapshotStore::new),
+      globalRoutingSettings.isLatencyAwareRouteSelectionEnabled() ? Optional.of(linkQualityTracker) : Optional.empty()
     );
   }
 
+  @Bean
+  LinkQualityTracker linkQualityTracker() {
+    return new EwmaLinkQualityTracker();
+  }
+
   @Bean
   RouteBroadcaster routeBroadcaster(
     Supplier<ConnectorSettings> connectorSettingsSupplier,
     @Qualifier(CodecContextConfig.CCP) CodecContext ccpCodecContext,
     AccountSettingsRepository accountSettingsRepository,
     ForwardingRoutingTable<RouteUpdate> outgoingRoutingTable,
-    LinkManager linkManager
+    LinkManager linkManager,
+    RouteIngestionExecutor routeIngestionExecutor
   ) {
     return new DefaultRouteBroadcaster(
       connectorSettingsSupplier,
@@ -404,10 +429,25 @@ public class SpringConnectorConfig {
       linkManager,
       // Four threads should be more than sufficient. We don't expect many peers with PEER routing enabled, but if
       // there are, those requests will pile up and eventually get executed, which is fine.
-      Executors.newFixedThreadPool(4)
+      Executors.newFixedThreadPool(4),
+      routeIngestionExecutor
     );
   }
 
+  /**
+   * Route updates are small and infrequent in steady state, so they are applied inline by the receiving thread unless
+   * they contain at least {@code asyncThreshold} changes, like a full table dump. Once {@code maxPendingRouteChanges}
+   * route changes are waiting to be applied, further updates are rejected with T03 until ingestion catches up.
+   */
+  @Bean
+  RouteIngestionExecutor routeIngestionExecutor(
+    MetricsService metricsService,
+    @Value("${" + ROUTE_INGESTION + ".maxPendingRouteChanges:100000}") int maxPendingRouteChanges,
+    @Value("${" + ROUTE_INGESTION + ".asyncThreshold:100}") int asyncThreshold
+  ) {
+    return new RouteIngestionExecutor(maxPendingRouteChanges, asyncThreshold, metricsService);
+  }
+
   @Bean
   InterledgerAddressUtils interledgerAddressUtils(
     final Supplier<ConnectorSettings> connectorSettingsSupplier,
@@ -527,6 +567,8 @@ public class SpringConnectorConfig {
       // TODO: Throughput for Money...
       new OutgoingMetricsLinkFilter(operatorAddressSupplier, metricsService),
       new OutgoingMaxPacketAmountLinkFilter(operatorAddressSupplier),
+      // Bound packets in-flight per peer before any balance changes, so that busy rejections have nothing to undo.
+      new OutgoingBulkheadLinkFilter(operatorAddressSupplier),
       new OutgoingBalanceLinkFilter(operatorAddressSupplier, balanceTracker, settlementService, eventBus),
       new OutgoingStreamPaymentLinkFilter(operatorAddressSupplier, fulfillmentGeneratedEventAggregator)
     );
@@ -567,7 +609,11 @@ public class SpringConnectorConfig {
     PacketRejector packetRejector,
     AccountSettingsLoadingCache accountSettingsLoadingCache,
     PacketEventPublisher packetEventPublisher,
-    LocalDestinationAddressUtils localDestinationAddressUtils
+    LocalDestinationAddressUtils localDestinationAddressUtils,
+    MetricsService metricsService,
+    @Value("${" + METRICS__PACKET_STAGE_TIMING + ".sampleRate:0}") double packetStageTimingSampleRate,
+    PacketTraceBuffer packetTraceBuffer,
+    LinkQualityTracker linkQualityTracker
   ) {
     return new DefaultILPv4PacketSwitch(
       packetSwitchFilters,
@@ -578,10 +624,35 @@ public class SpringConnectorConfig {
       packetRejector,
       accountSettingsLoadingCache,
       packetEventPublisher,
-      localDestinationAddressUtils
+      localDestinationAddressUtils,
+      packetStageTimingSampleRate > 0
+        ? Optional.of(new PacketStageTimer(metricsService, packetStageTimingSampleRate))
+        : Optional.empty(),
+      Optional.of(packetTraceBuffer),
+      // Link quality is only tracked if something is going to use it.
+      connectorSettingsSupplier().get().globalRoutingSettings().isLatencyAwareRouteSelectionEnabled()
+        ? Optional.of(linkQualityTracker)
+        : Optional.empty()
     );
   }
 
+  @Bean
+  PacketTraceBuffer packetTraceBuffer(
+    @Value("${" + METRICS__PACKET_TRACES + ".capacity:1024}") int capacity,
+    @Value("${" + METRICS__PACKET_TRACES + ".sampleRate:0}") double sampleRate
+  ) {
+    return new PacketTraceBuffer(capacity, sampleRate);
+  }
+
+  @Bean
+  LoopbackSelfTest loopbackSelfTest(
+    ILPv4PacketSwitch ilpPacketSwitch,
+    Supplier<ConnectorSettings> connectorSettingsSupplier,
+    AccountSettingsLoadingCache accountSettingsLoadingCache
+  ) {
+    return new LoopbackSelfTest(ilpPacketSwitch, connectorSettingsSupplier, accountSettingsLoadingCache);
+  }
+
   @Bean
   ILPv4Connector ilpConnector(
     Supplier<ConnectorSettings> connectorSettingsSupplier,
@@ -1,20 +1,30 @@
 package org.interledger.connector.server.spring.settings.crypto;
 
 import static org.interledger.crypto.CryptoConfigConstants.INTERLEDGER_CONNECTOR_KEYSTORE;
+import static org.interledger.crypto.CryptoConfigConstants.INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE_ENABLED;
+import static org.interledger.crypto.CryptoConfigConstants.INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE_MAXIMUM_SIZE;
+import static org.interledger.crypto.CryptoConfigConstants.INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE_TTL;
 
 import org.interledger.connector.crypto.ConnectorEncryptionService;
 import org.interledger.crypto.EncryptionService;
 import org.interledger.crypto.KeyStoreType;
+import org.interledger.crypto.impl.CachingEncryptionService;
 import org.interledger.crypto.impl.DelegatingEncryptionService;
 
+import io.prometheus.client.cache.caffeine.CacheMetricsCollector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -37,10 +47,50 @@ public class CryptoConfig {
   @Value("${" + INTERLEDGER_CONNECTOR_KEYSTORE + ".primary:}")
   private String primaryKeystore;
 
+  /**
+   * Whether decrypted secrets are cached (for at most {@link #decryptionCacheTtlSeconds}) so that decrypting the same
+   * secret repeatedly doesn't require a round-trip to a KMS every time.
+   */
+  @Value("${" + INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE_ENABLED + ":true}")
+  private boolean decryptionCacheEnabled;
+
+  @Value("${" + INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE_TTL + ":300}")
+  private long decryptionCacheTtlSeconds;
+
+  @Value("${" + INTERLEDGER_CONNECTOR_KEYSTORE_DECRYPTION_CACHE_MAXIMUM_SIZE + ":1000}")
+  private long decryptionCacheMaximumSize;
+
+  @Autowired
+  private ObjectProvider<CacheMetricsCollector> cacheMetricsCollector;
+
+  private CachingEncryptionService cachingEncryptionService;
+
   @Bean
   @Primary
   public EncryptionService encryptionService(Set<EncryptionService> encryptionServices) {
-    return new DelegatingEncryptionService(encryptionServices);
+    final EncryptionService encryptionService = new DelegatingEncryptionService(encryptionServices);
+    if (!decryptionCacheEnabled) {
+      return encryptionService;
+    }
+
+    cachingEncryptionService = new CachingEncryptionService(
+      encryptionService, Duration.ofSeconds(decryptionCacheTtlSeconds), decryptionCacheMaximumSize
+    );
+    return cachingEncryptionService;
+  }
+
+  /**
+   * Registers the decrypted-secrets cache with Prometheus once the context is refreshed. This is not done in
+   * {@link #encryptionService(Set)} because the {@link CacheMetricsCollector} is defined by a configuration that
+   * (transitively) requires a {@link org.interledger.crypto.Decryptor}, so injecting it there forms a bean cycle.
+   */
+  @EventListener(ContextRefreshedEvent.class)
+  public void registerDecryptedSecretsCacheMetrics() {
+    if (cachingEncryptionService != null) {
+      cacheMetricsCollector.ifAvailable(
+        collector -> collector.addCache("decryptedSecretsCache", cachingEncryptionService.getDecryptedSecrets())
+      );
+    }
   }
 
   @Bean
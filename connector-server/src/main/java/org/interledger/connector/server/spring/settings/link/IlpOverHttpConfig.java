@@ -1,38 +1,62 @@
 package org.interledger.connector.server.spring.settings.link;
 
 import static okhttp3.CookieJar.NO_COOKIES;
+import static org.interledger.connector.core.ConfigConstants.ENABLED;
 import static org.interledger.connector.core.ConfigConstants.ENABLED_PROTOCOLS;
 import static org.interledger.connector.core.ConfigConstants.ILP_OVER_HTTP_ENABLED;
+import static org.interledger.connector.core.ConfigConstants.ILP_OVER_HTTP__ADMISSION;
+import static org.interledger.connector.core.ConfigConstants.ILP_OVER_HTTP__NETTY_INGRESS;
 import static org.interledger.connector.core.ConfigConstants.TRUE;
+import static org.interledger.connector.server.spring.settings.CodecContextConfig.ILP;
 import static org.interledger.connector.server.spring.settings.web.JacksonConfig.PROBLEM;
 
 import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
 import org.interledger.connector.accounts.DefaultAccountIdResolver;
 import org.interledger.connector.accounts.IlpOverHttpAccountIdResolver;
+import org.interledger.connector.links.Http2IlpOverHttpLinkFactory;
+import org.interledger.connector.links.PacketExpiryInterceptor;
+import org.interledger.connector.metrics.MetricsService;
+import org.interledger.connector.packetswitch.ILPv4PacketSwitch;
+import org.interledger.connector.packetswitch.admission.IngressAdmissionConfig;
+import org.interledger.connector.packetswitch.admission.IngressAdmissionController;
+import org.interledger.connector.server.ilpoverhttp.NettyIlpOverHttpIngress;
+import org.interledger.connector.server.ilpoverhttp.QueueDelayTrackingThreadPool;
+import org.interledger.connector.server.spring.auth.ilpoverhttp.IlpOverHttpAuthenticationProvider;
 import org.interledger.connector.settings.ConnectorSettings;
 import org.interledger.connector.settings.IlpOverHttpConnectionSettings;
+import org.interledger.connector.settings.IlpOverHttpConnectorSettings;
+import org.interledger.connector.settings.properties.ConnectorSettingsFromPropertyFile;
 import org.interledger.crypto.Decryptor;
 import org.interledger.crypto.EncryptedSecret;
-import org.interledger.link.LinkFactoryProvider;
+import org.interledger.encoding.asn.framework.CodecContext;
 import org.interledger.link.http.IlpOverHttpLink;
-import org.interledger.link.http.IlpOverHttpLinkFactory;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import okhttp3.ConnectionPool;
 import okhttp3.ConnectionSpec;
 import okhttp3.Dispatcher;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.eclipse.jetty.http2.server.HTTP2CServerConnectionFactory;
+import org.eclipse.jetty.server.HttpConnectionFactory;
+import org.eclipse.jetty.server.ServerConnector;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.jetty.JettyServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.OkHttp3ClientHttpRequestFactory;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
-import javax.annotation.PostConstruct;
 
 /**
  * <p>Configures ILP-over-HTTP, which provides a single Link-layer mechanism for this Connector's peers.</p>
@@ -46,17 +70,14 @@ public class IlpOverHttpConfig {
 
   public static final String ILP_OVER_HTTP = "ILP-over-HTTP";
 
+  // For reading IngressAdmissionConfig defaults in SpEL.
+  private static final String ADMISSION_CONFIG =
+    "T(org.interledger.connector.packetswitch.admission.IngressAdmissionConfig)";
+
   @Autowired
   @Qualifier(PROBLEM)
   private ObjectMapper objectMapper;
 
-  @Autowired
-  @Qualifier(ILP_OVER_HTTP)
-  private OkHttpClient ilpOverHttpClient;
-
-  @Autowired
-  private LinkFactoryProvider linkFactoryProvider;
-
   @Autowired
   private Decryptor decryptor;
 
@@ -103,10 +124,18 @@ public class IlpOverHttpConfig {
     builder.dispatcher(dispatcher);
     builder.connectionSpecs(Arrays.asList(spec, ConnectionSpec.CLEARTEXT));
     builder.cookieJar(NO_COOKIES);
+    // HTTP/2 is negotiated via ALPN, so TLS peers that support it multiplex all packets over a single connection.
+    // Cleartext (h2c) peers are configured per-peer by the link factory.
+    builder.protocols(connectionSettings.isHttp2Enabled()
+      ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1)
+      : Collections.singletonList(Protocol.HTTP_1_1)
+    );
 
     builder.connectTimeout(connectionSettings.connectTimeoutMillis(), TimeUnit.MILLISECONDS);
     builder.readTimeout(connectionSettings.readTimeoutMillis(), TimeUnit.MILLISECONDS);
     builder.writeTimeout(connectionSettings.writeTimeoutMillis(), TimeUnit.MILLISECONDS);
+    // Never wait on a peer past the expiry of the packet sent to it; these timeouts are only an upper bound.
+    builder.addInterceptor(new PacketExpiryInterceptor());
 
     return builder.connectionPool(ilpOverHttpConnectionPool).build();
   }
@@ -126,24 +155,150 @@ public class IlpOverHttpConfig {
     return new OkHttp3ClientHttpRequestFactory(okHttpClient);
   }
 
+  /**
+   * Allows peers to send packets to this Connector's ILP-over-HTTP endpoint using cleartext HTTP/2 (h2c), either with
+   * prior knowledge or via an HTTP/1.1 upgrade. Over TLS, HTTP/2 is negotiated via ALPN as configured by
+   * {@code server.http2.enabled}.
+   *
+   * <p>The web server is created before any other bean, so this bean is static and reads the h2c settings straight
+   * from the property file, rather than from a {@link Supplier} of {@link ConnectorSettings} that would drag most of
+   * the Connector's configuration into existence with it.</p>
+   *
+   * @param connectorSettings An {@link ObjectProvider} for the {@link ConnectorSettingsFromPropertyFile}.
+   *
+   * @return A {@link WebServerFactoryCustomizer} that adds h2c to every cleartext HTTP connector.
+   */
+  @Bean
+  protected static WebServerFactoryCustomizer<JettyServletWebServerFactory> ilpOverHttpH2cCustomizer(
+    final ObjectProvider<ConnectorSettingsFromPropertyFile> connectorSettings
+  ) {
+    return factory -> factory.addServerCustomizers(server -> {
+      final IlpOverHttpConnectorSettings ilpOverHttpSettings = connectorSettings.getObject().ilpOverHttpSettings();
+      if (!ilpOverHttpSettings.isH2cEnabled()) {
+        return;
+      }
+      Arrays.stream(server.getConnectors())
+        .filter(connector -> connector instanceof ServerConnector)
+        .map(connector -> (ServerConnector) connector)
+        .filter(connector -> connector.getDefaultConnectionFactory() instanceof HttpConnectionFactory)
+        .forEach(connector -> {
+          final HttpConnectionFactory http = (HttpConnectionFactory) connector.getDefaultConnectionFactory();
+          final HTTP2CServerConnectionFactory h2c = new HTTP2CServerConnectionFactory(http.getHttpConfiguration());
+          h2c.setMaxConcurrentStreams(ilpOverHttpSettings.maxConcurrentStreams());
+          connector.addConnectionFactory(h2c);
+        });
+    });
+  }
+
   @Bean
   protected IlpOverHttpAccountIdResolver ilpOverHttpAccountIdResolver() {
     return new DefaultAccountIdResolver();
   }
 
-  @PostConstruct
-  public void startup() {
+  /**
+   * Only created if the Netty ingress is enabled, in which case peers may send packets to it, on its own port, instead
+   * of to the ILP-over-HTTP endpoint served by the servlet container.
+   *
+   * @param packetSwitch           The {@link ILPv4PacketSwitch} to send incoming packets to.
+   * @param authenticationProvider The {@link IlpOverHttpAuthenticationProvider} that authenticates the servlet
+   *                               endpoint's requests.
+   * @param ilpCodecContext        A {@link CodecContext} for ILP packets.
+   * @param host                   The host (or address) to listen on.
+   * @param port                   The port to listen on.
+   * @param workerThreads          The maximum number of threads that authenticate and switch packets.
+   * @param admissionController    An optional {@link IngressAdmissionController} that decides which packets are
+   *                               switched.
+   *
+   * @return A {@link NettyIlpOverHttpIngress}.
+   */
+  @Bean(initMethod = "start", destroyMethod = "stop")
+  @ConditionalOnProperty(prefix = ILP_OVER_HTTP__NETTY_INGRESS, name = ENABLED, havingValue = TRUE)
+  protected NettyIlpOverHttpIngress nettyIlpOverHttpIngress(
+    final ILPv4PacketSwitch packetSwitch,
+    final IlpOverHttpAuthenticationProvider authenticationProvider,
+    @Qualifier(ILP) final CodecContext ilpCodecContext,
+    @Value("${" + ILP_OVER_HTTP__NETTY_INGRESS + ".host:0.0.0.0}") final String host,
+    @Value("${" + ILP_OVER_HTTP__NETTY_INGRESS + ".port:8081}") final int port,
+    @Value("${" + ILP_OVER_HTTP__NETTY_INGRESS + ".workerThreads:"
+      + "#{T(reactor.core.scheduler.Schedulers).DEFAULT_BOUNDED_ELASTIC_SIZE}}") final int workerThreads,
+    final Optional<IngressAdmissionController> admissionController
+  ) {
+    return new NettyIlpOverHttpIngress(
+      packetSwitch, authenticationProvider, ilpCodecContext, objectMapper, host, port, workerThreads,
+      admissionController
+    );
+  }
+
+  /**
+   * Only created if admission control is enabled, in which case Jetty runs on a {@link QueueDelayTrackingThreadPool} so
+   * that the servlet endpoint's admission decisions see how long each request waited for a thread.
+   *
+   * @return A {@link WebServerFactoryCustomizer} that replaces Jetty's thread pool.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = ILP_OVER_HTTP__ADMISSION, name = ENABLED, havingValue = TRUE)
+  protected static WebServerFactoryCustomizer<JettyServletWebServerFactory> ilpOverHttpAdmissionThreadPoolCustomizer() {
+    return factory -> factory.setThreadPool(new QueueDelayTrackingThreadPool());
+  }
+
+  /**
+   * Only created if admission control is enabled, in which case every ILP-over-HTTP endpoint rejects packets with T03
+   * before they enter the packet-switch once they have queued for too long, have too little time left before they
+   * expire, or would exceed the limit on packets in-flight.
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = ILP_OVER_HTTP__ADMISSION, name = ENABLED, havingValue = TRUE)
+  protected IngressAdmissionController ingressAdmissionController(
+    final ILPv4PacketSwitch packetSwitch,
+    final Supplier<ConnectorSettings> connectorSettingsSupplier,
+    final MetricsService metricsService,
+    @Value("${" + ILP_OVER_HTTP__ADMISSION + ".maxInFlightPackets:"
+      + IngressAdmissionConfig.DEFAULT_MAX_IN_FLIGHT_PACKETS + "}") final int maxInFlightPackets,
+    @Value("${" + ILP_OVER_HTTP__ADMISSION + ".targetQueueDelayMillis:"
+      + "#{" + ADMISSION_CONFIG + ".DEFAULT_TARGET_QUEUE_DELAY.toMillis()}}") final long targetQueueDelayMillis,
+    @Value("${" + ILP_OVER_HTTP__ADMISSION + ".intervalMillis:"
+      + "#{" + ADMISSION_CONFIG + ".DEFAULT_INTERVAL.toMillis()}}") final long intervalMillis,
+    @Value("${" + ILP_OVER_HTTP__ADMISSION + ".minExpiryBudgetMillis:"
+      + "#{" + ADMISSION_CONFIG + ".DEFAULT_MIN_EXPIRY_BUDGET.toMillis()}}") final long minExpiryBudgetMillis,
+    @Value("${" + ILP_OVER_HTTP__ADMISSION + ".overloadedMinExpiryBudgetMillis:"
+      + "#{" + ADMISSION_CONFIG + ".DEFAULT_OVERLOADED_MIN_EXPIRY_BUDGET.toMillis()}}")
+    final long overloadedMinExpiryBudgetMillis
+  ) {
+    return new IngressAdmissionController(
+      packetSwitch,
+      connectorSettingsSupplier,
+      metricsService,
+      IngressAdmissionConfig.custom()
+        .maxInFlightPackets(maxInFlightPackets)
+        .targetQueueDelay(Duration.ofMillis(targetQueueDelayMillis))
+        .interval(Duration.ofMillis(intervalMillis))
+        .minExpiryBudget(Duration.ofMillis(minExpiryBudgetMillis))
+        .overloadedMinExpiryBudget(Duration.ofMillis(overloadedMinExpiryBudgetMillis))
+        .build()
+    );
+  }
+
+  /**
+   * The {@link Http2IlpOverHttpLinkFactory}, which {@link LinkConfig} registers for {@link IlpOverHttpLink#LINK_TYPE}.
+   *
+   * @param ilpOverHttpClient  The {@link OkHttpClient} that every ILP-over-HTTP link shares.
+   * @param connectionSettings The {@link IlpOverHttpConnectionSettings} that the client was built with.
+   *
+   * @return A {@link Http2IlpOverHttpLinkFactory}.
+   */
+  @Bean
+  protected Http2IlpOverHttpLinkFactory ilpOverHttpLinkFactory(
+    @Qualifier(ILP_OVER_HTTP) final OkHttpClient ilpOverHttpClient,
+    @Qualifier(ILP_OVER_HTTP) final IlpOverHttpConnectionSettings connectionSettings
+  ) {
     // The value passed-in here as `encryptedConnectorPropertyStringBytes` will actually be an encrypted property as
     // encrypted via connector-crypto-cli. For testing purposes, reference the Connector properties for a given account.
     org.interledger.link.http.auth.Decryptor linkDecryptor = encryptedConnectorPropertyStringBytes -> decryptor.decrypt(
       EncryptedSecret.fromEncodedValue(new String(encryptedConnectorPropertyStringBytes))
     );
 
-    linkFactoryProvider.registerLinkFactory(
-      IlpOverHttpLink.LINK_TYPE,
-      new IlpOverHttpLinkFactory(
-        ilpOverHttpClient, linkDecryptor, objectMapper, InterledgerCodecContextFactory.oer()
-      )
+    return new Http2IlpOverHttpLinkFactory(
+      ilpOverHttpClient, linkDecryptor, objectMapper, InterledgerCodecContextFactory.oer(), connectionSettings
     );
   }
 }
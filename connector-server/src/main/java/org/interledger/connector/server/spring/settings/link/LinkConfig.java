@@ -1,31 +1,54 @@
 package org.interledger.connector.server.spring.settings.link;
 
+import static org.interledger.connector.core.ConfigConstants.LINK_CACHE;
+import static org.interledger.connector.core.ConfigConstants.LINK_PREWARM;
+
+import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountIdResolver;
 import org.interledger.connector.accounts.sub.LocalDestinationAddressUtils;
 import org.interledger.connector.crypto.ConnectorEncryptionService;
+import org.interledger.connector.link.AdaptiveConcurrencyLimiterRegistry;
 import org.interledger.connector.links.DefaultLinkManager;
 import org.interledger.connector.links.DefaultLinkSettingsFactory;
 import org.interledger.connector.links.DefaultLinkSettingsValidator;
+import org.interledger.connector.links.Http2IlpOverHttpLinkFactory;
 import org.interledger.connector.links.LinkManager;
 import org.interledger.connector.links.LinkSettingsFactory;
 import org.interledger.connector.links.LinkSettingsValidator;
+import org.interledger.connector.metrics.MetricsService;
 import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
 import org.interledger.connector.settings.ConnectorSettings;
 import org.interledger.link.AbstractStatefulLink.EventBusConnectionEventEmitter;
+import org.interledger.link.Link;
 import org.interledger.link.LinkFactoryProvider;
+import org.interledger.link.LinkSettings;
 import org.interledger.link.LoopbackLink;
 import org.interledger.link.LoopbackLinkFactory;
 import org.interledger.link.PacketRejector;
 import org.interledger.link.PingLoopbackLink;
 import org.interledger.link.PingLoopbackLinkFactory;
 import org.interledger.link.events.LinkConnectionEventEmitter;
+import org.interledger.link.http.IlpOverHttpLink;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.eventbus.EventBus;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.prometheus.client.cache.caffeine.CacheMetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Baseline configuration for all Links.
@@ -33,6 +56,31 @@ import java.util.function.Supplier;
 @Configuration
 public class LinkConfig {
 
+  private static final Logger logger = LoggerFactory.getLogger(LinkConfig.class);
+
+  /**
+   * How long a link may go unused before it is discarded (and re-created on the next packet sent to its account). A
+   * value of 0 disables the link cache, so that links that don't connect are constructed on every packet.
+   */
+  @Value("${" + LINK_CACHE + ".idleTimeoutSeconds:900}")
+  private long linkCacheIdleTimeoutSeconds;
+
+  /**
+   * How long a link may be kept after it was created, however often it is used, so that no link (or the connection it
+   * holds) lives forever.
+   */
+  @Value("${" + LINK_CACHE + ".maxAgeSeconds:86400}")
+  private long linkCacheMaxAgeSeconds;
+
+  @Value("${" + LINK_CACHE + ".maximumSize:10000}")
+  private long linkCacheMaximumSize;
+
+  /**
+   * The accounts whose links are created (and where possible, connected) at startup instead of on their first packet.
+   */
+  @Value("${" + LINK_PREWARM + ".accounts:}")
+  private String[] prewarmAccounts;
+
   @Bean
   protected LoopbackLinkFactory loopbackLinkFactory(PacketRejector packetRejector) {
     return new LoopbackLinkFactory(packetRejector);
@@ -45,13 +93,17 @@ public class LinkConfig {
 
   @Bean
   protected LinkFactoryProvider linkFactoryProvider(
-    LoopbackLinkFactory loopbackLinkFactory, PingLoopbackLinkFactory pingLoopbackLinkFactory
+    LoopbackLinkFactory loopbackLinkFactory,
+    PingLoopbackLinkFactory pingLoopbackLinkFactory,
+    Optional<Http2IlpOverHttpLinkFactory> ilpOverHttpLinkFactory
   ) {
     final LinkFactoryProvider provider = new LinkFactoryProvider();
 
     // Register known types...Spring will register proper known types based upon config...
     provider.registerLinkFactory(LoopbackLink.LINK_TYPE, loopbackLinkFactory);
     provider.registerLinkFactory(PingLoopbackLink.LINK_TYPE, pingLoopbackLinkFactory);
+    // Only present if ILP-over-HTTP is enabled (see IlpOverHttpConfig).
+    ilpOverHttpLinkFactory.ifPresent(factory -> provider.registerLinkFactory(IlpOverHttpLink.LINK_TYPE, factory));
 
     // TODO: Register any SPI types...?
     // See https://docs.spring.io/spring-framework/docs/current/javadoc-api/org/springframework/core/io/support/SpringFactoriesLoader.html
@@ -85,8 +137,27 @@ public class LinkConfig {
     LinkFactoryProvider linkFactoryProvider,
     AccountIdResolver accountIdResolver,
     LocalDestinationAddressUtils localDestinationAddressUtils,
-    CircuitBreakerConfig circuitBreakerConfig
+    CircuitBreakerConfig circuitBreakerConfig,
+    Optional<AdaptiveConcurrencyLimiterRegistry> adaptiveConcurrencyLimiterRegistry,
+    CacheMetricsCollector cacheMetricsCollector,
+    MetricsService metricsService
   ) {
+    final Optional<Cache<AccountId, Link<? extends LinkSettings>>> linkCache;
+    if (linkCacheIdleTimeoutSeconds > 0) {
+      final Cache<AccountId, Link<? extends LinkSettings>> cache = Caffeine.newBuilder()
+        .recordStats() // Publish stats to prometheus
+        .expireAfterAccess(linkCacheIdleTimeoutSeconds, TimeUnit.SECONDS)
+        .expireAfterWrite(linkCacheMaxAgeSeconds, TimeUnit.SECONDS)
+        .maximumSize(linkCacheMaximumSize)
+        // Links that connect would otherwise stay connected after they're evicted.
+        .removalListener(DefaultLinkManager::disconnectRemovedLink)
+        .build();
+      cacheMetricsCollector.addCache("linkCache", cache);
+      linkCache = Optional.of(cache);
+    } else {
+      linkCache = Optional.empty();
+    }
+
     return new DefaultLinkManager(
       () -> connectorSettingsSupplier.get().operatorAddress(),
       accountSettingsRepository,
@@ -94,8 +165,37 @@ public class LinkConfig {
       linkFactoryProvider,
       accountIdResolver,
       circuitBreakerConfig,
+      adaptiveConcurrencyLimiterRegistry,
       localDestinationAddressUtils,
+      linkCache,
+      Optional.of(metricsService),
       eventBus
     );
   }
+
+  /**
+   * Pre-warms the links of the configured accounts in the background once the server is up, so that startup isn't
+   * delayed by a connection attempt to each peer.
+   */
+  @Bean
+  protected ApplicationListener<ApplicationReadyEvent> linkPrewarmer(LinkManager linkManager) {
+    return event -> {
+      final List<AccountId> accountIds = Arrays.stream(prewarmAccounts)
+        .map(String::trim)
+        .filter(accountId -> !accountId.isEmpty())
+        .map(AccountId::of)
+        .collect(Collectors.toList());
+      if (accountIds.isEmpty()) {
+        return;
+      }
+      final Thread prewarmThread = new Thread(() -> {
+        final long startNanos = System.nanoTime();
+        final int prewarmed = linkManager.prewarmLinks(accountIds);
+        logger.info("Pre-warmed links. links={} accounts={} durationMs={}",
+          prewarmed, accountIds.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+      }, "link-prewarm");
+      prewarmThread.setDaemon(true);
+      prewarmThread.start();
+    };
+  }
 }
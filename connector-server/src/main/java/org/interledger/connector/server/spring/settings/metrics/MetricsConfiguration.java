@@ -1,5 +1,7 @@
 package org.interledger.connector.server.spring.settings.metrics;
 
+import static org.interledger.connector.core.ConfigConstants.METRICS__PACKET_COUNTERS;
+
 import org.interledger.connector.events.IncomingSettlementFailedEvent;
 import org.interledger.connector.events.IncomingSettlementSucceededEvent;
 import org.interledger.connector.events.OutgoingSettlementInitiationFailedEvent;
@@ -12,10 +14,12 @@ import com.google.common.eventbus.Subscribe;
 import io.prometheus.client.exporter.MetricsServlet;
 import io.prometheus.client.hotspot.DefaultExports;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.Objects;
 
 import javax.annotation.PostConstruct;
@@ -43,6 +47,14 @@ public class MetricsConfiguration {
   @Autowired
   private MetricsService metricsService;
 
+  // Accounts are forgotten (and their packet counters removed) once this many are tracked, or once they go unused for
+  // this long, so that short-lived accounts don't grow the number of series without bound.
+  @Value("${" + METRICS__PACKET_COUNTERS + ".maximumAccounts:10000}")
+  private int packetCountersMaximumAccounts;
+
+  @Value("${" + METRICS__PACKET_COUNTERS + ".idleTimeoutSeconds:3600}")
+  private long packetCountersIdleTimeoutSeconds;
+
   @PostConstruct
   protected void initMetrics() {
     eventBus.register(this);
@@ -50,7 +62,9 @@ public class MetricsConfiguration {
 
   @Bean
   public MetricsService statisticsService() {
-    return new PrometheusMetricsService();
+    return new PrometheusMetricsService(
+      packetCountersMaximumAccounts, Duration.ofSeconds(packetCountersIdleTimeoutSeconds)
+    );
   }
 
   @Bean
@@ -1,6 +1,8 @@
 package org.interledger.connector.server.spring.settings.web;
 
 import static org.interledger.connector.core.ConfigConstants.DOT;
+import static org.interledger.connector.core.ConfigConstants.ENABLED;
+import static org.interledger.connector.core.ConfigConstants.ILP_OVER_HTTP__AUTH_PREWARM;
 import static org.interledger.connector.core.ConfigConstants.SPSP_ENABLED;
 import static org.interledger.connector.server.spring.settings.metrics.MetricsConfiguration.METRICS_ENDPOINT_URL_PATH;
 
@@ -21,11 +23,15 @@ import org.interledger.crypto.EncryptionService;
 import com.auth0.spring.security.api.JwtAuthenticationEntryPoint;
 import com.google.common.eventbus.EventBus;
 import io.prometheus.client.cache.caffeine.CacheMetricsCollector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -43,6 +49,7 @@ import org.zalando.problem.spring.web.advice.security.SecurityProblemSupport;
 
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 @Configuration
@@ -50,6 +57,8 @@ import java.util.function.Supplier;
 @Import(SecurityProblemSupport.class)
 public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
+  private final Logger logger = LoggerFactory.getLogger(SecurityConfiguration.class);
+
   @Autowired
   Supplier<ConnectorSettings> connectorSettingsSupplier;
 
@@ -93,6 +102,9 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
   @Value("${" + ConfigConstants.ENABLED_PROTOCOLS + DOT + SPSP_ENABLED + ":false}")
   private boolean spspEnabled;
 
+  @Value("${" + ILP_OVER_HTTP__AUTH_PREWARM + DOT + ENABLED + ":true}")
+  private boolean ilpOverHttpAuthPrewarmEnabled;
+
   /////////////////
   // For Basic Auth
   /////////////////
@@ -112,6 +124,31 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     return provider;
   }
 
+  /**
+   * Pre-warms ILP-over-HTTP authentication in the background once the server is up, so that startup isn't delayed by a
+   * database and KMS round-trip per account. Requests that arrive while pre-warming is in progress simply load (at most
+   * once per account) whatever hasn't been pre-warmed yet.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void prewarmIlpOverHttpAuthentication() {
+    if (!ilpOverHttpAuthPrewarmEnabled) {
+      return;
+    }
+    final IlpOverHttpAuthenticationProvider provider = ilpOverHttpAuthenticationProvider();
+    final Thread prewarmThread = new Thread(() -> {
+      final long startNanos = System.nanoTime();
+      try {
+        final int prewarmed = provider.prewarm();
+        logger.info("Pre-warmed ILP-over-HTTP authentication. accounts={} durationMs={}",
+          prewarmed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+      } catch (Exception e) {
+        logger.warn("Unable to pre-warm ILP-over-HTTP authentication", e);
+      }
+    }, "ilp-over-http-auth-prewarm");
+    prewarmThread.setDaemon(true);
+    prewarmThread.start();
+  }
+
   /**
    * Will be removed once a formal authentication mechanism is added for admin API calls.
    */
@@ -228,6 +265,10 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
       .antMatchers(HttpMethod.GET, PathConstants.SLASH_ROUTES_STATIC).hasAuthority(AuthConstants.Authorities.CONNECTOR_ADMIN)
       .antMatchers(HttpMethod.PUT, PathConstants.SLASH_ROUTES_STATIC_PREFIX).hasAuthority(AuthConstants.Authorities.CONNECTOR_ADMIN)
       .antMatchers(HttpMethod.DELETE, PathConstants.SLASH_ROUTES_STATIC_PREFIX).hasAuthority(AuthConstants.Authorities.CONNECTOR_ADMIN)
+      // /packet-traces
+      .antMatchers(HttpMethod.GET, PathConstants.SLASH_PACKET_TRACES).hasAuthority(AuthConstants.Authorities.CONNECTOR_ADMIN)
+      // /self-test
+      .antMatchers(HttpMethod.POST, PathConstants.SLASH_SELF_TEST).hasAuthority(AuthConstants.Authorities.CONNECTOR_ADMIN)
       // encrypted
       .antMatchers(HttpMethod.POST, PathConstants.SLASH_ENCRYPTION + "/**").hasAuthority(AuthConstants.Authorities.CONNECTOR_ADMIN)
 
@@ -0,0 +1,288 @@
+package org.interledger.connector.server.ilpoverhttp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.packetswitch.ILPv4PacketSwitch;
+import org.interledger.connector.packetswitch.admission.IngressAdmissionController;
+import org.interledger.connector.server.spring.auth.ilpoverhttp.BearerAuthentication;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.primitives.UnsignedLong;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.BufferedSink;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.zalando.problem.ProblemModule;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Unit tests for {@link NettyIlpOverHttpIngress}.
+ */
+public class NettyIlpOverHttpIngressTest {
+
+  private static final AccountId ACCOUNT_ID = AccountId.of("alice");
+  private static final MediaType OCTET_STREAM = MediaType.get("application/octet-stream");
+
+  private static final InterledgerPreparePacket PREPARE_PACKET = InterledgerPreparePacket.builder()
+    .destination(InterledgerAddress.of("example.recipient"))
+    .amount(UnsignedLong.valueOf(10))
+    .executionCondition(InterledgerCondition.of(new byte[32]))
+    // OER only encodes milliseconds, so the decoded packet only equals this one without sub-millisecond precision.
+    .expiresAt(Instant.now().plusSeconds(50).truncatedTo(ChronoUnit.MILLIS))
+    .build();
+
+  private static final InterledgerFulfillPacket FULFILL_PACKET = InterledgerFulfillPacket.builder()
+    .fulfillment(InterledgerFulfillment.of(new byte[32]))
+    .build();
+
+  @Mock
+  private ILPv4PacketSwitch packetSwitchMock;
+
+  @Mock
+  private AuthenticationProvider authenticationProviderMock;
+
+  @Mock
+  private Authentication authenticationMock;
+
+  @Mock
+  private IngressAdmissionController admissionControllerMock;
+
+  private final CodecContext ilpCodecContext = InterledgerCodecContextFactory.oer();
+  private final OkHttpClient okHttpClient = new OkHttpClient();
+
+  private NettyIlpOverHttpIngress ingress;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(authenticationMock.isAuthenticated()).thenReturn(true);
+    when(authenticationProviderMock.authenticate(any())).thenReturn(authenticationMock);
+    when(packetSwitchMock.switchPacket(ACCOUNT_ID, PREPARE_PACKET)).thenReturn(FULFILL_PACKET);
+
+    ingress = new NettyIlpOverHttpIngress(
+      packetSwitchMock,
+      authenticationProviderMock,
+      ilpCodecContext,
+      new ObjectMapper().registerModule(new ProblemModule()),
+      "127.0.0.1",
+      0,
+      2,
+      Optional.empty()
+    );
+    ingress.start();
+  }
+
+  @After
+  public void tearDown() {
+    ingress.stop();
+  }
+
+  @Test
+  public void sendDataSwitchesPacket() throws IOException {
+    try (Response response = post("alice", "Bearer password", encode(PREPARE_PACKET), OCTET_STREAM)) {
+      assertThat(response.code()).isEqualTo(200);
+      assertThat(response.header("Content-Type")).isEqualTo("application/octet-stream");
+      assertThat(decode(response.body().bytes())).isEqualTo(FULFILL_PACKET);
+    }
+
+    final ArgumentCaptor<BearerAuthentication> authenticationCaptor =
+      ArgumentCaptor.forClass(BearerAuthentication.class);
+    verify(authenticationProviderMock).authenticate(authenticationCaptor.capture());
+    assertThat(authenticationCaptor.getValue().getAccountId()).isEqualTo(ACCOUNT_ID);
+    assertThat(authenticationCaptor.getValue().getBearerToken()).isEqualTo("password".getBytes());
+  }
+
+  @Test
+  public void sendDataWithDeprecatedContentType() throws IOException {
+    try (Response response = post(
+      "alice", "password", encode(PREPARE_PACKET), MediaType.get("application/ilp+octet-stream")
+    )) {
+      assertThat(response.code()).isEqualTo(200);
+      assertThat(decode(response.body().bytes())).isEqualTo(FULFILL_PACKET);
+    }
+  }
+
+  @Test
+  public void sendDataWithoutCredentials() throws IOException {
+    try (Response response = post("alice", null, encode(PREPARE_PACKET), OCTET_STREAM)) {
+      assertThat(response.code()).isEqualTo(401);
+      assertThat(response.header("Content-Type")).isEqualTo("application/problem+json");
+    }
+    verifyNoInteractions(packetSwitchMock);
+  }
+
+  @Test
+  public void sendDataWithBadCredentials() throws IOException {
+    when(authenticationProviderMock.authenticate(any())).thenThrow(new BadCredentialsException("bad token"));
+
+    try (Response response = post("alice", "Bearer wrong", encode(PREPARE_PACKET), OCTET_STREAM)) {
+      assertThat(response.code()).isEqualTo(401);
+      assertThat(response.body().string()).contains("bad token");
+    }
+    verifyNoInteractions(packetSwitchMock);
+  }
+
+  @Test
+  public void sendDataWithBadCredentialsDoesNotReadBody() throws IOException {
+    when(authenticationProviderMock.authenticate(any())).thenThrow(new BadCredentialsException("bad token"));
+
+    try (Response response = post("alice", "Bearer wrong", new byte[] {1, 2, 3}, OCTET_STREAM)) {
+      // A body that can't be decoded would otherwise be a 400.
+      assertThat(response.code()).isEqualTo(401);
+    }
+  }
+
+  @Test
+  public void sendDataWithOversizedBody() throws IOException {
+    try (Response response = post(
+      "alice", "Bearer password", new byte[NettyIlpOverHttpIngress.MAX_BODY_BYTES + 1], OCTET_STREAM
+    )) {
+      assertThat(response.code()).isEqualTo(413);
+    }
+    verifyNoInteractions(authenticationProviderMock);
+    verifyNoInteractions(packetSwitchMock);
+  }
+
+  @Test
+  public void sendDataWithOversizedChunkedBody() throws IOException {
+    final RequestBody chunkedBody = new RequestBody() {
+      @Override
+      public MediaType contentType() {
+        return OCTET_STREAM;
+      }
+
+      @Override
+      public long contentLength() {
+        // Unknown, so the body is sent without a Content-Length.
+        return -1;
+      }
+
+      @Override
+      public void writeTo(final BufferedSink sink) throws IOException {
+        for (int i = 0; i <= NettyIlpOverHttpIngress.MAX_BODY_BYTES / 1024; i++) {
+          sink.write(new byte[1024]);
+        }
+      }
+    };
+    final Request request = new Request.Builder()
+      .url("http://127.0.0.1:" + ingress.getPort() + "/accounts/alice/ilp")
+      .header("Authorization", "Bearer password")
+      .post(chunkedBody)
+      .build();
+
+    try (Response response = okHttpClient.newCall(request).execute()) {
+      assertThat(response.code()).isEqualTo(413);
+    }
+    verifyNoInteractions(packetSwitchMock);
+  }
+
+  @Test
+  public void sendDataWithMalformedPacket() throws IOException {
+    try (Response response = post("alice", "Bearer password", new byte[] {1, 2, 3}, OCTET_STREAM)) {
+      assertThat(response.code()).isEqualTo(400);
+    }
+    verifyNoInteractions(packetSwitchMock);
+  }
+
+  @Test
+  public void sendDataWithUnsupportedContentType() throws IOException {
+    try (Response response = post(
+      "alice", "Bearer password", encode(PREPARE_PACKET), MediaType.get("application/json")
+    )) {
+      assertThat(response.code()).isEqualTo(415);
+    }
+    verifyNoInteractions(packetSwitchMock);
+  }
+
+  @Test
+  public void sendDataWhenPacketSwitchFails() throws IOException {
+    when(packetSwitchMock.switchPacket(ACCOUNT_ID, PREPARE_PACKET)).thenThrow(new RuntimeException("foo"));
+
+    try (Response response = post("alice", "Bearer password", encode(PREPARE_PACKET), OCTET_STREAM)) {
+      assertThat(response.code()).isEqualTo(500);
+    }
+  }
+
+  @Test
+  public void sendDataThroughAdmissionController() throws IOException {
+    final InterledgerRejectPacket rejectPacket = InterledgerRejectPacket.builder()
+      .code(InterledgerErrorCode.T03_CONNECTOR_BUSY)
+      .message("busy")
+      .build();
+    when(admissionControllerMock.switchPacket(eq(ACCOUNT_ID), eq(PREPARE_PACKET), anyLong())).thenReturn(rejectPacket);
+    ingress.stop();
+    ingress = new NettyIlpOverHttpIngress(
+      packetSwitchMock,
+      authenticationProviderMock,
+      ilpCodecContext,
+      new ObjectMapper().registerModule(new ProblemModule()),
+      "127.0.0.1",
+      0,
+      2,
+      Optional.of(admissionControllerMock)
+    );
+    ingress.start();
+
+    try (Response response = post("alice", "Bearer password", encode(PREPARE_PACKET), OCTET_STREAM)) {
+      assertThat(response.code()).isEqualTo(200);
+      assertThat(decode(response.body().bytes())).isEqualTo(rejectPacket);
+    }
+    verifyNoInteractions(packetSwitchMock);
+  }
+
+  private Response post(
+    final String accountId, final String authorization, final byte[] body, final MediaType mediaType
+  ) throws IOException {
+    final Request.Builder request = new Request.Builder()
+      .url("http://127.0.0.1:" + ingress.getPort() + "/accounts/" + accountId + "/ilp")
+      .post(RequestBody.create(body, mediaType));
+    if (authorization != null) {
+      request.header("Authorization", authorization);
+    }
+    return okHttpClient.newCall(request.build()).execute();
+  }
+
+  private byte[] encode(final InterledgerPreparePacket preparePacket) throws IOException {
+    final ByteArrayOutputStream os = new ByteArrayOutputStream();
+    ilpCodecContext.write(preparePacket, os);
+    return os.toByteArray();
+  }
+
+  private InterledgerResponsePacket decode(final byte[] bytes) throws IOException {
+    return ilpCodecContext.read(InterledgerResponsePacket.class, new ByteArrayInputStream(bytes));
+  }
+}
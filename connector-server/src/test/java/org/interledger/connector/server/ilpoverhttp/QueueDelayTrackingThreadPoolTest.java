@@ -0,0 +1,69 @@
+package org.interledger.connector.server.ilpoverhttp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link QueueDelayTrackingThreadPool}.
+ */
+public class QueueDelayTrackingThreadPoolTest {
+
+  private QueueDelayTrackingThreadPool threadPool;
+
+  @Before
+  public void setUp() throws Exception {
+    threadPool = new QueueDelayTrackingThreadPool();
+    threadPool.setMinThreads(1);
+    threadPool.setMaxThreads(1);
+    threadPool.setReservedThreads(0);
+    threadPool.start();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    threadPool.stop();
+  }
+
+  @Test
+  public void nothingWaitedOutsideOfPool() {
+    assertThat(QueueDelayTrackingThreadPool.takeQueueDelayNanos()).isZero();
+  }
+
+  @Test
+  public void queueDelayIsTakenOncePerJob() throws InterruptedException {
+    final CountDownLatch blockerRunning = new CountDownLatch(1);
+    final CountDownLatch releaseBlocker = new CountDownLatch(1);
+    threadPool.execute(() -> {
+      blockerRunning.countDown();
+      try {
+        releaseBlocker.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    assertThat(blockerRunning.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // The only thread is busy, so this job has to wait in the queue.
+    final AtomicLong firstTake = new AtomicLong(-1);
+    final AtomicLong secondTake = new AtomicLong(-1);
+    final CountDownLatch jobDone = new CountDownLatch(1);
+    threadPool.execute(() -> {
+      firstTake.set(QueueDelayTrackingThreadPool.takeQueueDelayNanos());
+      secondTake.set(QueueDelayTrackingThreadPool.takeQueueDelayNanos());
+      jobDone.countDown();
+    });
+    Thread.sleep(100);
+    releaseBlocker.countDown();
+
+    assertThat(jobDone.await(5, TimeUnit.SECONDS)).isTrue();
+    assertThat(firstTake.get()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    assertThat(secondTake.get()).isZero();
+  }
+}
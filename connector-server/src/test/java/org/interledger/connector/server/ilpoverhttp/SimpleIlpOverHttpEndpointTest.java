@@ -25,6 +25,7 @@ import org.interledger.link.http.auth.SimpleBearerTokenSupplier;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.primitives.UnsignedLong;
 import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -43,6 +44,7 @@ import org.zalando.problem.ThrowableProblem;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
+import java.util.Collections;
 
 /**
  * Ensures that the API endpoints for ILP-over-HTTP (i.e., `/ilp`) return the correct values for various test scenarios
@@ -113,6 +115,25 @@ public class SimpleIlpOverHttpEndpointTest extends AbstractEndpointTest {
     assertLink(anotherBearerLink);
   }
 
+  /**
+   * Validate that peers can reach the ILP-over-HTTP endpoint using cleartext HTTP/2 with prior knowledge (h2c).
+   */
+  @Test
+  public void ildcpTestConnectionOverH2c() {
+    String accountId = "bob_dylan";
+    createAccount(AccountId.of(accountId), customSettingsSimple("shh"));
+    final IlpOverHttpLink h2cLink = new IlpOverHttpLink(
+      () -> InterledgerAddress.of("test.bob"),
+      createAccountIlpUrl(template.getRootUri(), AccountId.of(accountId)),
+      okHttpClient.newBuilder().protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE)).build(),
+      objectMapper,
+      InterledgerCodecContextFactory.oer(),
+      new SimpleBearerTokenSupplier("shh")
+    );
+    h2cLink.setLinkId(LinkId.of(accountId));
+    assertLink(h2cLink);
+  }
+
   /**
    * Validate the "test connection" method in the IL-DCP requestor.
    */
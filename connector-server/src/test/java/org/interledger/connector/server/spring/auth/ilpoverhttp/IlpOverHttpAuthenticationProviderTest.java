@@ -2,6 +2,9 @@ package org.interledger.connector.server.spring.auth.ilpoverhttp;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
 
@@ -10,6 +13,7 @@ import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountRelationship;
 import org.interledger.connector.accounts.AccountSettings;
 import org.interledger.connector.accounts.ImmutableAccountSettings;
+import org.interledger.connector.accounts.event.AccountCredentialsUpdatedEvent;
 import org.interledger.connector.links.DefaultLinkSettingsFactory;
 import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
 import org.interledger.connector.server.spring.settings.crypto.JksCryptoConfig;
@@ -39,7 +43,15 @@ import org.springframework.security.core.Authentication;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 @RunWith(SpringRunner.class)
@@ -177,6 +189,81 @@ public class IlpOverHttpAuthenticationProviderTest {
     );
   }
 
+  @Test
+  public void concurrentMissesLoadAccountOnce() throws Exception {
+    final AccountSettings accountSettings = mockAccountSettings(AuthType.SIMPLE).build();
+    final CountDownLatch loading = new CountDownLatch(1);
+    when(accountSettingsRepository.findByAccountIdWithConversion(ACCOUNT_ID)).thenAnswer(($) -> {
+      loading.await(5, TimeUnit.SECONDS);
+      return Optional.of(accountSettings);
+    });
+
+    final ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      final List<Future<Authentication>> results = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        // Every request misses the decisions cache, because each one has a different token hash.
+        final HashCode tokenHash = HashCode.fromInt(i);
+        results.add(executor.submit(() -> ilpOverHttpAuthenticationProvider.authenticate(
+          BearerAuthentication.builder()
+            .isAuthenticated(false)
+            .principal(ACCOUNT_ID.toString())
+            .bearerToken(SECRET.getBytes())
+            .hmacSha256(tokenHash)
+            .build()
+        )));
+      }
+      Thread.sleep(100);
+      loading.countDown();
+      for (Future<Authentication> result : results) {
+        assertThat(result.get(5, TimeUnit.SECONDS).isAuthenticated()).isTrue();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    verify(accountSettingsRepository, times(1)).findByAccountIdWithConversion(ACCOUNT_ID);
+  }
+
+  @Test
+  public void prewarmAvoidsLoadOnFirstRequest() {
+    final AccountSettings accountSettings = mockAccountSettings(AuthType.SIMPLE).build();
+    when(accountSettingsRepository.findByLinkTypeWithConversion(IlpOverHttpLink.LINK_TYPE))
+      .thenReturn(Collections.singletonList(accountSettings));
+
+    assertThat(ilpOverHttpAuthenticationProvider.prewarm()).isEqualTo(1);
+
+    Authentication result = ilpOverHttpAuthenticationProvider.authenticate(BearerAuthentication.builder()
+      .isAuthenticated(false)
+      .principal(ACCOUNT_ID.toString())
+      .bearerToken(SECRET.getBytes())
+      .hmacSha256(HashCode.fromString("1234"))
+      .build()
+    );
+
+    assertThat(result.isAuthenticated()).isTrue();
+    verify(accountSettingsRepository, never()).findByAccountIdWithConversion(any());
+  }
+
+  @Test
+  public void credentialsUpdatedEventReloadsAccount() {
+    mockAccountSettings(AuthType.SIMPLE);
+    final BearerAuthentication authentication = BearerAuthentication.builder()
+      .isAuthenticated(false)
+      .principal(ACCOUNT_ID.toString())
+      .bearerToken(SECRET.getBytes())
+      .hmacSha256(HashCode.fromString("1234"))
+      .build();
+
+    assertThat(ilpOverHttpAuthenticationProvider.authenticate(authentication).isAuthenticated()).isTrue();
+    ilpOverHttpAuthenticationProvider.handleCredentialsUpdatedEvent(
+      AccountCredentialsUpdatedEvent.builder().accountId(ACCOUNT_ID).build()
+    );
+    assertThat(ilpOverHttpAuthenticationProvider.authenticate(authentication).isAuthenticated()).isTrue();
+
+    verify(accountSettingsRepository, times(2)).findByAccountIdWithConversion(ACCOUNT_ID);
+  }
+
   private ImmutableAccountSettings.Builder mockAccountSettings(IlpOverHttpLinkSettings.AuthType authType) {
     ImmutableAccountSettings.Builder builder = AccountSettings.builder()
       .accountRelationship(AccountRelationship.CHILD)
@@ -7,8 +7,10 @@ import org.interledger.connector.accounts.AccountManager;
 import org.interledger.connector.crypto.ConnectorEncryptionService;
 import org.interledger.connector.links.LinkSettingsFactory;
 import org.interledger.connector.packetswitch.ILPv4PacketSwitch;
+import org.interledger.connector.packetswitch.trace.PacketTraceBuffer;
 import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
 import org.interledger.connector.routing.ExternalRoutingService;
+import org.interledger.connector.selftest.LoopbackSelfTest;
 import org.interledger.connector.server.spring.settings.web.SpringConnectorWebMvc;
 import org.interledger.connector.settings.ConnectorSettings;
 import org.interledger.connector.settings.properties.ConnectorSettingsFromPropertyFile;
@@ -90,6 +92,12 @@ public abstract class AbstractControllerTest {
   @MockBean
   protected BuildProperties buildProperties;
 
+  @MockBean
+  protected PacketTraceBuffer packetTraceBufferMock;
+
+  @MockBean
+  protected LoopbackSelfTest loopbackSelfTestMock;
+
   protected String asJsonString(final Object obj) throws JsonProcessingException {
     return this.objectMapper.writeValueAsString(obj);
   }
@@ -0,0 +1,116 @@
+package org.interledger.connector.server.spring.controllers.admin;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.interledger.connector.server.spring.controllers.PathConstants.SLASH_ACCOUNTS;
+import static org.interledger.connector.server.spring.controllers.PathConstants.SLASH_SELF_TEST;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountRelationship;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.server.ConnectorServerConfig;
+import org.interledger.link.LoopbackLink;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.util.UUID;
+
+/**
+ * Running-server test that validates behavior of {@link SelfTestController}.
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(
+  webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+  classes = {ConnectorServerConfig.class}
+)
+@ActiveProfiles( {"test"})
+public class SelfTestSpringBootTest {
+
+  private static final String PASSWORD = "password";
+  private static final String ADMIN = "admin";
+
+  @Autowired
+  private TestRestTemplate restTemplate;
+
+  private AccountId accountId;
+
+  @Before
+  public void setUp() {
+    accountId = AccountId.of(UUID.randomUUID().toString());
+    final AccountSettings accountSettings = AccountSettings.builder()
+      .accountId(accountId)
+      .accountRelationship(AccountRelationship.PEER)
+      .assetCode("USD")
+      .assetScale(9)
+      .linkType(LoopbackLink.LINK_TYPE)
+      .build();
+
+    final ResponseEntity<Void> response = restTemplate.exchange(
+      SLASH_ACCOUNTS, HttpMethod.POST, new HttpEntity<>(accountSettings, authHeaders()), Void.class
+    );
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+  }
+
+  @Test
+  public void runSelfTest() {
+    final ResponseEntity<JsonNode> response = postSelfTest(
+      "?accountId=" + accountId.value() + "&durationSeconds=1&packetsPerSecond=20&concurrency=2", authHeaders()
+    );
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+    assertThat(response.getBody().get("sourceAccountId").asText()).isEqualTo(accountId.value());
+    assertThat(response.getBody().get("packetsSent").asLong()).isEqualTo(20);
+    assertThat(response.getBody().get("packetsFulfilled").asLong()).isEqualTo(20);
+    assertThat(response.getBody().get("p99Micros").asLong()).isPositive();
+  }
+
+  @Test
+  public void runSelfTestWithDurationAboveMaximum() {
+    final ResponseEntity<JsonNode> response =
+      postSelfTest("?accountId=" + accountId.value() + "&durationSeconds=61", authHeaders());
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+  }
+
+  @Test
+  public void runSelfTestForUnknownAccount() {
+    final ResponseEntity<JsonNode> response = postSelfTest("?accountId=nobody&durationSeconds=1", authHeaders());
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+  }
+
+  @Test
+  public void runSelfTestWithoutCredentials() {
+    final HttpHeaders headers = new HttpHeaders();
+    headers.setContentType(MediaType.APPLICATION_JSON);
+
+    final ResponseEntity<JsonNode> response =
+      postSelfTest("?accountId=" + accountId.value() + "&durationSeconds=1", headers);
+
+    assertThat(response.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+  }
+
+  private ResponseEntity<JsonNode> postSelfTest(final String query, final HttpHeaders headers) {
+    return restTemplate.exchange(SLASH_SELF_TEST + query, HttpMethod.POST, new HttpEntity<>(headers), JsonNode.class);
+  }
+
+  private HttpHeaders authHeaders() {
+    final HttpHeaders headers = new HttpHeaders();
+    headers.setBasicAuth(ADMIN, PASSWORD);
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    return headers;
+  }
+}
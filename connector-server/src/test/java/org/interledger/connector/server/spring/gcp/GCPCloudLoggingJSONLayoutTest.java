@@ -0,0 +1,66 @@
+package org.interledger.connector.server.spring.gcp;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+
+public class GCPCloudLoggingJSONLayoutTest {
+
+  private final ObjectMapper objectMapper = new ObjectMapper();
+  private final GCPCloudLoggingJSONLayout layout = new GCPCloudLoggingJSONLayout();
+
+  @Test
+  public void layoutIsOneLineOfJson() throws Exception {
+    final String json = layout.doLayoutInternal("hello world", event(Level.WARN, 1_580_000_123_456L, "main"));
+
+    assertThat(json).endsWith("}\n");
+    assertThat(json.trim()).doesNotContain("\n");
+
+    final JsonNode node = objectMapper.readTree(json);
+    assertThat(node.get("message").asText()).isEqualTo("hello world");
+    assertThat(node.get("timestamp").get("seconds").asLong()).isEqualTo(1_580_000_123L);
+    assertThat(node.get("timestamp").get("nanos").asInt()).isEqualTo(456_000_000);
+    assertThat(node.get("thread").asText()).isEqualTo("main");
+    assertThat(node.get("severity").asText()).isEqualTo("WARN");
+  }
+
+  @Test
+  public void layoutEscapesMessage() throws Exception {
+    final String message = "quote=\" backslash=\\ newline=\n tab=\t bell=\u0007 unicode=é中";
+    final String json = layout.doLayoutInternal(message, event(Level.ERROR, 0, "pool-1 \"worker\""));
+
+    assertThat(json.trim()).doesNotContain("\n");
+    final JsonNode node = objectMapper.readTree(json);
+    assertThat(node.get("message").asText()).isEqualTo(message);
+    assertThat(node.get("thread").asText()).isEqualTo("pool-1 \"worker\"");
+    assertThat(node.get("severity").asText()).isEqualTo("ERROR");
+  }
+
+  @Test
+  public void layoutMatchesPreviousFormat() {
+    assertThat(layout.doLayoutInternal("message", event(Level.INFO, 1_001L, "main")))
+      .isEqualTo("{\"message\":\"message\",\"timestamp\":{\"seconds\":1,\"nanos\":1000000},\"thread\":\"main\","
+        + "\"severity\":\"INFO\"}\n");
+  }
+
+  @Test
+  public void layoutReusesBufferForShorterLines() throws Exception {
+    final String longMessage = new String(new char[100_000]).replace('\0', 'a');
+    layout.doLayoutInternal(longMessage, event(Level.INFO, 0, "main"));
+
+    final JsonNode node = objectMapper.readTree(layout.doLayoutInternal("short", event(Level.INFO, 0, "main")));
+    assertThat(node.get("message").asText()).isEqualTo("short");
+  }
+
+  private static LoggingEvent event(final Level level, final long timestamp, final String threadName) {
+    final LoggingEvent event = new LoggingEvent();
+    event.setLevel(level);
+    event.setTimeStamp(timestamp);
+    event.setThreadName(threadName);
+    return event;
+  }
+}
@@ -6,6 +6,7 @@ import org.interledger.link.Link;
 import org.interledger.link.LinkSettings;
 import org.interledger.link.exceptions.LinkNotConnectedException;
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -64,4 +65,14 @@ public interface LinkManager {
    */
   Link<? extends LinkSettings> getOrCreateSpspReceiverLink(final AccountSettings accountSettings);
 
+  /**
+   * Creates (and where possible, connects) the links for the supplied accounts ahead of time, so that the first packet
+   * sent to any of them doesn't pay the cost of link construction. Accounts whose link cannot be created are skipped.
+   *
+   * @param accountIds The {@link AccountId}s of the accounts whose links should be pre-warmed.
+   *
+   * @return The number of links that were pre-warmed.
+   */
+  int prewarmLinks(Collection<AccountId> accountIds);
+
 }
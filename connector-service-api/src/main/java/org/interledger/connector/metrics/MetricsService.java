@@ -1,5 +1,6 @@
 package org.interledger.connector.metrics;
 
+import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountSettings;
 import org.interledger.connector.events.IncomingSettlementFailedEvent;
 import org.interledger.connector.events.IncomingSettlementSucceededEvent;
@@ -8,6 +9,9 @@ import org.interledger.connector.events.OutgoingSettlementInitiationSucceededEve
 import org.interledger.core.InterledgerFulfillPacket;
 import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.link.LinkType;
+
+import java.time.Duration;
 
 /**
  * Defines how to track various metrics in the Connector.
@@ -112,6 +116,47 @@ public interface MetricsService {
    */
   void trackOutgoingSettlementInitiationFailed(final OutgoingSettlementInitiationFailedEvent event);
 
+  /**
+   * Track a CCP route update whose route changes have all been applied to the incoming routing table of a peer.
+   *
+   * @param peerAccountId   The {@link AccountId} of the peer that sent the route update.
+   * @param numRouteChanges The number of new and withdrawn routes in the route update.
+   * @param ingestLag       The {@link Duration} between the route update being accepted and it being fully applied.
+   */
+  void trackCcpRouteUpdateIngested(AccountId peerAccountId, int numRouteChanges, Duration ingestLag);
+
+  /**
+   * Track a CCP route update that was refused because too many route changes were already waiting to be applied.
+   *
+   * @param peerAccountId   The {@link AccountId} of the peer that sent the route update.
+   * @param numRouteChanges The number of new and withdrawn routes in the route update.
+   */
+  void trackCcpRouteUpdateRefused(AccountId peerAccountId, int numRouteChanges);
+
+  /**
+   * Track the construction of a new outbound link.
+   *
+   * @param linkType     The {@link LinkType} of the link that was created.
+   * @param creationTime The {@link Duration} it took to construct (and, if necessary, connect) the link.
+   */
+  void trackLinkCreated(LinkType linkType, Duration creationTime);
+
+  /**
+   * Track the time a sampled packet spent in a single stage of the packet-switch (e.g., a filter).
+   *
+   * @param stage        The name of the stage.
+   * @param elapsedNanos The time spent in the stage, in nanoseconds.
+   */
+  void trackPacketStage(String stage, long elapsedNanos);
+
+  /**
+   * Track an incoming packet that was rejected before entering the packet-switch because the Connector was too busy to
+   * process it in time.
+   *
+   * @param reason Why the packet was shed (e.g., {@code queue_delay}).
+   */
+  void trackIngressPacketShed(String reason);
+
   /**
    * An enum that defines the valid states for a packet response.
    */
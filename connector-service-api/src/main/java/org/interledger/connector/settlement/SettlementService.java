@@ -6,6 +6,8 @@ import org.interledger.connector.accounts.SettlementEngineAccountId;
 import org.interledger.core.InterledgerResponsePacket;
 import org.interledger.connector.core.settlement.SettlementQuantity;
 
+import java.time.Instant;
+
 /**
  * A service for handling interactions with the Settlement Service that from the perspective of a Connector.
  */
@@ -70,11 +72,13 @@ public interface SettlementService {
    *                                        came in over.
    * @param messageFromPeerSettlementEngine A byte-array that contains an opaque binary message that should be delivered
    *                                        to the local settlement engine configured for this account.
+   * @param expiresAt                       The {@link Instant} at which the ILP Prepare packet carrying the message
+   *                                        expires, after which the local settlement engine is no longer waited on.
    *
    * @return An {@link InterledgerResponsePacket} with a proper response destined for the peer's Settlement Engine.
    */
   byte[] onSettlementMessageFromPeer(
-    AccountSettings accountSettings, byte[] messageFromPeerSettlementEngine
+    AccountSettings accountSettings, byte[] messageFromPeerSettlementEngine, Instant expiresAt
   );
 
   /**
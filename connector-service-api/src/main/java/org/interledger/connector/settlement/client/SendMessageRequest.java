@@ -1,9 +1,13 @@
 package org.interledger.connector.settlement.client;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import org.immutables.value.Value;
 
+import java.time.Instant;
+import java.util.Optional;
+
 /**
  * An object for modeling a request to the `/messages` endpoint of a Settlement Engine.
  */
@@ -20,4 +24,11 @@ public interface SendMessageRequest {
    * A byte array of data that two Settlement Engines can understand, but for which this client views as opaque data.
    */
   byte[] data();
+
+  /**
+   * The time after which a response to this message is no longer useful, typically the expiry of the ILP Prepare
+   * packet that carried it. This is never sent to the Settlement Engine.
+   */
+  @JsonIgnore
+  Optional<Instant> expiresAt();
 }
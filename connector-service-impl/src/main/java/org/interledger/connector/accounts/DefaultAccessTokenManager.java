@@ -4,17 +4,26 @@ import org.interledger.connector.accounts.event.AccountCredentialsUpdatedEvent;
 import org.interledger.connector.persistence.entities.AccessTokenEntity;
 import org.interledger.connector.persistence.repositories.AccessTokensRepository;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.eventbus.EventBus;
+import com.google.common.hash.Hashing;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 /**
- * Default {@link AccessTokenManager} that generates random secure tokens and persists them to the database.
+ * <p>Default {@link AccessTokenManager} that generates random secure tokens and persists them to the database.</p>
+ *
+ * <p>Each token is stored as a slow {@link PasswordEncoder} hash, next to an indexed SHA-256 fingerprint of the raw
+ * token. Finding a token by its raw value is then a single index lookup followed by a single (deliberately expensive)
+ * password check, rather than a password check against every token of the account. The fingerprint doesn't need to be
+ * secret: tokens are random, so it can't be reversed, and a token is only accepted if it also matches the slow
+ * hash.</p>
  */
 public class DefaultAccessTokenManager implements AccessTokenManager {
 
@@ -38,6 +47,7 @@ public class DefaultAccessTokenManager implements AccessTokenManager {
     AccessTokenEntity newEntity = new AccessTokenEntity();
     newEntity.setAccountId(accountId);
     newEntity.setEncryptedToken(encryptToken(newRandomToken));
+    newEntity.setTokenFingerprint(fingerprint(newRandomToken));
     AccessTokenEntity saved = accessTokensRepository.save(newEntity);
     return AccessToken.builder()
       .from(accessTokensRepository.withConversion(saved))
@@ -65,14 +75,36 @@ public class DefaultAccessTokenManager implements AccessTokenManager {
   }
 
   @Override
+  @Transactional
   public Optional<AccessToken> findByAccountIdAndRawToken(AccountId accountId, String rawToken) {
-    return findTokensByAccountId(accountId).stream()
-      .filter(token -> passwordEncoder.matches(rawToken, token.encryptedToken()))
+    final String fingerprint = fingerprint(rawToken);
+    Optional<AccessTokenEntity> match = accessTokensRepository
+      .findByAccountIdAndTokenFingerprint(accountId, fingerprint).stream()
+      .filter(entity -> passwordEncoder.matches(rawToken, entity.getEncryptedToken()))
       .findFirst();
+
+    if (!match.isPresent()) {
+      // Tokens created before fingerprints were introduced can only be found by checking each of them, so fingerprint
+      // them on first use so that this only happens once per token.
+      match = accessTokensRepository.findByAccountIdAndTokenFingerprintIsNull(accountId).stream()
+        .filter(entity -> passwordEncoder.matches(rawToken, entity.getEncryptedToken()))
+        .findFirst()
+        .map(entity -> {
+          entity.setTokenFingerprint(fingerprint);
+          return accessTokensRepository.save(entity);
+        });
+    }
+
+    return accessTokensRepository.withConversion(match);
   }
 
   private String encryptToken(String rawToken) {
     return passwordEncoder.encode(rawToken);
   }
 
+  @VisibleForTesting
+  static String fingerprint(String rawToken) {
+    return Hashing.sha256().hashString(rawToken, StandardCharsets.UTF_8).toString();
+  }
+
 }
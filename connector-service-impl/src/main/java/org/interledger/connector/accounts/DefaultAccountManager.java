@@ -3,10 +3,12 @@ package org.interledger.connector.accounts;
 import org.interledger.connector.accounts.event.AccountCreatedEvent;
 import org.interledger.connector.accounts.event.AccountCredentialsUpdatedEvent;
 import org.interledger.connector.accounts.event.AccountUpdatedEvent;
+import org.interledger.connector.links.Http2IlpOverHttpLinkFactory;
 import org.interledger.connector.links.IldcpFetcherFactory;
 import org.interledger.connector.links.LinkManager;
 import org.interledger.connector.links.LinkSettingsFactory;
 import org.interledger.connector.links.LinkSettingsValidator;
+import org.interledger.connector.links.filters.OutgoingBulkheadLinkFilter;
 import org.interledger.connector.persistence.entities.AccountBalanceSettingsEntity;
 import org.interledger.connector.persistence.entities.AccountRateLimitSettingsEntity;
 import org.interledger.connector.persistence.entities.AccountSettingsEntity;
@@ -218,6 +220,10 @@ public class DefaultAccountManager implements AccountManager {
   @Override
   public AccountSettings validateLinkSettings(AccountSettings accountSettings) {
     try {
+      // Reject unusable bulkhead limits now, instead of failing every packet sent to this account.
+      OutgoingBulkheadLinkFilter.validateSettings(accountSettings.customSettings());
+      // ...and unusable HTTP/2 settings, instead of failing every link constructed for this account.
+      Http2IlpOverHttpLinkFactory.validateSettings(accountSettings.customSettings());
 
       // Calling this for all link types will make sure the link type is supported
       LinkSettings linkSettings = linkSettingsValidator
@@ -319,6 +325,8 @@ public class DefaultAccountManager implements AccountManager {
     }
     deletedAccountSettingsRepository.save(new DeletedAccountSettingsEntity(entity.get()));
     accountSettingsRepository.delete(entity.get());
+    // Revokes any authentication decisions or credentials cached for the deleted account.
+    eventBus.post(AccountCredentialsUpdatedEvent.builder().accountId(accountId).build());
   }
 
 }
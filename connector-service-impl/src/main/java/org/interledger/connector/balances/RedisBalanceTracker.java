@@ -4,6 +4,7 @@ import static java.util.Collections.singletonList;
 
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.jfr.ConnectorEvents;
 
 import com.google.common.base.Preconditions;
 import org.slf4j.Logger;
@@ -65,14 +66,23 @@ public class RedisBalanceTracker implements BalanceTracker {
   public AccountBalance balance(final AccountId accountId) {
     Objects.requireNonNull(accountId);
 
-    final BoundHashOperations<String, String, String> result =
-      stringRedisTemplate.boundHashOps(toRedisAccountsKey(accountId));
-
-    return AccountBalance.builder()
-      .accountId(accountId)
-      .clearingBalance(toLong(result.get(CLEARING_BALANCE)))
-      .prepaidAmount(toLong(result.get(PREPAID_AMOUNT)))
-      .build();
+    final ConnectorEvents.BalanceTracker event = ConnectorEvents.beginBalanceTracker();
+    Throwable failure = null;
+    try {
+      final BoundHashOperations<String, String, String> result =
+        stringRedisTemplate.boundHashOps(toRedisAccountsKey(accountId));
+
+      return AccountBalance.builder()
+        .accountId(accountId)
+        .clearingBalance(toLong(result.get(CLEARING_BALANCE)))
+        .prepaidAmount(toLong(result.get(PREPAID_AMOUNT)))
+        .build();
+    } catch (RuntimeException e) {
+      failure = e;
+      throw e;
+    } finally {
+      event.record(ConnectorEvents.BalanceTracker.BALANCE, accountId, 0, failure);
+    }
   }
 
   @Override
@@ -93,6 +103,8 @@ public class RedisBalanceTracker implements BalanceTracker {
       amount >= 0, String.format("minBalance `%s` must be a positive signed long!", $)
     ));
 
+    final ConnectorEvents.BalanceTracker event = ConnectorEvents.beginBalanceTracker();
+    Throwable failure = null;
     try {
       long result;
       if (minBalance.isPresent()) {
@@ -118,10 +130,13 @@ public class RedisBalanceTracker implements BalanceTracker {
         amount, sourceAccountId, result
       );
     } catch (Exception e) {
+      failure = e;
       final String errorMessage = String.format(
         "Error handling prepare with sourceAmount `%s` from accountId `%s`", amount, sourceAccountId
       );
       throw new BalanceTrackerException(errorMessage, e);
+    } finally {
+      event.record(ConnectorEvents.BalanceTracker.PREPARE, sourceAccountId, amount, failure);
     }
   }
 
@@ -137,6 +152,8 @@ public class RedisBalanceTracker implements BalanceTracker {
       String.format("amount `%s` cannot be negative!", amount)
     );
 
+    final ConnectorEvents.BalanceTracker event = ConnectorEvents.beginBalanceTracker();
+    Throwable failure = null;
     try {
       // Response Format: `{ clearing_balance, prepaid_amount, settle_amount }`
       final List<Long> response = jacksonRedisTemplate.execute(
@@ -178,10 +195,13 @@ public class RedisBalanceTracker implements BalanceTracker {
 
       return typedResponse;
     } catch (Exception e) {
+      failure = e;
       final String errorMessage = String.format(
         "Error in updateBalanceForFulfill with amount `%s` for accountId `%s`", amount, destinationAccountSettings
       );
       throw new BalanceTrackerException(errorMessage, e);
+    } finally {
+      event.record(ConnectorEvents.BalanceTracker.FULFILL, destinationAccountSettings.accountId(), amount, failure);
     }
   }
 
@@ -194,6 +214,8 @@ public class RedisBalanceTracker implements BalanceTracker {
       String.format("amount `%s` must be a positive signed long!", amount)
     );
 
+    final ConnectorEvents.BalanceTracker event = ConnectorEvents.beginBalanceTracker();
+    Throwable failure = null;
     try {
       long clearingBalance = stringRedisTemplate.execute(
         updateBalanceForRejectScript,
@@ -207,10 +229,13 @@ public class RedisBalanceTracker implements BalanceTracker {
         amount, sourceAccountId, clearingBalance
       );
     } catch (Exception e) {
+      failure = e;
       final String errorMessage = String.format(
         "Error handling reject packet with sourceAmount `%s` from accountId `%s`", amount, sourceAccountId
       );
       throw new BalanceTrackerException(errorMessage, e);
+    } finally {
+      event.record(ConnectorEvents.BalanceTracker.REJECT, sourceAccountId, amount, failure);
     }
   }
 
@@ -227,6 +252,8 @@ public class RedisBalanceTracker implements BalanceTracker {
       String.format("amount `%s` must be a positive signed long!", amount)
     );
 
+    final ConnectorEvents.BalanceTracker event = ConnectorEvents.beginBalanceTracker();
+    Throwable failure = null;
     try {
       long result = stringRedisTemplate.execute(
         updateBalanceForIncomingSettlementScript,
@@ -242,11 +269,14 @@ public class RedisBalanceTracker implements BalanceTracker {
           "(including prepaid amount): `{}`", amount, accountId, result
       );
     } catch (Exception e) {
+      failure = e;
       final String errorMessage = String.format(
         "Error handling Incoming Settlement from Settlement Engine with amount `%s` for accountId `%s`",
         amount, accountId
       );
       throw new BalanceTrackerException(errorMessage, e);
+    } finally {
+      event.record(ConnectorEvents.BalanceTracker.INCOMING_SETTLEMENT, accountId, amount, failure);
     }
   }
 
@@ -260,6 +290,8 @@ public class RedisBalanceTracker implements BalanceTracker {
       String.format("amount `%s` must be a positive signed long!", amount)
     );
 
+    final ConnectorEvents.BalanceTracker event = ConnectorEvents.beginBalanceTracker();
+    Throwable failure = null;
     try {
       long newClearingBalance = stringRedisTemplate.execute(
         updateBalanceForSettlementRefundScript,
@@ -274,11 +306,14 @@ public class RedisBalanceTracker implements BalanceTracker {
       );
 
     } catch (Exception e) {
+      failure = e;
       final String errorMessage = String.format(
         "Error attempting to refund settlement payment in Redis for accountId `%s` and amount `%s`",
         accountId, amount
       );
       throw new BalanceTrackerException(errorMessage, e);
+    } finally {
+      event.record(ConnectorEvents.BalanceTracker.OUTGOING_SETTLEMENT_REFUND, accountId, amount, failure);
     }
   }
 
@@ -0,0 +1,50 @@
+package org.interledger.connector.jfr;
+
+import org.interledger.connector.accounts.AccountId;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted for every call to the {@link org.interledger.connector.balances.RedisBalanceTracker}, including its
+ * round-trip to Redis.
+ */
+@Name("org.interledger.connector.BalanceTracker")
+@Label("Balance Tracker")
+@Description("The balance of an account was read or updated")
+@Category(JfrEvents.CATEGORY)
+@Enabled(false)
+@StackTrace(false)
+public class BalanceTrackerEvent extends Event implements ConnectorEvents.BalanceTracker {
+
+  @Label("Operation")
+  @Description("The balance tracker operation (e.g., prepare, fulfill or reject)")
+  String operation;
+
+  @Label("Account")
+  String accountId;
+
+  @Label("Amount")
+  @Description("The amount the balance was updated by, in the account's units")
+  long amount;
+
+  @Label("Outcome")
+  @Description("SUCCEEDED, or the name of the exception the operation failed with")
+  String outcome;
+
+  @Override
+  public void record(final String operation, final AccountId accountId, final long amount, final Throwable failure) {
+    if (shouldCommit()) {
+      this.operation = operation;
+      this.accountId = accountId.value();
+      this.amount = amount;
+      this.outcome = failure == null ? "SUCCEEDED" : failure.getClass().getSimpleName();
+      commit();
+    }
+  }
+}
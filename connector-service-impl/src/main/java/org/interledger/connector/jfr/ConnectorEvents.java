@@ -0,0 +1,263 @@
+package org.interledger.connector.jfr;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.core.settlement.SettlementQuantity;
+import org.interledger.connector.routing.Route;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+
+import com.google.common.primitives.UnsignedLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+
+/**
+ * <p>The entry point for emitting the Connector's Flight Recorder events, so that callers never link against
+ * {@code jdk.jfr} themselves.</p>
+ *
+ * <p>{@code jdk.jfr} only exists in JDK 8u262+ and JDK 11+, so the event classes are only compiled by the {@code jfr}
+ * Maven profile, and are only loaded once a one-time check finds {@code jdk.jfr} at runtime. Otherwise, every
+ * {@code begin} method returns a recording that does nothing.</p>
+ *
+ * <p>Each {@code begin} method starts timing a new event, but only if its event type is enabled by a running
+ * recording, so nothing is allocated while the events are off.</p>
+ */
+public final class ConnectorEvents {
+
+  private static final Logger LOGGER = LoggerFactory.getLogger(ConnectorEvents.class);
+
+  private static final Factory FACTORY = loadFactory();
+
+  private ConnectorEvents() {
+  }
+
+  public static PacketSwitched beginPacketSwitched() {
+    return FACTORY.beginPacketSwitched();
+  }
+
+  public static PacketFilter beginPacketFilter() {
+    return FACTORY.beginPacketFilter();
+  }
+
+  public static RouteLookup beginRouteLookup() {
+    return FACTORY.beginRouteLookup();
+  }
+
+  public static FxConversion beginFxConversion() {
+    return FACTORY.beginFxConversion();
+  }
+
+  public static BalanceTracker beginBalanceTracker() {
+    return FACTORY.beginBalanceTracker();
+  }
+
+  public static SettlementInitiation beginSettlementInitiation() {
+    return FACTORY.beginSettlementInitiation();
+  }
+
+  private static Factory loadFactory() {
+    try {
+      Class.forName("jdk.jfr.Event");
+      return (Factory) Class.forName(ConnectorEvents.class.getPackage().getName() + ".JdkEventFactory")
+        .getDeclaredConstructor()
+        .newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      LOGGER.info("Flight Recorder events are unavailable in this JVM: {}", e.toString());
+      return NoOpFactory.INSTANCE;
+    }
+  }
+
+  /**
+   * Creates (and begins) events of each type.
+   */
+  interface Factory {
+
+    PacketSwitched beginPacketSwitched();
+
+    PacketFilter beginPacketFilter();
+
+    RouteLookup beginRouteLookup();
+
+    FxConversion beginFxConversion();
+
+    BalanceTracker beginBalanceTracker();
+
+    SettlementInitiation beginSettlementInitiation();
+  }
+
+  private enum NoOpFactory implements Factory {
+    INSTANCE;
+
+    @Override
+    public PacketSwitched beginPacketSwitched() {
+      return PacketSwitched.NOOP;
+    }
+
+    @Override
+    public PacketFilter beginPacketFilter() {
+      return PacketFilter.NOOP;
+    }
+
+    @Override
+    public RouteLookup beginRouteLookup() {
+      return RouteLookup.NOOP;
+    }
+
+    @Override
+    public FxConversion beginFxConversion() {
+      return FxConversion.NOOP;
+    }
+
+    @Override
+    public BalanceTracker beginBalanceTracker() {
+      return BalanceTracker.NOOP;
+    }
+
+    @Override
+    public SettlementInitiation beginSettlementInitiation() {
+      return SettlementInitiation.NOOP;
+    }
+  }
+
+  /**
+   * A packet being switched (see {@code PacketSwitchedEvent}).
+   */
+  @FunctionalInterface
+  public interface PacketSwitched {
+
+    PacketSwitched NOOP = (sourceAccountId, preparePacket, responsePacket) -> {
+    };
+
+    /**
+     * Populate and commit this event, but only if it is enabled and passes its threshold.
+     *
+     * @param sourceAccountId The {@link AccountId} the packet was received from.
+     * @param preparePacket   The {@link InterledgerPreparePacket} that was switched.
+     * @param responsePacket  The {@link InterledgerResponsePacket} the packet was answered with, or {@code null}.
+     */
+    void record(
+      AccountId sourceAccountId, InterledgerPreparePacket preparePacket, InterledgerResponsePacket responsePacket
+    );
+  }
+
+  /**
+   * A packet passing through a packet-switch or link filter (see {@code PacketFilterEvent}).
+   */
+  @FunctionalInterface
+  public interface PacketFilter {
+
+    PacketFilter NOOP = (filter, accountId, responsePacket) -> {
+    };
+
+    /**
+     * Populate and commit this event, but only if it is enabled and passes its threshold.
+     *
+     * @param filter         The filter the packet passed through.
+     * @param accountId      The {@link AccountId} of the account being filtered for.
+     * @param responsePacket The {@link InterledgerResponsePacket} the filter returned, or {@code null}.
+     */
+    void record(Object filter, AccountId accountId, InterledgerResponsePacket responsePacket);
+  }
+
+  /**
+   * A routing table search (see {@code RouteLookupEvent}).
+   */
+  @FunctionalInterface
+  public interface RouteLookup {
+
+    RouteLookup NOOP = (sourceAccountId, destination, route) -> {
+    };
+
+    /**
+     * Populate and commit this event, but only if it is enabled and passes its threshold.
+     *
+     * @param sourceAccountId The {@link AccountId} the packet was received from.
+     * @param destination     The {@link InterledgerAddress} that was looked up.
+     * @param route           The {@link Route} that was found, if any.
+     */
+    void record(AccountId sourceAccountId, InterledgerAddress destination, Optional<Route> route);
+  }
+
+  /**
+   * A next-hop amount conversion (see {@code FxConversionEvent}).
+   */
+  @FunctionalInterface
+  public interface FxConversion {
+
+    FxConversion NOOP = (sourceAccountSettings, nextHopAccountSettings, sourcePacket, nextHopAmount) -> {
+    };
+
+    /**
+     * Populate and commit this event, but only if it is enabled and passes its threshold.
+     *
+     * @param sourceAccountSettings  The {@link AccountSettings} the packet was received from.
+     * @param nextHopAccountSettings The {@link AccountSettings} the packet will be forwarded to.
+     * @param sourcePacket           The {@link InterledgerPreparePacket} whose amount was converted.
+     * @param nextHopAmount          The converted amount, in the next-hop account's units.
+     */
+    void record(
+      AccountSettings sourceAccountSettings,
+      AccountSettings nextHopAccountSettings,
+      InterledgerPreparePacket sourcePacket,
+      UnsignedLong nextHopAmount
+    );
+  }
+
+  /**
+   * A balance tracker operation (see {@code BalanceTrackerEvent}).
+   */
+  @FunctionalInterface
+  public interface BalanceTracker {
+
+    String BALANCE = "balance";
+    String PREPARE = "prepare";
+    String FULFILL = "fulfill";
+    String REJECT = "reject";
+    String INCOMING_SETTLEMENT = "incomingSettlement";
+    String OUTGOING_SETTLEMENT_REFUND = "outgoingSettlementRefund";
+
+    BalanceTracker NOOP = (operation, accountId, amount, failure) -> {
+    };
+
+    /**
+     * Populate and commit this event, but only if it is enabled and passes its threshold.
+     *
+     * @param operation The name of the operation (e.g., {@link #PREPARE}).
+     * @param accountId The {@link AccountId} whose balance was read or updated.
+     * @param amount    The amount the balance was updated by.
+     * @param failure   The {@link Throwable} the operation failed with, or {@code null} if it succeeded.
+     */
+    void record(String operation, AccountId accountId, long amount, Throwable failure);
+  }
+
+  /**
+   * A request to a settlement engine (see {@code SettlementInitiationEvent}).
+   */
+  @FunctionalInterface
+  public interface SettlementInitiation {
+
+    SettlementInitiation NOOP = (accountId, idempotencyKey, requested, settled, failure) -> {
+    };
+
+    /**
+     * Populate and commit this event, but only if it is enabled and passes its threshold.
+     *
+     * @param accountId      The {@link AccountId} being settled with.
+     * @param idempotencyKey The idempotency key of the settlement.
+     * @param requested      The {@link SettlementQuantity} that was requested to be settled.
+     * @param settled        The {@link SettlementQuantity} that was committed to, or {@code null} if the settlement
+     *                       failed.
+     * @param failure        The {@link Throwable} the settlement failed with, or {@code null} if it succeeded.
+     */
+    void record(
+      AccountId accountId,
+      String idempotencyKey,
+      SettlementQuantity requested,
+      SettlementQuantity settled,
+      Throwable failure
+    );
+  }
+}
@@ -0,0 +1,66 @@
+package org.interledger.connector.jfr;
+
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.core.InterledgerPreparePacket;
+
+import com.google.common.primitives.UnsignedLong;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Unsigned;
+
+/**
+ * Emitted whenever the amount of a packet is converted into the units of its next-hop account.
+ */
+@Name("org.interledger.connector.FxConversion")
+@Label("FX Conversion")
+@Description("The amount of a packet was converted into the units of its next-hop account")
+@Category(JfrEvents.CATEGORY)
+@Enabled(false)
+@StackTrace(false)
+public class FxConversionEvent extends Event implements ConnectorEvents.FxConversion {
+
+  @Label("Source Account")
+  String sourceAccountId;
+
+  @Label("Source Asset")
+  @Description("The asset code and scale of the source account (e.g., USD/2)")
+  String sourceAsset;
+
+  @Label("Source Amount")
+  @Unsigned
+  long sourceAmount;
+
+  @Label("Next-Hop Account")
+  String nextHopAccountId;
+
+  @Label("Next-Hop Asset")
+  @Description("The asset code and scale of the next-hop account (e.g., XRP/9)")
+  String nextHopAsset;
+
+  @Label("Next-Hop Amount")
+  @Unsigned
+  long nextHopAmount;
+
+  @Override
+  public void record(
+    final AccountSettings sourceAccountSettings,
+    final AccountSettings nextHopAccountSettings,
+    final InterledgerPreparePacket sourcePacket,
+    final UnsignedLong nextHopAmount
+  ) {
+    if (shouldCommit()) {
+      this.sourceAccountId = sourceAccountSettings.accountId().value();
+      this.sourceAsset = sourceAccountSettings.assetCode() + "/" + sourceAccountSettings.assetScale();
+      this.sourceAmount = sourcePacket.getAmount().longValue();
+      this.nextHopAccountId = nextHopAccountSettings.accountId().value();
+      this.nextHopAsset = nextHopAccountSettings.assetCode() + "/" + nextHopAccountSettings.assetScale();
+      this.nextHopAmount = nextHopAmount.longValue();
+      commit();
+    }
+  }
+}
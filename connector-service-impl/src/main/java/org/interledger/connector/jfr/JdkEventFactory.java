@@ -0,0 +1,77 @@
+package org.interledger.connector.jfr;
+
+/**
+ * Creates the Connector's {@code jdk.jfr} events. Only loaded by {@link ConnectorEvents} once {@code jdk.jfr} is known
+ * to exist.
+ */
+final class JdkEventFactory implements ConnectorEvents.Factory {
+
+  // These are never committed. They only tell whether their event type is enabled by a running recording, which is a
+  // cheap check that needs no new event.
+  private final PacketSwitchedEvent packetSwitched = new PacketSwitchedEvent();
+  private final PacketFilterEvent packetFilter = new PacketFilterEvent();
+  private final RouteLookupEvent routeLookup = new RouteLookupEvent();
+  private final FxConversionEvent fxConversion = new FxConversionEvent();
+  private final BalanceTrackerEvent balanceTracker = new BalanceTrackerEvent();
+  private final SettlementInitiationEvent settlementInitiation = new SettlementInitiationEvent();
+
+  @Override
+  public ConnectorEvents.PacketSwitched beginPacketSwitched() {
+    if (!packetSwitched.isEnabled()) {
+      return ConnectorEvents.PacketSwitched.NOOP;
+    }
+    final PacketSwitchedEvent event = new PacketSwitchedEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public ConnectorEvents.PacketFilter beginPacketFilter() {
+    if (!packetFilter.isEnabled()) {
+      return ConnectorEvents.PacketFilter.NOOP;
+    }
+    final PacketFilterEvent event = new PacketFilterEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public ConnectorEvents.RouteLookup beginRouteLookup() {
+    if (!routeLookup.isEnabled()) {
+      return ConnectorEvents.RouteLookup.NOOP;
+    }
+    final RouteLookupEvent event = new RouteLookupEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public ConnectorEvents.FxConversion beginFxConversion() {
+    if (!fxConversion.isEnabled()) {
+      return ConnectorEvents.FxConversion.NOOP;
+    }
+    final FxConversionEvent event = new FxConversionEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public ConnectorEvents.BalanceTracker beginBalanceTracker() {
+    if (!balanceTracker.isEnabled()) {
+      return ConnectorEvents.BalanceTracker.NOOP;
+    }
+    final BalanceTrackerEvent event = new BalanceTrackerEvent();
+    event.begin();
+    return event;
+  }
+
+  @Override
+  public ConnectorEvents.SettlementInitiation beginSettlementInitiation() {
+    if (!settlementInitiation.isEnabled()) {
+      return ConnectorEvents.SettlementInitiation.NOOP;
+    }
+    final SettlementInitiationEvent event = new SettlementInitiationEvent();
+    event.begin();
+    return event;
+  }
+}
@@ -0,0 +1,41 @@
+package org.interledger.connector.jfr;
+
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+
+/**
+ * Helpers for populating the fields of the Connector's Flight Recorder events. These are only called once an event is
+ * going to be committed, so they may allocate.
+ */
+final class JfrEvents {
+
+  static final String CATEGORY = "Interledger Connector";
+
+  static final String FULFILLED = "FULFILLED";
+  static final String FAILED = "FAILED";
+
+  private JfrEvents() {
+  }
+
+  /**
+   * The outcome of a packet: {@code FULFILLED}, the code of its reject (e.g., {@code F02}), or {@code FAILED} if there
+   * was no response.
+   */
+  static String outcome(final InterledgerResponsePacket responsePacket) {
+    if (responsePacket == null) {
+      return FAILED;
+    }
+    return responsePacket instanceof InterledgerRejectPacket
+      ? ((InterledgerRejectPacket) responsePacket).getCode().getCode()
+      : FULFILLED;
+  }
+
+  /**
+   * The prefix of {@code destination}, without its final segment. The final segment usually identifies a single
+   * payment or receiver (e.g., a STREAM connection tag), so it isn't useful for debugging and shouldn't be recorded.
+   */
+  static String destinationPrefix(final InterledgerAddress destination) {
+    return destination.getPrefix().getValue();
+  }
+}
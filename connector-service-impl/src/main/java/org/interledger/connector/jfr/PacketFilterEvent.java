@@ -0,0 +1,46 @@
+package org.interledger.connector.jfr;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerResponsePacket;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted for every packet-switch filter and link filter a packet passes through. Filters wrap the rest of the
+ * filter-chain, so each event's duration includes the filters (and the outbound link) after it.
+ */
+@Name("org.interledger.connector.PacketFilter")
+@Label("Packet Filter")
+@Description("An ILP Prepare packet passed through a packet-switch or link filter")
+@Category(JfrEvents.CATEGORY)
+@Enabled(false)
+@StackTrace(false)
+public class PacketFilterEvent extends Event implements ConnectorEvents.PacketFilter {
+
+  @Label("Filter")
+  String filter;
+
+  @Label("Account")
+  @Description("The source account for packet-switch filters, or the next-hop account for link filters")
+  String accountId;
+
+  @Label("Outcome")
+  @Description("FULFILLED, the reject code (e.g., F02), or FAILED")
+  String outcome;
+
+  @Override
+  public void record(final Object filter, final AccountId accountId, final InterledgerResponsePacket responsePacket) {
+    if (shouldCommit()) {
+      this.filter = filter.getClass().getName();
+      this.accountId = accountId.value();
+      this.outcome = JfrEvents.outcome(responsePacket);
+      commit();
+    }
+  }
+}
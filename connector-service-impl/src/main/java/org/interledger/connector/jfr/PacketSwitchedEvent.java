@@ -0,0 +1,58 @@
+package org.interledger.connector.jfr;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Unsigned;
+
+/**
+ * Emitted once for every packet the Connector switches, spanning the whole packet-switch (all filters, the outbound
+ * link and the response).
+ */
+@Name("org.interledger.connector.PacketSwitched")
+@Label("Packet Switched")
+@Description("An ILP Prepare packet was switched and answered")
+@Category(JfrEvents.CATEGORY)
+@Enabled(false)
+@StackTrace(false)
+public class PacketSwitchedEvent extends Event implements ConnectorEvents.PacketSwitched {
+
+  @Label("Source Account")
+  String sourceAccountId;
+
+  @Label("Destination Prefix")
+  @Description("The packet's destination address, without its final segment")
+  String destinationPrefix;
+
+  @Label("Amount")
+  @Description("The amount of the incoming packet, in the source account's units")
+  @Unsigned
+  long amount;
+
+  @Label("Outcome")
+  @Description("FULFILLED, the reject code (e.g., F02), or FAILED")
+  String outcome;
+
+  @Override
+  public void record(
+    final AccountId sourceAccountId,
+    final InterledgerPreparePacket preparePacket,
+    final InterledgerResponsePacket responsePacket
+  ) {
+    if (shouldCommit()) {
+      this.sourceAccountId = sourceAccountId.value();
+      this.destinationPrefix = JfrEvents.destinationPrefix(preparePacket.getDestination());
+      this.amount = preparePacket.getAmount().longValue();
+      this.outcome = JfrEvents.outcome(responsePacket);
+      commit();
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package org.interledger.connector.jfr;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.routing.Route;
+import org.interledger.core.InterledgerAddress;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.util.Optional;
+
+/**
+ * Emitted whenever the routing table is searched for the next-hop of a packet.
+ */
+@Name("org.interledger.connector.RouteLookup")
+@Label("Route Lookup")
+@Description("The routing table was searched for the next-hop of a packet")
+@Category(JfrEvents.CATEGORY)
+@Enabled(false)
+@StackTrace(false)
+public class RouteLookupEvent extends Event implements ConnectorEvents.RouteLookup {
+
+  @Label("Source Account")
+  String sourceAccountId;
+
+  @Label("Destination Prefix")
+  @Description("The packet's destination address, without its final segment")
+  String destinationPrefix;
+
+  @Label("Route Prefix")
+  @Description("The prefix of the route that was found, if any")
+  String routePrefix;
+
+  @Label("Next-Hop Account")
+  String nextHopAccountId;
+
+  @Override
+  public void record(
+    final AccountId sourceAccountId, final InterledgerAddress destination, final Optional<Route> route
+  ) {
+    if (shouldCommit()) {
+      this.sourceAccountId = sourceAccountId.value();
+      this.destinationPrefix = JfrEvents.destinationPrefix(destination);
+      route.ifPresent(found -> {
+        this.routePrefix = found.routePrefix().getValue();
+        this.nextHopAccountId = found.nextHopAccountId().value();
+      });
+      commit();
+    }
+  }
+}
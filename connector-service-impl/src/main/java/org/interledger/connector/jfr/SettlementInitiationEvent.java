@@ -0,0 +1,67 @@
+package org.interledger.connector.jfr;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.core.settlement.SettlementQuantity;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Emitted whenever the Connector asks an account's settlement engine to settle, including the round-trip to the
+ * settlement engine.
+ */
+@Name("org.interledger.connector.SettlementInitiation")
+@Label("Settlement Initiation")
+@Description("A settlement engine was asked to settle")
+@Category(JfrEvents.CATEGORY)
+@Enabled(false)
+@StackTrace(false)
+public class SettlementInitiationEvent extends Event implements ConnectorEvents.SettlementInitiation {
+
+  @Label("Account")
+  String accountId;
+
+  @Label("Idempotency Key")
+  String idempotencyKey;
+
+  // Settlement amounts are arbitrarily large, so they're recorded as text.
+  @Label("Requested Amount")
+  @Description("The amount requested to be settled, in clearing units")
+  String requestedAmount;
+
+  @Label("Settled Amount")
+  @Description("The amount the settlement engine committed to settle, in clearing units")
+  String settledAmount;
+
+  @Label("Scale")
+  @Description("The scale of the clearing units")
+  int scale;
+
+  @Label("Outcome")
+  @Description("SUCCEEDED, or the name of the exception the settlement failed with")
+  String outcome;
+
+  @Override
+  public void record(
+    final AccountId accountId,
+    final String idempotencyKey,
+    final SettlementQuantity requested,
+    final SettlementQuantity settled,
+    final Throwable failure
+  ) {
+    if (shouldCommit()) {
+      this.accountId = accountId.value();
+      this.idempotencyKey = idempotencyKey;
+      this.requestedAmount = requested.amount().toString();
+      this.settledAmount = settled == null ? "" : settled.amount().toString();
+      this.scale = requested.scale();
+      this.outcome = failure == null ? "SUCCEEDED" : failure.getClass().getSimpleName();
+      commit();
+    }
+  }
+}
@@ -0,0 +1,19 @@
+/**
+ * Java Flight Recorder events emitted by the Connector while it switches packets, tracks balances, looks up routes,
+ * converts amounts and initiates settlements.
+ *
+ * <p>Every event is disabled by default, so it costs next to nothing until a recording that enables it is started.
+ * To record them on a running Connector, start a recording using the settings in {@code jfr/connector.jfc} (found in
+ * the Connector's resources), for example:</p>
+ *
+ * <pre>
+ * jcmd &lt;pid&gt; JFR.start name=connector settings=/app/resources/jfr/connector.jfc duration=5m filename=connector.jfr
+ * </pre>
+ *
+ * <p>Events are emitted through {@link org.interledger.connector.jfr.ConnectorEvents}, so the Connector still runs
+ * (without them) on JVMs that have no {@code jdk.jfr}.</p>
+ *
+ * <p>Events only carry account ids, address prefixes, amounts and outcomes (never whole packets or account settings),
+ * and never capture stack traces.</p>
+ */
+package org.interledger.connector.jfr;
@@ -4,8 +4,13 @@ import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountIdResolver;
 import org.interledger.connector.accounts.AccountNotFoundProblem;
 import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.accounts.event.AccountCredentialsUpdatedEvent;
+import org.interledger.connector.accounts.event.AccountUpdatedEvent;
 import org.interledger.connector.accounts.sub.LocalDestinationAddressUtils;
+import org.interledger.connector.link.AdaptiveConcurrencyLimiterRegistry;
 import org.interledger.connector.link.CircuitBreakingLink;
+import org.interledger.connector.link.ConcurrencyLimitingLink;
+import org.interledger.connector.metrics.MetricsService;
 import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
 import org.interledger.core.InterledgerAddress;
 import org.interledger.link.Link;
@@ -17,15 +22,22 @@ import org.interledger.link.StatefulLink;
 import org.interledger.link.events.LinkConnectedEvent;
 import org.interledger.link.events.LinkConnectionEventListener;
 import org.interledger.link.events.LinkDisconnectedEvent;
+import org.interledger.link.http.IlpOverHttpLink;
 import org.interledger.link.spsp.StatelessSpspReceiverLink;
 import org.interledger.link.spsp.StatelessSpspReceiverLinkSettings;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.Maps;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Objects;
@@ -36,17 +48,30 @@ import java.util.function.Supplier;
 /**
  * A default implementation of {@link LinkManager} that stores all connectedLinks in-memory.
  *
+ * <p>Links that don't "connect" (e.g., ILP-over-HTTP links) are constructed lazily, on the first packet sent to an
+ * account. If a link cache is supplied, such links are kept in that cache so that they are only constructed once, and
+ * the cache's policy (e.g., expiry after a period of idleness and a maximum size) bounds how many links are held in
+ * memory at once. Otherwise, such links are constructed every time they are asked for.</p>
+ *
  * TODO: Consider making this Manager stateless. See https://github.com/interledger4j/ilpv4-connector/issues/290 for
  * more details.
  */
 @SuppressWarnings("UnstableApiUsage")
 public class DefaultLinkManager implements LinkManager, LinkConnectionEventListener {
 
+  private static final Logger LOGGER = LoggerFactory.getLogger(DefaultLinkManager.class);
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
   private final AccountIdResolver accountIdResolver;
   // Note that HTTP links don't "connect" per-se (meaning they don't strictly need to be tracked) but Websocket
   // client-links _do_ need to be tracked so we know if a remote client has connected to us (this manager won't be
   // able to initiate that type of connection).
   private final Map<AccountId, Link<? extends LinkSettings>> connectedLinks = Maps.newConcurrentMap();
+  // Links that have been constructed for an account, whether or not they connect. Entries are invalidated whenever
+  // the account is updated so that the next packet uses a link built from the latest settings. The cache should
+  // disconnect the links it removes (see #disconnectRemovedLink).
+  private final Optional<Cache<AccountId, Link<? extends LinkSettings>>> linkCache;
 
   private final Supplier<InterledgerAddress> operatorAddressSupplier;
 
@@ -56,7 +81,9 @@ public class DefaultLinkManager implements LinkManager, LinkConnectionEventListe
   private final LinkSettingsFactory linkSettingsFactory;
   private final LinkFactoryProvider linkFactoryProvider;
   private final CircuitBreakerConfig defaultCircuitBreakerConfig;
+  private final Optional<AdaptiveConcurrencyLimiterRegistry> concurrencyLimiterRegistry;
   private final LocalDestinationAddressUtils localDestinationAddressUtils;
+  private final Optional<MetricsService> metricsService;
   private final Link<?> pingLink;
 
   /**
@@ -71,6 +98,58 @@ public class DefaultLinkManager implements LinkManager, LinkConnectionEventListe
     final CircuitBreakerConfig defaultCircuitBreakerConfig,
     final LocalDestinationAddressUtils localDestinationAddressUtils,
     final EventBus eventBus
+  ) {
+    this(
+      operatorAddressSupplier, accountSettingsRepository, linkSettingsFactory, linkFactoryProvider, accountIdResolver,
+      defaultCircuitBreakerConfig, Optional.empty(), localDestinationAddressUtils, eventBus
+    );
+  }
+
+  /**
+   * Required-args constructor.
+   *
+   * @param concurrencyLimiterRegistry If present, every link limits the packets in-flight to its peer using a limiter
+   *                                   from this registry.
+   */
+  public DefaultLinkManager(
+    final Supplier<InterledgerAddress> operatorAddressSupplier,
+    final AccountSettingsRepository accountSettingsRepository,
+    final LinkSettingsFactory linkSettingsFactory,
+    final LinkFactoryProvider linkFactoryProvider,
+    final AccountIdResolver accountIdResolver,
+    final CircuitBreakerConfig defaultCircuitBreakerConfig,
+    final Optional<AdaptiveConcurrencyLimiterRegistry> concurrencyLimiterRegistry,
+    final LocalDestinationAddressUtils localDestinationAddressUtils,
+    final EventBus eventBus
+  ) {
+    this(
+      operatorAddressSupplier, accountSettingsRepository, linkSettingsFactory, linkFactoryProvider, accountIdResolver,
+      defaultCircuitBreakerConfig, concurrencyLimiterRegistry, localDestinationAddressUtils, Optional.empty(),
+      Optional.empty(), eventBus
+    );
+  }
+
+  /**
+   * Required-args constructor.
+   *
+   * @param concurrencyLimiterRegistry If present, every link limits the packets in-flight to its peer using a limiter
+   *                                   from this registry.
+   * @param linkCache                  If present, constructed links are kept in this cache instead of being
+   *                                   constructed on every lookup.
+   * @param metricsService             If present, the time taken to construct each link is reported to this service.
+   */
+  public DefaultLinkManager(
+    final Supplier<InterledgerAddress> operatorAddressSupplier,
+    final AccountSettingsRepository accountSettingsRepository,
+    final LinkSettingsFactory linkSettingsFactory,
+    final LinkFactoryProvider linkFactoryProvider,
+    final AccountIdResolver accountIdResolver,
+    final CircuitBreakerConfig defaultCircuitBreakerConfig,
+    final Optional<AdaptiveConcurrencyLimiterRegistry> concurrencyLimiterRegistry,
+    final LocalDestinationAddressUtils localDestinationAddressUtils,
+    final Optional<Cache<AccountId, Link<? extends LinkSettings>>> linkCache,
+    final Optional<MetricsService> metricsService,
+    final EventBus eventBus
   ) {
     this.operatorAddressSupplier = Objects.requireNonNull(operatorAddressSupplier);
     this.accountSettingsRepository = Objects.requireNonNull(accountSettingsRepository);
@@ -78,7 +157,10 @@ public class DefaultLinkManager implements LinkManager, LinkConnectionEventListe
     this.linkFactoryProvider = Objects.requireNonNull(linkFactoryProvider);
     this.accountIdResolver = Objects.requireNonNull(accountIdResolver);
     this.defaultCircuitBreakerConfig = Objects.requireNonNull(defaultCircuitBreakerConfig);
+    this.concurrencyLimiterRegistry = Objects.requireNonNull(concurrencyLimiterRegistry);
     this.localDestinationAddressUtils = Objects.requireNonNull(localDestinationAddressUtils);
+    this.linkCache = Objects.requireNonNull(linkCache);
+    this.metricsService = Objects.requireNonNull(metricsService);
 
     Objects.requireNonNull(eventBus).register(this);
 
@@ -95,7 +177,7 @@ public class DefaultLinkManager implements LinkManager, LinkConnectionEventListe
   @Override
   public Link<? extends LinkSettings> getOrCreateLink(final AccountId accountId) {
     Objects.requireNonNull(accountId);
-    return Optional.ofNullable(this.connectedLinks.get(accountId))
+    return this.getExistingLink(accountId)
       .orElseGet(() -> {
         // Convert to LinkSettings...
         final AccountSettings accountSettings = accountSettingsRepository.findByAccountIdWithConversion(accountId)
@@ -113,12 +195,9 @@ public class DefaultLinkManager implements LinkManager, LinkConnectionEventListe
     if (localDestinationAddressUtils.isConnectorPingAccountId(accountId)) {
       return this.pingLink;
     } else {
-      return Optional.ofNullable(this.connectedLinks.get(accountId))
-        .orElseGet(() -> {
-          // Convert to LinkSettings...
-          final LinkSettings linkSettings = linkSettingsFactory.construct(accountSettings);
-          return createLink(accountId, linkSettings);
-        });
+      return this.getExistingLink(accountId)
+        // Convert to LinkSettings...
+        .orElseGet(() -> materializeLink(accountId, () -> linkSettingsFactory.construct(accountSettings)));
     }
   }
 
@@ -127,8 +206,35 @@ public class DefaultLinkManager implements LinkManager, LinkConnectionEventListe
     Objects.requireNonNull(accountId);
     Objects.requireNonNull(linkSettings);
 
-    return Optional.ofNullable(this.connectedLinks.get(accountId))
-      .orElseGet(() -> createLink(accountId, linkSettings));
+    return this.getExistingLink(accountId)
+      .orElseGet(() -> materializeLink(accountId, () -> linkSettings));
+  }
+
+  /**
+   * Find a link that is already connected or constructed for {@code accountId}, without constructing one.
+   */
+  private Optional<Link<? extends LinkSettings>> getExistingLink(final AccountId accountId) {
+    // Look in the cache first, so that a connected link this manager constructed is used (and so stays cached) for as
+    // long as it keeps being used.
+    final Optional<Link<? extends LinkSettings>> cachedLink = linkCache.map(cache -> cache.getIfPresent(accountId));
+    if (cachedLink.isPresent()) {
+      return cachedLink;
+    }
+    return Optional.ofNullable(this.connectedLinks.get(accountId));
+  }
+
+  /**
+   * Construct a link for {@code accountId}, keeping it in the link cache (if any). Concurrent callers for the same
+   * account share a single construction instead of each building (and connecting) a link of their own.
+   */
+  private Link<? extends LinkSettings> materializeLink(
+    final AccountId accountId, final Supplier<LinkSettings> linkSettingsSupplier
+  ) {
+    if (linkCache.isPresent()) {
+      return linkCache.get().get(accountId, $ -> createLink(accountId, linkSettingsSupplier.get()));
+    } else {
+      return createLink(accountId, linkSettingsSupplier.get());
+    }
   }
 
   @VisibleForTesting
@@ -136,6 +242,8 @@ public class DefaultLinkManager implements LinkManager, LinkConnectionEventListe
     Objects.requireNonNull(accountId);
     Objects.requireNonNull(linkSettings);
 
+    final long startNanos = System.nanoTime();
+
     //Use the first linkFactory that supports the linkType...
     final Link<?> link = this.linkFactoryProvider
       .getLinkFactory(linkSettings.getLinkType())
@@ -148,6 +256,12 @@ public class DefaultLinkManager implements LinkManager, LinkConnectionEventListe
     // Wrap the Link in a CircuitBreaker.
     final CircuitBreakingLink circuitBreakingLink = new CircuitBreakingLink(link, defaultCircuitBreakerConfig);
 
+    // Limit packets in-flight outside of the CircuitBreaker, so that packets shed by the limiter never count against
+    // the circuit, and packets refused by an open circuit never count against the limit.
+    final Link<?> outermostLink = concurrencyLimiterRegistry
+      .<Link<?>>map(registry -> new ConcurrencyLimitingLink(circuitBreakingLink, registry))
+      .orElse(circuitBreakingLink);
+
     if (link instanceof StatefulLink) {
       StatefulLink statefulLink = ((StatefulLink) link);
       // Register this Manager as a LinkEvent Listener...
@@ -156,7 +270,12 @@ public class DefaultLinkManager implements LinkManager, LinkConnectionEventListe
       statefulLink.connect().join();
     }
 
-    return circuitBreakingLink;
+    final Duration creationTime = Duration.ofNanos(System.nanoTime() - startNanos);
+    metricsService.ifPresent(service -> service.trackLinkCreated(linkSettings.getLinkType(), creationTime));
+    logger.debug("Created link. accountId={} linkType={} creationTime={}",
+      accountId, linkSettings.getLinkType(), creationTime);
+
+    return outermostLink;
   }
 
   @Override
@@ -177,6 +296,98 @@ public class DefaultLinkManager implements LinkManager, LinkConnectionEventListe
       );
   }
 
+  @Override
+  public int prewarmLinks(final Collection<AccountId> accountIds) {
+    Objects.requireNonNull(accountIds);
+
+    int prewarmed = 0;
+    for (final AccountId accountId : accountIds) {
+      try {
+        final Link<?> link = this.getOrCreateLink(accountId);
+        testConnection(link);
+        prewarmed++;
+      } catch (Exception e) {
+        logger.warn("Unable to pre-warm link. accountId={}", accountId, e);
+      }
+    }
+    return prewarmed;
+  }
+
+  /**
+   * Links that don't "connect" (like ILP-over-HTTP) only open a connection to their peer when the first packet is
+   * sent. Sending a test request instead opens that connection (including any TLS handshake) and fetches any auth
+   * token ahead of time.
+   */
+  private void testConnection(final Link<?> link) {
+    final Link<?> delegate = unwrap(link);
+    if (delegate instanceof IlpOverHttpLink && ((IlpOverHttpLink) delegate).getOutgoingUrl() != null) {
+      ((IlpOverHttpLink) delegate).testConnection();
+    }
+  }
+
+  /**
+   * Disconnects a link that has been removed from a link cache (e.g., because it went unused, got too old, or its
+   * account was updated) if the link is a {@link StatefulLink}, so that its connection isn't left open with nothing
+   * left to use it. Meant to be used as the link cache's removal listener.
+   *
+   * @param accountId The {@link AccountId} the link was cached for.
+   * @param link      The {@link Link} that was removed, or {@code null} if it was already garbage collected.
+   * @param cause     The {@link RemovalCause}.
+   */
+  public static void disconnectRemovedLink(
+    final AccountId accountId, final Link<? extends LinkSettings> link, final RemovalCause cause
+  ) {
+    if (link == null) {
+      return;
+    }
+    final Link<?> delegate = unwrap(link);
+    if (delegate instanceof StatefulLink) {
+      LOGGER.debug("Disconnecting link removed from link cache. accountId={} cause={}", accountId, cause);
+      ((StatefulLink) delegate).disconnect();
+    }
+  }
+
+  /**
+   * The link that {@link #createLink} wrapped with a concurrency limiter and a circuit breaker.
+   */
+  private static Link<?> unwrap(final Link<?> link) {
+    Link<?> delegate = link;
+    if (delegate instanceof ConcurrencyLimitingLink) {
+      delegate = ((ConcurrencyLimitingLink) delegate).getLinkDelegateTyped();
+    }
+    if (delegate instanceof CircuitBreakingLink) {
+      delegate = ((CircuitBreakingLink) delegate).getLinkDelegateTyped();
+    }
+    return delegate;
+  }
+
+  ////////////////////////
+  // Account Event Listener
+  ////////////////////////
+
+  /**
+   * Discards any cached link for an account whose settings have changed, so that its next link is built from the
+   * updated settings.
+   *
+   * @param event An {@link AccountUpdatedEvent}.
+   */
+  @Subscribe
+  public void onAccountUpdated(final AccountUpdatedEvent event) {
+    Objects.requireNonNull(event);
+    linkCache.ifPresent(cache -> cache.invalidate(event.accountId()));
+  }
+
+  /**
+   * Discards any cached link for an account whose credentials have changed (or that has been deleted).
+   *
+   * @param event An {@link AccountCredentialsUpdatedEvent}.
+   */
+  @Subscribe
+  public void onAccountCredentialsUpdated(final AccountCredentialsUpdatedEvent event) {
+    Objects.requireNonNull(event);
+    linkCache.ifPresent(cache -> cache.invalidate(event.accountId()));
+  }
+
   ////////////////////////
   // Link Event Listener
   ////////////////////////
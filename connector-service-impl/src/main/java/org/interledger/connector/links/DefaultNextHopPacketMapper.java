@@ -3,6 +3,8 @@ package org.interledger.connector.links;
 import org.interledger.connector.accounts.AccountSettings;
 import org.interledger.connector.caching.AccountSettingsLoadingCache;
 import org.interledger.connector.fx.JavaMoneyUtils;
+import org.interledger.connector.jfr.ConnectorEvents;
+import org.interledger.connector.logging.PacketLogger;
 import org.interledger.connector.packetswitch.InterledgerAddressUtils;
 import org.interledger.connector.routing.PaymentRouter;
 import org.interledger.connector.routing.Route;
@@ -22,6 +24,7 @@ import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -38,6 +41,7 @@ public class DefaultNextHopPacketMapper implements NextHopPacketMapper {
 
   private static final String DESTINATION_ADDRESS_IS_UNREACHABLE = "Destination address is unreachable";
   private final Logger logger = LoggerFactory.getLogger(this.getClass());
+  private final PacketLogger packetLogger = new PacketLogger(logger);
 
   private final Supplier<ConnectorSettings> connectorSettingsSupplier;
   private final PaymentRouter<Route> externalRoutingService;
@@ -102,7 +106,11 @@ public class DefaultNextHopPacketMapper implements NextHopPacketMapper {
 
     final InterledgerAddress destinationAddress = sourcePacket.getDestination();
 
-    final Route nextHopRoute = this.externalRoutingService.findBestNexHop(destinationAddress)
+    final ConnectorEvents.RouteLookup routeLookupEvent = ConnectorEvents.beginRouteLookup();
+    final Optional<Route> bestRoute = this.externalRoutingService.findBestNexHop(destinationAddress);
+    routeLookupEvent.record(sourceAccountSettings.accountId(), destinationAddress, bestRoute);
+
+    final Route nextHopRoute = bestRoute
       .orElseThrow(() -> new InterledgerProtocolException(
           InterledgerRejectPacket.builder()
             .triggeredBy(connectorSettingsSupplier.get().operatorAddress())
@@ -137,9 +145,11 @@ public class DefaultNextHopPacketMapper implements NextHopPacketMapper {
     final AccountSettings destinationAccountSettings =
       this.accountSettingsLoadingCache.safeGetAccountId(nextHopRoute.nextHopAccountId());
 
+    final ConnectorEvents.FxConversion fxConversionEvent = ConnectorEvents.beginFxConversion();
     final UnsignedLong nextAmount = this.determineNextAmount(
       sourceAccountSettings, destinationAccountSettings, sourcePacket
     );
+    fxConversionEvent.record(sourceAccountSettings, destinationAccountSettings, sourcePacket, nextAmount);
 
     // This warning is added to alert the Connector operator if a particular path is accruing value on the inbound
     // link but mapping to 0 on the outbound link. This typically occurs if the precision on the inbound link is
@@ -150,9 +160,9 @@ public class DefaultNextHopPacketMapper implements NextHopPacketMapper {
     // will show up in the outbound Link. Generally, this will result in a rejection from the outbound link, but
     // just in case we want the Connector operator to be able to detect this condition.
     if (!sourcePacket.getAmount().equals(UnsignedLong.ZERO) && UnsignedLong.ZERO.equals(nextAmount)) {
-      logger.warn(
-        "While packet-switching, a non-zero source packet amount translated into a zero-value destination amount. "
-          + "sourcePacket={} nextHopRoute={}", sourcePacket, nextHopRoute);
+      packetLogger.warn(
+        "zeroValueNextHop", sourceAccountSettings.accountId(), nextHopRoute.nextHopAccountId(), sourcePacket
+      );
     }
 
     return NextHopInfo.builder()
@@ -0,0 +1,315 @@
+package org.interledger.connector.links;
+
+import org.interledger.connector.settings.IlpOverHttpConnectionSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerProtocolException;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.encoding.asn.framework.CodecContext;
+import org.interledger.link.Link;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.http.IlpOverHttpLinkFactory;
+import org.interledger.link.http.IlpOverHttpLinkSettings;
+import org.interledger.link.http.OutgoingLinkSettings;
+import org.interledger.link.http.auth.Decryptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import okhttp3.ConnectionPool;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * An {@link IlpOverHttpLinkFactory} that lets each peer's link use HTTP/2 the way that peer supports it.
+ *
+ * <p>By default, links share a single {@link OkHttpClient}, which negotiates HTTP/2 with TLS peers via ALPN and
+ * multiplexes all packets to a peer over one connection. A peer with an {@code http} URL can additionally be spoken to
+ * using cleartext HTTP/2 with prior knowledge (h2c), and the number of concurrent streams to a peer can be limited.
+ * Both are configured via connection defaults, and can be overridden per peer using the custom settings
+ * {@value #HTTP2_PRIOR_KNOWLEDGE} and {@value #HTTP2_MAX_CONCURRENT_STREAMS}.</p>
+ *
+ * <p>Peers that need a differently configured client get one derived from the shared client, so that all peers still
+ * share its connection pool and dispatcher, unless a peer sets {@value #DEDICATED_CONNECTION_POOL} to isolate its
+ * connections from those of every other peer. Since links are constructed frequently, the derived client for a peer
+ * endpoint is cached so that its connections and stream limit are shared by every link to that endpoint. Clients that
+ * are no longer used (e.g., because a peer's URL or settings changed) are eventually evicted, at which point a
+ * dedicated connection pool is closed.</p>
+ *
+ * <p>These settings are checked by {@link #validateSettings(Map)} when an account is saved.</p>
+ */
+public class Http2IlpOverHttpLinkFactory extends IlpOverHttpLinkFactory {
+
+  public static final String HTTP2_PRIOR_KNOWLEDGE = "ilpOverHttp.outgoing.http2.priorKnowledge";
+  public static final String HTTP2_MAX_CONCURRENT_STREAMS = "ilpOverHttp.outgoing.http2.maxConcurrentStreams";
+  public static final String DEDICATED_CONNECTION_POOL = "ilpOverHttp.outgoing.dedicatedConnectionPool";
+
+  private static final String HTTP = "http";
+
+  // Bounds the number of derived clients, in case peers' URLs or settings change often.
+  private static final int PEER_CLIENTS_MAXIMUM_SIZE = 10_000;
+  private static final long PEER_CLIENTS_IDLE_TIMEOUT_MINUTES = 60;
+
+  private final OkHttpClient okHttpClient;
+  private final Decryptor decryptor;
+  private final ObjectMapper objectMapper;
+  private final CodecContext ilpCodecContext;
+  private final IlpOverHttpConnectionSettings connectionSettings;
+
+  private final Cache<PeerEndpoint, OkHttpClient> peerClients = Caffeine.newBuilder()
+    .expireAfterAccess(PEER_CLIENTS_IDLE_TIMEOUT_MINUTES, TimeUnit.MINUTES)
+    .maximumSize(PEER_CLIENTS_MAXIMUM_SIZE)
+    .removalListener(Http2IlpOverHttpLinkFactory::closeDedicatedConnectionPool)
+    .build();
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param okHttpClient       The {@link OkHttpClient} shared by all links.
+   * @param decryptor          A {@link Decryptor} for link secrets.
+   * @param objectMapper       An {@link ObjectMapper}.
+   * @param ilpCodecContext    A {@link CodecContext} for ILP packets.
+   * @param connectionSettings The {@link IlpOverHttpConnectionSettings} that peers use unless overridden.
+   */
+  public Http2IlpOverHttpLinkFactory(
+    final OkHttpClient okHttpClient,
+    final Decryptor decryptor,
+    final ObjectMapper objectMapper,
+    final CodecContext ilpCodecContext,
+    final IlpOverHttpConnectionSettings connectionSettings
+  ) {
+    super(okHttpClient, decryptor, objectMapper, ilpCodecContext);
+    this.okHttpClient = Objects.requireNonNull(okHttpClient);
+    this.decryptor = Objects.requireNonNull(decryptor);
+    this.objectMapper = Objects.requireNonNull(objectMapper);
+    this.ilpCodecContext = Objects.requireNonNull(ilpCodecContext);
+    this.connectionSettings = Objects.requireNonNull(connectionSettings);
+  }
+
+  @Override
+  public Link<?> constructLink(
+    final Supplier<InterledgerAddress> operatorAddressSupplier, final LinkSettings linkSettings
+  ) {
+    Objects.requireNonNull(operatorAddressSupplier);
+    Objects.requireNonNull(linkSettings);
+
+    final Optional<PeerEndpoint> peerEndpoint = this.peerEndpoint(linkSettings);
+    if (!peerEndpoint.isPresent()) {
+      return super.constructLink(operatorAddressSupplier, linkSettings);
+    }
+    final OkHttpClient peerClient = peerClients.get(
+      peerEndpoint.get(), endpoint -> peerClient(endpoint, operatorAddressSupplier)
+    );
+    return new IlpOverHttpLinkFactory(peerClient, decryptor, objectMapper, ilpCodecContext)
+      .constructLink(operatorAddressSupplier, linkSettings);
+  }
+
+  /**
+   * Validate the HTTP/2 settings in an account's custom settings, if it has any.
+   *
+   * @param customSettings The custom settings of an account.
+   *
+   * @throws IllegalArgumentException if any of these settings has an invalid value.
+   */
+  public static void validateSettings(final Map<String, Object> customSettings) {
+    Objects.requireNonNull(customSettings);
+    parseFlag(customSettings, HTTP2_PRIOR_KNOWLEDGE);
+    parseMaxConcurrentStreams(customSettings);
+    parseFlag(customSettings, DEDICATED_CONNECTION_POOL);
+  }
+
+  /**
+   * Determine the endpoint and HTTP/2 settings of the peer that {@code linkSettings} sends to, but only if that peer
+   * can't simply use the shared client.
+   */
+  @VisibleForTesting
+  Optional<PeerEndpoint> peerEndpoint(final LinkSettings linkSettings) {
+    if (!(linkSettings instanceof IlpOverHttpLinkSettings)) {
+      return Optional.empty();
+    }
+
+    final Map<String, Object> customSettings = linkSettings.getCustomSettings();
+    return ((IlpOverHttpLinkSettings) linkSettings).outgoingLinkSettings()
+      .map(OutgoingLinkSettings::url)
+      .map(url -> new PeerEndpoint(
+        url,
+        HTTP.equals(url.scheme())
+          && parseFlag(customSettings, HTTP2_PRIOR_KNOWLEDGE).orElse(connectionSettings.isHttp2PriorKnowledge()),
+        parseMaxConcurrentStreams(customSettings).orElse(connectionSettings.maxConcurrentStreamsPerPeer()),
+        parseFlag(customSettings, DEDICATED_CONNECTION_POOL).orElse(false)
+      ))
+      .filter(peerEndpoint ->
+        peerEndpoint.priorKnowledge || peerEndpoint.maxConcurrentStreams > 0 || peerEndpoint.dedicatedConnectionPool
+      );
+  }
+
+  @VisibleForTesting
+  OkHttpClient peerClient(
+    final PeerEndpoint peerEndpoint, final Supplier<InterledgerAddress> operatorAddressSupplier
+  ) {
+    final OkHttpClient.Builder builder = okHttpClient.newBuilder();
+    if (peerEndpoint.priorKnowledge) {
+      builder.protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+    }
+    if (peerEndpoint.maxConcurrentStreams > 0) {
+      builder.addInterceptor(new ConcurrentStreamLimiter(
+        peerEndpoint.maxConcurrentStreams, operatorAddressSupplier
+      ));
+    }
+    if (peerEndpoint.dedicatedConnectionPool) {
+      builder.connectionPool(new ConnectionPool(
+        connectionSettings.maxIdleConnections(), connectionSettings.keepAliveSeconds(), TimeUnit.SECONDS
+      ));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Close the idle connections of a client that was evicted from the cache, if it has a connection pool of its own.
+   * Connections that links built with the client are still using are closed by the pool once they have been idle for
+   * its keep-alive duration. Clients that share the connection pool of the shared client must leave it alone.
+   */
+  @VisibleForTesting
+  static void closeDedicatedConnectionPool(
+    final PeerEndpoint peerEndpoint, final OkHttpClient peerClient, final RemovalCause removalCause
+  ) {
+    if (peerEndpoint != null && peerEndpoint.dedicatedConnectionPool && peerClient != null) {
+      peerClient.connectionPool().evictAll();
+    }
+  }
+
+  private static Optional<Boolean> parseFlag(final Map<String, Object> customSettings, final String key) {
+    return Optional.ofNullable(customSettings.get(key))
+      .map(value -> {
+        final String flag = value.toString();
+        Preconditions.checkArgument(
+          "true".equalsIgnoreCase(flag) || "false".equalsIgnoreCase(flag),
+          "%s must be true or false but was `%s`", key, value
+        );
+        return Boolean.parseBoolean(flag);
+      });
+  }
+
+  private static Optional<Integer> parseMaxConcurrentStreams(final Map<String, Object> customSettings) {
+    return Optional.ofNullable(customSettings.get(HTTP2_MAX_CONCURRENT_STREAMS))
+      .map(value -> {
+        final int maxConcurrentStreams;
+        try {
+          maxConcurrentStreams = Integer.parseInt(value.toString());
+        } catch (NumberFormatException e) {
+          throw new IllegalArgumentException(
+            String.format("%s must be an integer but was `%s`", HTTP2_MAX_CONCURRENT_STREAMS, value)
+          );
+        }
+        Preconditions.checkArgument(maxConcurrentStreams >= 0,
+          "%s must be at least 0 but was %s", HTTP2_MAX_CONCURRENT_STREAMS, maxConcurrentStreams
+        );
+        return maxConcurrentStreams;
+      });
+  }
+
+  /**
+   * Identifies a peer's HTTP endpoint together with the connection settings used to talk to it.
+   */
+  @VisibleForTesting
+  static final class PeerEndpoint {
+
+    private final String scheme;
+    private final String host;
+    private final int port;
+    private final boolean priorKnowledge;
+    private final int maxConcurrentStreams;
+    private final boolean dedicatedConnectionPool;
+
+    PeerEndpoint(
+      final HttpUrl url,
+      final boolean priorKnowledge,
+      final int maxConcurrentStreams,
+      final boolean dedicatedConnectionPool
+    ) {
+      this.scheme = url.scheme();
+      this.host = url.host();
+      this.port = url.port();
+      this.priorKnowledge = priorKnowledge;
+      this.maxConcurrentStreams = maxConcurrentStreams;
+      this.dedicatedConnectionPool = dedicatedConnectionPool;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final PeerEndpoint that = (PeerEndpoint) o;
+      return port == that.port
+        && priorKnowledge == that.priorKnowledge
+        && maxConcurrentStreams == that.maxConcurrentStreams
+        && dedicatedConnectionPool == that.dedicatedConnectionPool
+        && scheme.equals(that.scheme)
+        && host.equals(that.host);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(scheme, host, port, priorKnowledge, maxConcurrentStreams, dedicatedConnectionPool);
+    }
+  }
+
+  /**
+   * An {@link Interceptor} that limits the number of requests in flight to a peer. A request that finds every stream
+   * in use is rejected with {@link InterledgerErrorCode#T03_CONNECTOR_BUSY} straight away, rather than parking the
+   * sending thread until a stream frees up. A stream is considered free again once the response has been received,
+   * which for ILP-over-HTTP is right before its small body is read.
+   */
+  @VisibleForTesting
+  static final class ConcurrentStreamLimiter implements Interceptor {
+
+    private final Semaphore streams;
+    private final Supplier<InterledgerAddress> operatorAddressSupplier;
+
+    ConcurrentStreamLimiter(
+      final int maxConcurrentStreams, final Supplier<InterledgerAddress> operatorAddressSupplier
+    ) {
+      this.streams = new Semaphore(maxConcurrentStreams);
+      this.operatorAddressSupplier = Objects.requireNonNull(operatorAddressSupplier);
+    }
+
+    @Override
+    public Response intercept(final Chain chain) throws IOException {
+      if (!streams.tryAcquire()) {
+        throw new InterledgerProtocolException(
+          InterledgerRejectPacket.builder()
+            .triggeredBy(operatorAddressSupplier.get())
+            .code(InterledgerErrorCode.T03_CONNECTOR_BUSY)
+            .message("No HTTP/2 stream to the peer is available")
+            .build(),
+          String.format("Every HTTP/2 stream is in use. url=%s", chain.request().url())
+        );
+      }
+
+      try {
+        return chain.proceed(chain.request());
+      } finally {
+        streams.release();
+      }
+    }
+  }
+}
@@ -0,0 +1,53 @@
+package org.interledger.connector.links;
+
+import org.interledger.link.Link;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * <p>Carries the expiry of the ILP Prepare packet that is being sent on a {@link Link} to code that runs on the same
+ * thread during the send, such as an HTTP client interceptor, without that code having to decode the packet
+ * again.</p>
+ *
+ * <p>Links construct their own requests, so there is no other way to attach the expiry to them.</p>
+ */
+public final class OutgoingPacketExpiry {
+
+  private static final ThreadLocal<Instant> EXPIRES_AT = new ThreadLocal<>();
+
+  private OutgoingPacketExpiry() {
+  }
+
+  /**
+   * Run {@code send} with {@code expiresAt} as the current packet expiry.
+   *
+   * @param expiresAt The {@link Instant} that the packet being sent expires at.
+   * @param send      A {@link Supplier} that sends the packet.
+   * @param <T>       The type of the result of {@code send}.
+   *
+   * @return The result of {@code send}.
+   */
+  public static <T> T sendBefore(final Instant expiresAt, final Supplier<T> send) {
+    Objects.requireNonNull(expiresAt);
+    Objects.requireNonNull(send);
+
+    EXPIRES_AT.set(expiresAt);
+    try {
+      return send.get();
+    } finally {
+      EXPIRES_AT.remove();
+    }
+  }
+
+  /**
+   * The expiry of the packet being sent by the current thread.
+   *
+   * @return An optionally-present {@link Instant}; empty if this thread isn't sending a packet.
+   */
+  public static Optional<Instant> current() {
+    return Optional.ofNullable(EXPIRES_AT.get());
+  }
+}
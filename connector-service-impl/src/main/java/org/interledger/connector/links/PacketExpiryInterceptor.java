@@ -0,0 +1,106 @@
+package org.interledger.connector.links;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.AsyncTimeout;
+import okio.ForwardingSource;
+import okio.Okio;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>An OkHttp {@link Interceptor} that bounds every outgoing ILP-over-HTTP call by the expiry of the ILP Prepare
+ * packet that it carries, rather than only by the client's static timeouts.</p>
+ *
+ * <p>The expiry is read from {@link OutgoingPacketExpiry}. The call is cancelled once the packet expires, whether it
+ * is still connecting, sending, or waiting for (or reading) the response, so a peer that stalls is abandoned once its
+ * response would be worthless instead of holding a thread and a connection until the client's timeouts elapse. A call
+ * whose packet expires fails with an {@link InterruptedIOException}, like any other call that times out.</p>
+ *
+ * <p>This is the same mechanism as {@link Call#timeout()}, which can't be used here because OkHttp starts that
+ * timeout before any interceptor runs.</p>
+ *
+ * <p>Calls made outside of {@link OutgoingPacketExpiry#sendBefore} are passed along unchanged.</p>
+ */
+public class PacketExpiryInterceptor implements Interceptor {
+
+  private final Clock clock;
+
+  public PacketExpiryInterceptor() {
+    this(Clock.systemUTC());
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param clock A {@link Clock} to compare packet expiries against.
+   */
+  public PacketExpiryInterceptor(final Clock clock) {
+    this.clock = Objects.requireNonNull(clock);
+  }
+
+  @Override
+  public Response intercept(final Chain chain) throws IOException {
+    final Optional<Instant> expiresAt = OutgoingPacketExpiry.current();
+    if (!expiresAt.isPresent()) {
+      return chain.proceed(chain.request());
+    }
+
+    final long remainingNanos = Duration.between(clock.instant(), expiresAt.get()).toNanos();
+    if (remainingNanos <= 0) {
+      throw new InterruptedIOException("Packet expired before it could be sent to the peer");
+    }
+
+    final Call call = chain.call();
+    final AsyncTimeout deadline = new AsyncTimeout() {
+      @Override
+      protected void timedOut() {
+        call.cancel();
+      }
+    };
+    deadline.timeout(remainingNanos, TimeUnit.NANOSECONDS);
+    deadline.enter();
+
+    final Response response;
+    try {
+      response = chain.proceed(chain.request());
+    } catch (IOException e) {
+      throw deadline.exit() ? expired(e) : e;
+    }
+
+    final ResponseBody body = response.body();
+    if (body == null) {
+      deadline.exit();
+      return response;
+    }
+    // Keep the deadline until the response body has been read and closed.
+    final ForwardingSource source = new ForwardingSource(body.source()) {
+      @Override
+      public void close() throws IOException {
+        try {
+          super.close();
+        } finally {
+          deadline.exit();
+        }
+      }
+    };
+    return response.newBuilder()
+      .body(ResponseBody.create(Okio.buffer(source), body.contentType(), body.contentLength()))
+      .build();
+  }
+
+  private static InterruptedIOException expired(final IOException cause) {
+    final InterruptedIOException expired = new InterruptedIOException("Packet expired before the peer responded");
+    expired.initCause(cause);
+    return expired;
+  }
+}
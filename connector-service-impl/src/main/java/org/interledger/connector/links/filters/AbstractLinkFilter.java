@@ -1,6 +1,7 @@
 package org.interledger.connector.links.filters;
 
 import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.logging.PacketLogger;
 import org.interledger.connector.packetswitch.filters.PacketSwitchFilter;
 import org.interledger.core.InterledgerAddress;
 import org.interledger.core.InterledgerErrorCode;
@@ -20,6 +21,7 @@ import java.util.function.Supplier;
 public abstract class AbstractLinkFilter implements LinkFilter {
 
   protected final Logger logger = LoggerFactory.getLogger(this.getClass());
+  protected final PacketLogger packetLogger = new PacketLogger(logger);
 
   protected final Supplier<InterledgerAddress> operatorAddressSupplier;
 
@@ -58,7 +60,7 @@ public abstract class AbstractLinkFilter implements LinkFilter {
         .message(errorMessage)
         .build();
 
-    logger.warn("Rejecting from `{}`: {} {}", accountId, preparePacket, rejectPacket);
+    packetLogger.reject("reject", accountId, preparePacket, rejectPacket);
     return rejectPacket;
   }
 }
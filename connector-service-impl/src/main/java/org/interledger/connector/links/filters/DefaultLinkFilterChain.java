@@ -2,16 +2,25 @@ package org.interledger.connector.links.filters;
 
 import static org.interledger.core.InterledgerErrorCode.R02_INSUFFICIENT_TIMEOUT;
 
+import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.jfr.ConnectorEvents;
+import org.interledger.connector.links.OutgoingPacketExpiry;
+import org.interledger.connector.logging.PacketLogger;
+import org.interledger.connector.metrics.PacketStageTimer;
+import org.interledger.connector.packetswitch.trace.PacketTraceRecorder;
+import org.interledger.connector.routing.LinkQualityTracker;
 import org.interledger.core.InterledgerErrorCode;
 import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.core.InterledgerProtocolException;
+import org.interledger.core.InterledgerRejectPacket;
 import org.interledger.core.InterledgerResponsePacket;
 import org.interledger.core.InterledgerRuntimeException;
 import org.interledger.link.Link;
 import org.interledger.link.LinkId;
 import org.interledger.link.PacketRejector;
 
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,6 +28,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
@@ -33,13 +43,22 @@ import java.util.concurrent.TimeoutException;
 public class DefaultLinkFilterChain implements LinkFilterChain {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultLinkFilterChain.class);
+  // A chain is constructed for every packet, so share one packet logger (and its rate limits) between them all.
+  private static final PacketLogger PACKET_LOGGER = new PacketLogger(LOGGER);
   private static final Executor EXECUTOR = Executors.newCachedThreadPool();
 
   private final PacketRejector packetRejector;
   private final List<LinkFilter> linkFilters;
   private final Link link;
+  private final Optional<PacketStageTimer> packetStageTimer;
+  private final Optional<PacketTraceRecorder> packetTrace;
+  private final Optional<LinkQualityTracker> linkQualityTracker;
+  // Whether this packet's stages are timed, either for metrics or for its trace...
+  private final boolean timed;
   // The index of the filter to call next...
   private int _filterIndex;
+  // The time spent in the filters and stages after the filter currently being called (only tracked when timed)...
+  private long _downstreamNanos;
 
   /**
    * A chain of filters that are applied to a packet request before sending the packet onto an outbound {@link Link}.
@@ -53,10 +72,80 @@ public class DefaultLinkFilterChain implements LinkFilterChain {
     final PacketRejector packetRejector,
     final List<LinkFilter> linkFilters,
     final Link outboundLink
+  ) {
+    this(packetRejector, linkFilters, outboundLink, Optional.empty());
+  }
+
+  /**
+   * A chain of filters that are applied to a packet request before sending the packet onto an outbound {@link Link}.
+   *
+   * @param packetRejector   A {@link PacketRejector} used to reject packets.
+   * @param linkFilters      A {@link List} of Link filters that should be applied to this filter chain.
+   * @param outboundLink     The {@link Link} that a Packet Switch will forward a packet onto (this link is the
+   *                         `next-hop`
+   * @param packetStageTimer An optional {@link PacketStageTimer} that, if present, times each filter and the send of
+   *                         the packet on {@code outboundLink}.
+   */
+  public DefaultLinkFilterChain(
+    final PacketRejector packetRejector,
+    final List<LinkFilter> linkFilters,
+    final Link outboundLink,
+    final Optional<PacketStageTimer> packetStageTimer
+  ) {
+    this(packetRejector, linkFilters, outboundLink, packetStageTimer, Optional.empty());
+  }
+
+  /**
+   * A chain of filters that are applied to a packet request before sending the packet onto an outbound {@link Link}.
+   *
+   * @param packetRejector   A {@link PacketRejector} used to reject packets.
+   * @param linkFilters      A {@link List} of Link filters that should be applied to this filter chain.
+   * @param outboundLink     The {@link Link} that a Packet Switch will forward a packet onto (this link is the
+   *                         `next-hop`
+   * @param packetStageTimer An optional {@link PacketStageTimer} that, if present, times each filter and the send of
+   *                         the packet on {@code outboundLink}.
+   * @param packetTrace      An optional {@link PacketTraceRecorder} that, if present, records the same timings into
+   *                         this packet's trace.
+   */
+  public DefaultLinkFilterChain(
+    final PacketRejector packetRejector,
+    final List<LinkFilter> linkFilters,
+    final Link outboundLink,
+    final Optional<PacketStageTimer> packetStageTimer,
+    final Optional<PacketTraceRecorder> packetTrace
+  ) {
+    this(packetRejector, linkFilters, outboundLink, packetStageTimer, packetTrace, Optional.empty());
+  }
+
+  /**
+   * A chain of filters that are applied to a packet request before sending the packet onto an outbound {@link Link}.
+   *
+   * @param packetRejector     A {@link PacketRejector} used to reject packets.
+   * @param linkFilters        A {@link List} of Link filters that should be applied to this filter chain.
+   * @param outboundLink       The {@link Link} that a Packet Switch will forward a packet onto (this link is the
+   *                           `next-hop`
+   * @param packetStageTimer   An optional {@link PacketStageTimer} that, if present, times each filter and the send of
+   *                           the packet on {@code outboundLink}.
+   * @param packetTrace        An optional {@link PacketTraceRecorder} that, if present, records the same timings into
+   *                           this packet's trace.
+   * @param linkQualityTracker An optional {@link LinkQualityTracker} that, if present, records the outcome and
+   *                           round-trip time of the send of the packet on {@code outboundLink}.
+   */
+  public DefaultLinkFilterChain(
+    final PacketRejector packetRejector,
+    final List<LinkFilter> linkFilters,
+    final Link outboundLink,
+    final Optional<PacketStageTimer> packetStageTimer,
+    final Optional<PacketTraceRecorder> packetTrace,
+    final Optional<LinkQualityTracker> linkQualityTracker
   ) {
     this.packetRejector = Objects.requireNonNull(packetRejector);
     this.linkFilters = Objects.requireNonNull(linkFilters);
     this.link = Objects.requireNonNull(outboundLink);
+    this.packetStageTimer = Objects.requireNonNull(packetStageTimer);
+    this.packetTrace = Objects.requireNonNull(packetTrace);
+    this.linkQualityTracker = Objects.requireNonNull(linkQualityTracker);
+    this.timed = packetStageTimer.isPresent() || packetTrace.isPresent();
   }
 
   @Override
@@ -69,9 +158,34 @@ public class DefaultLinkFilterChain implements LinkFilterChain {
 
     try {
       if (this._filterIndex < this.linkFilters.size()) {
-        return linkFilters.get(_filterIndex++).doFilter(destinationAccountSettings, preparePacket, this);
+        final LinkFilter linkFilter = linkFilters.get(_filterIndex++);
+        final ConnectorEvents.PacketFilter event = ConnectorEvents.beginPacketFilter();
+        InterledgerResponsePacket responsePacket = null;
+        if (!timed) {
+          try {
+            responsePacket = linkFilter.doFilter(destinationAccountSettings, preparePacket, this);
+            return responsePacket;
+          } finally {
+            event.record(linkFilter, destinationAccountSettings.accountId(), responsePacket);
+          }
+        }
+
+        final long startNanos = System.nanoTime();
+        this._downstreamNanos = 0;
+        try {
+          responsePacket = linkFilter.doFilter(destinationAccountSettings, preparePacket, this);
+          return responsePacket;
+        } finally {
+          // Any later filters (and the send) will have recorded their own time into `_downstreamNanos`.
+          final long elapsedNanos = System.nanoTime() - startNanos;
+          recordStage(PacketStageTimer.filterStageName(linkFilter), elapsedNanos - _downstreamNanos);
+          this._downstreamNanos = elapsedNanos;
+          event.record(linkFilter, destinationAccountSettings.accountId(), responsePacket);
+        }
       } else {
 
+        final AccountId accountId = destinationAccountSettings.accountId();
+        final long startNanos = timed || linkQualityTracker.isPresent() ? System.nanoTime() : 0L;
         try {
           LOGGER.debug(
             "Sending outbound ILP Prepare. destinationAccountSettings: {}; link={}; packet={};",
@@ -93,10 +207,40 @@ public class DefaultLinkFilterChain implements LinkFilterChain {
             );
           }
 
-          return CompletableFuture.supplyAsync(() -> link.sendPacket(preparePacket), EXECUTOR)
-            .get(timeoutDuration.getSeconds(), TimeUnit.SECONDS);
+          final InterledgerResponsePacket responsePacket =
+            CompletableFuture.supplyAsync(
+              // Lets the link's HTTP client abandon the call once the packet expires (see PacketExpiryInterceptor).
+              () -> OutgoingPacketExpiry.sendBefore(preparePacket.getExpiresAt(), () -> link.sendPacket(preparePacket)),
+              EXECUTOR
+            ).get(timeoutDuration.getSeconds(), TimeUnit.SECONDS);
+          if (linkQualityTracker.isPresent()) {
+            final Duration roundTripTime = Duration.ofNanos(System.nanoTime() - startNanos);
+            responsePacket.handle(
+              fulfillPacket -> linkQualityTracker.get().recordFulfill(accountId, roundTripTime),
+              rejectPacket -> trackLinkQuality(accountId, rejectPacket)
+            );
+          }
+          return responsePacket;
 
-        } catch (InterruptedException | ExecutionException e) {
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof InterledgerProtocolException) {
+            // The link rejected the packet itself (e.g., because the peer is too busy), so pass the rejection on.
+            final InterledgerRejectPacket rejectPacket =
+              ((InterledgerProtocolException) e.getCause()).getInterledgerRejectPacket();
+            PACKET_LOGGER.reject("linkReject", accountId, preparePacket, rejectPacket);
+            trackLinkQuality(accountId, rejectPacket);
+            return rejectPacket;
+          }
+          if (!Instant.now().isBefore(preparePacket.getExpiresAt())) {
+            // The link gave up on the peer because the packet expired.
+            return transferTimedOut(accountId, preparePacket);
+          }
+          if (e.getCause() instanceof CallNotPermittedException) {
+            // The CircuitBreakingLink for this account is open, so the packet was never sent.
+            linkQualityTracker.ifPresent(tracker -> tracker.recordCircuitOpen(accountId));
+          } else {
+            linkQualityTracker.ifPresent(tracker -> tracker.recordFailure(accountId));
+          }
           LOGGER.error(e.getMessage(), e);
           return packetRejector.reject(
             LinkId.of(destinationAccountSettings.accountId().value()),
@@ -104,14 +248,16 @@ public class DefaultLinkFilterChain implements LinkFilterChain {
             InterledgerErrorCode.T00_INTERNAL_ERROR,
             String.format("Internal Error: %s", e.getCause() != null ? e.getCause().getMessage() : e.getMessage())
           );
-        } catch (TimeoutException e) {
+        } catch (InterruptedException e) {
           LOGGER.error(e.getMessage(), e);
           return packetRejector.reject(
             LinkId.of(destinationAccountSettings.accountId().value()),
             preparePacket,
-            InterledgerErrorCode.R00_TRANSFER_TIMED_OUT,
-            "Transfer Timed-out"
+            InterledgerErrorCode.T00_INTERNAL_ERROR,
+            String.format("Internal Error: %s", e.getCause() != null ? e.getCause().getMessage() : e.getMessage())
           );
+        } catch (TimeoutException e) {
+          return transferTimedOut(accountId, preparePacket);
         } catch (Exception e) {
           LOGGER.error(e.getMessage(), e);
           return packetRejector.reject(
@@ -120,15 +266,23 @@ public class DefaultLinkFilterChain implements LinkFilterChain {
             InterledgerErrorCode.T00_INTERNAL_ERROR,
             String.format("Internal Error: %s", e.getMessage())
           );
+        } finally {
+          if (timed) {
+            this._downstreamNanos = System.nanoTime() - startNanos;
+            recordStage(PacketStageTimer.LINK_SEND, _downstreamNanos);
+          }
         }
       }
     } catch (Exception e) {
       // If anything emits an uncaught exception, this is considered a failure case. These always translate into a
       // rejection.
-      LOGGER.error("Failure in LinkFilterChain: " + e.getMessage(), e);
       if (InterledgerRuntimeException.class.isAssignableFrom(e.getClass())) {
-        return ((InterledgerProtocolException) e).getInterledgerRejectPacket();
+        // Rejections thrown by a filter or link are expected (and can arrive in storms), so skip the stack trace.
+        final InterledgerRejectPacket rejectPacket = ((InterledgerProtocolException) e).getInterledgerRejectPacket();
+        PACKET_LOGGER.reject("linkReject", destinationAccountSettings.accountId(), preparePacket, rejectPacket);
+        return rejectPacket;
       } else {
+        LOGGER.error("Failure in LinkFilterChain: " + e.getMessage(), e);
         return packetRejector.reject(
           LinkId.of(destinationAccountSettings.accountId().value()),
           preparePacket,
@@ -138,4 +292,44 @@ public class DefaultLinkFilterChain implements LinkFilterChain {
       }
     }
   }
+
+  private InterledgerRejectPacket transferTimedOut(
+    final AccountId accountId, final InterledgerPreparePacket preparePacket
+  ) {
+    // A slow peer times out every packet sent to it, so skip the stack trace.
+    final InterledgerRejectPacket rejectPacket = packetRejector.reject(
+      LinkId.of(accountId.value()),
+      preparePacket,
+      InterledgerErrorCode.R00_TRANSFER_TIMED_OUT,
+      "Transfer Timed-out"
+    );
+    PACKET_LOGGER.reject("linkTimeout", accountId, preparePacket, rejectPacket);
+    linkQualityTracker.ifPresent(tracker -> tracker.recordFailure(accountId));
+    return rejectPacket;
+  }
+
+  /**
+   * Temporary and relative errors indicate that the path through a peer is currently unhealthy (e.g., unreachable,
+   * congested or too slow), whereas final errors are generally caused by the packet itself, so only the former count
+   * against the quality of the link.
+   */
+  private void trackLinkQuality(final AccountId accountId, final InterledgerRejectPacket rejectPacket) {
+    final InterledgerErrorCode.ErrorFamily errorFamily = rejectPacket.getCode().getErrorFamily();
+    if (errorFamily == InterledgerErrorCode.ErrorFamily.TEMPORARY
+      || errorFamily == InterledgerErrorCode.ErrorFamily.RELATIVE) {
+      linkQualityTracker.ifPresent(tracker -> tracker.recordFailure(accountId));
+    }
+  }
+
+  /**
+   * Record the time spent in {@code stage}, for metrics and/or this packet's trace.
+   */
+  private void recordStage(final String stage, final long elapsedNanos) {
+    if (packetStageTimer.isPresent()) {
+      packetStageTimer.get().record(stage, elapsedNanos);
+    }
+    if (packetTrace.isPresent()) {
+      packetTrace.get().recordStage(stage, elapsedNanos);
+    }
+  }
 }
@@ -15,8 +15,6 @@ import org.interledger.core.InterledgerResponsePacket;
 
 import com.google.common.eventbus.EventBus;
 import com.google.common.primitives.UnsignedLong;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.math.BigInteger;
 import java.util.Objects;
@@ -28,8 +26,6 @@ import java.util.function.Supplier;
  */
 public class OutgoingBalanceLinkFilter extends AbstractLinkFilter implements LinkFilter {
 
-  private final Logger logger = LoggerFactory.getLogger(this.getClass());
-
   private final BalanceTracker balanceTracker;
   private final SettlementService settlementService;
   private final EventBus eventBus;
@@ -87,11 +83,11 @@ public class OutgoingBalanceLinkFilter extends AbstractLinkFilter implements Lin
                 destinationAccountSettings, outgoingPreparePacket.getAmount().longValue()
             );
           } catch (Exception e) {
-            logger.error(String.format(
+            logger.error(
                 "RECONCILIATION REQUIRED: Unable to update balance in Redis after receiving a valid Fulfillment. " +
-                    "outgoingPreparePacket=%s fulfillmentPacket=%s. error==%s",
-                outgoingPreparePacket, interledgerFulfillPacket, e.getMessage()
-                ), e // position the exception properly for logging.
+                    "outgoingPreparePacket={} fulfillmentPacket={}. error=={}",
+                outgoingPreparePacket, interledgerFulfillPacket, e.getMessage(),
+                e // position the exception properly for logging.
             );
 
             // We received a fulfillment, but couldn't update the balance tracker for some reason. However, we want
@@ -107,14 +103,9 @@ public class OutgoingBalanceLinkFilter extends AbstractLinkFilter implements Lin
         //////////////////////
         // If Reject Packet...
         //////////////////////
-        (interledgerRejectPacket) -> logger.warn(
-            "Outgoing packet not applied due to ILP Reject. outgoingDestinationAccount={} amount={} newBalance={} "
-                + "outgoingPreparePacket={} rejectPacket={}",
-            destinationAccountSettings,
-            outgoingPreparePacket.getAmount(),
-            balanceTracker.balance(destinationAccountSettings.accountId()),
-            outgoingPreparePacket,
-            interledgerRejectPacket
+        // Rejects arrive in storms, so only log what's already at hand, and only now and then (see PacketLogger).
+        (interledgerRejectPacket) -> packetLogger.reject(
+            "outgoingReject", destinationAccountSettings.accountId(), outgoingPreparePacket, interledgerRejectPacket
         )
     );
 
@@ -193,10 +184,10 @@ public class OutgoingBalanceLinkFilter extends AbstractLinkFilter implements Lin
                 });
           });
     } catch (Exception e) {
-      logger.error(String.format(
-          "While trying to initiate settlement engine payment: PreparePacket=%s; FulfillPacket=%s; Error=%s",
-          outgoingPreparePacket, interledgerFulfillPacket, e.getMessage()
-          ), e // position the exception properly for logging.
+      logger.error(
+          "While trying to initiate settlement engine payment: PreparePacket={}; FulfillPacket={}; Error={}",
+          outgoingPreparePacket, interledgerFulfillPacket, e.getMessage(),
+          e // position the exception properly for logging.
       );
     }
   }
@@ -0,0 +1,242 @@
+package org.interledger.connector.links.filters;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerResponsePacket;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * <p>An implementation of {@link LinkFilter} that isolates outgoing traffic per account, so that a single slow peer
+ * can only ever tie up a bounded number of this Connector's threads and connections, instead of starving every other
+ * peer.</p>
+ *
+ * <p>An account opts in by setting {@value #MAX_CONCURRENT_PACKETS} in its custom settings, which limits the number of
+ * packets that can be in-flight to that account at once. Optionally, {@value #MAX_QUEUED_PACKETS} allows that many
+ * additional packets to wait (until they expire, at the latest) for an in-flight packet to complete. Once both are
+ * exhausted, packets are immediately rejected with {@link InterledgerErrorCode#T03_CONNECTOR_BUSY}. Packets that
+ * expire while waiting are rejected with {@link InterledgerErrorCode#R00_TRANSFER_TIMED_OUT}.</p>
+ *
+ * <p>These settings are checked by {@link #validateSettings(Map)} when an account is saved, and only parsed again
+ * when they change.</p>
+ */
+public class OutgoingBulkheadLinkFilter extends AbstractLinkFilter implements LinkFilter {
+
+  public static final String MAX_CONCURRENT_PACKETS = "bulkhead.maxConcurrentPackets";
+  public static final String MAX_QUEUED_PACKETS = "bulkhead.maxQueuedPackets";
+
+  private final Clock clock;
+
+  // Account-based bulkheads, for accounts that have one configured.
+  private final Map<AccountId, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+  public OutgoingBulkheadLinkFilter(final Supplier<InterledgerAddress> operatorAddressSupplier) {
+    this(operatorAddressSupplier, Clock.systemUTC());
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param operatorAddressSupplier A {@link Supplier} of this Connector's operator {@link InterledgerAddress}.
+   * @param clock                   A {@link Clock} used to determine how long a packet may wait in the queue.
+   */
+  public OutgoingBulkheadLinkFilter(final Supplier<InterledgerAddress> operatorAddressSupplier, final Clock clock) {
+    super(operatorAddressSupplier);
+    this.clock = Objects.requireNonNull(clock);
+  }
+
+  @Override
+  public InterledgerResponsePacket doFilter(
+    final AccountSettings destinationAccountSettings,
+    final InterledgerPreparePacket destPreparePacket,
+    final LinkFilterChain filterChain
+  ) {
+    Objects.requireNonNull(destinationAccountSettings);
+    Objects.requireNonNull(destPreparePacket);
+    Objects.requireNonNull(filterChain);
+
+    final Optional<Bulkhead> bulkhead = this.bulkheadFor(destinationAccountSettings);
+    if (!bulkhead.isPresent()) {
+      return filterChain.doFilter(destinationAccountSettings, destPreparePacket);
+    }
+
+    final Duration maxWait = Duration.between(clock.instant(), destPreparePacket.getExpiresAt());
+    switch (bulkhead.get().tryEnter(maxWait)) {
+      case ENTERED:
+        break;
+      case EXPIRED:
+        return reject(
+          destinationAccountSettings.accountId(), destPreparePacket, InterledgerErrorCode.R00_TRANSFER_TIMED_OUT,
+          "Packet expired while waiting for an in-flight packet to peer to complete"
+        );
+      default:
+        return reject(
+          destinationAccountSettings.accountId(), destPreparePacket, InterledgerErrorCode.T03_CONNECTOR_BUSY,
+          String.format(
+            "Too many packets in-flight to peer. maxConcurrentPackets=%s maxQueuedPackets=%s",
+            bulkhead.get().maxConcurrentPackets, bulkhead.get().maxQueuedPackets
+          )
+        );
+    }
+
+    try {
+      return filterChain.doFilter(destinationAccountSettings, destPreparePacket);
+    } finally {
+      bulkhead.get().exit();
+    }
+  }
+
+  /**
+   * Validate the bulkhead limits in an account's custom settings, if it has any.
+   *
+   * @param customSettings The custom settings of an account.
+   *
+   * @throws IllegalArgumentException if either limit is not a valid number of packets.
+   */
+  public static void validateSettings(final Map<String, Object> customSettings) {
+    Objects.requireNonNull(customSettings);
+    parseLimit(customSettings.get(MAX_CONCURRENT_PACKETS), MAX_CONCURRENT_PACKETS, 1);
+    parseLimit(customSettings.get(MAX_QUEUED_PACKETS), MAX_QUEUED_PACKETS, 0);
+  }
+
+  /**
+   * Find the bulkhead for an account, if it has one configured. If an account's limits change, the account gets a new
+   * bulkhead; packets that are in-flight at that time complete against the old one.
+   */
+  @VisibleForTesting
+  Optional<Bulkhead> bulkheadFor(final AccountSettings accountSettings) {
+    final Map<String, Object> customSettings = accountSettings.customSettings();
+    final Object maxConcurrentPackets = customSettings.get(MAX_CONCURRENT_PACKETS);
+    if (maxConcurrentPackets == null) {
+      // Only possible if an account's bulkhead was configured and then removed.
+      if (!bulkheads.isEmpty()) {
+        bulkheads.remove(accountSettings.accountId());
+      }
+      return Optional.empty();
+    }
+    final Object maxQueuedPackets = customSettings.get(MAX_QUEUED_PACKETS);
+
+    // Nearly every packet finds a bulkhead built from the same settings, so only compare them.
+    final Bulkhead existing = bulkheads.get(accountSettings.accountId());
+    if (existing != null && existing.isConfiguredBy(maxConcurrentPackets, maxQueuedPackets)) {
+      return Optional.of(existing);
+    }
+
+    return Optional.of(bulkheads.compute(accountSettings.accountId(), (accountId, current) ->
+      current != null && current.isConfiguredBy(maxConcurrentPackets, maxQueuedPackets)
+        ? current
+        : new Bulkhead(maxConcurrentPackets, maxQueuedPackets)
+    ));
+  }
+
+  /**
+   * Parse a limit from its custom setting.
+   *
+   * @return The limit, or {@code minimum} if it isn't set.
+   */
+  private static int parseLimit(final Object value, final String key, final int minimum) {
+    if (value == null) {
+      return minimum;
+    }
+    final int limit;
+    try {
+      limit = Integer.parseInt(value.toString());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(String.format("%s must be an integer but was `%s`", key, value));
+    }
+    Preconditions.checkArgument(limit >= minimum, "%s must be at least %s but was %s", key, minimum, limit);
+    return limit;
+  }
+
+  /**
+   * Limits the number of packets in-flight to a single account, with an optional bounded queue.
+   */
+  @VisibleForTesting
+  static final class Bulkhead {
+
+    // The custom settings this bulkhead was built from, to detect when they change without parsing them again.
+    private final Object maxConcurrentPacketsSetting;
+    private final Object maxQueuedPacketsSetting;
+
+    private final int maxConcurrentPackets;
+    private final int maxQueuedPackets;
+
+    private final Semaphore inFlight;
+    private final AtomicInteger queued = new AtomicInteger();
+
+    Bulkhead(final Object maxConcurrentPacketsSetting, final Object maxQueuedPacketsSetting) {
+      this.maxConcurrentPacketsSetting = Objects.requireNonNull(maxConcurrentPacketsSetting);
+      this.maxQueuedPacketsSetting = maxQueuedPacketsSetting;
+      this.maxConcurrentPackets = parseLimit(maxConcurrentPacketsSetting, MAX_CONCURRENT_PACKETS, 1);
+      this.maxQueuedPackets = parseLimit(maxQueuedPacketsSetting, MAX_QUEUED_PACKETS, 0);
+      this.inFlight = new Semaphore(maxConcurrentPackets);
+    }
+
+    boolean isConfiguredBy(final Object maxConcurrentPacketsSetting, final Object maxQueuedPacketsSetting) {
+      return this.maxConcurrentPacketsSetting.equals(maxConcurrentPacketsSetting)
+        && Objects.equals(this.maxQueuedPacketsSetting, maxQueuedPacketsSetting);
+    }
+
+    /**
+     * Try to enter this bulkhead, waiting at most {@code maxWait} if there is room in the queue.
+     *
+     * @return {@link Entry#ENTERED} if the caller entered, and so must call {@link #exit()}; otherwise, why it didn't.
+     */
+    Entry tryEnter(final Duration maxWait) {
+      if (inFlight.tryAcquire()) {
+        return Entry.ENTERED;
+      }
+      if (maxWait.isNegative() || maxWait.isZero()) {
+        return Entry.EXPIRED;
+      }
+      if (queued.incrementAndGet() > maxQueuedPackets) {
+        queued.decrementAndGet();
+        return Entry.FULL;
+      }
+      try {
+        return inFlight.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS) ? Entry.ENTERED : Entry.EXPIRED;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return Entry.FULL;
+      } finally {
+        queued.decrementAndGet();
+      }
+    }
+
+    void exit() {
+      inFlight.release();
+    }
+
+    @VisibleForTesting
+    int availablePermits() {
+      return inFlight.availablePermits();
+    }
+  }
+
+  /**
+   * The outcome of trying to enter a {@link Bulkhead}.
+   */
+  @VisibleForTesting
+  enum Entry {
+    ENTERED,
+    // Too many packets were in-flight and queued.
+    FULL,
+    // The packet expired before an in-flight packet completed.
+    EXPIRED
+  }
+}
@@ -0,0 +1,75 @@
+package org.interledger.connector.logging;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Limits how often log lines about the same key (e.g., an account) are emitted, and counts the lines that were not.
+ *
+ * <p>Keys are spread over a fixed number of slots by hash, so the limiter never grows no matter how many keys it sees,
+ * and never allocates. Two keys sharing a slot are limited together, which is acceptable for logging.</p>
+ */
+class LogRateLimiter {
+
+  /**
+   * Returned by {@link #tryAcquire(Object)} when a line must not be emitted.
+   */
+  static final long SUPPRESSED = -1;
+
+  private final long intervalNanos;
+  private final int mask;
+  private final AtomicLongArray lastEmittedNanos;
+  private final AtomicLongArray suppressedCounts;
+
+  /**
+   * Required-args constructor.
+   *
+   * @param slots    The number of slots to spread keys over (rounded up to a power of 2).
+   * @param interval The minimum {@link Duration} between two lines emitted for the same key.
+   */
+  LogRateLimiter(final int slots, final Duration interval) {
+    if (slots < 1) {
+      throw new IllegalArgumentException("slots must be positive");
+    }
+    Objects.requireNonNull(interval);
+    if (interval.isNegative()) {
+      throw new IllegalArgumentException("interval must not be negative");
+    }
+    this.intervalNanos = interval.toNanos();
+    final int size = slots == 1 ? 1 : Integer.highestOneBit(slots - 1) << 1;
+    this.mask = size - 1;
+    this.lastEmittedNanos = new AtomicLongArray(size);
+    this.suppressedCounts = new AtomicLongArray(size);
+
+    // Let every slot emit straight away. System#nanoTime can be negative, so no fixed initial value would do.
+    final long neverEmittedNanos = System.nanoTime() - intervalNanos;
+    for (int i = 0; i < size; i++) {
+      lastEmittedNanos.set(i, neverEmittedNanos);
+    }
+  }
+
+  /**
+   * Decide whether a line about {@code key} may be emitted now.
+   *
+   * @param key The key the line is about.
+   *
+   * @return The number of lines about {@code key} (or keys sharing its slot) that were suppressed since the last one
+   *   that was emitted, or {@link #SUPPRESSED} if this line must not be emitted.
+   */
+  long tryAcquire(final Object key) {
+    return tryAcquire(key, System.nanoTime());
+  }
+
+  long tryAcquire(final Object key, final long nowNanos) {
+    final int hash = key.hashCode();
+    final int slot = (hash ^ (hash >>> 16)) & mask;
+
+    final long lastNanos = lastEmittedNanos.get(slot);
+    if (nowNanos - lastNanos >= intervalNanos && lastEmittedNanos.compareAndSet(slot, lastNanos, nowNanos)) {
+      return suppressedCounts.getAndSet(slot, 0);
+    }
+    suppressedCounts.incrementAndGet(slot);
+    return SUPPRESSED;
+  }
+}
@@ -0,0 +1,180 @@
+package org.interledger.connector.logging;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+
+import com.google.common.primitives.UnsignedLong;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Logs packet events (e.g., rejections) as a single line of {@code key=value} fields, cheaply enough to be used while
+ * switching packets.
+ *
+ * <p>Lines only contain values that the caller already holds (account identifiers, addresses, amounts and reject
+ * codes), never whole packets or account settings, and nothing that would have to be loaded in order to be logged.
+ * Each line is encoded into a pre-sized buffer owned by the logging thread, so the only allocation is the logged
+ * {@link String}, and only when the line is actually emitted.</p>
+ *
+ * <p>Logging every packet of a reject storm would make the storm slower still, so at most one line per account is
+ * emitted every {@code interval}. The lines dropped in between are counted, and the count is included (as {@code
+ * suppressed=N}) in the account's next line.</p>
+ */
+public class PacketLogger {
+
+  /**
+   * The default minimum time between two lines about the same account.
+   */
+  public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(1);
+
+  // Accounts are spread over this many rate-limiting slots.
+  private static final int SLOTS = 1024;
+  // Reject messages are free text chosen by whoever rejected the packet, so only log the start of them.
+  private static final int MAX_MESSAGE_LENGTH = 128;
+  private static final int BUFFER_SIZE = 512;
+
+  private static final ThreadLocal<StringBuilder> BUFFERS =
+    ThreadLocal.withInitial(() -> new StringBuilder(BUFFER_SIZE));
+
+  private final Logger logger;
+  private final LogRateLimiter rateLimiter;
+
+  /**
+   * Required-args constructor, emitting at most one line per account every {@link #DEFAULT_INTERVAL}.
+   *
+   * @param logger The {@link Logger} to emit lines with.
+   */
+  public PacketLogger(final Logger logger) {
+    this(logger, DEFAULT_INTERVAL);
+  }
+
+  /**
+   * Required-args constructor.
+   *
+   * @param logger   The {@link Logger} to emit lines with.
+   * @param interval The minimum {@link Duration} between two lines about the same account.
+   */
+  public PacketLogger(final Logger logger, final Duration interval) {
+    this.logger = Objects.requireNonNull(logger);
+    this.rateLimiter = new LogRateLimiter(SLOTS, interval);
+  }
+
+  /**
+   * Log, at WARN level, that a packet to or from {@code accountId} was rejected.
+   *
+   * @param event         A short name for what happened (e.g., {@code outgoingReject}).
+   * @param accountId     The {@link AccountId} of the account the packet was sent to or received from.
+   * @param preparePacket The rejected {@link InterledgerPreparePacket}.
+   * @param rejectPacket  The {@link InterledgerRejectPacket} that {@code preparePacket} was rejected with.
+   */
+  public void reject(
+    final String event,
+    final AccountId accountId,
+    final InterledgerPreparePacket preparePacket,
+    final InterledgerRejectPacket rejectPacket
+  ) {
+    if (!logger.isWarnEnabled()) {
+      return;
+    }
+    final long suppressed = rateLimiter.tryAcquire(accountId);
+    if (suppressed == LogRateLimiter.SUPPRESSED) {
+      return;
+    }
+
+    final StringBuilder line = startLine(event, accountId, preparePacket);
+    line.append(" code=").append(rejectPacket.getCode().getCode());
+    if (rejectPacket.getTriggeredBy().isPresent()) {
+      line.append(" triggeredBy=").append(rejectPacket.getTriggeredBy().get().getValue());
+    }
+    appendMessage(line, rejectPacket.getMessage());
+    logger.warn(endLine(line, suppressed));
+  }
+
+  /**
+   * Log, at WARN level, something unexpected about a packet being switched from {@code accountId} to {@code
+   * nextHopAccountId}.
+   *
+   * @param event            A short name for what happened (e.g., {@code zeroValueNextHop}).
+   * @param accountId        The {@link AccountId} of the account the packet was received from.
+   * @param nextHopAccountId The {@link AccountId} of the account the packet is being sent to.
+   * @param preparePacket    The {@link InterledgerPreparePacket} received from {@code accountId}.
+   */
+  public void warn(
+    final String event,
+    final AccountId accountId,
+    final AccountId nextHopAccountId,
+    final InterledgerPreparePacket preparePacket
+  ) {
+    if (!logger.isWarnEnabled()) {
+      return;
+    }
+    final long suppressed = rateLimiter.tryAcquire(accountId);
+    if (suppressed == LogRateLimiter.SUPPRESSED) {
+      return;
+    }
+
+    final StringBuilder line = startLine(event, accountId, preparePacket);
+    line.append(" nextHopAccountId=").append(nextHopAccountId.value());
+    logger.warn(endLine(line, suppressed));
+  }
+
+  private static StringBuilder startLine(
+    final String event, final AccountId accountId, final InterledgerPreparePacket preparePacket
+  ) {
+    final StringBuilder line = BUFFERS.get();
+    line.setLength(0);
+    line.append("event=").append(event)
+      .append(" accountId=").append(accountId.value())
+      .append(" destination=").append(preparePacket.getDestination().getValue())
+      .append(" amount=");
+    appendUnsigned(line, preparePacket.getAmount());
+    return line;
+  }
+
+  private static String endLine(final StringBuilder line, final long suppressed) {
+    if (suppressed > 0) {
+      line.append(" suppressed=").append(suppressed);
+    }
+    final String result = line.toString();
+    if (line.capacity() > BUFFER_SIZE * 4) {
+      // Don't keep a buffer that an unusually long line grew.
+      BUFFERS.remove();
+    }
+    return result;
+  }
+
+  private static void appendUnsigned(final StringBuilder line, final UnsignedLong amount) {
+    final long value = amount.longValue();
+    if (value >= 0) {
+      line.append(value);
+    } else {
+      line.append(amount.toString());
+    }
+  }
+
+  /**
+   * Append {@code message} as a quoted value, truncated, with quotes and backslashes escaped and control characters
+   * replaced so that the line can't be split or forged.
+   */
+  private static void appendMessage(final StringBuilder line, final String message) {
+    line.append(" message=\"");
+    final int length = Math.min(message.length(), MAX_MESSAGE_LENGTH);
+    for (int i = 0; i < length; i++) {
+      final char c = message.charAt(i);
+      if (c == '"' || c == '\\') {
+        line.append('\\').append(c);
+      } else if (Character.isISOControl(c)) {
+        line.append(' ');
+      } else {
+        line.append(c);
+      }
+    }
+    if (message.length() > MAX_MESSAGE_LENGTH) {
+      line.append("...");
+    }
+    line.append('"');
+  }
+}
@@ -0,0 +1,55 @@
+package org.interledger.connector.metrics;
+
+import static org.interledger.connector.metrics.PrometheusCollectors.ACCOUNT_ID;
+
+import org.interledger.connector.link.AdaptiveConcurrencyLimiter;
+import org.interledger.connector.link.AdaptiveConcurrencyLimiterRegistry;
+
+import com.google.common.collect.Lists;
+import io.prometheus.client.Collector;
+import io.prometheus.client.GaugeMetricFamily;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A Prometheus {@link Collector} that reports the current concurrency limit, and the number of packets in-flight, for
+ * every account with an {@link AdaptiveConcurrencyLimiter}. Values are read when Prometheus scrapes them, so sending a
+ * packet never has to update a gauge.
+ */
+public class AdaptiveConcurrencyLimitCollector extends Collector {
+
+  private final AdaptiveConcurrencyLimiterRegistry limiterRegistry;
+
+  /**
+   * Required-args constructor.
+   *
+   * @param limiterRegistry The {@link AdaptiveConcurrencyLimiterRegistry} to report on.
+   */
+  public AdaptiveConcurrencyLimitCollector(final AdaptiveConcurrencyLimiterRegistry limiterRegistry) {
+    this.limiterRegistry = Objects.requireNonNull(limiterRegistry);
+  }
+
+  @Override
+  public List<MetricFamilySamples> collect() {
+    final GaugeMetricFamily limits = new GaugeMetricFamily(
+      "ilp_connector_outgoing_concurrency_limit",
+      "Current number of outgoing ILP packets that may be in-flight to a peer at once",
+      Collections.singletonList(ACCOUNT_ID)
+    );
+    final GaugeMetricFamily inFlight = new GaugeMetricFamily(
+      "ilp_connector_outgoing_in_flight_packets",
+      "Current number of outgoing ILP packets in-flight to a peer",
+      Collections.singletonList(ACCOUNT_ID)
+    );
+
+    // Links are identified by their account's id.
+    limiterRegistry.getAllLimiters().forEach((linkId, limiter) -> {
+      limits.addMetric(Collections.singletonList(linkId.value()), limiter.getLimit());
+      inFlight.addMetric(Collections.singletonList(linkId.value()), limiter.getInFlight());
+    });
+
+    return Lists.newArrayList(limits, inFlight);
+  }
+}
@@ -0,0 +1,108 @@
+package org.interledger.connector.metrics;
+
+import org.interledger.connector.links.filters.LinkFilter;
+import org.interledger.connector.packetswitch.filters.PacketSwitchFilter;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Records how long a sampled fraction of packets spend in each stage of the packet-switch: every {@link
+ * PacketSwitchFilter} and {@link LinkFilter}, mapping the packet to its next-hop, finding the next-hop's link, sending
+ * the packet on that link, and publishing the packet's events.
+ *
+ * <p>Filters wrap the rest of the filter-chain, so the time recorded for a filter excludes the time spent in the
+ * filters and stages after it. Adding up every stage of a packet therefore approximates the time the packet spent in
+ * the Connector.</p>
+ *
+ * <p>Only one packet in every {@code 1/sampleRate} is timed, so that timing can be left on in production without
+ * reading the clock several times for every packet.</p>
+ */
+public class PacketStageTimer {
+
+  /**
+   * Finding the best route to the packet's destination and computing the next-hop packet (including any FX).
+   */
+  public static final String NEXT_HOP_MAPPING = "nextHopMapping";
+
+  /**
+   * Loading the next-hop account and finding (or creating) its link.
+   */
+  public static final String NEXT_HOP_LINK = "nextHopLink";
+
+  /**
+   * Sending the packet on the next-hop link and waiting for its response.
+   */
+  public static final String LINK_SEND = "linkSend";
+
+  /**
+   * Publishing the fulfill or reject events of the packet.
+   */
+  public static final String PACKET_EVENTS = "packetEvents";
+
+  // Class#getSimpleName is not cached by the JVM, so compute each filter's stage name only once.
+  private static final ClassValue<String> FILTER_STAGE_NAMES = new ClassValue<String>() {
+    @Override
+    protected String computeValue(final Class<?> type) {
+      // Anonymous classes have no simple name.
+      return type.getSimpleName().isEmpty() ? type.getName() : type.getSimpleName();
+    }
+  };
+
+  private final MetricsService metricsService;
+  private final double sampleRate;
+
+  /**
+   * Required-args constructor.
+   *
+   * @param metricsService The {@link MetricsService} to record stage durations with.
+   * @param sampleRate     The fraction (between 0 and 1) of packets to time.
+   */
+  public PacketStageTimer(final MetricsService metricsService, final double sampleRate) {
+    this.metricsService = Objects.requireNonNull(metricsService);
+    if (sampleRate < 0 || sampleRate > 1) {
+      throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+    }
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * Decide whether the next packet should be timed.
+   *
+   * @return {@code true} for roughly {@code sampleRate} of calls.
+   */
+  public boolean sample() {
+    return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  /**
+   * Record the time a packet spent in a single stage.
+   *
+   * @param stage        The name of the stage (e.g., {@link #LINK_SEND}).
+   * @param elapsedNanos The time spent in the stage, in nanoseconds.
+   */
+  public void record(final String stage, final long elapsedNanos) {
+    metricsService.trackPacketStage(stage, elapsedNanos);
+  }
+
+  /**
+   * Record the time a packet spent in a filter, excluding the time spent in the rest of the filter-chain.
+   *
+   * @param filter       The {@link PacketSwitchFilter} or {@link LinkFilter}, whose class names the stage.
+   * @param elapsedNanos The time spent in the filter, in nanoseconds.
+   */
+  public void recordFilter(final Object filter, final long elapsedNanos) {
+    record(filterStageName(filter), elapsedNanos);
+  }
+
+  /**
+   * The name of the stage that times {@code filter}.
+   *
+   * @param filter The {@link PacketSwitchFilter} or {@link LinkFilter}.
+   *
+   * @return The simple name of the filter's class.
+   */
+  public static String filterStageName(final Object filter) {
+    return FILTER_STAGE_NAMES.get(filter.getClass());
+  }
+}
@@ -1,6 +1,7 @@
 package org.interledger.connector.metrics;
 
 import io.prometheus.client.Counter;
+import io.prometheus.client.Histogram;
 
 /**
  * Defines various Prometheus counters, gauges, and other objects to track statistics about the Connector.
@@ -12,6 +13,9 @@ public interface PrometheusCollectors {
   String ACCOUNT_ID = "accountId";
   String ASSET_CODE = "assetCode";
   String ASSET_SCALE = "assetScale";
+  String LINK_TYPE = "linkType";
+  String STAGE = "stage"; // e.g., `BalanceIlpPacketFilter` or `linkSend`
+  String REASON = "reason"; // e.g., `queue_delay`
 
   Counter incomingPackets = constructPacketCounter()
       .name("ilp_connector_incoming_ilp_packets")
@@ -41,6 +45,39 @@ public interface PrometheusCollectors {
       .labelNames(RESULT, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE)
       .register();
 
+  Counter ccpRouteChanges = Counter.build()
+      .name("ilp_connector_ccp_route_changes")
+      .help("Total number of CCP route changes received from peers")
+      .labelNames(RESULT, ACCOUNT_ID)
+      .register();
+
+  Histogram ccpRouteIngestLag = Histogram.build()
+      .name("ilp_connector_ccp_route_ingest_lag_seconds")
+      .help("Time between a CCP route update being accepted and all of its route changes being applied")
+      .labelNames(ACCOUNT_ID)
+      .buckets(0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10, 30)
+      .register();
+
+  Histogram linkCreationTime = Histogram.build()
+      .name("ilp_connector_link_creation_seconds")
+      .help("Time taken to construct (and, if necessary, connect) an outbound link")
+      .labelNames(LINK_TYPE)
+      .buckets(0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10, 30)
+      .register();
+
+  Histogram packetStageTime = Histogram.build()
+      .name("ilp_connector_packet_stage_seconds")
+      .help("Time a sampled ILP packet spent in each stage of the packet-switch, excluding any later stages")
+      .labelNames(STAGE)
+      .buckets(0.00001, 0.00005, 0.0001, 0.0005, 0.001, 0.005, 0.01, 0.05, 0.1, 0.5, 1, 5)
+      .register();
+
+  Counter shedPackets = Counter.build()
+      .name("ilp_connector_ingress_shed_ilp_packets")
+      .help("Total number of incoming ILP packets rejected before the packet-switch because the Connector was busy")
+      .labelNames(REASON)
+      .register();
+
   static Counter.Builder constructPacketCounter() {
     return Counter.build().labelNames(RESULT, REJECT_CODE, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE);
   }
@@ -1,5 +1,6 @@
 package org.interledger.connector.metrics;
 
+import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountSettings;
 import org.interledger.connector.events.IncomingSettlementFailedEvent;
 import org.interledger.connector.events.IncomingSettlementSucceededEvent;
@@ -8,35 +9,114 @@ import org.interledger.connector.events.OutgoingSettlementInitiationSucceededEve
 import org.interledger.core.InterledgerFulfillPacket;
 import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.link.LinkType;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.prometheus.client.Counter;
+
+import java.time.Duration;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * An implementation of {@link MetricsService} that emits data to Prometheus.
+ *
+ * <p>The packet counters of each account are resolved once and kept in {@link AccountPacketCounters}, so that counting
+ * a packet is a single increment rather than a lookup of the counter's labels. Accounts are forgotten (and their series
+ * removed from Prometheus) once they go unused for a while, or once too many accounts are being tracked, so that
+ * short-lived accounts can't grow the number of series without bound.</p>
  */
 public class PrometheusMetricsService implements MetricsService {
 
   private static final String EMPTY_REJECT_CODE = "";
   private static final String SETTLEMENT_SUCCEEDED = "succeeded";
   private static final String SETTLEMENT_FAILED = "failed";
+  private static final String ROUTE_CHANGES_INGESTED = "ingested";
+  private static final String ROUTE_CHANGES_REFUSED = "refused";
+
+  private static final int DEFAULT_MAX_TRACKED_ACCOUNTS = 10_000;
+  private static final Duration DEFAULT_ACCOUNT_IDLE_TIMEOUT = Duration.ofHours(1);
+
+  private final Cache<AccountId, AccountPacketCounters> accountPacketCounters;
 
   private static String stringify(final long l) {
     return l + "";
   }
 
+  /**
+   * No-args Constructor that tracks at most 10,000 accounts, each for up to an hour after its last packet.
+   */
+  public PrometheusMetricsService() {
+    this(DEFAULT_MAX_TRACKED_ACCOUNTS, DEFAULT_ACCOUNT_IDLE_TIMEOUT);
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param maxTrackedAccounts The maximum number of accounts whose packets are counted in separate series. Once
+   *                           exceeded, the series of the accounts least likely to be used again are removed.
+   * @param accountIdleTimeout How long after its last packet an account's series are removed.
+   */
+  public PrometheusMetricsService(final int maxTrackedAccounts, final Duration accountIdleTimeout) {
+    Objects.requireNonNull(accountIdleTimeout);
+    this.accountPacketCounters = Caffeine.newBuilder()
+        .maximumSize(maxTrackedAccounts)
+        .expireAfterAccess(accountIdleTimeout)
+        // Evict in the calling thread rather than the common pool, so that the number of series is bounded promptly.
+        .executor(Runnable::run)
+        // Unlike a removal listener, a writer removes an account's series before the account can be tracked again, so
+        // that a returning account's new series are never removed along with its old ones.
+        .writer(new CacheWriter<AccountId, AccountPacketCounters>() {
+          @Override
+          public void write(final AccountId accountId, final AccountPacketCounters counters) {
+            // Series are bound when the counters are constructed.
+          }
+
+          @Override
+          public void delete(
+              final AccountId accountId, final AccountPacketCounters counters, final RemovalCause cause
+          ) {
+            if (counters != null) {
+              counters.remove();
+            }
+          }
+        })
+        .build();
+  }
+
+  /**
+   * Get the packet counters of the account in {@code accountSettings}, binding them if the account is new or its asset
+   * has changed.
+   */
+  private AccountPacketCounters countersFor(final AccountSettings accountSettings) {
+    final AccountPacketCounters counters = accountPacketCounters.get(
+        accountSettings.accountId(), $ -> new AccountPacketCounters(accountSettings)
+    );
+    if (counters.isFor(accountSettings)) {
+      return counters;
+    }
+    // The account's asset was changed, so remove the series for the old asset (a writer isn't told about replacements).
+    return accountPacketCounters.asMap().compute(accountSettings.accountId(), ($, existing) -> {
+      if (existing != null && existing.isFor(accountSettings)) {
+        return existing;
+      }
+      if (existing != null) {
+        existing.remove();
+      }
+      return new AccountPacketCounters(accountSettings);
+    });
+  }
+
   @Override
   public void trackIncomingPacketPrepared(AccountSettings accountSettings, InterledgerPreparePacket preparePacket) {
     Objects.requireNonNull(accountSettings);
     Objects.requireNonNull(preparePacket);
 
-    // Labels: RESULT, REJECT_CODE, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
-    PrometheusCollectors.incomingPackets.labels(
-        PacketStatusResult.PREPARED.name(),
-        EMPTY_REJECT_CODE,
-        accountSettings.accountId().value(),
-        accountSettings.assetCode(),
-        stringify(accountSettings.assetScale())
-    ).inc();
+    countersFor(accountSettings).incomingPrepared.inc();
   }
 
   @Override
@@ -46,14 +126,7 @@ public class PrometheusMetricsService implements MetricsService {
     Objects.requireNonNull(accountSettings);
     Objects.requireNonNull(fulfillPacket);
 
-    // Labels: RESULT, REJECT_CODE, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
-    PrometheusCollectors.incomingPackets.labels(
-        PacketStatusResult.FULFILLED.name(),
-        EMPTY_REJECT_CODE,
-        accountSettings.accountId().value(),
-        accountSettings.assetCode(),
-        stringify(accountSettings.assetScale())
-    ).inc();
+    countersFor(accountSettings).incomingFulfilled.inc();
   }
 
   @Override
@@ -63,28 +136,14 @@ public class PrometheusMetricsService implements MetricsService {
     Objects.requireNonNull(accountSettings);
     Objects.requireNonNull(rejectPacket);
 
-    // Labels: RESULT, REJECT_CODE, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
-    PrometheusCollectors.incomingPackets.labels(
-        PacketStatusResult.REJECTED.name(),
-        rejectPacket.getCode().getCode(),
-        accountSettings.accountId().value(),
-        accountSettings.assetCode(),
-        stringify(accountSettings.assetScale())
-    ).inc();
+    countersFor(accountSettings).incomingRejected(rejectPacket.getCode().getCode()).inc();
   }
 
   @Override
   public void trackIncomingPacketFailed(final AccountSettings accountSettings) {
     Objects.requireNonNull(accountSettings);
 
-    // Labels: RESULT, REJECT_CODE, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
-    PrometheusCollectors.incomingPackets.labels(
-        PacketStatusResult.FAILED.name(),
-        EMPTY_REJECT_CODE,
-        accountSettings.accountId().value(),
-        accountSettings.assetCode(),
-        stringify(accountSettings.assetScale())
-    ).inc();
+    countersFor(accountSettings).incomingFailed.inc();
   }
 
   @Override
@@ -92,14 +151,7 @@ public class PrometheusMetricsService implements MetricsService {
     Objects.requireNonNull(accountSettings);
     Objects.requireNonNull(preparePacket);
 
-    // Labels: RESULT, REJECT_CODE, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
-    PrometheusCollectors.outgoingPackets.labels(
-        PacketStatusResult.PREPARED.name(),
-        EMPTY_REJECT_CODE,
-        accountSettings.accountId().value(),
-        accountSettings.assetCode(),
-        stringify(accountSettings.assetScale())
-    ).inc();
+    countersFor(accountSettings).outgoingPrepared.inc();
   }
 
   @Override
@@ -109,14 +161,7 @@ public class PrometheusMetricsService implements MetricsService {
     Objects.requireNonNull(accountSettings);
     Objects.requireNonNull(fulfillPacket);
 
-    // Labels: RESULT, REJECT_CODE, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
-    PrometheusCollectors.outgoingPackets.labels(
-        PacketStatusResult.FULFILLED.name(),
-        EMPTY_REJECT_CODE,
-        accountSettings.accountId().value(),
-        accountSettings.assetCode(),
-        stringify(accountSettings.assetScale())
-    ).inc();
+    countersFor(accountSettings).outgoingFulfilled.inc();
   }
 
   @Override
@@ -126,40 +171,21 @@ public class PrometheusMetricsService implements MetricsService {
     Objects.requireNonNull(accountSettings);
     Objects.requireNonNull(rejectPacket);
 
-    // Labels: RESULT, REJECT_CODE, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
-    PrometheusCollectors.outgoingPackets.labels(
-        PacketStatusResult.REJECTED.name(),
-        rejectPacket.getCode().getCode(),
-        accountSettings.accountId().value(),
-        accountSettings.assetCode(),
-        stringify(accountSettings.assetScale())
-    ).inc();
+    countersFor(accountSettings).outgoingRejected(rejectPacket.getCode().getCode()).inc();
   }
 
   @Override
   public void trackOutgoingPacketFailed(final AccountSettings accountSettings) {
     Objects.requireNonNull(accountSettings);
 
-    // Labels: RESULT, REJECT_CODE, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
-    PrometheusCollectors.outgoingPackets.labels(
-        PacketStatusResult.FAILED.name(),
-        EMPTY_REJECT_CODE,
-        accountSettings.accountId().value(),
-        accountSettings.assetCode(),
-        stringify(accountSettings.assetScale())
-    ).inc();
+    countersFor(accountSettings).outgoingFailed.inc();
   }
 
   @Override
   public void trackNumRateLimitedPackets(final AccountSettings accountSettings) {
     Objects.requireNonNull(accountSettings);
 
-    // Labels: ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
-    PrometheusCollectors.rateLimitedPackets.labels(
-        accountSettings.accountId().value(),
-        accountSettings.assetCode(),
-        stringify(accountSettings.assetScale())
-    ).inc();
+    countersFor(accountSettings).rateLimited.inc();
   }
 
   @Override
@@ -219,4 +245,154 @@ public class PrometheusMetricsService implements MetricsService {
         ).inc()
     );
   }
+
+  @Override
+  public void trackCcpRouteUpdateIngested(
+      final AccountId peerAccountId, final int numRouteChanges, final Duration ingestLag
+  ) {
+    Objects.requireNonNull(peerAccountId);
+    Objects.requireNonNull(ingestLag);
+
+    // Labels: RESULT, ACCOUNT_ID
+    PrometheusCollectors.ccpRouteChanges.labels(ROUTE_CHANGES_INGESTED, peerAccountId.value()).inc(numRouteChanges);
+    // Labels: ACCOUNT_ID
+    PrometheusCollectors.ccpRouteIngestLag.labels(peerAccountId.value()).observe(ingestLag.toNanos() / 1e9);
+  }
+
+  @Override
+  public void trackCcpRouteUpdateRefused(final AccountId peerAccountId, final int numRouteChanges) {
+    Objects.requireNonNull(peerAccountId);
+
+    // Labels: RESULT, ACCOUNT_ID
+    PrometheusCollectors.ccpRouteChanges.labels(ROUTE_CHANGES_REFUSED, peerAccountId.value()).inc(numRouteChanges);
+  }
+
+  @Override
+  public void trackLinkCreated(final LinkType linkType, final Duration creationTime) {
+    Objects.requireNonNull(linkType);
+    Objects.requireNonNull(creationTime);
+
+    // Labels: LINK_TYPE
+    PrometheusCollectors.linkCreationTime.labels(linkType.value()).observe(creationTime.toNanos() / 1e9);
+  }
+
+  @Override
+  public void trackPacketStage(final String stage, final long elapsedNanos) {
+    Objects.requireNonNull(stage);
+
+    // Labels: STAGE
+    PrometheusCollectors.packetStageTime.labels(stage).observe(elapsedNanos / 1e9);
+  }
+
+  @Override
+  public void trackIngressPacketShed(final String reason) {
+    Objects.requireNonNull(reason);
+
+    // Labels: REASON
+    PrometheusCollectors.shedPackets.labels(reason).inc();
+  }
+
+  /**
+   * The packet counters of a single account (and asset), bound to their labels once so that counting a packet doesn't
+   * need to look them up.
+   *
+   * <p>A packet counted just as its account is forgotten may be lost, because the series it was counted in has already
+   * been removed. This is harmless for an account that had gone unused.</p>
+   */
+  private static final class AccountPacketCounters {
+
+    private static final PacketStatusResult[] UNREJECTED_RESULTS = {
+        PacketStatusResult.PREPARED, PacketStatusResult.FULFILLED, PacketStatusResult.FAILED
+    };
+
+    private final String accountId;
+    private final String assetCode;
+    private final int assetScale;
+    private final String assetScaleLabel;
+
+    // Labels: RESULT, REJECT_CODE, ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
+    private final Counter.Child incomingPrepared;
+    private final Counter.Child incomingFulfilled;
+    private final Counter.Child incomingFailed;
+    private final Counter.Child outgoingPrepared;
+    private final Counter.Child outgoingFulfilled;
+    private final Counter.Child outgoingFailed;
+    // Reject codes are only bound once they're seen. There are only a few dozen ILP error codes.
+    private final Map<String, Counter.Child> incomingRejected = new ConcurrentHashMap<>();
+    private final Map<String, Counter.Child> outgoingRejected = new ConcurrentHashMap<>();
+
+    // Labels: ACCOUNT_ID, ASSET_CODE, ASSET_SCALE
+    private final Counter.Child rateLimited;
+
+    // Guarded by `this`.
+    private boolean removed;
+
+    private AccountPacketCounters(final AccountSettings accountSettings) {
+      this.accountId = accountSettings.accountId().value();
+      this.assetCode = accountSettings.assetCode();
+      this.assetScale = accountSettings.assetScale();
+      this.assetScaleLabel = stringify(assetScale);
+
+      this.incomingPrepared = packetCounter(PrometheusCollectors.incomingPackets, PacketStatusResult.PREPARED);
+      this.incomingFulfilled = packetCounter(PrometheusCollectors.incomingPackets, PacketStatusResult.FULFILLED);
+      this.incomingFailed = packetCounter(PrometheusCollectors.incomingPackets, PacketStatusResult.FAILED);
+      this.outgoingPrepared = packetCounter(PrometheusCollectors.outgoingPackets, PacketStatusResult.PREPARED);
+      this.outgoingFulfilled = packetCounter(PrometheusCollectors.outgoingPackets, PacketStatusResult.FULFILLED);
+      this.outgoingFailed = packetCounter(PrometheusCollectors.outgoingPackets, PacketStatusResult.FAILED);
+      this.rateLimited = PrometheusCollectors.rateLimitedPackets.labels(accountId, assetCode, assetScaleLabel);
+    }
+
+    private boolean isFor(final AccountSettings accountSettings) {
+      return assetScale == accountSettings.assetScale() && assetCode.equals(accountSettings.assetCode());
+    }
+
+    private Counter.Child incomingRejected(final String rejectCode) {
+      return rejectedPacketCounter(PrometheusCollectors.incomingPackets, incomingRejected, rejectCode);
+    }
+
+    private Counter.Child outgoingRejected(final String rejectCode) {
+      return rejectedPacketCounter(PrometheusCollectors.outgoingPackets, outgoingRejected, rejectCode);
+    }
+
+    /**
+     * Remove every series of this account from Prometheus.
+     */
+    private synchronized void remove() {
+      this.removed = true;
+      removePacketCounters(PrometheusCollectors.incomingPackets, incomingRejected);
+      removePacketCounters(PrometheusCollectors.outgoingPackets, outgoingRejected);
+      PrometheusCollectors.rateLimitedPackets.remove(accountId, assetCode, assetScaleLabel);
+    }
+
+    private void removePacketCounters(final Counter counter, final Map<String, Counter.Child> rejected) {
+      for (PacketStatusResult result : UNREJECTED_RESULTS) {
+        counter.remove(result.name(), EMPTY_REJECT_CODE, accountId, assetCode, assetScaleLabel);
+      }
+      rejected.keySet().forEach(rejectCode ->
+          counter.remove(PacketStatusResult.REJECTED.name(), rejectCode, accountId, assetCode, assetScaleLabel)
+      );
+    }
+
+    private Counter.Child rejectedPacketCounter(
+        final Counter counter, final Map<String, Counter.Child> rejected, final String rejectCode
+    ) {
+      final Counter.Child child = rejected.get(rejectCode);
+      if (child != null) {
+        return child;
+      }
+      // Binding a new reject code must not race with removal, or the new series would outlive this account.
+      synchronized (this) {
+        if (removed) {
+          return new Counter.Child();
+        }
+        return rejected.computeIfAbsent(rejectCode, $ -> counter.labels(
+            PacketStatusResult.REJECTED.name(), rejectCode, accountId, assetCode, assetScaleLabel
+        ));
+      }
+    }
+
+    private Counter.Child packetCounter(final Counter counter, final PacketStatusResult result) {
+      return counter.labels(result.name(), EMPTY_REJECT_CODE, accountId, assetCode, assetScaleLabel);
+    }
+  }
 }
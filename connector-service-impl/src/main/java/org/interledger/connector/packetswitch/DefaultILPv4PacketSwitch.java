@@ -5,11 +5,16 @@ import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.sub.LocalDestinationAddressUtils;
 import org.interledger.connector.caching.AccountSettingsLoadingCache;
 import org.interledger.connector.events.PacketEventPublisher;
+import org.interledger.connector.jfr.ConnectorEvents;
 import org.interledger.connector.links.LinkManager;
 import org.interledger.connector.links.NextHopPacketMapper;
 import org.interledger.connector.links.filters.LinkFilter;
+import org.interledger.connector.metrics.PacketStageTimer;
 import org.interledger.connector.packetswitch.filters.DefaultPacketSwitchFilterChain;
 import org.interledger.connector.packetswitch.filters.PacketSwitchFilter;
+import org.interledger.connector.packetswitch.trace.PacketTraceBuffer;
+import org.interledger.connector.packetswitch.trace.PacketTraceRecorder;
+import org.interledger.connector.routing.LinkQualityTracker;
 import org.interledger.core.InterledgerErrorCode;
 import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.core.InterledgerProtocolException;
@@ -19,6 +24,7 @@ import org.interledger.link.PacketRejector;
 
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A default implementation of {@link ILPv4PacketSwitch}.
@@ -38,6 +44,9 @@ public class DefaultILPv4PacketSwitch implements ILPv4PacketSwitch {
   // rely upon AccountSettings found in this cache.
   private final AccountSettingsLoadingCache accountSettingsLoadingCache;
   private final PacketEventPublisher packetEventPublisher;
+  private final Optional<PacketStageTimer> packetStageTimer;
+  private final Optional<PacketTraceBuffer> packetTraceBuffer;
+  private final Optional<LinkQualityTracker> linkQualityTracker;
 
   /**
    * Required-args Constructor.
@@ -62,6 +71,113 @@ public class DefaultILPv4PacketSwitch implements ILPv4PacketSwitch {
     final AccountSettingsLoadingCache accountSettingsLoadingCache,
     final PacketEventPublisher packetEventPublisher,
     final LocalDestinationAddressUtils localDestinationAddressUtils
+  ) {
+    this(
+      packetSwitchFilters, linkFilters, linkManager, nextHopPacketMapper, connectorExceptionHandler, packetRejector,
+      accountSettingsLoadingCache, packetEventPublisher, localDestinationAddressUtils, Optional.empty()
+    );
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param packetSwitchFilters          A {@link List} of type {@link PacketSwitchFilter}.
+   * @param linkFilters                  A {@link List} of type {@link LinkFilter}.
+   * @param linkManager                  A {@link LinkManager}.
+   * @param nextHopPacketMapper          A {@link NextHopPacketMapper}.
+   * @param connectorExceptionHandler    A {@link ConnectorExceptionHandler}.
+   * @param packetRejector               A {@link PacketRejector}.
+   * @param accountSettingsLoadingCache  A {@link AccountSettingsLoadingCache}.
+   * @param packetEventPublisher         A {@link PacketEventPublisher}.
+   * @param localDestinationAddressUtils A {@link LocalDestinationAddressUtils}.
+   * @param packetStageTimer             An optional {@link PacketStageTimer} to time the stages of sampled packets
+   *                                     with.
+   */
+  public DefaultILPv4PacketSwitch(
+    final List<PacketSwitchFilter> packetSwitchFilters,
+    final List<LinkFilter> linkFilters,
+    final LinkManager linkManager,
+    final NextHopPacketMapper nextHopPacketMapper,
+    final ConnectorExceptionHandler connectorExceptionHandler,
+    final PacketRejector packetRejector,
+    final AccountSettingsLoadingCache accountSettingsLoadingCache,
+    final PacketEventPublisher packetEventPublisher,
+    final LocalDestinationAddressUtils localDestinationAddressUtils,
+    final Optional<PacketStageTimer> packetStageTimer
+  ) {
+    this(
+      packetSwitchFilters, linkFilters, linkManager, nextHopPacketMapper, connectorExceptionHandler, packetRejector,
+      accountSettingsLoadingCache, packetEventPublisher, localDestinationAddressUtils, packetStageTimer, Optional.empty()
+    );
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param packetSwitchFilters          A {@link List} of type {@link PacketSwitchFilter}.
+   * @param linkFilters                  A {@link List} of type {@link LinkFilter}.
+   * @param linkManager                  A {@link LinkManager}.
+   * @param nextHopPacketMapper          A {@link NextHopPacketMapper}.
+   * @param connectorExceptionHandler    A {@link ConnectorExceptionHandler}.
+   * @param packetRejector               A {@link PacketRejector}.
+   * @param accountSettingsLoadingCache  A {@link AccountSettingsLoadingCache}.
+   * @param packetEventPublisher         A {@link PacketEventPublisher}.
+   * @param localDestinationAddressUtils A {@link LocalDestinationAddressUtils}.
+   * @param packetStageTimer             An optional {@link PacketStageTimer} to time the stages of sampled packets
+   *                                     with.
+   * @param packetTraceBuffer            An optional {@link PacketTraceBuffer} to keep the traces of sampled packets in.
+   */
+  public DefaultILPv4PacketSwitch(
+    final List<PacketSwitchFilter> packetSwitchFilters,
+    final List<LinkFilter> linkFilters,
+    final LinkManager linkManager,
+    final NextHopPacketMapper nextHopPacketMapper,
+    final ConnectorExceptionHandler connectorExceptionHandler,
+    final PacketRejector packetRejector,
+    final AccountSettingsLoadingCache accountSettingsLoadingCache,
+    final PacketEventPublisher packetEventPublisher,
+    final LocalDestinationAddressUtils localDestinationAddressUtils,
+    final Optional<PacketStageTimer> packetStageTimer,
+    final Optional<PacketTraceBuffer> packetTraceBuffer
+  ) {
+    this(
+      packetSwitchFilters, linkFilters, linkManager, nextHopPacketMapper, connectorExceptionHandler, packetRejector,
+      accountSettingsLoadingCache, packetEventPublisher, localDestinationAddressUtils, packetStageTimer,
+      packetTraceBuffer, Optional.empty()
+    );
+  }
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param packetSwitchFilters          A {@link List} of type {@link PacketSwitchFilter}.
+   * @param linkFilters                  A {@link List} of type {@link LinkFilter}.
+   * @param linkManager                  A {@link LinkManager}.
+   * @param nextHopPacketMapper          A {@link NextHopPacketMapper}.
+   * @param connectorExceptionHandler    A {@link ConnectorExceptionHandler}.
+   * @param packetRejector               A {@link PacketRejector}.
+   * @param accountSettingsLoadingCache  A {@link AccountSettingsLoadingCache}.
+   * @param packetEventPublisher         A {@link PacketEventPublisher}.
+   * @param localDestinationAddressUtils A {@link LocalDestinationAddressUtils}.
+   * @param packetStageTimer             An optional {@link PacketStageTimer} to time the stages of sampled packets
+   *                                     with.
+   * @param packetTraceBuffer            An optional {@link PacketTraceBuffer} to keep the traces of sampled packets in.
+   * @param linkQualityTracker           An optional {@link LinkQualityTracker} to record the outcome and round-trip
+   *                                     time of each packet sent on a next-hop link with.
+   */
+  public DefaultILPv4PacketSwitch(
+    final List<PacketSwitchFilter> packetSwitchFilters,
+    final List<LinkFilter> linkFilters,
+    final LinkManager linkManager,
+    final NextHopPacketMapper nextHopPacketMapper,
+    final ConnectorExceptionHandler connectorExceptionHandler,
+    final PacketRejector packetRejector,
+    final AccountSettingsLoadingCache accountSettingsLoadingCache,
+    final PacketEventPublisher packetEventPublisher,
+    final LocalDestinationAddressUtils localDestinationAddressUtils,
+    final Optional<PacketStageTimer> packetStageTimer,
+    final Optional<PacketTraceBuffer> packetTraceBuffer,
+    final Optional<LinkQualityTracker> linkQualityTracker
   ) {
     this.packetSwitchFilters = Objects.requireNonNull(packetSwitchFilters);
     this.linkFilters = Objects.requireNonNull(linkFilters);
@@ -72,6 +188,9 @@ public class DefaultILPv4PacketSwitch implements ILPv4PacketSwitch {
     this.accountSettingsLoadingCache = Objects.requireNonNull(accountSettingsLoadingCache);
     this.packetEventPublisher = Objects.requireNonNull(packetEventPublisher);
     this.localDestinationAddressUtils = Objects.requireNonNull(localDestinationAddressUtils);
+    this.packetStageTimer = Objects.requireNonNull(packetStageTimer);
+    this.packetTraceBuffer = Objects.requireNonNull(packetTraceBuffer);
+    this.linkQualityTracker = Objects.requireNonNull(linkQualityTracker);
   }
 
   /**
@@ -91,6 +210,29 @@ public class DefaultILPv4PacketSwitch implements ILPv4PacketSwitch {
     Objects.requireNonNull(sourceAccountId);
     Objects.requireNonNull(incomingSourcePreparePacket);
 
+    // Only the sampled packets are traced.
+    final Optional<PacketTraceRecorder> packetTrace = packetTraceBuffer.isPresent() && packetTraceBuffer.get().sample()
+      ? Optional.of(new PacketTraceRecorder(sourceAccountId, incomingSourcePreparePacket))
+      : Optional.empty();
+
+    final ConnectorEvents.PacketSwitched event = ConnectorEvents.beginPacketSwitched();
+    InterledgerResponsePacket responsePacket = null;
+    try {
+      responsePacket = doSwitchPacket(sourceAccountId, incomingSourcePreparePacket, packetTrace);
+      return responsePacket;
+    } finally {
+      event.record(sourceAccountId, incomingSourcePreparePacket, responsePacket);
+      if (packetTrace.isPresent()) {
+        packetTraceBuffer.get().add(packetTrace.get().complete(responsePacket));
+      }
+    }
+  }
+
+  private InterledgerResponsePacket doSwitchPacket(
+    final AccountId sourceAccountId,
+    final InterledgerPreparePacket incomingSourcePreparePacket,
+    final Optional<PacketTraceRecorder> packetTrace
+  ) {
     // The value stored in the Cache is the AccountSettings converted from the entity so we don't have to convert
     // on every ILPv4 packet switch.
     return this.accountSettingsLoadingCache.getAccount(sourceAccountId)
@@ -104,7 +246,10 @@ public class DefaultILPv4PacketSwitch implements ILPv4PacketSwitch {
             linkManager,
             nextHopPacketMapper,
             accountSettingsLoadingCache, // Necessary to load the 'next-hop' account.
-            packetEventPublisher
+            packetEventPublisher,
+            packetStageTimer.filter(PacketStageTimer::sample), // Only the sampled packets are timed.
+            packetTrace,
+            linkQualityTracker
           ).doFilter(accountSettings, incomingSourcePreparePacket);
         } catch (Exception e) {
           // Any rejections should be caught here, and returned as such....
@@ -0,0 +1,158 @@
+package org.interledger.connector.packetswitch.admission;
+
+import com.google.common.base.Preconditions;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration for an {@link IngressAdmissionController}.
+ */
+public class IngressAdmissionConfig {
+
+  public static final int DEFAULT_MAX_IN_FLIGHT_PACKETS = 1000;
+  public static final Duration DEFAULT_TARGET_QUEUE_DELAY = Duration.ofMillis(5);
+  public static final Duration DEFAULT_INTERVAL = Duration.ofMillis(100);
+  public static final Duration DEFAULT_MIN_EXPIRY_BUDGET = Duration.ofMillis(500);
+  public static final Duration DEFAULT_OVERLOADED_MIN_EXPIRY_BUDGET = Duration.ofSeconds(2);
+
+  private final int maxInFlightPackets;
+  private final Duration targetQueueDelay;
+  private final Duration interval;
+  private final Duration minExpiryBudget;
+  private final Duration overloadedMinExpiryBudget;
+
+  private IngressAdmissionConfig(final Builder builder) {
+    this.maxInFlightPackets = builder.maxInFlightPackets;
+    this.targetQueueDelay = builder.targetQueueDelay;
+    this.interval = builder.interval;
+    this.minExpiryBudget = builder.minExpiryBudget;
+    this.overloadedMinExpiryBudget = builder.overloadedMinExpiryBudget;
+  }
+
+  /**
+   * Create a builder that starts from the default configuration.
+   *
+   * @return A {@link Builder}.
+   */
+  public static Builder custom() {
+    return new Builder();
+  }
+
+  /**
+   * Create the default configuration.
+   *
+   * @return An {@link IngressAdmissionConfig}.
+   */
+  public static IngressAdmissionConfig ofDefaults() {
+    return custom().build();
+  }
+
+  /**
+   * The maximum number of incoming packets that may be in the packet-switch at once.
+   *
+   * @return An int.
+   */
+  public int getMaxInFlightPackets() {
+    return maxInFlightPackets;
+  }
+
+  /**
+   * The queueing delay that is acceptable even while overloaded. Once every packet in an {@link #getInterval()} has
+   * waited longer than this, the Connector is considered overloaded.
+   *
+   * @return A {@link Duration}.
+   */
+  public Duration getTargetQueueDelay() {
+    return targetQueueDelay;
+  }
+
+  /**
+   * How long queueing delay must stay above {@link #getTargetQueueDelay()} before the Connector is considered
+   * overloaded. This is also the longest a packet may wait before it is shed when the Connector is not overloaded, so
+   * that short bursts are absorbed.
+   *
+   * @return A {@link Duration}.
+   */
+  public Duration getInterval() {
+    return interval;
+  }
+
+  /**
+   * The least time a packet must have left before it expires for it to be admitted at all.
+   *
+   * @return A {@link Duration}.
+   */
+  public Duration getMinExpiryBudget() {
+    return minExpiryBudget;
+  }
+
+  /**
+   * The least time a packet must have left before it expires for it to be admitted while the Connector is overloaded,
+   * so that the packets most likely to be fulfilled in time are the ones that are kept.
+   *
+   * @return A {@link Duration}.
+   */
+  public Duration getOverloadedMinExpiryBudget() {
+    return overloadedMinExpiryBudget;
+  }
+
+  /**
+   * A builder for {@link IngressAdmissionConfig}.
+   */
+  public static class Builder {
+
+    private int maxInFlightPackets = DEFAULT_MAX_IN_FLIGHT_PACKETS;
+    private Duration targetQueueDelay = DEFAULT_TARGET_QUEUE_DELAY;
+    private Duration interval = DEFAULT_INTERVAL;
+    private Duration minExpiryBudget = DEFAULT_MIN_EXPIRY_BUDGET;
+    private Duration overloadedMinExpiryBudget = DEFAULT_OVERLOADED_MIN_EXPIRY_BUDGET;
+
+    private Builder() {
+    }
+
+    public Builder maxInFlightPackets(final int maxInFlightPackets) {
+      this.maxInFlightPackets = maxInFlightPackets;
+      return this;
+    }
+
+    public Builder targetQueueDelay(final Duration targetQueueDelay) {
+      this.targetQueueDelay = Objects.requireNonNull(targetQueueDelay);
+      return this;
+    }
+
+    public Builder interval(final Duration interval) {
+      this.interval = Objects.requireNonNull(interval);
+      return this;
+    }
+
+    public Builder minExpiryBudget(final Duration minExpiryBudget) {
+      this.minExpiryBudget = Objects.requireNonNull(minExpiryBudget);
+      return this;
+    }
+
+    public Builder overloadedMinExpiryBudget(final Duration overloadedMinExpiryBudget) {
+      this.overloadedMinExpiryBudget = Objects.requireNonNull(overloadedMinExpiryBudget);
+      return this;
+    }
+
+    /**
+     * Build the config.
+     *
+     * @return An {@link IngressAdmissionConfig}.
+     */
+    public IngressAdmissionConfig build() {
+      Preconditions.checkArgument(maxInFlightPackets > 0, "maxInFlightPackets must be greater than 0");
+      Preconditions.checkArgument(!targetQueueDelay.isNegative(), "targetQueueDelay must not be negative");
+      Preconditions.checkArgument(
+        interval.compareTo(targetQueueDelay) > 0, "interval must be greater than targetQueueDelay"
+      );
+      Preconditions.checkArgument(!minExpiryBudget.isNegative(), "minExpiryBudget must not be negative");
+      Preconditions.checkArgument(
+        overloadedMinExpiryBudget.compareTo(minExpiryBudget) >= 0,
+        "overloadedMinExpiryBudget must not be less than minExpiryBudget"
+      );
+      return new IngressAdmissionConfig(this);
+    }
+  }
+}
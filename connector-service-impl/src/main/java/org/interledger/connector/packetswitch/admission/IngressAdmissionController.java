@@ -0,0 +1,193 @@
+package org.interledger.connector.packetswitch.admission;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.metrics.MetricsService;
+import org.interledger.connector.packetswitch.ILPv4PacketSwitch;
+import org.interledger.connector.settings.ConnectorSettings;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * <p>Decides whether a packet received by an ILP-over-HTTP endpoint is worth sending into the packet-switch, and
+ * rejects it with {@link InterledgerErrorCode#T03_CONNECTOR_BUSY} before any balance is touched if it isn't. Under
+ * overload, this keeps the Connector spending its time on packets that can still be fulfilled, instead of on packets
+ * that will expire (and be rolled back) anyway.</p>
+ *
+ * <p>A packet is shed if any of the following hold:</p>
+ * <ul>
+ *   <li>It waited too long before reaching the endpoint. This uses the CoDel approach of looking at the smallest
+ *   queueing delay seen in each {@link IngressAdmissionConfig#getInterval()}: if even that exceeded the target, a
+ *   standing queue has built up and the Connector is overloaded. While overloaded, packets that waited longer than the
+ *   target are shed; otherwise, only packets that waited longer than a whole interval are.</li>
+ *   <li>It has too little time left before it expires. While overloaded, more time is required, so that packets with
+ *   the most headroom are the ones that get through.</li>
+ *   <li>Too many packets are already in the packet-switch.</li>
+ * </ul>
+ *
+ * <p>Every shed packet is counted via {@link MetricsService#trackIngressPacketShed(String)}.</p>
+ */
+public class IngressAdmissionController {
+
+  public static final String SHED_QUEUE_DELAY = "queue_delay";
+  public static final String SHED_EXPIRY_BUDGET = "expiry_budget";
+  public static final String SHED_IN_FLIGHT_LIMIT = "in_flight_limit";
+
+  // No packet was seen in an interval.
+  private static final long NO_SOJOURN = Long.MAX_VALUE;
+
+  private final ILPv4PacketSwitch packetSwitch;
+  private final Supplier<ConnectorSettings> connectorSettingsSupplier;
+  private final MetricsService metricsService;
+  private final Ticker ticker;
+  private final Clock clock;
+
+  private final int maxInFlightPackets;
+  private final long targetQueueDelayNanos;
+  private final long intervalNanos;
+  private final Duration minExpiryBudget;
+  private final Duration overloadedMinExpiryBudget;
+
+  private final AtomicInteger inFlightPackets = new AtomicInteger();
+  private final AtomicLong intervalStartNanos;
+  private final AtomicLong minSojournNanos = new AtomicLong(NO_SOJOURN);
+  private volatile boolean overloaded;
+
+  /**
+   * Required-args Constructor.
+   *
+   * @param packetSwitch              The {@link ILPv4PacketSwitch} to send admitted packets to.
+   * @param connectorSettingsSupplier A {@link Supplier} of {@link ConnectorSettings}, for the operator address that
+   *                                  triggers rejections.
+   * @param metricsService            A {@link MetricsService} to count shed packets with.
+   * @param config                    An {@link IngressAdmissionConfig}.
+   */
+  public IngressAdmissionController(
+    final ILPv4PacketSwitch packetSwitch,
+    final Supplier<ConnectorSettings> connectorSettingsSupplier,
+    final MetricsService metricsService,
+    final IngressAdmissionConfig config
+  ) {
+    this(packetSwitch, connectorSettingsSupplier, metricsService, config, Ticker.systemTicker(), Clock.systemUTC());
+  }
+
+  @VisibleForTesting
+  IngressAdmissionController(
+    final ILPv4PacketSwitch packetSwitch,
+    final Supplier<ConnectorSettings> connectorSettingsSupplier,
+    final MetricsService metricsService,
+    final IngressAdmissionConfig config,
+    final Ticker ticker,
+    final Clock clock
+  ) {
+    this.packetSwitch = Objects.requireNonNull(packetSwitch);
+    this.connectorSettingsSupplier = Objects.requireNonNull(connectorSettingsSupplier);
+    this.metricsService = Objects.requireNonNull(metricsService);
+    this.ticker = Objects.requireNonNull(ticker);
+    this.clock = Objects.requireNonNull(clock);
+
+    Objects.requireNonNull(config);
+    this.maxInFlightPackets = config.getMaxInFlightPackets();
+    this.targetQueueDelayNanos = config.getTargetQueueDelay().toNanos();
+    this.intervalNanos = config.getInterval().toNanos();
+    this.minExpiryBudget = config.getMinExpiryBudget();
+    this.overloadedMinExpiryBudget = config.getOverloadedMinExpiryBudget();
+    this.intervalStartNanos = new AtomicLong(ticker.read());
+  }
+
+  /**
+   * Send {@code preparePacket} into the packet-switch, unless it should be shed.
+   *
+   * @param accountId        The {@link AccountId} the packet was received from.
+   * @param preparePacket    The {@link InterledgerPreparePacket} that was received.
+   * @param receivedAtNanos  When the request carrying the packet was received, in {@link Ticker#systemTicker()} (i.e.,
+   *                         {@link System#nanoTime()}) units. The time since then is the packet's queueing delay.
+   *
+   * @return The {@link InterledgerResponsePacket} from the packet-switch, or a T03 {@link InterledgerRejectPacket} if
+   *   the packet was shed.
+   */
+  public InterledgerResponsePacket switchPacket(
+    final AccountId accountId, final InterledgerPreparePacket preparePacket, final long receivedAtNanos
+  ) {
+    Objects.requireNonNull(accountId);
+    Objects.requireNonNull(preparePacket);
+
+    final long now = ticker.read();
+    final long sojournNanos = Math.max(0, now - receivedAtNanos);
+    final boolean overloaded = observeQueueDelay(now, sojournNanos);
+    if (sojournNanos > (overloaded ? targetQueueDelayNanos : intervalNanos)) {
+      return shed(SHED_QUEUE_DELAY);
+    }
+
+    final Duration expiryBudget = Duration.between(clock.instant(), preparePacket.getExpiresAt());
+    if (expiryBudget.compareTo(overloaded ? overloadedMinExpiryBudget : minExpiryBudget) < 0) {
+      return shed(SHED_EXPIRY_BUDGET);
+    }
+
+    if (inFlightPackets.incrementAndGet() > maxInFlightPackets) {
+      inFlightPackets.decrementAndGet();
+      return shed(SHED_IN_FLIGHT_LIMIT);
+    }
+    try {
+      return packetSwitch.switchPacket(accountId, preparePacket);
+    } finally {
+      inFlightPackets.decrementAndGet();
+    }
+  }
+
+  /**
+   * Whether the queueing delay of every packet in the last complete interval exceeded the target.
+   *
+   * @return {@code true} if the Connector is overloaded.
+   */
+  public boolean isOverloaded() {
+    return overloaded;
+  }
+
+  /**
+   * The number of admitted packets that are currently in the packet-switch.
+   *
+   * @return An int.
+   */
+  public int getInFlightPackets() {
+    return inFlightPackets.get();
+  }
+
+  /**
+   * Record the queueing delay of a packet and, if an interval has passed, decide whether the Connector is overloaded
+   * based on the smallest queueing delay seen during it.
+   *
+   * @return {@code true} if the Connector is overloaded.
+   */
+  private boolean observeQueueDelay(final long now, final long sojournNanos) {
+    final long intervalStart = intervalStartNanos.get();
+    // Only one thread closes each interval. Packets recorded concurrently may count towards either interval.
+    if (now - intervalStart >= intervalNanos && intervalStartNanos.compareAndSet(intervalStart, now)) {
+      final long minSojourn = minSojournNanos.getAndSet(NO_SOJOURN);
+      // An interval without packets had no queue at all.
+      overloaded = minSojourn != NO_SOJOURN && minSojourn > targetQueueDelayNanos;
+    }
+    minSojournNanos.accumulateAndGet(sojournNanos, Math::min);
+    return overloaded;
+  }
+
+  private InterledgerRejectPacket shed(final String reason) {
+    metricsService.trackIngressPacketShed(reason);
+    return InterledgerRejectPacket.builder()
+      .code(InterledgerErrorCode.T03_CONNECTOR_BUSY)
+      .triggeredBy(connectorSettingsSupplier.get().operatorAddress())
+      .message("Connector is too busy to process this packet in time")
+      .build();
+  }
+}
@@ -5,15 +5,21 @@ import org.interledger.connector.accounts.AccountSettings;
 import org.interledger.connector.accounts.sub.LocalDestinationAddressUtils;
 import org.interledger.connector.caching.AccountSettingsLoadingCache;
 import org.interledger.connector.events.PacketEventPublisher;
+import org.interledger.connector.jfr.ConnectorEvents;
 import org.interledger.connector.links.LinkManager;
 import org.interledger.connector.links.NextHopInfo;
 import org.interledger.connector.links.NextHopPacketMapper;
 import org.interledger.connector.links.filters.DefaultLinkFilterChain;
 import org.interledger.connector.links.filters.LinkFilter;
+import org.interledger.connector.logging.PacketLogger;
+import org.interledger.connector.metrics.PacketStageTimer;
+import org.interledger.connector.packetswitch.trace.PacketTraceRecorder;
+import org.interledger.connector.routing.LinkQualityTracker;
 import org.interledger.core.InterledgerAddress;
 import org.interledger.core.InterledgerErrorCode;
 import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.core.InterledgerProtocolException;
+import org.interledger.core.InterledgerRejectPacket;
 import org.interledger.core.InterledgerResponsePacket;
 import org.interledger.core.InterledgerRuntimeException;
 import org.interledger.link.Link;
@@ -28,12 +34,17 @@ import org.slf4j.LoggerFactory;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A default implementation of {@link PacketSwitchFilterChain}.
  */
 public class DefaultPacketSwitchFilterChain implements PacketSwitchFilterChain {
 
+  // A chain is constructed for every packet, so share one packet logger (and its rate limits) between them all.
+  private static final PacketLogger PACKET_LOGGER =
+    new PacketLogger(LoggerFactory.getLogger(DefaultPacketSwitchFilterChain.class));
+
   protected final Logger logger = LoggerFactory.getLogger(this.getClass());
 
   private final PacketRejector packetRejector;
@@ -59,6 +70,18 @@ public class DefaultPacketSwitchFilterChain implements PacketSwitchFilterChain {
 
   private PacketEventPublisher packetEventPublisher;
 
+  private final Optional<PacketStageTimer> packetStageTimer;
+
+  private final Optional<PacketTraceRecorder> packetTrace;
+
+  private final Optional<LinkQualityTracker> linkQualityTracker;
+
+  // Whether this packet's stages are timed, either for metrics or for its trace...
+  private final boolean timed;
+
+  // The time spent in the filters and stages after the filter currently being called (only tracked when timed)...
+  private long _downstreamNanos;
+
   /**
    * A chain of filters that are applied to a switchPacket request before attempting to determine the `next-hop` {@link
    * Link} to forward the packet onto.
@@ -81,6 +104,111 @@ public class DefaultPacketSwitchFilterChain implements PacketSwitchFilterChain {
     final NextHopPacketMapper nextHopPacketMapper,
     final AccountSettingsLoadingCache accountSettingsLoadingCache,
     final PacketEventPublisher packetEventPublisher
+  ) {
+    this(
+      packetRejector, packetSwitchFilters, linkFilters, localDestinationAddressUtils, linkManager, nextHopPacketMapper,
+      accountSettingsLoadingCache, packetEventPublisher, Optional.empty()
+    );
+  }
+
+  /**
+   * A chain of filters that are applied to a switchPacket request before attempting to determine the `next-hop` {@link
+   * Link} to forward the packet onto.
+   *
+   * @param packetRejector               A {@link PacketRejector} for rejecting packets in a uniform manner.
+   * @param packetSwitchFilters          A {@link List} of type {@link PacketSwitchFilter}.
+   * @param linkFilters                  A {@link List} of {@link LinkFilter}.
+   * @param localDestinationAddressUtils A {@lnk LocalDestinationAddressUtils}.
+   * @param linkManager                  A {@link LinkManager}.
+   * @param nextHopPacketMapper          A {@link NextHopPacketMapper}.
+   * @param accountSettingsLoadingCache  A {@link AccountSettingsLoadingCache}.
+   * @param packetEventPublisher         A {@link PacketEventPublisher}.
+   * @param packetStageTimer             An optional {@link PacketStageTimer} that, if present, times each stage of this
+   *                                     packet (including the outbound link filter-chain).
+   */
+  public DefaultPacketSwitchFilterChain(
+    final PacketRejector packetRejector,
+    final List<PacketSwitchFilter> packetSwitchFilters,
+    final List<LinkFilter> linkFilters,
+    final LocalDestinationAddressUtils localDestinationAddressUtils,
+    final LinkManager linkManager,
+    final NextHopPacketMapper nextHopPacketMapper,
+    final AccountSettingsLoadingCache accountSettingsLoadingCache,
+    final PacketEventPublisher packetEventPublisher,
+    final Optional<PacketStageTimer> packetStageTimer
+  ) {
+    this(
+      packetRejector, packetSwitchFilters, linkFilters, localDestinationAddressUtils, linkManager, nextHopPacketMapper,
+      accountSettingsLoadingCache, packetEventPublisher, packetStageTimer, Optional.empty()
+    );
+  }
+
+  /**
+   * A chain of filters that are applied to a switchPacket request before attempting to determine the `next-hop` {@link
+   * Link} to forward the packet onto.
+   *
+   * @param packetRejector               A {@link PacketRejector} for rejecting packets in a uniform manner.
+   * @param packetSwitchFilters          A {@link List} of type {@link PacketSwitchFilter}.
+   * @param linkFilters                  A {@link List} of {@link LinkFilter}.
+   * @param localDestinationAddressUtils A {@lnk LocalDestinationAddressUtils}.
+   * @param linkManager                  A {@link LinkManager}.
+   * @param nextHopPacketMapper          A {@link NextHopPacketMapper}.
+   * @param accountSettingsLoadingCache  A {@link AccountSettingsLoadingCache}.
+   * @param packetEventPublisher         A {@link PacketEventPublisher}.
+   * @param packetStageTimer             An optional {@link PacketStageTimer} that, if present, times each stage of this
+   *                                     packet (including the outbound link filter-chain).
+   * @param packetTrace                  An optional {@link PacketTraceRecorder} that, if present, records the next-hop
+   *                                     and stage timings of this packet into its trace.
+   */
+  public DefaultPacketSwitchFilterChain(
+    final PacketRejector packetRejector,
+    final List<PacketSwitchFilter> packetSwitchFilters,
+    final List<LinkFilter> linkFilters,
+    final LocalDestinationAddressUtils localDestinationAddressUtils,
+    final LinkManager linkManager,
+    final NextHopPacketMapper nextHopPacketMapper,
+    final AccountSettingsLoadingCache accountSettingsLoadingCache,
+    final PacketEventPublisher packetEventPublisher,
+    final Optional<PacketStageTimer> packetStageTimer,
+    final Optional<PacketTraceRecorder> packetTrace
+  ) {
+    this(
+      packetRejector, packetSwitchFilters, linkFilters, localDestinationAddressUtils, linkManager, nextHopPacketMapper,
+      accountSettingsLoadingCache, packetEventPublisher, packetStageTimer, packetTrace, Optional.empty()
+    );
+  }
+
+  /**
+   * A chain of filters that are applied to a switchPacket request before attempting to determine the `next-hop` {@link
+   * Link} to forward the packet onto.
+   *
+   * @param packetRejector               A {@link PacketRejector} for rejecting packets in a uniform manner.
+   * @param packetSwitchFilters          A {@link List} of type {@link PacketSwitchFilter}.
+   * @param linkFilters                  A {@link List} of {@link LinkFilter}.
+   * @param localDestinationAddressUtils A {@lnk LocalDestinationAddressUtils}.
+   * @param linkManager                  A {@link LinkManager}.
+   * @param nextHopPacketMapper          A {@link NextHopPacketMapper}.
+   * @param accountSettingsLoadingCache  A {@link AccountSettingsLoadingCache}.
+   * @param packetEventPublisher         A {@link PacketEventPublisher}.
+   * @param packetStageTimer             An optional {@link PacketStageTimer} that, if present, times each stage of this
+   *                                     packet (including the outbound link filter-chain).
+   * @param packetTrace                  An optional {@link PacketTraceRecorder} that, if present, records the next-hop
+   *                                     and stage timings of this packet into its trace.
+   * @param linkQualityTracker           An optional {@link LinkQualityTracker} that, if present, records the outcome
+   *                                     and round-trip time of sending this packet on the next-hop link.
+   */
+  public DefaultPacketSwitchFilterChain(
+    final PacketRejector packetRejector,
+    final List<PacketSwitchFilter> packetSwitchFilters,
+    final List<LinkFilter> linkFilters,
+    final LocalDestinationAddressUtils localDestinationAddressUtils,
+    final LinkManager linkManager,
+    final NextHopPacketMapper nextHopPacketMapper,
+    final AccountSettingsLoadingCache accountSettingsLoadingCache,
+    final PacketEventPublisher packetEventPublisher,
+    final Optional<PacketStageTimer> packetStageTimer,
+    final Optional<PacketTraceRecorder> packetTrace,
+    final Optional<LinkQualityTracker> linkQualityTracker
   ) {
     this.packetRejector = Objects.requireNonNull(packetRejector);
     this.packetSwitchFilters = Objects.requireNonNull(packetSwitchFilters);
@@ -90,6 +218,10 @@ public class DefaultPacketSwitchFilterChain implements PacketSwitchFilterChain {
     this.nextHopPacketMapper = Objects.requireNonNull(nextHopPacketMapper);
     this.packetEventPublisher = Objects.requireNonNull(packetEventPublisher);
     this.accountSettingsLoadingCache = Objects.requireNonNull(accountSettingsLoadingCache);
+    this.packetStageTimer = Objects.requireNonNull(packetStageTimer);
+    this.packetTrace = Objects.requireNonNull(packetTrace);
+    this.linkQualityTracker = Objects.requireNonNull(linkQualityTracker);
+    this.timed = packetStageTimer.isPresent() || packetTrace.isPresent();
     this._filterIndex = 0;
   }
 
@@ -108,8 +240,32 @@ public class DefaultPacketSwitchFilterChain implements PacketSwitchFilterChain {
 
       if (this._filterIndex < this.packetSwitchFilters.size()) {
         // Apply all PacketSwitch filters...
-        return packetSwitchFilters.get(_filterIndex++).doFilter(sourceAccountSettings, preparePacket, this);
+        final PacketSwitchFilter packetSwitchFilter = packetSwitchFilters.get(_filterIndex++);
+        final ConnectorEvents.PacketFilter event = ConnectorEvents.beginPacketFilter();
+        InterledgerResponsePacket responsePacket = null;
+        if (!timed) {
+          try {
+            responsePacket = packetSwitchFilter.doFilter(sourceAccountSettings, preparePacket, this);
+            return responsePacket;
+          } finally {
+            event.record(packetSwitchFilter, sourceAccountSettings.accountId(), responsePacket);
+          }
+        }
+
+        final long startNanos = System.nanoTime();
+        this._downstreamNanos = 0;
+        try {
+          responsePacket = packetSwitchFilter.doFilter(sourceAccountSettings, preparePacket, this);
+          return responsePacket;
+        } finally {
+          // Any later filters (and the forwarding stages) will have recorded their own time into `_downstreamNanos`.
+          final long elapsedNanos = System.nanoTime() - startNanos;
+          recordElapsed(PacketStageTimer.filterStageName(packetSwitchFilter), elapsedNanos - _downstreamNanos);
+          this._downstreamNanos = elapsedNanos;
+          event.record(packetSwitchFilter, sourceAccountSettings.accountId(), responsePacket);
+        }
       } else { // forwardPacket(sourceAccountSettings, preparePacket)
+        final long startNanos = timed ? System.nanoTime() : 0L;
 
         // ...and then send the new packet to its destination on the correct outbound link.
         logger.debug(
@@ -121,30 +277,43 @@ public class DefaultPacketSwitchFilterChain implements PacketSwitchFilterChain {
         final NextHopInfo nextHopInfo = this.nextHopPacketMapper.getNextHopPacket(
           sourceAccountSettings, preparePacket
         );
+        final long nextHopMappedNanos = recordStage(PacketStageTimer.NEXT_HOP_MAPPING, startNanos);
 
         final AccountSettings nextHopAccountSettings = accountSettingsLoadingCache
           .getAccount(nextHopInfo.nextHopAccountId())
           .orElseThrow(() -> new AccountNotFoundProblem(nextHopInfo.nextHopAccountId()));
 
         final Link<? extends LinkSettings> link = computeLink(nextHopAccountSettings, preparePacket.getDestination());
+        recordStage(PacketStageTimer.NEXT_HOP_LINK, nextHopMappedNanos);
+        if (packetTrace.isPresent()) {
+          packetTrace.get().recordNextHop(sourceAccountSettings, nextHopAccountSettings, nextHopInfo.nextHopPacket());
+        }
 
-        // The final operation in the filter-chain is `link.sendPacket(newPreparePacket)`.
-        InterledgerResponsePacket response = new DefaultLinkFilterChain(packetRejector, linkFilters, link)
-          .doFilter(nextHopAccountSettings, nextHopInfo.nextHopPacket());
+        // The final operation in the filter-chain is `link.sendPacket(newPreparePacket)`. The link filter-chain times
+        // its own stages.
+        InterledgerResponsePacket response = new DefaultLinkFilterChain(
+          packetRejector, linkFilters, link, packetStageTimer, packetTrace, linkQualityTracker
+        ).doFilter(nextHopAccountSettings, nextHopInfo.nextHopPacket());
 
         /////////////
         // Packet Tracking
+        final long eventsStartNanos = timed ? System.nanoTime() : 0L;
         this.trackPacket(sourceAccountSettings, preparePacket, nextHopInfo, nextHopAccountSettings, response);
+        final long endNanos = recordStage(PacketStageTimer.PACKET_EVENTS, eventsStartNanos);
+        this._downstreamNanos = endNanos - startNanos;
 
         return response;
       }
     } catch (Exception e) {
       // If anything in the filterchain emits an exception, this is considered a failure case. These always translate
       // into a rejection.
-      logger.error("Failure in PacketSwitchFilterChain: " + e.getMessage(), e);
       if (InterledgerRuntimeException.class.isAssignableFrom(e.getClass())) {
-        return ((InterledgerProtocolException) e).getInterledgerRejectPacket();
+        // Rejections like an unreachable destination are expected (and can arrive in storms), so skip the stack trace.
+        final InterledgerRejectPacket rejectPacket = ((InterledgerProtocolException) e).getInterledgerRejectPacket();
+        PACKET_LOGGER.reject("switchReject", sourceAccountSettings.accountId(), preparePacket, rejectPacket);
+        return rejectPacket;
       } else {
+        logger.error("Failure in PacketSwitchFilterChain: " + e.getMessage(), e);
         return packetRejector.reject(
           LinkId.of(sourceAccountSettings.accountId().value()),
           preparePacket,
@@ -154,6 +323,36 @@ public class DefaultPacketSwitchFilterChain implements PacketSwitchFilterChain {
     }
   }
 
+  /**
+   * Record the time spent in {@code stage}, if this packet is being timed.
+   *
+   * @param stage      The name of the stage.
+   * @param startNanos The {@link System#nanoTime()} at which the stage started.
+   *
+   * @return The {@link System#nanoTime()} at which the stage ended (or {@code startNanos} if this packet isn't being
+   *   timed), so that it can be used as the start of the next stage.
+   */
+  private long recordStage(final String stage, final long startNanos) {
+    if (!timed) {
+      return startNanos;
+    }
+    final long endNanos = System.nanoTime();
+    recordElapsed(stage, endNanos - startNanos);
+    return endNanos;
+  }
+
+  /**
+   * Record the time spent in {@code stage}, for metrics and/or this packet's trace.
+   */
+  private void recordElapsed(final String stage, final long elapsedNanos) {
+    if (packetStageTimer.isPresent()) {
+      packetStageTimer.get().record(stage, elapsedNanos);
+    }
+    if (packetTrace.isPresent()) {
+      packetTrace.get().recordStage(stage, elapsedNanos);
+    }
+  }
+
   /**
    * Track this packet by emitting proper events depending on the response.
    */
@@ -31,6 +31,7 @@ import com.google.common.annotations.VisibleForTesting;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Objects;
 import java.util.function.Supplier;
 
@@ -297,7 +298,7 @@ public class PeerProtocolPacketFilter extends AbstractPacketFilter implements Pa
     try {
       // NOTE: Idempotency is not required here because
       final byte[] messageFromOurSettlementEngine = this.settlementService.onSettlementMessageFromPeer(
-          sourceAccountSettings, sourcePreparePacketWithMessage.getData()
+          sourceAccountSettings, sourcePreparePacketWithMessage.getData(), sourcePreparePacketWithMessage.getExpiresAt()
       );
 
       return InterledgerFulfillPacket.builder()
@@ -305,6 +306,16 @@ public class PeerProtocolPacketFilter extends AbstractPacketFilter implements Pa
           .data(messageFromOurSettlementEngine)
           .build();
     } catch (Exception e) {
+      if (!Instant.now().isBefore(sourcePreparePacketWithMessage.getExpiresAt())) {
+        // The settlement engine was abandoned because the packet expired, so there's nothing to log as an error.
+        return packetRejector.reject(
+            LinkId.of(sourceAccountSettings.accountId().value()),
+            sourcePreparePacketWithMessage,
+            InterledgerErrorCode.R00_TRANSFER_TIMED_OUT,
+            String.format("Packet expired before the settlement engine responded. accountId=%s",
+                sourceAccountSettings.accountId()
+            ));
+      }
       logger.error(e.getMessage(), e);
       return packetRejector.reject(
           LinkId.of(sourceAccountSettings.accountId().value()),
@@ -0,0 +1,77 @@
+package org.interledger.connector.packetswitch.trace;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerAddress;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.primitives.UnsignedLong;
+import org.immutables.value.Value;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A record of how the packet-switch handled a single ILP Prepare packet, captured for a sample of packets by a {@link
+ * PacketTraceBuffer}.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutablePacketTrace.class)
+public interface PacketTrace {
+
+  static ImmutablePacketTrace.Builder builder() {
+    return ImmutablePacketTrace.builder();
+  }
+
+  /**
+   * The moment the packet-switch received the packet.
+   */
+  Instant receivedAt();
+
+  /**
+   * The account the packet was received from.
+   */
+  AccountId sourceAccountId();
+
+  InterledgerAddress destination();
+
+  /**
+   * The account the packet was forwarded to, unless it was rejected before a next-hop was found.
+   */
+  Optional<AccountId> nextHopAccountId();
+
+  /**
+   * The amount of the incoming packet, in the source account's units.
+   */
+  UnsignedLong amountIn();
+
+  /**
+   * The amount of the forwarded packet, in the next-hop account's units.
+   */
+  Optional<UnsignedLong> amountOut();
+
+  /**
+   * The effective exchange rate (i.e., next-hop asset units per source asset unit, after rounding) between {@code
+   * amountIn} and {@code amountOut}.
+   */
+  Optional<BigDecimal> exchangeRate();
+
+  /**
+   * The time the packet spent in each stage of the packet-switch (see {@link
+   * org.interledger.connector.metrics.PacketStageTimer}), in microseconds, in the order the stages completed.
+   */
+  Map<String, Long> stageMicros();
+
+  /**
+   * The total time the packet spent in the packet-switch, in microseconds.
+   */
+  long totalMicros();
+
+  /**
+   * The code of the reject the packet was answered with (or {@code FAILED} if it wasn't answered), or empty if it was
+   * fulfilled.
+   */
+  Optional<String> rejectCode();
+
+}
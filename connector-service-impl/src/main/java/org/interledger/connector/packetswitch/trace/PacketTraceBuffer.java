@@ -0,0 +1,104 @@
+package org.interledger.connector.packetswitch.trace;
+
+import org.interledger.connector.accounts.AccountId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Holds the {@link PacketTrace}s of a sample of recently switched packets, so that an operator can see how the
+ * packets of a misbehaving peer were handled without turning on DEBUG logging for every packet.
+ *
+ * <p>Traces are kept in a fixed-size ring buffer: adding a trace claims the next slot with a single atomic increment
+ * and overwrites whichever trace was there before, so recording never blocks or allocates beyond the trace itself.
+ * Reads take a best-effort snapshot; a trace being overwritten while the buffer is read may be skipped.</p>
+ */
+public class PacketTraceBuffer {
+
+  private final AtomicReferenceArray<PacketTrace> traces;
+  private final int mask;
+  private final AtomicLong nextIndex;
+  private final double sampleRate;
+
+  /**
+   * Required-args constructor.
+   *
+   * @param capacity   The number of traces to keep (rounded up to the next power of two).
+   * @param sampleRate The fraction (between 0 and 1) of packets to trace.
+   */
+  public PacketTraceBuffer(final int capacity, final double sampleRate) {
+    if (capacity < 1 || capacity > (1 << 20)) {
+      throw new IllegalArgumentException("capacity must be between 1 and 1048576");
+    }
+    if (sampleRate < 0 || sampleRate > 1) {
+      throw new IllegalArgumentException("sampleRate must be between 0 and 1");
+    }
+    final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+    this.traces = new AtomicReferenceArray<>(size);
+    this.mask = size - 1;
+    this.nextIndex = new AtomicLong();
+    this.sampleRate = sampleRate;
+  }
+
+  /**
+   * Decide whether the next packet should be traced.
+   *
+   * @return {@code true} for roughly {@code sampleRate} of calls.
+   */
+  public boolean sample() {
+    return sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+  }
+
+  /**
+   * Add a trace, replacing the oldest trace if the buffer is full.
+   *
+   * @param trace A {@link PacketTrace}.
+   */
+  public void add(final PacketTrace trace) {
+    Objects.requireNonNull(trace);
+    traces.lazySet((int) (nextIndex.getAndIncrement() & mask), trace);
+  }
+
+  /**
+   * Find the most recent traces, newest first.
+   *
+   * @param accountId  If present, only traces of packets received from or forwarded to this account are returned.
+   * @param rejectCode If present, only traces of packets rejected with this code (e.g., {@code T04}) are returned.
+   * @param limit      The maximum number of traces to return.
+   *
+   * @return A {@link List} of {@link PacketTrace}.
+   */
+  public List<PacketTrace> find(
+    final Optional<AccountId> accountId, final Optional<String> rejectCode, final int limit
+  ) {
+    Objects.requireNonNull(accountId);
+    Objects.requireNonNull(rejectCode);
+
+    final List<PacketTrace> found = new ArrayList<>(Math.min(limit, traces.length()));
+    final long newestIndex = nextIndex.get() - 1;
+    for (long index = newestIndex; index >= 0 && index > newestIndex - traces.length(); index--) {
+      if (found.size() >= limit) {
+        break;
+      }
+      final PacketTrace trace = traces.get((int) (index & mask));
+      if (trace != null && matches(trace, accountId, rejectCode)) {
+        found.add(trace);
+      }
+    }
+    return found;
+  }
+
+  private boolean matches(
+    final PacketTrace trace, final Optional<AccountId> accountId, final Optional<String> rejectCode
+  ) {
+    final boolean accountMatches = !accountId.isPresent()
+      || trace.sourceAccountId().equals(accountId.get())
+      || trace.nextHopAccountId().equals(accountId);
+    return accountMatches && (!rejectCode.isPresent() || trace.rejectCode().equals(rejectCode));
+  }
+}
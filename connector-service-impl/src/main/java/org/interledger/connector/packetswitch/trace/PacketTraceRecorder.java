@@ -0,0 +1,115 @@
+package org.interledger.connector.packetswitch.trace;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+
+import com.google.common.primitives.UnsignedLong;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the details of a single traced packet as it moves through the packet-switch, so that they can be turned
+ * into a {@link PacketTrace} once the packet has been answered.
+ *
+ * <p>An instance is created for every traced packet and is only used by the thread switching that packet, so it is
+ * not thread-safe.</p>
+ */
+public class PacketTraceRecorder {
+
+  private final Instant receivedAt;
+  private final long startNanos;
+  private final AccountId sourceAccountId;
+  private final InterledgerPreparePacket preparePacket;
+  private final Map<String, Long> stageNanos;
+
+  private AccountId nextHopAccountId;
+  private UnsignedLong amountOut;
+  private BigDecimal exchangeRate;
+
+  /**
+   * Required-args constructor.
+   *
+   * @param sourceAccountId The {@link AccountId} the packet was received from.
+   * @param preparePacket   The {@link InterledgerPreparePacket} being traced.
+   */
+  public PacketTraceRecorder(final AccountId sourceAccountId, final InterledgerPreparePacket preparePacket) {
+    this.receivedAt = Instant.now();
+    this.startNanos = System.nanoTime();
+    this.sourceAccountId = Objects.requireNonNull(sourceAccountId);
+    this.preparePacket = Objects.requireNonNull(preparePacket);
+    this.stageNanos = new LinkedHashMap<>();
+  }
+
+  /**
+   * Record the time the packet spent in a single stage. Time spent in a stage more than once is added up.
+   *
+   * @param stage        The name of the stage.
+   * @param elapsedNanos The time spent in the stage, in nanoseconds.
+   */
+  public void recordStage(final String stage, final long elapsedNanos) {
+    stageNanos.merge(stage, elapsedNanos, Long::sum);
+  }
+
+  /**
+   * Record the next-hop the packet is being forwarded to.
+   *
+   * @param sourceAccountSettings  The {@link AccountSettings} the packet was received from.
+   * @param nextHopAccountSettings The {@link AccountSettings} the packet is being forwarded to.
+   * @param nextHopPacket          The {@link InterledgerPreparePacket} being forwarded.
+   */
+  public void recordNextHop(
+    final AccountSettings sourceAccountSettings,
+    final AccountSettings nextHopAccountSettings,
+    final InterledgerPreparePacket nextHopPacket
+  ) {
+    this.nextHopAccountId = nextHopAccountSettings.accountId();
+    this.amountOut = nextHopPacket.getAmount();
+    if (!preparePacket.getAmount().equals(UnsignedLong.ZERO)) {
+      // Compare both amounts in whole asset units (e.g., dollars rather than cents).
+      this.exchangeRate = new BigDecimal(amountOut.bigIntegerValue(), nextHopAccountSettings.assetScale())
+        .divide(
+          new BigDecimal(preparePacket.getAmount().bigIntegerValue(), sourceAccountSettings.assetScale()),
+          MathContext.DECIMAL64
+        );
+    }
+  }
+
+  /**
+   * Finish this trace.
+   *
+   * @param responsePacket The {@link InterledgerResponsePacket} the packet was answered with, or {@code null} if the
+   *                       packet-switch failed to answer it.
+   *
+   * @return A {@link PacketTrace}.
+   */
+  public PacketTrace complete(final InterledgerResponsePacket responsePacket) {
+    final long totalNanos = System.nanoTime() - startNanos;
+    final ImmutablePacketTrace.Builder builder = PacketTrace.builder()
+      .receivedAt(receivedAt)
+      .sourceAccountId(sourceAccountId)
+      .destination(preparePacket.getDestination())
+      .amountIn(preparePacket.getAmount())
+      .nextHopAccountId(Optional.ofNullable(nextHopAccountId))
+      .amountOut(Optional.ofNullable(amountOut))
+      .exchangeRate(Optional.ofNullable(exchangeRate))
+      .totalMicros(TimeUnit.NANOSECONDS.toMicros(totalNanos));
+    stageNanos.forEach((stage, nanos) -> builder.putStageMicros(stage, TimeUnit.NANOSECONDS.toMicros(nanos)));
+
+    if (responsePacket == null) {
+      builder.rejectCode("FAILED");
+    } else if (responsePacket instanceof InterledgerRejectPacket) {
+      builder.rejectCode(((InterledgerRejectPacket) responsePacket).getCode().getCode());
+    }
+    return builder.build();
+  }
+}
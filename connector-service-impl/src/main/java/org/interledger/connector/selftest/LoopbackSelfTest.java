@@ -0,0 +1,283 @@
+package org.interledger.connector.selftest;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountNotFoundProblem;
+import org.interledger.connector.caching.AccountSettingsLoadingCache;
+import org.interledger.connector.localsend.LocalPacketSwitchLink;
+import org.interledger.connector.localsend.LocalPacketSwitchLinkSettings;
+import org.interledger.connector.packetswitch.ILPv4PacketSwitch;
+import org.interledger.connector.ping.DefaultPingInitiator;
+import org.interledger.connector.ping.PingInitiator;
+import org.interledger.connector.settings.ConnectorSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerResponsePacket;
+import org.interledger.core.SharedSecret;
+import org.interledger.link.LinkId;
+
+import com.google.common.primitives.UnsignedLong;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.zalando.problem.Status;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * <p>Puts synthetic load on this Connector by sending Ping packets from an existing account to the Connector's own
+ * Ping account, at a fixed rate for a bounded duration, and reports the throughput and latency that were achieved.
+ * This allows an operator to check the capacity of a freshly provisioned node (CPU, Redis, database) before it takes
+ * real traffic.</p>
+ *
+ * <p>Packets enter the {@link ILPv4PacketSwitch} through a {@link LocalPacketSwitchLink}, exactly as if they had been
+ * received from the source account, so they pass through every packet-switch and link filter and update balances.
+ * They are fulfilled by the Ping account's link, which requires the Ping protocol to be enabled. Note that the source
+ * account's rate limit, if any, applies to these packets too.</p>
+ *
+ * <p>Only one self-test runs at a time.</p>
+ */
+public class LoopbackSelfTest {
+
+  public static final Duration MAX_DURATION = Duration.ofSeconds(60);
+  public static final int MAX_PACKETS_PER_SECOND = 10_000;
+  public static final int MAX_CONCURRENCY = 64;
+
+  private static final Duration PACKET_EXPIRY = Duration.ofSeconds(30);
+  // Latencies above this are recorded as this.
+  private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+  private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+  private final ILPv4PacketSwitch packetSwitch;
+  private final Supplier<ConnectorSettings> connectorSettingsSupplier;
+  private final AccountSettingsLoadingCache accountSettingsLoadingCache;
+  private final AtomicBoolean running = new AtomicBoolean();
+
+  /**
+   * Required-args constructor.
+   *
+   * @param packetSwitch                The {@link ILPv4PacketSwitch} to send packets through.
+   * @param connectorSettingsSupplier   A {@link Supplier} of the current {@link ConnectorSettings}.
+   * @param accountSettingsLoadingCache An {@link AccountSettingsLoadingCache} to check that the source account exists.
+   */
+  public LoopbackSelfTest(
+    final ILPv4PacketSwitch packetSwitch,
+    final Supplier<ConnectorSettings> connectorSettingsSupplier,
+    final AccountSettingsLoadingCache accountSettingsLoadingCache
+  ) {
+    this.packetSwitch = Objects.requireNonNull(packetSwitch);
+    this.connectorSettingsSupplier = Objects.requireNonNull(connectorSettingsSupplier);
+    this.accountSettingsLoadingCache = Objects.requireNonNull(accountSettingsLoadingCache);
+  }
+
+  /**
+   * Send Ping packets from {@code sourceAccountId} to this Connector's Ping account, blocking until they have all
+   * been answered.
+   *
+   * @param sourceAccountId  The {@link AccountId} of the existing account to send packets from.
+   * @param duration         How long to send packets for (at most {@link #MAX_DURATION}).
+   * @param packetsPerSecond The rate to send packets at (at most {@link #MAX_PACKETS_PER_SECOND}).
+   * @param concurrency      The maximum number of packets in flight at once (at most {@link #MAX_CONCURRENCY}).
+   * @param amount           The amount of each packet, in the units of the source account.
+   *
+   * @return A {@link SelfTestResult}.
+   *
+   * @throws SelfTestProblem        if the parameters are out of bounds, the Ping protocol is disabled, or another
+   *                                self-test is running.
+   * @throws AccountNotFoundProblem if {@code sourceAccountId} does not exist.
+   */
+  public SelfTestResult run(
+    final AccountId sourceAccountId,
+    final Duration duration,
+    final int packetsPerSecond,
+    final int concurrency,
+    final UnsignedLong amount
+  ) {
+    Objects.requireNonNull(sourceAccountId);
+    Objects.requireNonNull(duration);
+    Objects.requireNonNull(amount);
+
+    if (duration.isNegative() || duration.isZero() || duration.compareTo(MAX_DURATION) > 0) {
+      throw new SelfTestProblem(
+        "duration must be positive and at most " + MAX_DURATION.getSeconds() + " seconds", Status.BAD_REQUEST
+      );
+    }
+    if (packetsPerSecond < 1 || packetsPerSecond > MAX_PACKETS_PER_SECOND) {
+      throw new SelfTestProblem("packetsPerSecond must be between 1 and " + MAX_PACKETS_PER_SECOND, Status.BAD_REQUEST);
+    }
+    if (concurrency < 1 || concurrency > MAX_CONCURRENCY) {
+      throw new SelfTestProblem("concurrency must be between 1 and " + MAX_CONCURRENCY, Status.BAD_REQUEST);
+    }
+    if (!connectorSettingsSupplier.get().enabledProtocols().isPingProtocolEnabled()) {
+      throw new SelfTestProblem("The Ping protocol must be enabled to fulfill self-test packets", Status.CONFLICT);
+    }
+    if (!accountSettingsLoadingCache.getAccount(sourceAccountId).isPresent()) {
+      throw new AccountNotFoundProblem(sourceAccountId);
+    }
+
+    if (!running.compareAndSet(false, true)) {
+      throw new SelfTestProblem("Another self-test is already running", Status.CONFLICT);
+    }
+    try {
+      logger.info(
+        "Starting self-test. sourceAccountId={} duration={} packetsPerSecond={} concurrency={} amount={}",
+        sourceAccountId, duration, packetsPerSecond, concurrency, amount
+      );
+      final SelfTestResult result = doRun(sourceAccountId, duration, packetsPerSecond, concurrency, amount);
+      logger.info("Finished self-test. result={}", result);
+      return result;
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private SelfTestResult doRun(
+    final AccountId sourceAccountId,
+    final Duration duration,
+    final int packetsPerSecond,
+    final int concurrency,
+    final UnsignedLong amount
+  ) {
+    final InterledgerAddress operatorAddress = connectorSettingsSupplier.get().operatorAddress();
+    final LocalPacketSwitchLink link = new LocalPacketSwitchLink(
+      packetSwitch,
+      () -> connectorSettingsSupplier.get().operatorAddress(),
+      LocalPacketSwitchLinkSettings.builder()
+        .accountId(sourceAccountId)
+        // Ping packets don't carry STREAM data, so this is never used.
+        .sharedSecret(SharedSecret.of(new byte[32]))
+        .build()
+    );
+    link.setLinkId(LinkId.of(sourceAccountId.value()));
+    final PingInitiator pingInitiator = new DefaultPingInitiator(link, () -> Instant.now().plus(PACKET_EXPIRY));
+
+    // Packet N is scheduled N intervals after the start. Senders claim packets in order and wait for their scheduled
+    // time, and no packet is claimed once the duration is up.
+    final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / packetsPerSecond;
+    final long durationNanos = duration.toNanos();
+    final AtomicLong nextPacket = new AtomicLong();
+
+    final ExecutorService executorService = Executors.newFixedThreadPool(concurrency, new ThreadFactoryBuilder()
+      .setNameFormat("self-test-%d")
+      .setDaemon(true)
+      .build());
+    try {
+      final long startNanos = System.nanoTime();
+      final List<Future<SenderResult>> futures = new ArrayList<>(concurrency);
+      for (int i = 0; i < concurrency; i++) {
+        futures.add(executorService.submit(() -> {
+          final SenderResult senderResult = new SenderResult();
+          while (!Thread.currentThread().isInterrupted()) {
+            final long scheduledNanos = startNanos + nextPacket.getAndIncrement() * intervalNanos;
+            if (scheduledNanos - startNanos >= durationNanos) {
+              break;
+            }
+            final long waitNanos = scheduledNanos - System.nanoTime();
+            if (waitNanos > 0) {
+              LockSupport.parkNanos(waitNanos);
+            }
+            senderResult.send(pingInitiator, operatorAddress, amount, scheduledNanos);
+          }
+          return senderResult;
+        }));
+      }
+
+      final SenderResult total = new SenderResult();
+      for (Future<SenderResult> future : futures) {
+        total.add(future.get());
+      }
+      return total.toResult(
+        sourceAccountId, packetsPerSecond, concurrency, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos)
+      );
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SelfTestProblem("The self-test was interrupted", Status.SERVICE_UNAVAILABLE);
+    } catch (ExecutionException e) {
+      throw new RuntimeException(e.getCause());
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  /**
+   * What a single sender thread observed. Each sender has its own, so recording needs no synchronization.
+   */
+  private static final class SenderResult {
+
+    private final Histogram latencyMicros = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+    private final Map<String, Long> rejectCodes = new HashMap<>();
+    private long packetsSent;
+    private long packetsFulfilled;
+    private long packetsRejected;
+    private long packetsFailed;
+
+    private void send(
+      final PingInitiator pingInitiator,
+      final InterledgerAddress destination,
+      final UnsignedLong amount,
+      final long scheduledNanos
+    ) {
+      packetsSent++;
+      try {
+        final InterledgerResponsePacket responsePacket = pingInitiator.ping(destination, amount);
+        responsePacket.handle(
+          fulfillPacket -> packetsFulfilled++,
+          rejectPacket -> {
+            packetsRejected++;
+            rejectCodes.merge(rejectPacket.getCode().getCode(), 1L, Long::sum);
+          }
+        );
+      } catch (RuntimeException e) {
+        packetsFailed++;
+      }
+      final long elapsedMicros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - scheduledNanos);
+      latencyMicros.recordValue(Math.min(Math.max(elapsedMicros, 0), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    private void add(final SenderResult other) {
+      latencyMicros.add(other.latencyMicros);
+      other.rejectCodes.forEach((code, count) -> rejectCodes.merge(code, count, Long::sum));
+      packetsSent += other.packetsSent;
+      packetsFulfilled += other.packetsFulfilled;
+      packetsRejected += other.packetsRejected;
+      packetsFailed += other.packetsFailed;
+    }
+
+    private SelfTestResult toResult(
+      final AccountId sourceAccountId, final int packetsPerSecond, final int concurrency, final long elapsedMillis
+    ) {
+      return SelfTestResult.builder()
+        .sourceAccountId(sourceAccountId)
+        .requestedPacketsPerSecond(packetsPerSecond)
+        .concurrency(concurrency)
+        .elapsedMillis(elapsedMillis)
+        .packetsSent(packetsSent)
+        .packetsFulfilled(packetsFulfilled)
+        .packetsRejected(packetsRejected)
+        .packetsFailed(packetsFailed)
+        .rejectCodes(rejectCodes)
+        .fulfilledPacketsPerSecond(elapsedMillis == 0 ? 0 : packetsFulfilled * 1000d / elapsedMillis)
+        .p50Micros(latencyMicros.getValueAtPercentile(50))
+        .p90Micros(latencyMicros.getValueAtPercentile(90))
+        .p99Micros(latencyMicros.getValueAtPercentile(99))
+        .p999Micros(latencyMicros.getValueAtPercentile(99.9))
+        .maxMicros(latencyMicros.getMaxValue())
+        .build();
+    }
+  }
+}
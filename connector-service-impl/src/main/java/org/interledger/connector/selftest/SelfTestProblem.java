@@ -0,0 +1,23 @@
+package org.interledger.connector.selftest;
+
+import org.interledger.connector.core.problems.AbstractConnectorProblem;
+
+import org.zalando.problem.Status;
+
+import java.net.URI;
+
+/**
+ * Thrown if a {@link LoopbackSelfTest} cannot be run, either because of the parameters it was requested with or
+ * because of the state of the Connector.
+ */
+public class SelfTestProblem extends AbstractConnectorProblem {
+
+  public SelfTestProblem(final String detail, final Status status) {
+    super(
+      URI.create(TYPE_PREFIX + "/self-test"),
+      "Self-Test Not Run",
+      status,
+      detail
+    );
+  }
+}
@@ -0,0 +1,79 @@
+package org.interledger.connector.selftest;
+
+import org.interledger.connector.accounts.AccountId;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.immutables.value.Value;
+
+import java.util.Map;
+
+/**
+ * The outcome of a {@link LoopbackSelfTest}: how many packets the Connector switched, how fast, and how long each one
+ * took.
+ */
+@Value.Immutable
+@JsonSerialize(as = ImmutableSelfTestResult.class)
+public interface SelfTestResult {
+
+  static ImmutableSelfTestResult.Builder builder() {
+    return ImmutableSelfTestResult.builder();
+  }
+
+  /**
+   * The account the packets were sent from.
+   */
+  AccountId sourceAccountId();
+
+  /**
+   * The rate packets were scheduled at.
+   */
+  int requestedPacketsPerSecond();
+
+  /**
+   * The number of packets that were allowed to be in flight at once.
+   */
+  int concurrency();
+
+  /**
+   * The time from the first packet being scheduled until the last response was received.
+   */
+  long elapsedMillis();
+
+  /**
+   * The number of packets sent, which is lower than the requested rate allows if the Connector could not keep up.
+   */
+  long packetsSent();
+
+  long packetsFulfilled();
+
+  long packetsRejected();
+
+  /**
+   * The number of packets whose sending failed with an exception rather than a reject.
+   */
+  long packetsFailed();
+
+  /**
+   * The number of rejected packets, by reject code (e.g., {@code T03}).
+   */
+  Map<String, Long> rejectCodes();
+
+  /**
+   * The number of packets fulfilled per second, over {@link #elapsedMillis()}.
+   */
+  double fulfilledPacketsPerSecond();
+
+  /**
+   * Latency percentiles, in microseconds. Latency is measured from the time a packet was scheduled to be sent, so time
+   * spent waiting for a free sender counts, and a Connector that can't keep up with the requested rate shows it here.
+   */
+  long p50Micros();
+
+  long p90Micros();
+
+  long p99Micros();
+
+  long p999Micros();
+
+  long maxMicros();
+}
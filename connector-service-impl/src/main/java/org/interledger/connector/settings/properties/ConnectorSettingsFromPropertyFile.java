@@ -199,6 +199,11 @@ public class ConnectorSettingsFromPropertyFile implements ConnectorSettings {
     private Optional<String> routingSecret = Optional.empty();
     private boolean useParentForDefaultRoute;
     private Duration routeBroadcastInterval = Duration.ofSeconds(30);
+    private Optional<String> routingTableSnapshotPath = Optional.empty();
+    private Duration routingTableSnapshotInterval = Duration.ofSeconds(30);
+    private boolean latencyAwareRouteSelectionEnabled;
+    private Duration latencyAwareRouteSelectionInterval = Duration.ofSeconds(10);
+    private double latencyAwareRouteSelectionHysteresis = 0.2;
 
     @Override
     public boolean isRouteBroadcastEnabled() {
@@ -272,5 +277,50 @@ public class ConnectorSettingsFromPropertyFile implements ConnectorSettings {
       this.routeBroadcastInterval = routeBroadcastInterval;
     }
 
+    @Override
+    public Optional<String> routingTableSnapshotPath() {
+      return routingTableSnapshotPath;
+    }
+
+    public void setRoutingTableSnapshotPath(Optional<String> routingTableSnapshotPath) {
+      this.routingTableSnapshotPath = routingTableSnapshotPath;
+    }
+
+    @Override
+    public Duration routingTableSnapshotInterval() {
+      return routingTableSnapshotInterval;
+    }
+
+    public void setRoutingTableSnapshotInterval(Duration routingTableSnapshotInterval) {
+      this.routingTableSnapshotInterval = routingTableSnapshotInterval;
+    }
+
+    @Override
+    public boolean isLatencyAwareRouteSelectionEnabled() {
+      return latencyAwareRouteSelectionEnabled;
+    }
+
+    public void setLatencyAwareRouteSelectionEnabled(boolean latencyAwareRouteSelectionEnabled) {
+      this.latencyAwareRouteSelectionEnabled = latencyAwareRouteSelectionEnabled;
+    }
+
+    @Override
+    public Duration latencyAwareRouteSelectionInterval() {
+      return latencyAwareRouteSelectionInterval;
+    }
+
+    public void setLatencyAwareRouteSelectionInterval(Duration latencyAwareRouteSelectionInterval) {
+      this.latencyAwareRouteSelectionInterval = latencyAwareRouteSelectionInterval;
+    }
+
+    @Override
+    public double latencyAwareRouteSelectionHysteresis() {
+      return latencyAwareRouteSelectionHysteresis;
+    }
+
+    public void setLatencyAwareRouteSelectionHysteresis(double latencyAwareRouteSelectionHysteresis) {
+      this.latencyAwareRouteSelectionHysteresis = latencyAwareRouteSelectionHysteresis;
+    }
+
   }
 }
@@ -11,6 +11,9 @@ public class IlpOverHttpConnectionSettingsFromPropertyFile implements IlpOverHtt
   private int maxRequestsPerHost = 50;
   private int maxIdleConnections = 10;
   private long keepAliveSeconds = 30;
+  private boolean http2Enabled = true;
+  private boolean http2PriorKnowledge = false;
+  private int maxConcurrentStreamsPerPeer = 0;
 
   @Override
   public long connectTimeoutMillis() {
@@ -47,6 +50,21 @@ public class IlpOverHttpConnectionSettingsFromPropertyFile implements IlpOverHtt
     return keepAliveSeconds;
   }
 
+  @Override
+  public boolean isHttp2Enabled() {
+    return http2Enabled;
+  }
+
+  @Override
+  public boolean isHttp2PriorKnowledge() {
+    return http2PriorKnowledge;
+  }
+
+  @Override
+  public int maxConcurrentStreamsPerPeer() {
+    return maxConcurrentStreamsPerPeer;
+  }
+
   public void setConnectTimeoutMillis(long connectTimeoutMillis) {
     this.connectTimeoutMillis = connectTimeoutMillis;
   }
@@ -74,4 +92,16 @@ public class IlpOverHttpConnectionSettingsFromPropertyFile implements IlpOverHtt
   public void setKeepAliveSeconds(long keepAliveSeconds) {
     this.keepAliveSeconds = keepAliveSeconds;
   }
+
+  public void setHttp2Enabled(boolean http2Enabled) {
+    this.http2Enabled = http2Enabled;
+  }
+
+  public void setHttp2PriorKnowledge(boolean http2PriorKnowledge) {
+    this.http2PriorKnowledge = http2PriorKnowledge;
+  }
+
+  public void setMaxConcurrentStreamsPerPeer(int maxConcurrentStreamsPerPeer) {
+    this.maxConcurrentStreamsPerPeer = maxConcurrentStreamsPerPeer;
+  }
 }
@@ -7,6 +7,8 @@ public class IlpOverHttpConnectorSettingsFromPropertyFile implements IlpOverHttp
 
   private IlpOverHttpConnectionSettingsFromPropertyFile connectionDefaults =
     new IlpOverHttpConnectionSettingsFromPropertyFile();
+  private boolean h2cEnabled = true;
+  private int maxConcurrentStreams = 256;
 
   @Override
   public IlpOverHttpConnectionSettings connectionDefaults() {
@@ -20,4 +22,22 @@ public class IlpOverHttpConnectorSettingsFromPropertyFile implements IlpOverHttp
   public IlpOverHttpConnectionSettingsFromPropertyFile getConnectionDefaults() {
     return connectionDefaults;
   }
+
+  @Override
+  public boolean isH2cEnabled() {
+    return h2cEnabled;
+  }
+
+  public void setH2cEnabled(boolean h2cEnabled) {
+    this.h2cEnabled = h2cEnabled;
+  }
+
+  @Override
+  public int maxConcurrentStreams() {
+    return maxConcurrentStreams;
+  }
+
+  public void setMaxConcurrentStreams(int maxConcurrentStreams) {
+    this.maxConcurrentStreams = maxConcurrentStreams;
+  }
 }
@@ -13,6 +13,7 @@ import org.interledger.connector.core.settlement.SettlementQuantity;
 import org.interledger.connector.events.IncomingSettlementFailedEvent;
 import org.interledger.connector.events.IncomingSettlementSucceededEvent;
 import org.interledger.connector.events.OutgoingSettlementInitiationSucceededEvent;
+import org.interledger.connector.jfr.ConnectorEvents;
 import org.interledger.connector.links.LinkManager;
 import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
 import org.interledger.connector.settlement.client.InitiateSettlementRequest;
@@ -168,10 +169,11 @@ public class DefaultSettlementService implements SettlementService {
 
   @Override
   public byte[] onSettlementMessageFromPeer(
-    final AccountSettings accountSettings, final byte[] messageFromPeerSettlementEngine
+    final AccountSettings accountSettings, final byte[] messageFromPeerSettlementEngine, final Instant expiresAt
   ) {
     Objects.requireNonNull(accountSettings, "accountSettings must not be null");
     Objects.requireNonNull(messageFromPeerSettlementEngine, "messageFromPeerSettlementEngine must not be null");
+    Objects.requireNonNull(expiresAt, "expiresAt must not be null");
 
     // Only handle the request to send a message if the account has a configured Settlement Engine...
     return accountSettings.settlementEngineDetails()
@@ -183,7 +185,7 @@ public class DefaultSettlementService implements SettlementService {
           settlementEngineDetails.settlementEngineAccountId()
             .orElseGet(() -> SettlementEngineAccountId.of(accountSettings.accountId().value())),
           settlementEngineDetails.baseUrl(),
-          SendMessageRequest.builder().data(messageFromPeerSettlementEngine).build()
+          SendMessageRequest.builder().data(messageFromPeerSettlementEngine).expiresAt(expiresAt).build()
         );
 
         return sendMessageResponse.data();
@@ -221,6 +223,8 @@ public class DefaultSettlementService implements SettlementService {
     // while this is being processed.
     return accountSettings.settlementEngineDetails()
       .map(settlementEngineDetails -> {
+        final ConnectorEvents.SettlementInitiation settlementInitiationEvent =
+          ConnectorEvents.beginSettlementInitiation();
         try {
 
           /////////////////
@@ -280,9 +284,16 @@ public class DefaultSettlementService implements SettlementService {
             .processedQuantityInClearingUnits(settledQuantity)
             .build());
 
+          settlementInitiationEvent.record(
+            accountId, idempotencyKey, settlementQuantityInClearingUnits, settledQuantity, null
+          );
           return settledQuantity;
 
         } catch (Exception e) { // If anything goes wrong, rollback the preemptive balance update.
+          settlementInitiationEvent.record(
+            accountSettings.accountId(), idempotencyKey, settlementQuantityInClearingUnits, null, e
+          );
+
           //////////////////
           // Refund the Settlement
           //////////////////
@@ -2,6 +2,7 @@ package org.interledger.connector.settlement.client;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.interledger.connector.settlement.SettlementEngineClient;
+import okhttp3.Call;
 import okhttp3.HttpUrl;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -15,8 +16,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 import static org.interledger.connector.settlement.SettlementConstants.ACCOUNTS;
 import static org.interledger.connector.settlement.SettlementConstants.IDEMPOTENCY_KEY;
@@ -207,7 +211,20 @@ public class OkHttpSettlementEngineClient implements SettlementEngineClient {
       sendMessageRequest, requestUrl
     );
 
-    try (Response okHttpResponse = okHttpClient.newCall(okHttpRequest).execute()) {
+    final Call call = okHttpClient.newCall(okHttpRequest);
+    // The peer stops waiting on this message when its packet expires, so bound the whole call by that expiry too.
+    sendMessageRequest.expiresAt().ifPresent(expiresAt -> {
+      final long remainingNanos = Duration.between(Instant.now(), expiresAt).toNanos();
+      if (remainingNanos <= 0) {
+        throw new SettlementEngineClientException(
+          String.format("Message expired before it could be sent to settlement engine. expiresAt=%s", expiresAt),
+          accountId, Optional.ofNullable(settlementEngineAccountId)
+        );
+      }
+      call.timeout().timeout(remainingNanos, TimeUnit.NANOSECONDS);
+    });
+
+    try (Response okHttpResponse = call.execute()) {
       if (!okHttpResponse.isSuccessful()) {
         final String errorMessage = String.format("Unable to send message to settlement engine. " +
             "initiateSettlementRequest=%s okHttpRequest=%s okHttpResponse=%s",
@@ -1,10 +1,16 @@
 package org.interledger.connector.accounts;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 import org.interledger.connector.accounts.event.AccountCredentialsUpdatedEvent;
 import org.interledger.connector.persistence.config.ConnectorPersistenceConfig;
 import org.interledger.connector.persistence.converters.AccessTokenEntityConverter;
+import org.interledger.connector.persistence.entities.AccessTokenEntity;
 import org.interledger.connector.persistence.repositories.AccessTokensRepository;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -47,7 +53,7 @@ public class DefaultAccessTokenManagerTest {
   @Mock
   private EventBus eventBus;
 
-  private PasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+  private PasswordEncoder passwordEncoder = spy(new BCryptPasswordEncoder());
   private DefaultAccessTokenManager manager;
 
   @Before
@@ -90,6 +96,52 @@ public class DefaultAccessTokenManagerTest {
       .containsExactlyInAnyOrder(vicToken1, vicToken2);
   }
 
+  @Test
+  public void createTokenStoresFingerprint() {
+    AccountId accountId = AccountId.of("test");
+    AccessToken accessToken = manager.createToken(accountId);
+
+    assertThat(accessTokensRepository.findById(accessToken.id()).get().getTokenFingerprint())
+      .isEqualTo(DefaultAccessTokenManager.fingerprint(accessToken.rawToken().get()));
+  }
+
+  @Test
+  public void findByRawTokenChecksOnlyTheFingerprintedToken() {
+    AccountId accountId = AccountId.of("busy");
+    manager.createToken(accountId);
+    AccessToken accessToken = manager.createToken(accountId);
+    manager.createToken(accountId);
+
+    assertThat(manager.findByAccountIdAndRawToken(accountId, accessToken.rawToken().get()))
+      .isNotEmpty()
+      .get().extracting(AccessToken::id).isEqualTo(accessToken.id());
+    verify(passwordEncoder, times(1)).matches(any(), anyString());
+  }
+
+  @Test
+  public void findByRawTokenWithWrongToken() {
+    AccountId accountId = AccountId.of("test");
+    manager.createToken(accountId);
+
+    assertThat(manager.findByAccountIdAndRawToken(accountId, "wrong")).isEmpty();
+  }
+
+  @Test
+  public void findByRawTokenFingerprintsLegacyToken() {
+    AccountId accountId = AccountId.of("legacy");
+    AccessTokenEntity legacyEntity = new AccessTokenEntity();
+    legacyEntity.setAccountId(accountId);
+    legacyEntity.setEncryptedToken(passwordEncoder.encode("legacy-token"));
+    legacyEntity = accessTokensRepository.save(legacyEntity);
+
+    assertThat(manager.findByAccountIdAndRawToken(accountId, "legacy-token"))
+      .isNotEmpty()
+      .get().extracting(AccessToken::id).isEqualTo(legacyEntity.getId());
+    assertThat(accessTokensRepository.findById(legacyEntity.getId()).get().getTokenFingerprint())
+      .isEqualTo(DefaultAccessTokenManager.fingerprint("legacy-token"));
+    assertThat(accessTokensRepository.findByAccountIdAndTokenFingerprintIsNull(accountId)).isEmpty();
+  }
+
   @Test
   public void deletePostsEvent() {
     AccountId hugh = AccountId.of("hugh");
@@ -8,10 +8,13 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import org.interledger.connector.accounts.event.AccountCredentialsUpdatedEvent;
+import org.interledger.connector.links.Http2IlpOverHttpLinkFactory;
 import org.interledger.connector.links.IldcpFetcherFactory;
 import org.interledger.connector.links.LinkManager;
 import org.interledger.connector.links.LinkSettingsFactory;
 import org.interledger.connector.links.LinkSettingsValidator;
+import org.interledger.connector.links.filters.OutgoingBulkheadLinkFilter;
 import org.interledger.connector.persistence.entities.AccountSettingsEntity;
 import org.interledger.connector.persistence.entities.DeletedAccountSettingsEntity;
 import org.interledger.connector.persistence.entities.SettlementEngineDetailsEntity;
@@ -128,6 +131,42 @@ public class DefaultAccountManagerTest {
     accountManager.validateLinkSettings(accountSettings);
   }
 
+  @Test
+  public void validateLinkSettingsFailsOnInvalidBulkheadLimit() {
+    AccountSettings accountSettings = AccountSettings.builder()
+      .accountId(AccountId.of("BulkheadGuy"))
+      .assetCode("XRP")
+      .assetScale(9)
+      .linkType(LinkType.of("Loopback"))
+      .accountRelationship(AccountRelationship.PEER)
+      .putCustomSettings(OutgoingBulkheadLinkFilter.MAX_CONCURRENT_PACKETS, "lots")
+      .build();
+
+    expectedException.expect(InvalidAccountSettingsProblem.class);
+    expectedException.expectMessage("bulkhead.maxConcurrentPackets must be an integer but was `lots`");
+
+    accountManager.validateLinkSettings(accountSettings);
+  }
+
+  @Test
+  public void validateLinkSettingsFailsOnInvalidMaxConcurrentStreams() {
+    AccountSettings accountSettings = AccountSettings.builder()
+      .accountId(AccountId.of("StreamGuy"))
+      .assetCode("XRP")
+      .assetScale(9)
+      .linkType(LinkType.of("Loopback"))
+      .accountRelationship(AccountRelationship.PEER)
+      .putCustomSettings(Http2IlpOverHttpLinkFactory.HTTP2_MAX_CONCURRENT_STREAMS, "lots")
+      .build();
+
+    expectedException.expect(InvalidAccountSettingsProblem.class);
+    expectedException.expectMessage(
+      "ilpOverHttp.outgoing.http2.maxConcurrentStreams must be an integer but was `lots`"
+    );
+
+    accountManager.validateLinkSettings(accountSettings);
+  }
+
   @Test
   public void deleteAccount() {
     AccountId accountId = AccountId.of("egg");
@@ -145,6 +184,7 @@ public class DefaultAccountManagerTest {
     verify(accountSettingsRepository, times(1)).findByAccountId(accountId);
     verify(deletedAccountSettingsRepository, times(1))
       .save(new DeletedAccountSettingsEntity(account));
+    verify(eventBus).post(AccountCredentialsUpdatedEvent.builder().accountId(accountId).build());
   }
 
   @Test
@@ -0,0 +1,29 @@
+package org.interledger.connector.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.connector.accounts.AccountId;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ConnectorEvents}.
+ */
+public class ConnectorEventsTest {
+
+  @Test
+  public void nothingIsAllocatedWhileNotRecording() {
+    assertThat(ConnectorEvents.beginPacketSwitched()).isSameAs(ConnectorEvents.PacketSwitched.NOOP);
+    assertThat(ConnectorEvents.beginPacketFilter()).isSameAs(ConnectorEvents.PacketFilter.NOOP);
+    assertThat(ConnectorEvents.beginRouteLookup()).isSameAs(ConnectorEvents.RouteLookup.NOOP);
+    assertThat(ConnectorEvents.beginFxConversion()).isSameAs(ConnectorEvents.FxConversion.NOOP);
+    assertThat(ConnectorEvents.beginBalanceTracker()).isSameAs(ConnectorEvents.BalanceTracker.NOOP);
+    assertThat(ConnectorEvents.beginSettlementInitiation()).isSameAs(ConnectorEvents.SettlementInitiation.NOOP);
+  }
+
+  @Test
+  public void noOpRecordingAcceptsNulls() {
+    ConnectorEvents.beginBalanceTracker()
+      .record(ConnectorEvents.BalanceTracker.BALANCE, AccountId.of("alice"), 0, null);
+  }
+}
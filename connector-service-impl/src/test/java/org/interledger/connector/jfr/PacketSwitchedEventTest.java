@@ -0,0 +1,105 @@
+package org.interledger.connector.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+
+import com.google.common.primitives.UnsignedLong;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Unit tests for {@link PacketSwitchedEvent}.
+ */
+public class PacketSwitchedEventTest {
+
+  private static final InterledgerPreparePacket PREPARE_PACKET = InterledgerPreparePacket.builder()
+    .destination(InterledgerAddress.of("g.connector.bob.stream-tag"))
+    .amount(UnsignedLong.valueOf(10))
+    .executionCondition(InterledgerCondition.of(new byte[32]))
+    .expiresAt(Instant.now().plusSeconds(30))
+    .build();
+
+  @Test
+  public void notRecordedByDefault() throws IOException {
+    try (Recording recording = new Recording()) {
+      recording.start();
+      new PacketSwitchedEvent().record(AccountId.of("alice"), PREPARE_PACKET, null);
+      recording.stop();
+
+      assertThat(recordedEvents(recording)).isEmpty();
+    }
+  }
+
+  @Test
+  public void recordedWhenEnabled() throws IOException {
+    try (Recording recording = new Recording()) {
+      recording.enable(PacketSwitchedEvent.class).withThreshold(Duration.ZERO);
+      recording.start();
+      final PacketSwitchedEvent event = new PacketSwitchedEvent();
+      event.begin();
+      event.record(AccountId.of("alice"), PREPARE_PACKET, InterledgerRejectPacket.builder()
+        .code(InterledgerErrorCode.F02_UNREACHABLE)
+        .triggeredBy(InterledgerAddress.of("g.connector"))
+        .build());
+      recording.stop();
+
+      final List<RecordedEvent> events = recordedEvents(recording);
+      assertThat(events).hasSize(1);
+      assertThat(events.get(0).getString("sourceAccountId")).isEqualTo("alice");
+      assertThat(events.get(0).getString("destinationPrefix")).isEqualTo("g.connector.bob");
+      assertThat(events.get(0).getLong("amount")).isEqualTo(10);
+      assertThat(events.get(0).getString("outcome")).isEqualTo("F02");
+    }
+  }
+
+  @Test
+  public void beganByConnectorEventsWhenEnabled() throws IOException {
+    assertThat(ConnectorEvents.beginPacketSwitched()).isSameAs(ConnectorEvents.PacketSwitched.NOOP);
+
+    try (Recording recording = new Recording()) {
+      recording.enable(PacketSwitchedEvent.class).withThreshold(Duration.ZERO);
+      recording.start();
+      final ConnectorEvents.PacketSwitched event = ConnectorEvents.beginPacketSwitched();
+      assertThat(event).isInstanceOf(PacketSwitchedEvent.class);
+      event.record(AccountId.of("alice"), PREPARE_PACKET, null);
+      recording.stop();
+
+      assertThat(recordedEvents(recording)).hasSize(1);
+    }
+  }
+
+  @Test
+  public void outcome() {
+    assertThat(JfrEvents.outcome(null)).isEqualTo(JfrEvents.FAILED);
+    assertThat(JfrEvents.outcome(InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build())).isEqualTo(JfrEvents.FULFILLED);
+  }
+
+  private List<RecordedEvent> recordedEvents(final Recording recording) throws IOException {
+    final Path file = Files.createTempFile("connector", ".jfr");
+    try {
+      recording.dump(file);
+      return RecordingFile.readAllEvents(file);
+    } finally {
+      Files.delete(file);
+    }
+  }
+}
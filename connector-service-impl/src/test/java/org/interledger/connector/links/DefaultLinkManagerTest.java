@@ -2,20 +2,32 @@ package org.interledger.connector.links;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountIdResolver;
 import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.accounts.event.AccountUpdatedEvent;
 import org.interledger.connector.accounts.sub.LocalDestinationAddressUtils;
+import org.interledger.connector.link.AdaptiveConcurrencyLimiterConfig;
+import org.interledger.connector.link.AdaptiveConcurrencyLimiterRegistry;
+import org.interledger.connector.link.CircuitBreakingLink;
+import org.interledger.connector.link.ConcurrencyLimitingLink;
+import org.interledger.connector.metrics.MetricsService;
 import org.interledger.connector.persistence.repositories.AccountSettingsRepository;
 import org.interledger.core.InterledgerAddress;
 import org.interledger.link.Link;
 import org.interledger.link.LinkFactoryProvider;
 import org.interledger.link.LinkSettings;
+import org.interledger.link.LinkType;
 import org.interledger.link.PingLoopbackLink;
+import org.interledger.link.StatefulLink;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.eventbus.EventBus;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
 import org.junit.Before;
@@ -27,6 +39,10 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
 /**
@@ -65,6 +81,9 @@ public class DefaultLinkManagerTest {
   @Mock
   private EventBus eventBusMock;
 
+  @Mock
+  private MetricsService metricsServiceMock;
+
   @Mock
   private Link pingLinkMock;
 
@@ -130,5 +149,157 @@ public class DefaultLinkManagerTest {
     final Link<? extends LinkSettings> link = defaultLinkManager.getOrCreateLink(accountSettingsMock);
 
     assertThat(link.getLinkId()).isEqualTo(nonPingLinkMock.getLinkId());
+    assertThat(link).isInstanceOf(CircuitBreakingLink.class);
+  }
+
+  @Test
+  public void getOrCreateLinkWithConcurrencyLimit() {
+    this.defaultLinkManager = new DefaultLinkManager(
+      INTERLEDGER_ADDRESS_SUPPLIER,
+      accountSettingsRepositoryMock,
+      linkSettingsFactoryMock,
+      linkFactoryProviderMock,
+      accountIdResolverMock,
+      defaultCircuitBreakerConfigMock,
+      Optional.of(new AdaptiveConcurrencyLimiterRegistry(AdaptiveConcurrencyLimiterConfig.ofDefaults())),
+      localDestinationAddressUtilsMock,
+      eventBusMock
+    );
+
+    final LinkSettings linkSettingsMock = mock(LinkSettings.class);
+    when(nonPingLinkMock.getOperatorAddressSupplier()).thenReturn(INTERLEDGER_ADDRESS_SUPPLIER);
+    when(nonPingLinkMock.getLinkSettings()).thenReturn(linkSettingsMock);
+    when(localDestinationAddressUtilsMock.isConnectorPingAccountId(any())).thenReturn(false);
+
+    when(linkFactoryProviderMock.getLinkFactory(any()).constructLink(any(), any())).thenReturn(nonPingLinkMock);
+    when(linkSettingsFactoryMock.construct(any())).thenReturn(linkSettingsMock);
+
+    final AccountSettings accountSettingsMock = mock(AccountSettings.class);
+    when(accountSettingsMock.accountId()).thenReturn(AccountId.of("foo"));
+
+    final Link<? extends LinkSettings> link = defaultLinkManager.getOrCreateLink(accountSettingsMock);
+
+    assertThat(link).isInstanceOf(ConcurrencyLimitingLink.class);
+    assertThat(((ConcurrencyLimitingLink) link).<Link<?>>getLinkDelegateTyped())
+      .isInstanceOf(CircuitBreakingLink.class);
+  }
+
+  @Test
+  public void getOrCreateLinkWithLinkCacheConstructsOnceUntilAccountUpdated() {
+    this.defaultLinkManager = newCachingLinkManager();
+    final AccountSettings accountSettingsMock = mockNonPingAccount("foo");
+
+    final Link<? extends LinkSettings> link = defaultLinkManager.getOrCreateLink(accountSettingsMock);
+    assertThat(defaultLinkManager.getOrCreateLink(accountSettingsMock)).isSameAs(link);
+    assertThat(defaultLinkManager.getOrCreateLink(AccountId.of("foo"))).isSameAs(link);
+    verify(linkSettingsFactoryMock, times(1)).construct(any());
+
+    defaultLinkManager.onAccountUpdated(AccountUpdatedEvent.builder().accountId(AccountId.of("foo")).build());
+
+    assertThat(defaultLinkManager.getOrCreateLink(accountSettingsMock)).isNotSameAs(link);
+    verify(linkSettingsFactoryMock, times(2)).construct(any());
+  }
+
+  @Test
+  public void linkCacheDisconnectsRemovedStatefulLinks() {
+    final AccountSettings accountSettingsMock = mockNonPingAccount("foo");
+    final LinkSettings linkSettings = nonPingLinkMock.getLinkSettings();
+    final StatefulLink statefulLinkMock = mock(StatefulLink.class);
+    when(statefulLinkMock.getOperatorAddressSupplier()).thenReturn(INTERLEDGER_ADDRESS_SUPPLIER);
+    when(statefulLinkMock.getLinkSettings()).thenReturn(linkSettings);
+    when(statefulLinkMock.connect()).thenReturn(CompletableFuture.completedFuture(null));
+    when(linkFactoryProviderMock.getLinkFactory(any()).constructLink(any(), any())).thenReturn(statefulLinkMock);
+    this.defaultLinkManager = new DefaultLinkManager(
+      INTERLEDGER_ADDRESS_SUPPLIER,
+      accountSettingsRepositoryMock,
+      linkSettingsFactoryMock,
+      linkFactoryProviderMock,
+      accountIdResolverMock,
+      defaultCircuitBreakerConfigMock,
+      Optional.empty(),
+      localDestinationAddressUtilsMock,
+      Optional.of(Caffeine.newBuilder()
+        .executor(Runnable::run)
+        .removalListener(DefaultLinkManager::disconnectRemovedLink)
+        .build()),
+      Optional.of(metricsServiceMock),
+      eventBusMock
+    );
+
+    defaultLinkManager.getOrCreateLink(accountSettingsMock);
+    verify(statefulLinkMock, times(1)).connect();
+    verify(statefulLinkMock, times(0)).disconnect();
+
+    defaultLinkManager.onAccountUpdated(AccountUpdatedEvent.builder().accountId(AccountId.of("foo")).build());
+
+    verify(statefulLinkMock, times(1)).disconnect();
+  }
+
+  @Test
+  public void getOrCreateLinkWithoutLinkCacheConstructsEveryTime() {
+    final AccountSettings accountSettingsMock = mockNonPingAccount("foo");
+
+    final Link<? extends LinkSettings> link = defaultLinkManager.getOrCreateLink(accountSettingsMock);
+
+    assertThat(defaultLinkManager.getOrCreateLink(accountSettingsMock)).isNotSameAs(link);
+    verify(linkSettingsFactoryMock, times(2)).construct(any());
+  }
+
+  @Test
+  public void getOrCreateLinkTracksLinkCreation() {
+    this.defaultLinkManager = newCachingLinkManager();
+    final AccountSettings accountSettingsMock = mockNonPingAccount("foo");
+
+    defaultLinkManager.getOrCreateLink(accountSettingsMock);
+    defaultLinkManager.getOrCreateLink(accountSettingsMock);
+
+    verify(metricsServiceMock, times(1)).trackLinkCreated(eq(LinkType.of("FOO")), any(Duration.class));
+  }
+
+  @Test
+  public void prewarmLinksSkipsAccountsThatCannotBeLoaded() {
+    this.defaultLinkManager = newCachingLinkManager();
+    final AccountSettings accountSettingsMock = mockNonPingAccount("foo");
+    when(accountSettingsRepositoryMock.findByAccountIdWithConversion(AccountId.of("foo")))
+      .thenReturn(Optional.of(accountSettingsMock));
+    when(accountSettingsRepositoryMock.findByAccountIdWithConversion(AccountId.of("bar")))
+      .thenReturn(Optional.empty());
+
+    final int prewarmed = defaultLinkManager.prewarmLinks(Arrays.asList(AccountId.of("foo"), AccountId.of("bar")));
+
+    assertThat(prewarmed).isEqualTo(1);
+    defaultLinkManager.getOrCreateLink(accountSettingsMock);
+    verify(linkSettingsFactoryMock, times(1)).construct(any());
+  }
+
+  private DefaultLinkManager newCachingLinkManager() {
+    return new DefaultLinkManager(
+      INTERLEDGER_ADDRESS_SUPPLIER,
+      accountSettingsRepositoryMock,
+      linkSettingsFactoryMock,
+      linkFactoryProviderMock,
+      accountIdResolverMock,
+      defaultCircuitBreakerConfigMock,
+      Optional.empty(),
+      localDestinationAddressUtilsMock,
+      Optional.of(Caffeine.newBuilder().build()),
+      Optional.of(metricsServiceMock),
+      eventBusMock
+    );
+  }
+
+  private AccountSettings mockNonPingAccount(final String accountId) {
+    final LinkSettings linkSettingsMock = mock(LinkSettings.class);
+    when(linkSettingsMock.getLinkType()).thenReturn(LinkType.of("FOO"));
+    when(nonPingLinkMock.getOperatorAddressSupplier()).thenReturn(INTERLEDGER_ADDRESS_SUPPLIER);
+    when(nonPingLinkMock.getLinkSettings()).thenReturn(linkSettingsMock);
+    when(localDestinationAddressUtilsMock.isConnectorPingAccountId(any())).thenReturn(false);
+
+    when(linkFactoryProviderMock.getLinkFactory(any()).constructLink(any(), any())).thenReturn(nonPingLinkMock);
+    when(linkSettingsFactoryMock.construct(any())).thenReturn(linkSettingsMock);
+
+    final AccountSettings accountSettingsMock = mock(AccountSettings.class);
+    when(accountSettingsMock.accountId()).thenReturn(AccountId.of(accountId));
+    return accountSettingsMock;
   }
 }
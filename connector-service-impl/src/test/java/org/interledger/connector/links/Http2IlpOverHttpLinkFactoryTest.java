@@ -0,0 +1,298 @@
+package org.interledger.connector.links;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.interledger.codecs.ilp.InterledgerCodecContextFactory;
+import org.interledger.connector.links.Http2IlpOverHttpLinkFactory.ConcurrentStreamLimiter;
+import org.interledger.connector.links.Http2IlpOverHttpLinkFactory.PeerEndpoint;
+import org.interledger.connector.settings.IlpOverHttpConnectionSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerProtocolException;
+import org.interledger.link.Link;
+import org.interledger.link.LinkSettings;
+import org.interledger.link.LoopbackLink;
+import org.interledger.link.http.IlpOverHttpLink;
+import org.interledger.link.http.IlpOverHttpLinkSettings;
+import org.interledger.link.http.OutgoingLinkSettings;
+import org.interledger.link.http.auth.Decryptor;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.common.collect.Maps;
+import com.sun.net.httpserver.HttpServer;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Unit tests for {@link Http2IlpOverHttpLinkFactory}.
+ */
+public class Http2IlpOverHttpLinkFactoryTest {
+
+  private static final Supplier<InterledgerAddress> OPERATOR_ADDRESS_SUPPLIER =
+    () -> InterledgerAddress.of("test.connie");
+
+  private OkHttpClient okHttpClient;
+  private Http2IlpOverHttpLinkFactory factory;
+
+  @Before
+  public void setUp() {
+    okHttpClient = new OkHttpClient();
+    factory = newFactory(IlpOverHttpConnectionSettings.builder().build());
+  }
+
+  @Test
+  public void peerEndpointUsesSharedClientByDefault() {
+    assertThat(factory.peerEndpoint(linkSettings("http://alice.example.com/ilp", Maps.newHashMap()))).isEmpty();
+    assertThat(factory.peerEndpoint(LinkSettings.builder().linkType(LoopbackLink.LINK_TYPE).build())).isEmpty();
+  }
+
+  @Test
+  public void peerEndpointWithPriorKnowledge() {
+    final Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(Http2IlpOverHttpLinkFactory.HTTP2_PRIOR_KNOWLEDGE, "true");
+
+    final Optional<PeerEndpoint> peerEndpoint =
+      factory.peerEndpoint(linkSettings("http://alice.example.com/ilp", customSettings));
+
+    assertThat(peerEndpoint).isPresent();
+    final OkHttpClient peerClient = factory.peerClient(peerEndpoint.get(), OPERATOR_ADDRESS_SUPPLIER);
+    assertThat(peerClient.protocols()).containsExactly(Protocol.H2_PRIOR_KNOWLEDGE);
+    // The derived client still shares the connection pool and dispatcher of the shared client.
+    assertThat(peerClient.connectionPool()).isSameAs(okHttpClient.connectionPool());
+    assertThat(peerClient.dispatcher()).isSameAs(okHttpClient.dispatcher());
+  }
+
+  @Test
+  public void priorKnowledgeIsIgnoredForTlsPeers() {
+    final Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(Http2IlpOverHttpLinkFactory.HTTP2_PRIOR_KNOWLEDGE, true);
+
+    assertThat(factory.peerEndpoint(linkSettings("https://alice.example.com/ilp", customSettings))).isEmpty();
+  }
+
+  @Test
+  public void priorKnowledgeFromConnectionDefaults() {
+    factory = newFactory(IlpOverHttpConnectionSettings.builder().isHttp2PriorKnowledge(true).build());
+
+    assertThat(factory.peerEndpoint(linkSettings("http://alice.example.com/ilp", Maps.newHashMap()))).isPresent();
+
+    // ...but a peer can opt out.
+    final Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(Http2IlpOverHttpLinkFactory.HTTP2_PRIOR_KNOWLEDGE, "false");
+    assertThat(factory.peerEndpoint(linkSettings("http://alice.example.com/ilp", customSettings))).isEmpty();
+  }
+
+  @Test
+  public void peerEndpointWithMaxConcurrentStreams() {
+    final Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(Http2IlpOverHttpLinkFactory.HTTP2_MAX_CONCURRENT_STREAMS, "10");
+
+    final Optional<PeerEndpoint> peerEndpoint =
+      factory.peerEndpoint(linkSettings("https://alice.example.com/ilp", customSettings));
+
+    assertThat(peerEndpoint).isPresent();
+    final OkHttpClient peerClient = factory.peerClient(peerEndpoint.get(), OPERATOR_ADDRESS_SUPPLIER);
+    assertThat(peerClient.protocols()).isEqualTo(okHttpClient.protocols());
+    assertThat(peerClient.interceptors()).hasOnlyElementsOfType(ConcurrentStreamLimiter.class).hasSize(1);
+  }
+
+  @Test
+  public void peerEndpointWithDedicatedConnectionPool() {
+    final Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(Http2IlpOverHttpLinkFactory.DEDICATED_CONNECTION_POOL, "true");
+
+    final Optional<PeerEndpoint> peerEndpoint =
+      factory.peerEndpoint(linkSettings("https://alice.example.com/ilp", customSettings));
+
+    assertThat(peerEndpoint).isPresent();
+    final OkHttpClient peerClient = factory.peerClient(peerEndpoint.get(), OPERATOR_ADDRESS_SUPPLIER);
+    assertThat(peerClient.protocols()).isEqualTo(okHttpClient.protocols());
+    assertThat(peerClient.interceptors()).isEmpty();
+    assertThat(peerClient.connectionPool()).isNotSameAs(okHttpClient.connectionPool());
+  }
+
+  @Test
+  public void peerEndpointsIdentifyHostAndSettings() {
+    final Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(Http2IlpOverHttpLinkFactory.HTTP2_MAX_CONCURRENT_STREAMS, 10);
+
+    assertThat(factory.peerEndpoint(linkSettings("https://alice.example.com/ilp", customSettings)))
+      .isEqualTo(factory.peerEndpoint(linkSettings("https://alice.example.com/other", customSettings)))
+      .isNotEqualTo(factory.peerEndpoint(linkSettings("https://bob.example.com/ilp", customSettings)));
+  }
+
+  @Test
+  public void constructLink() {
+    final Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(Http2IlpOverHttpLinkFactory.HTTP2_PRIOR_KNOWLEDGE, "true");
+
+    final Link<?> link = factory.constructLink(
+      OPERATOR_ADDRESS_SUPPLIER, linkSettings("http://alice.example.com/ilp", customSettings)
+    );
+
+    assertThat(link).isInstanceOf(IlpOverHttpLink.class);
+  }
+
+  @Test
+  public void validateSettings() {
+    final Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(Http2IlpOverHttpLinkFactory.HTTP2_PRIOR_KNOWLEDGE, "TRUE");
+    customSettings.put(Http2IlpOverHttpLinkFactory.HTTP2_MAX_CONCURRENT_STREAMS, 0);
+    customSettings.put(Http2IlpOverHttpLinkFactory.DEDICATED_CONNECTION_POOL, false);
+
+    Http2IlpOverHttpLinkFactory.validateSettings(customSettings);
+    Http2IlpOverHttpLinkFactory.validateSettings(Maps.newHashMap());
+  }
+
+  @Test
+  public void validateSettingsRejectsInvalidMaxConcurrentStreams() {
+    final Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(Http2IlpOverHttpLinkFactory.HTTP2_MAX_CONCURRENT_STREAMS, "lots");
+    assertThatThrownBy(() -> Http2IlpOverHttpLinkFactory.validateSettings(customSettings))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("ilpOverHttp.outgoing.http2.maxConcurrentStreams must be an integer but was `lots`");
+
+    customSettings.put(Http2IlpOverHttpLinkFactory.HTTP2_MAX_CONCURRENT_STREAMS, -1);
+    assertThatThrownBy(() -> Http2IlpOverHttpLinkFactory.validateSettings(customSettings))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("ilpOverHttp.outgoing.http2.maxConcurrentStreams must be at least 0 but was -1");
+  }
+
+  @Test
+  public void validateSettingsRejectsInvalidFlags() {
+    final Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(Http2IlpOverHttpLinkFactory.DEDICATED_CONNECTION_POOL, "yes");
+
+    assertThatThrownBy(() -> Http2IlpOverHttpLinkFactory.validateSettings(customSettings))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("ilpOverHttp.outgoing.dedicatedConnectionPool must be true or false but was `yes`");
+  }
+
+  @Test
+  public void evictedClientsOnlyCloseDedicatedConnectionPools() throws Exception {
+    final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/ilp", exchange -> {
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+    });
+    server.start();
+    try {
+      final HttpUrl url = HttpUrl.get(
+        String.format("http://127.0.0.1:%d/ilp", server.getAddress().getPort())
+      );
+
+      final PeerEndpoint sharedPoolEndpoint = new PeerEndpoint(url, false, 10, false);
+      final OkHttpClient sharedPoolClient = factory.peerClient(sharedPoolEndpoint, OPERATOR_ADDRESS_SUPPLIER);
+      sharedPoolClient.newCall(new Request.Builder().url(url).build()).execute().close();
+      assertThat(sharedPoolClient.connectionPool().idleConnectionCount()).isEqualTo(1);
+
+      Http2IlpOverHttpLinkFactory.closeDedicatedConnectionPool(
+        sharedPoolEndpoint, sharedPoolClient, RemovalCause.EXPIRED
+      );
+      assertThat(okHttpClient.connectionPool().idleConnectionCount()).isEqualTo(1);
+
+      final PeerEndpoint dedicatedPoolEndpoint = new PeerEndpoint(url, false, 0, true);
+      final OkHttpClient dedicatedPoolClient = factory.peerClient(dedicatedPoolEndpoint, OPERATOR_ADDRESS_SUPPLIER);
+      dedicatedPoolClient.newCall(new Request.Builder().url(url).build()).execute().close();
+      assertThat(dedicatedPoolClient.connectionPool().idleConnectionCount()).isEqualTo(1);
+
+      Http2IlpOverHttpLinkFactory.closeDedicatedConnectionPool(
+        dedicatedPoolEndpoint, dedicatedPoolClient, RemovalCause.EXPIRED
+      );
+      assertThat(dedicatedPoolClient.connectionPool().idleConnectionCount()).isZero();
+    } finally {
+      server.stop(0);
+    }
+  }
+
+  @Test
+  public void concurrentStreamLimiterRejectsWithoutWaitingForAFreeStream() throws Exception {
+    final ConcurrentStreamLimiter limiter = new ConcurrentStreamLimiter(1, OPERATOR_ADDRESS_SUPPLIER);
+    final CountDownLatch firstRequestStarted = new CountDownLatch(1);
+    final CountDownLatch finishFirstRequest = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      final Future<Response> firstResponse = executor.submit(() -> limiter.intercept(chain(() -> {
+        firstRequestStarted.countDown();
+        finishFirstRequest.await();
+      })));
+      assertThat(firstRequestStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+      try {
+        limiter.intercept(chain(() -> {
+          throw new AssertionError("Should not have been sent");
+        }));
+        throw new AssertionError("Should have been rejected");
+      } catch (InterledgerProtocolException e) {
+        assertThat(e.getInterledgerRejectPacket().getCode()).isEqualTo(InterledgerErrorCode.T03_CONNECTOR_BUSY);
+        assertThat(e.getInterledgerRejectPacket().getTriggeredBy()).hasValue(OPERATOR_ADDRESS_SUPPLIER.get());
+      }
+
+      finishFirstRequest.countDown();
+      assertThat(firstResponse.get(5, TimeUnit.SECONDS)).isNotNull();
+      assertThat(limiter.intercept(chain(() -> {
+      }))).isNotNull();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Http2IlpOverHttpLinkFactory newFactory(final IlpOverHttpConnectionSettings connectionSettings) {
+    final Decryptor decryptor = mock(Decryptor.class);
+    when(decryptor.decrypt(any())).thenReturn(new byte[32]);
+    return new Http2IlpOverHttpLinkFactory(
+      okHttpClient, decryptor, new ObjectMapper(), InterledgerCodecContextFactory.oer(), connectionSettings
+    );
+  }
+
+  private IlpOverHttpLinkSettings linkSettings(final String url, final Map<String, Object> http2Settings) {
+    final Map<String, Object> customSettings = Maps.newHashMap(http2Settings);
+    customSettings.put(OutgoingLinkSettings.HTTP_OUTGOING_AUTH_TYPE, "SIMPLE");
+    customSettings.put(OutgoingLinkSettings.HTTP_OUTGOING_SIMPLE_AUTH_TOKEN, "password");
+    customSettings.put(OutgoingLinkSettings.HTTP_OUTGOING_URL, url);
+    return IlpOverHttpLinkSettings.fromCustomSettings(customSettings).build();
+  }
+
+  private Interceptor.Chain chain(final Action action) throws Exception {
+    final Request request = new Request.Builder().url("https://alice.example.com/ilp").build();
+    final Interceptor.Chain chain = mock(Interceptor.Chain.class);
+    when(chain.request()).thenReturn(request);
+    when(chain.proceed(request)).thenAnswer($ -> {
+      action.run();
+      return new Response.Builder()
+        .request(request)
+        .protocol(Protocol.HTTP_2)
+        .code(200)
+        .message("OK")
+        .build();
+    });
+    return chain;
+  }
+
+  @FunctionalInterface
+  private interface Action {
+    void run() throws Exception;
+  }
+}
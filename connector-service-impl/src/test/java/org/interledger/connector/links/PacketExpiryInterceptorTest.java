@@ -0,0 +1,140 @@
+package org.interledger.connector.links;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.link.http.IlpOverHttpConstants;
+
+import okhttp3.Call;
+import okhttp3.Interceptor;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link PacketExpiryInterceptor}.
+ */
+public class PacketExpiryInterceptorTest {
+
+  private static final Instant NOW = Instant.parse("2020-01-02T03:04:05.678Z");
+
+  private final Request request = new Request.Builder()
+    .url("http://alice.example.com/ilp")
+    .post(RequestBody.create(new byte[64], IlpOverHttpConstants.APPLICATION_OCTET_STREAM))
+    .build();
+
+  private Interceptor.Chain chainMock;
+  private Call callMock;
+
+  @Before
+  public void setUp() {
+    chainMock = mock(Interceptor.Chain.class);
+    callMock = mock(Call.class);
+    when(chainMock.request()).thenReturn(request);
+    when(chainMock.call()).thenReturn(callMock);
+  }
+
+  @Test
+  public void callOutsideOfSendIsUnchanged() throws IOException {
+    final Response response = response(null);
+    when(chainMock.proceed(request)).thenReturn(response);
+
+    assertThat(interceptor(NOW).intercept(chainMock)).isEqualTo(response);
+    verify(chainMock, never()).call();
+  }
+
+  @Test
+  public void responseBeforeExpiryIsReturned() throws IOException {
+    when(chainMock.proceed(request)).thenReturn(response(ResponseBody.create(new byte[] {1, 2, 3}, null)));
+
+    final Response response = OutgoingPacketExpiry.sendBefore(NOW.plusSeconds(30), () -> intercept(NOW));
+
+    assertThat(response.body().bytes()).containsExactly(1, 2, 3);
+    verify(callMock, never()).cancel();
+  }
+
+  @Test
+  public void expiredPacketIsNotSent() throws IOException {
+    assertThatThrownBy(() -> OutgoingPacketExpiry.sendBefore(NOW, () -> intercept(NOW)))
+      .hasCauseInstanceOf(InterruptedIOException.class)
+      .hasStackTraceContaining("Packet expired before it could be sent to the peer");
+    verify(chainMock, never()).proceed(any());
+  }
+
+  @Test
+  public void callIsCancelledAtExpiry() throws IOException {
+    final CountDownLatch cancelled = new CountDownLatch(1);
+    doAnswer($ -> {
+      cancelled.countDown();
+      return null;
+    }).when(callMock).cancel();
+    when(chainMock.proceed(request)).thenAnswer($ -> {
+      // Stands in for a peer that never responds, until OkHttp fails the cancelled call.
+      assertThat(cancelled.await(5, TimeUnit.SECONDS)).isTrue();
+      throw new IOException("Canceled");
+    });
+    final Instant now = Instant.now();
+
+    assertThatThrownBy(() -> OutgoingPacketExpiry.sendBefore(now.plusMillis(50), () -> intercept(now)))
+      .hasCauseInstanceOf(InterruptedIOException.class)
+      .hasStackTraceContaining("Packet expired before the peer responded");
+    verify(callMock).cancel();
+  }
+
+  @Test
+  public void failureBeforeExpiryIsRethrown() throws IOException {
+    when(chainMock.proceed(request)).thenThrow(new IOException("Connection refused"));
+
+    assertThatThrownBy(() -> OutgoingPacketExpiry.sendBefore(NOW.plusSeconds(30), () -> intercept(NOW)))
+      .hasRootCauseMessage("Connection refused");
+    verify(callMock, never()).cancel();
+  }
+
+  @Test
+  public void expiryIsOnlyVisibleDuringSend() {
+    assertThat(OutgoingPacketExpiry.current()).isEmpty();
+    assertThat(OutgoingPacketExpiry.sendBefore(NOW, OutgoingPacketExpiry::current)).hasValue(NOW);
+    assertThat(OutgoingPacketExpiry.current()).isEmpty();
+  }
+
+  private Response intercept(final Instant now) {
+    try {
+      return interceptor(now).intercept(chainMock);
+    } catch (IOException e) {
+      // Links likewise wrap the failures of their calls.
+      throw new RuntimeException(e);
+    }
+  }
+
+  private PacketExpiryInterceptor interceptor(final Instant now) {
+    return new PacketExpiryInterceptor(Clock.fixed(now, ZoneOffset.UTC));
+  }
+
+  private Response response(final ResponseBody body) {
+    return new Response.Builder()
+      .request(request)
+      .protocol(Protocol.HTTP_1_1)
+      .code(200)
+      .message("OK")
+      .body(body)
+      .build();
+  }
+}
@@ -2,28 +2,43 @@ package org.interledger.connector.links.filters;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
 
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountRelationship;
 import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.links.OutgoingPacketExpiry;
+import org.interledger.connector.routing.LinkQualityTracker;
 import org.interledger.core.InterledgerAddress;
 import org.interledger.core.InterledgerCondition;
 import org.interledger.core.InterledgerErrorCode;
 import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerProtocolException;
+import org.interledger.core.InterledgerRejectPacket;
 import org.interledger.core.InterledgerResponsePacket;
 import org.interledger.link.Link;
+import org.interledger.link.LinkId;
 import org.interledger.link.LinkSettings;
 import org.interledger.link.LoopbackLink;
 import org.interledger.link.PacketRejector;
+import org.interledger.link.exceptions.LinkException;
 
 import com.google.api.client.util.Lists;
 import com.google.common.primitives.UnsignedLong;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.MockitoAnnotations;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -383,4 +398,94 @@ public class DefaultLinkFilterChainTest {
     assertThat(linkFilter3PostProcessed).isTrue();
   }
 
+  @Test
+  public void filterPacketRejectedByLink() {
+    final InterledgerRejectPacket linkRejectPacket = InterledgerRejectPacket.builder()
+      .triggeredBy(OPERATOR_ADDRESS)
+      .code(InterledgerErrorCode.T03_CONNECTOR_BUSY)
+      .message("busy")
+      .build();
+    final Link busyLink = mock(Link.class);
+    when(busyLink.sendPacket(PREPARE_PACKET)).thenThrow(new InterledgerProtocolException(linkRejectPacket));
+    filterChain = new DefaultLinkFilterChain(new PacketRejector(() -> OPERATOR_ADDRESS), linkFilters, busyLink);
+
+    filterChain.doFilter(OUTGOING_ACCOUNT_SETTINGS, PREPARE_PACKET).handle(
+      fulfillPacket -> fail("Should have rejected but fulfilled!"),
+      rejectPacket -> assertThat(rejectPacket).isEqualTo(linkRejectPacket)
+    );
+  }
+
+  @Test
+  public void filterPacketAbandonedByLinkAtExpiry() {
+    final InterledgerPreparePacket preparePacket = InterledgerPreparePacket.builder()
+      .destination(InterledgerAddress.of("example.foo"))
+      .amount(UnsignedLong.ONE)
+      .expiresAt(Instant.now().plusMillis(100))
+      .executionCondition(InterledgerCondition.of(new byte[32]))
+      .build();
+    final Link link = mock(Link.class);
+    when(link.sendPacket(preparePacket)).thenAnswer($ -> {
+      // Stands in for an HTTP client that cancels its call once the packet expires.
+      final Instant expiresAt = OutgoingPacketExpiry.current().orElseThrow(IllegalStateException::new);
+      Thread.sleep(Math.max(0, expiresAt.toEpochMilli() - System.currentTimeMillis()) + 10);
+      throw new LinkException("Packet expired before the peer responded", LinkId.of(OUTGOING_ACCOUNT_ID.value()));
+    });
+    filterChain = new DefaultLinkFilterChain(new PacketRejector(() -> OPERATOR_ADDRESS), linkFilters, link);
+
+    filterChain.doFilter(OUTGOING_ACCOUNT_SETTINGS, preparePacket).handle(
+      fulfillPacket -> fail("Should have rejected but fulfilled!"),
+      rejectPacket -> assertThat(rejectPacket.getCode()).isEqualTo(InterledgerErrorCode.R00_TRANSFER_TIMED_OUT)
+    );
+  }
+
+  @Test
+  public void filterPacketTracksLinkQuality() {
+    final LinkQualityTracker linkQualityTrackerMock = mock(LinkQualityTracker.class);
+    final Link link = mock(Link.class);
+    when(link.sendPacket(PREPARE_PACKET)).thenReturn(
+      outgoingLink.sendPacket(PREPARE_PACKET),
+      InterledgerRejectPacket.builder().triggeredBy(OPERATOR_ADDRESS).code(InterledgerErrorCode.F99_APPLICATION_ERROR)
+        .build(),
+      InterledgerRejectPacket.builder().triggeredBy(OPERATOR_ADDRESS).code(InterledgerErrorCode.T01_PEER_UNREACHABLE)
+        .build()
+    );
+
+    linkQualityTrackingChain(link, linkQualityTrackerMock).doFilter(OUTGOING_ACCOUNT_SETTINGS, PREPARE_PACKET);
+    verify(linkQualityTrackerMock).recordFulfill(eq(OUTGOING_ACCOUNT_ID), any());
+
+    // Final errors are caused by the packet, not the link.
+    linkQualityTrackingChain(link, linkQualityTrackerMock).doFilter(OUTGOING_ACCOUNT_SETTINGS, PREPARE_PACKET);
+    verifyNoMoreInteractions(linkQualityTrackerMock);
+
+    linkQualityTrackingChain(link, linkQualityTrackerMock).doFilter(OUTGOING_ACCOUNT_SETTINGS, PREPARE_PACKET);
+    verify(linkQualityTrackerMock).recordFailure(OUTGOING_ACCOUNT_ID);
+    verifyNoMoreInteractions(linkQualityTrackerMock);
+  }
+
+  @Test
+  public void filterPacketTracksOpenCircuit() {
+    final LinkQualityTracker linkQualityTrackerMock = mock(LinkQualityTracker.class);
+    final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults(OUTGOING_ACCOUNT_ID.value());
+    circuitBreaker.transitionToOpenState();
+    final Link link = mock(Link.class);
+    when(link.sendPacket(PREPARE_PACKET))
+      .thenThrow(CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+
+    linkQualityTrackingChain(link, linkQualityTrackerMock).doFilter(OUTGOING_ACCOUNT_SETTINGS, PREPARE_PACKET)
+      .handle(
+        fulfillPacket -> fail("Should have rejected but fulfilled!"),
+        rejectPacket -> assertThat(rejectPacket.getCode()).isEqualTo(InterledgerErrorCode.T00_INTERNAL_ERROR)
+      );
+    verify(linkQualityTrackerMock).recordCircuitOpen(OUTGOING_ACCOUNT_ID);
+    verifyNoMoreInteractions(linkQualityTrackerMock);
+  }
+
+  private DefaultLinkFilterChain linkQualityTrackingChain(
+    final Link link, final LinkQualityTracker linkQualityTracker
+  ) {
+    return new DefaultLinkFilterChain(
+      new PacketRejector(() -> OPERATOR_ADDRESS), linkFilters, link, Optional.empty(), Optional.empty(),
+      Optional.of(linkQualityTracker)
+    );
+  }
 }
@@ -5,6 +5,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -388,8 +389,8 @@ public class OutgoingBalanceLinkFilterTest {
     );
 
     assertThat(actual).isEqualTo(rejectPacket());
-    verify(balanceTrackerMock).balance(ACCOUNT_ID);
-    verifyNoMoreInteractions(balanceTrackerMock);
+    // Logging the reject must not load the balance.
+    verifyNoInteractions(balanceTrackerMock);
     verifyNoMoreInteractions(settlementServiceMock);
   }
 
@@ -0,0 +1,232 @@
+package org.interledger.connector.links.filters;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+
+import com.google.common.collect.Maps;
+import com.google.common.primitives.UnsignedLong;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Unit tests for {@link OutgoingBulkheadLinkFilter}.
+ */
+public class OutgoingBulkheadLinkFilterTest {
+
+  private static final AccountId ACCOUNT_ID = AccountId.of("alice");
+
+  private static final InterledgerFulfillPacket FULFILL = InterledgerFulfillPacket.builder()
+    .fulfillment(InterledgerFulfillment.of(new byte[32]))
+    .build();
+
+  @Rule
+  public MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  @Mock
+  private LinkFilterChain filterChain;
+
+  private Supplier<InterledgerAddress> addressSupplier = () -> InterledgerAddress.of("example.source");
+
+  private OutgoingBulkheadLinkFilter filter;
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() {
+    filter = new OutgoingBulkheadLinkFilter(addressSupplier);
+    executor = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void passAlongWithoutBulkhead() {
+    AccountSettings settings = createAccountSettings(Maps.newHashMap());
+    InterledgerPreparePacket prepare = createPrepare(Duration.ofSeconds(30));
+    when(filterChain.doFilter(settings, prepare)).thenReturn(FULFILL);
+
+    assertThat(filter.doFilter(settings, prepare, filterChain)).isEqualTo(FULFILL);
+    assertThat(filter.bulkheadFor(settings)).isEmpty();
+  }
+
+  @Test
+  public void rejectWhenFull() throws Exception {
+    AccountSettings settings = createAccountSettings(1, 0);
+    CountDownLatch finishFirstPacket = new CountDownLatch(1);
+    Future<InterledgerResponsePacket> firstResponse = sendInFlightPacket(settings, finishFirstPacket);
+
+    InterledgerPreparePacket prepare = createPrepare(Duration.ofSeconds(30));
+    InterledgerResponsePacket response = filter.doFilter(settings, prepare, filterChain);
+
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class)
+      .extracting("code", "message")
+      .containsExactly(InterledgerErrorCode.T03_CONNECTOR_BUSY,
+        "Too many packets in-flight to peer. maxConcurrentPackets=1 maxQueuedPackets=0");
+    verify(filterChain, times(0)).doFilter(settings, prepare);
+
+    finishFirstPacket.countDown();
+    assertThat(firstResponse.get(5, TimeUnit.SECONDS)).isEqualTo(FULFILL);
+    assertThat(filter.bulkheadFor(settings).get().availablePermits()).isEqualTo(1);
+  }
+
+  @Test
+  public void queuedPacketWaitsForInFlightPacket() throws Exception {
+    AccountSettings settings = createAccountSettings(1, 1);
+    CountDownLatch finishFirstPacket = new CountDownLatch(1);
+    Future<InterledgerResponsePacket> firstResponse = sendInFlightPacket(settings, finishFirstPacket);
+
+    InterledgerPreparePacket prepare = createPrepare(Duration.ofSeconds(30));
+    when(filterChain.doFilter(settings, prepare)).thenReturn(FULFILL);
+    executor.submit(() -> {
+      Thread.sleep(50);
+      finishFirstPacket.countDown();
+      return null;
+    });
+
+    assertThat(filter.doFilter(settings, prepare, filterChain)).isEqualTo(FULFILL);
+    assertThat(firstResponse.get(5, TimeUnit.SECONDS)).isEqualTo(FULFILL);
+  }
+
+  @Test
+  public void queuedPacketRejectedOnceExpired() throws Exception {
+    AccountSettings settings = createAccountSettings(1, 1);
+    CountDownLatch finishFirstPacket = new CountDownLatch(1);
+    Future<InterledgerResponsePacket> firstResponse = sendInFlightPacket(settings, finishFirstPacket);
+
+    InterledgerPreparePacket prepare = createPrepare(Duration.ofMillis(20));
+    InterledgerResponsePacket response = filter.doFilter(settings, prepare, filterChain);
+
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class)
+      .extracting("code")
+      .isEqualTo(InterledgerErrorCode.R00_TRANSFER_TIMED_OUT);
+    verify(filterChain, times(0)).doFilter(settings, prepare);
+
+    finishFirstPacket.countDown();
+    firstResponse.get(5, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void releaseWhenChainThrows() {
+    AccountSettings settings = createAccountSettings(1, 0);
+    when(filterChain.doFilter(any(), any())).thenThrow(new RuntimeException("boom"));
+
+    try {
+      filter.doFilter(settings, createPrepare(Duration.ofSeconds(30)), filterChain);
+      throw new AssertionError("Should have thrown");
+    } catch (RuntimeException e) {
+      assertThat(e).hasMessage("boom");
+    }
+    assertThat(filter.bulkheadFor(settings).get().availablePermits()).isEqualTo(1);
+  }
+
+  @Test
+  public void newBulkheadWhenLimitsChange() {
+    AccountSettings settings = createAccountSettings(1, 0);
+    OutgoingBulkheadLinkFilter.Bulkhead bulkhead = filter.bulkheadFor(settings).get();
+
+    assertThat(filter.bulkheadFor(createAccountSettings(1, 0)).get()).isSameAs(bulkhead);
+    assertThat(filter.bulkheadFor(createAccountSettings(2, 0)).get()).isNotSameAs(bulkhead)
+      .extracting(OutgoingBulkheadLinkFilter.Bulkhead::availablePermits)
+      .isEqualTo(2);
+  }
+
+  @Test
+  public void sameBulkheadWhileSettingsAreUnchanged() {
+    OutgoingBulkheadLinkFilter.Bulkhead bulkhead = filter.bulkheadFor(createAccountSettings(1, 0)).get();
+
+    // The settings are only compared, so an unparseable value that hasn't changed is never parsed again.
+    assertThat(bulkhead.isConfiguredBy(1, "0")).isTrue();
+    assertThat(bulkhead.isConfiguredBy(1, "1")).isFalse();
+    assertThat(bulkhead.isConfiguredBy(1, null)).isFalse();
+  }
+
+  @Test
+  public void validateSettings() {
+    OutgoingBulkheadLinkFilter.validateSettings(Maps.newHashMap());
+    OutgoingBulkheadLinkFilter.validateSettings(createAccountSettings(1, 0).customSettings());
+
+    assertThatThrownBy(() -> OutgoingBulkheadLinkFilter.validateSettings(createAccountSettings(0, 0).customSettings()))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("bulkhead.maxConcurrentPackets must be at least 1 but was 0");
+    assertThatThrownBy(() -> OutgoingBulkheadLinkFilter.validateSettings(createAccountSettings(1, -1).customSettings()))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("bulkhead.maxQueuedPackets must be at least 0 but was -1");
+
+    Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(OutgoingBulkheadLinkFilter.MAX_QUEUED_PACKETS, "1.5");
+    assertThatThrownBy(() -> OutgoingBulkheadLinkFilter.validateSettings(customSettings))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessage("bulkhead.maxQueuedPackets must be an integer but was `1.5`");
+  }
+
+  private Future<InterledgerResponsePacket> sendInFlightPacket(
+    AccountSettings settings, CountDownLatch finishPacket
+  ) throws InterruptedException {
+    InterledgerPreparePacket prepare = createPrepare(Duration.ofSeconds(30));
+    CountDownLatch packetStarted = new CountDownLatch(1);
+    when(filterChain.doFilter(settings, prepare)).thenAnswer($ -> {
+      packetStarted.countDown();
+      finishPacket.await();
+      return FULFILL;
+    });
+    Future<InterledgerResponsePacket> response = executor.submit(() -> filter.doFilter(settings, prepare, filterChain));
+    assertThat(packetStarted.await(5, TimeUnit.SECONDS)).isTrue();
+    return response;
+  }
+
+  private AccountSettings createAccountSettings(int maxConcurrentPackets, int maxQueuedPackets) {
+    Map<String, Object> customSettings = Maps.newHashMap();
+    customSettings.put(OutgoingBulkheadLinkFilter.MAX_CONCURRENT_PACKETS, maxConcurrentPackets);
+    customSettings.put(OutgoingBulkheadLinkFilter.MAX_QUEUED_PACKETS, String.valueOf(maxQueuedPackets));
+    return createAccountSettings(customSettings);
+  }
+
+  private AccountSettings createAccountSettings(Map<String, Object> customSettings) {
+    AccountSettings settings = mock(AccountSettings.class);
+    when(settings.accountId()).thenReturn(ACCOUNT_ID);
+    when(settings.customSettings()).thenReturn(customSettings);
+    return settings;
+  }
+
+  private InterledgerPreparePacket createPrepare(Duration expiresIn) {
+    return InterledgerPreparePacket.builder()
+      .executionCondition(InterledgerCondition.of(new byte[32]))
+      .amount(UnsignedLong.valueOf(10))
+      .expiresAt(Instant.now().plus(expiresIn))
+      .destination(InterledgerAddress.of("example.destination"))
+      .build();
+  }
+}
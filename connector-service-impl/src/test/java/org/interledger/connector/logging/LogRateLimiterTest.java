@@ -0,0 +1,59 @@
+package org.interledger.connector.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+import java.time.Duration;
+
+/**
+ * Unit tests for {@link LogRateLimiter}.
+ */
+public class LogRateLimiterTest {
+
+  private static final long SECOND = Duration.ofSeconds(1).toNanos();
+
+  @Test(expected = IllegalArgumentException.class)
+  public void slotsMustBePositive() {
+    new LogRateLimiter(0, Duration.ofSeconds(1));
+  }
+
+  @Test
+  public void firstLineIsEmitted() {
+    final LogRateLimiter rateLimiter = new LogRateLimiter(16, Duration.ofSeconds(1));
+    assertThat(rateLimiter.tryAcquire("alice")).isEqualTo(0);
+  }
+
+  @Test
+  public void linesWithinIntervalAreSuppressedAndCounted() {
+    final LogRateLimiter rateLimiter = new LogRateLimiter(16, Duration.ofSeconds(1));
+    final long now = System.nanoTime();
+
+    assertThat(rateLimiter.tryAcquire("alice", now)).isEqualTo(0);
+    assertThat(rateLimiter.tryAcquire("alice", now + 1)).isEqualTo(LogRateLimiter.SUPPRESSED);
+    assertThat(rateLimiter.tryAcquire("alice", now + SECOND - 1)).isEqualTo(LogRateLimiter.SUPPRESSED);
+
+    assertThat(rateLimiter.tryAcquire("alice", now + SECOND)).isEqualTo(2);
+    assertThat(rateLimiter.tryAcquire("alice", now + SECOND + 1)).isEqualTo(LogRateLimiter.SUPPRESSED);
+    assertThat(rateLimiter.tryAcquire("alice", now + 2 * SECOND)).isEqualTo(1);
+  }
+
+  @Test
+  public void keysAreLimitedSeparately() {
+    final LogRateLimiter rateLimiter = new LogRateLimiter(1024, Duration.ofSeconds(1));
+    final long now = System.nanoTime();
+
+    assertThat(rateLimiter.tryAcquire("alice", now)).isEqualTo(0);
+    assertThat(rateLimiter.tryAcquire("bob", now)).isEqualTo(0);
+    assertThat(rateLimiter.tryAcquire("alice", now)).isEqualTo(LogRateLimiter.SUPPRESSED);
+  }
+
+  @Test
+  public void zeroIntervalNeverSuppresses() {
+    final LogRateLimiter rateLimiter = new LogRateLimiter(1, Duration.ZERO);
+    final long now = System.nanoTime();
+
+    assertThat(rateLimiter.tryAcquire("alice", now)).isEqualTo(0);
+    assertThat(rateLimiter.tryAcquire("alice", now)).isEqualTo(0);
+  }
+}
@@ -0,0 +1,138 @@
+package org.interledger.connector.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Unit tests for {@link PacketLogger}.
+ */
+public class PacketLoggerTest {
+
+  private static final AccountId ALICE = AccountId.of("alice");
+  private static final AccountId BOB = AccountId.of("bob");
+
+  private static final InterledgerPreparePacket PREPARE_PACKET = InterledgerPreparePacket.builder()
+    .destination(InterledgerAddress.of("test.bob.receiver"))
+    .amount(UnsignedLong.valueOf(100))
+    .executionCondition(InterledgerCondition.of(new byte[32]))
+    .expiresAt(Instant.now())
+    .build();
+
+  private Logger logger;
+
+  @Before
+  public void setUp() {
+    logger = mock(Logger.class);
+    when(logger.isWarnEnabled()).thenReturn(true);
+  }
+
+  @Test
+  public void rejectLogsFieldsOnOneLine() {
+    new PacketLogger(logger).reject("outgoingReject", BOB, PREPARE_PACKET, reject("Insufficient\nliquidity \"now\""));
+
+    assertThat(loggedLine()).isEqualTo(
+      "event=outgoingReject accountId=bob destination=test.bob.receiver amount=100 code=T04 triggeredBy=test.bob "
+        + "message=\"Insufficient liquidity \\\"now\\\"\""
+    );
+  }
+
+  @Test
+  public void rejectTruncatesLongMessages() {
+    final String message = new String(new char[1000]).replace('\0', 'x');
+    new PacketLogger(logger).reject("outgoingReject", BOB, PREPARE_PACKET, reject(message));
+
+    assertThat(loggedLine()).endsWith("message=\"" + message.substring(0, 128) + "...\"");
+  }
+
+  @Test
+  public void unsignedAmountsAreLoggedUnsigned() {
+    final InterledgerPreparePacket preparePacket = InterledgerPreparePacket.builder().from(PREPARE_PACKET)
+      .amount(UnsignedLong.MAX_VALUE)
+      .build();
+    new PacketLogger(logger).warn("zeroValueNextHop", ALICE, BOB, preparePacket);
+
+    assertThat(loggedLine()).isEqualTo(
+      "event=zeroValueNextHop accountId=alice destination=test.bob.receiver amount=18446744073709551615 "
+        + "nextHopAccountId=bob"
+    );
+  }
+
+  @Test
+  public void rejectsAreRateLimitedPerAccount() {
+    final PacketLogger packetLogger = new PacketLogger(logger, Duration.ofHours(1));
+
+    packetLogger.reject("outgoingReject", BOB, PREPARE_PACKET, reject("one"));
+    packetLogger.reject("outgoingReject", BOB, PREPARE_PACKET, reject("two"));
+    packetLogger.reject("outgoingReject", BOB, PREPARE_PACKET, reject("three"));
+    packetLogger.reject("outgoingReject", ALICE, PREPARE_PACKET, reject("four"));
+
+    verify(logger, times(2)).warn(anyString());
+  }
+
+  @Test
+  public void suppressedLinesAreCountedOnNextLine() {
+    // Wide enough that the first two lines always fall within one interval, even on a slow machine.
+    final PacketLogger packetLogger = new PacketLogger(logger, Duration.ofMillis(500));
+
+    packetLogger.reject("outgoingReject", BOB, PREPARE_PACKET, reject("one"));
+    packetLogger.reject("outgoingReject", BOB, PREPARE_PACKET, reject("two"));
+    sleep(600);
+    packetLogger.reject("outgoingReject", BOB, PREPARE_PACKET, reject("three"));
+
+    final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+    verify(logger, times(2)).warn(captor.capture());
+    assertThat(captor.getAllValues().get(0)).doesNotContain("suppressed=");
+    assertThat(captor.getAllValues().get(1)).endsWith("message=\"three\" suppressed=1");
+  }
+
+  @Test
+  public void nothingIsLoggedWhenWarnIsDisabled() {
+    when(logger.isWarnEnabled()).thenReturn(false);
+    new PacketLogger(logger).reject("outgoingReject", BOB, PREPARE_PACKET, reject("one"));
+
+    verify(logger, never()).warn(anyString());
+  }
+
+  private String loggedLine() {
+    final ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+    verify(logger).warn(captor.capture());
+    return captor.getValue();
+  }
+
+  private static InterledgerRejectPacket reject(final String message) {
+    return InterledgerRejectPacket.builder()
+      .code(InterledgerErrorCode.T04_INSUFFICIENT_LIQUIDITY)
+      .triggeredBy(InterledgerAddress.of("test.bob"))
+      .message(message)
+      .build();
+  }
+
+  private static void sleep(final long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package org.interledger.connector.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.connector.link.AdaptiveConcurrencyLimiterConfig;
+import org.interledger.connector.link.AdaptiveConcurrencyLimiterRegistry;
+import org.interledger.link.LinkId;
+
+import io.prometheus.client.CollectorRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AdaptiveConcurrencyLimitCollector}.
+ */
+public class AdaptiveConcurrencyLimitCollectorTest {
+
+  private AdaptiveConcurrencyLimiterRegistry limiterRegistry;
+  private CollectorRegistry collectorRegistry;
+
+  @Before
+  public void setUp() {
+    limiterRegistry = new AdaptiveConcurrencyLimiterRegistry(
+      AdaptiveConcurrencyLimiterConfig.custom().initialLimit(5).build()
+    );
+    collectorRegistry = new CollectorRegistry();
+    new AdaptiveConcurrencyLimitCollector(limiterRegistry).register(collectorRegistry);
+  }
+
+  @Test
+  public void collectWithoutLimiters() {
+    assertThat(collectorRegistry.metricFamilySamples().hasMoreElements()).isTrue();
+    assertThat(sample("ilp_connector_outgoing_concurrency_limit", "alice")).isNull();
+  }
+
+  @Test
+  public void collectLimitAndInFlightPerAccount() {
+    limiterRegistry.limiter(LinkId.of("alice")).tryAcquire();
+    limiterRegistry.limiter(LinkId.of("bob"));
+
+    assertThat(sample("ilp_connector_outgoing_concurrency_limit", "alice")).isEqualTo(5.0);
+    assertThat(sample("ilp_connector_outgoing_in_flight_packets", "alice")).isEqualTo(1.0);
+    assertThat(sample("ilp_connector_outgoing_concurrency_limit", "bob")).isEqualTo(5.0);
+    assertThat(sample("ilp_connector_outgoing_in_flight_packets", "bob")).isEqualTo(0.0);
+  }
+
+  private Double sample(final String name, final String accountId) {
+    return collectorRegistry.getSampleValue(
+      name, new String[] {PrometheusCollectors.ACCOUNT_ID}, new String[] {accountId}
+    );
+  }
+}
@@ -0,0 +1,67 @@
+package org.interledger.connector.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.stream.IntStream;
+
+/**
+ * Unit tests for {@link PacketStageTimer}.
+ */
+public class PacketStageTimerTest {
+
+  @Mock
+  private MetricsService metricsService;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+  }
+
+  @Test
+  public void sampleNeverWhenRateIsZero() {
+    final PacketStageTimer timer = new PacketStageTimer(metricsService, 0);
+    assertThat(IntStream.range(0, 1000).filter($ -> timer.sample()).count()).isEqualTo(0);
+  }
+
+  @Test
+  public void sampleAlwaysWhenRateIsOne() {
+    final PacketStageTimer timer = new PacketStageTimer(metricsService, 1);
+    assertThat(IntStream.range(0, 1000).filter($ -> timer.sample()).count()).isEqualTo(1000);
+  }
+
+  @Test
+  public void sampleFractionOfPackets() {
+    final PacketStageTimer timer = new PacketStageTimer(metricsService, 0.1);
+    assertThat(IntStream.range(0, 100_000).filter($ -> timer.sample()).count()).isBetween(8_000L, 12_000L);
+  }
+
+  @Test
+  public void rejectsSampleRateOutOfRange() {
+    assertThatThrownBy(() -> new PacketStageTimer(metricsService, -0.1))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> new PacketStageTimer(metricsService, 1.1))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void recordFilterUsesClassName() {
+    final PacketStageTimer timer = new PacketStageTimer(metricsService, 1);
+    timer.recordFilter(new FooFilter(), 10);
+    verify(metricsService).trackPacketStage("FooFilter", 10);
+
+    final Object anonymousFilter = new Object() {
+    };
+    timer.recordFilter(anonymousFilter, 20);
+    verify(metricsService).trackPacketStage(anonymousFilter.getClass().getName(), 20);
+  }
+
+  private static class FooFilter {
+  }
+}
@@ -1,6 +1,7 @@
 package org.interledger.connector.metrics;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 import org.interledger.connector.accounts.AccountId;
 import org.interledger.connector.accounts.AccountRelationship;
@@ -20,6 +21,7 @@ import org.interledger.core.InterledgerFulfillPacket;
 import org.interledger.core.InterledgerFulfillment;
 import org.interledger.core.InterledgerPreparePacket;
 import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.link.LinkType;
 import org.interledger.link.LoopbackLink;
 
 import com.google.common.primitives.UnsignedLong;
@@ -28,6 +30,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.math.BigInteger;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Arrays;
 
@@ -40,6 +43,12 @@ public class PrometheusMetricsServiceTest {
 
   private static final String SETTLEMENT_SUCCEEDED = "succeeded";
   private static final String SETTLEMENT_FAILED = "failed";
+  private static final String ROUTE_CHANGES_INGESTED = "ingested";
+  private static final String ROUTE_CHANGES_REFUSED = "refused";
+  private static final AccountId PEER_ACCOUNT_ID = AccountId.of("peer");
+  private static final LinkType LINK_TYPE = LinkType.of("FOO");
+  private static final String STAGE = "FooFilter";
+  private static final String SHED_REASON = "queue_delay";
 
   private PrometheusMetricsService metricsService;
 
@@ -258,6 +267,115 @@ public class PrometheusMetricsServiceTest {
     assertThat(sum(counter, SETTLEMENT_FAILED)).isEqualTo(100);
   }
 
+  @Test
+  public void trackCcpRouteUpdateIngested() {
+    final Counter counter = PrometheusCollectors.ccpRouteChanges;
+    assertThat(sum(counter)).isEqualTo(0);
+    for (int i = 0; i < 100; i++) {
+      metricsService.trackCcpRouteUpdateIngested(PEER_ACCOUNT_ID, 10, Duration.ofMillis(5));
+      assertThat(sum(counter, ROUTE_CHANGES_INGESTED)).isEqualTo((i + 1) * 10);
+      assertThat(sum(counter, ROUTE_CHANGES_REFUSED)).isEqualTo(0);
+    }
+
+    final double numObservations = PrometheusCollectors.ccpRouteIngestLag.collect().stream()
+        .flatMap(metricFamily -> metricFamily.samples.stream())
+        .filter(sample -> sample.name.endsWith("_count"))
+        .mapToDouble(sample -> sample.value)
+        .sum();
+    assertThat(numObservations).isEqualTo(100);
+  }
+
+  @Test
+  public void trackLinkCreated() {
+    for (int i = 0; i < 100; i++) {
+      metricsService.trackLinkCreated(LINK_TYPE, Duration.ofMillis(5));
+    }
+
+    final double numObservations = PrometheusCollectors.linkCreationTime.collect().stream()
+        .flatMap(metricFamily -> metricFamily.samples.stream())
+        .filter(sample -> sample.name.endsWith("_count"))
+        .mapToDouble(sample -> sample.value)
+        .sum();
+    assertThat(numObservations).isEqualTo(100);
+  }
+
+  @Test
+  public void trackPacketStage() {
+    for (int i = 0; i < 100; i++) {
+      metricsService.trackPacketStage(STAGE, 50_000);
+    }
+
+    final double numObservations = PrometheusCollectors.packetStageTime.collect().stream()
+        .flatMap(metricFamily -> metricFamily.samples.stream())
+        .filter(sample -> sample.name.endsWith("_count"))
+        .mapToDouble(sample -> sample.value)
+        .sum();
+    assertThat(numObservations).isEqualTo(100);
+    assertThat(PrometheusCollectors.packetStageTime.labels(STAGE).get().sum).isCloseTo(0.005, within(1e-9));
+  }
+
+  @Test
+  public void trackIngressPacketShed() {
+    final Counter counter = PrometheusCollectors.shedPackets;
+    assertThat(sum(counter, SHED_REASON)).isEqualTo(0);
+    for (int i = 0; i < 100; i++) {
+      metricsService.trackIngressPacketShed(SHED_REASON);
+      assertThat(sum(counter, SHED_REASON)).isEqualTo(i + 1);
+    }
+  }
+
+  @Test
+  public void packetCountersRemovedWhenTooManyAccountsAreTracked() {
+    // No account can be tracked, so every account's series are removed as soon as they're created.
+    final PrometheusMetricsService metricsService = new PrometheusMetricsService(0, Duration.ofHours(1));
+    final AccountSettings accountSettings = AccountSettings.builder().from(accountSettings())
+        .accountId(AccountId.of("short-lived"))
+        .build();
+
+    metricsService.trackIncomingPacketPrepared(accountSettings, preparePacket());
+    metricsService.trackIncomingPacketRejected(accountSettings, rejectPacket());
+    metricsService.trackOutgoingPacketFailed(accountSettings);
+    metricsService.trackNumRateLimitedPackets(accountSettings);
+
+    assertThat(sum(PrometheusCollectors.incomingPackets, "short-lived")).isEqualTo(0);
+    assertThat(sum(PrometheusCollectors.outgoingPackets, "short-lived")).isEqualTo(0);
+    assertThat(sum(PrometheusCollectors.rateLimitedPackets, "short-lived")).isEqualTo(0);
+  }
+
+  @Test
+  public void packetCountersReboundWhenAssetChanges() {
+    final AccountSettings xrpAccountSettings = AccountSettings.builder().from(accountSettings())
+        .accountId(AccountId.of("asset-changing"))
+        .build();
+    final AccountSettings usdAccountSettings = AccountSettings.builder().from(xrpAccountSettings)
+        .assetCode("USD")
+        .assetScale(2)
+        .build();
+    try {
+      metricsService.trackIncomingPacketPrepared(xrpAccountSettings, preparePacket());
+      metricsService.trackIncomingPacketRejected(xrpAccountSettings, rejectPacket());
+      assertThat(sum(PrometheusCollectors.incomingPackets, "asset-changing", "XRP")).isEqualTo(2);
+
+      metricsService.trackIncomingPacketPrepared(usdAccountSettings, preparePacket());
+      // The series for the account's old asset are removed.
+      assertThat(sum(PrometheusCollectors.incomingPackets, "asset-changing", "XRP")).isEqualTo(0);
+      assertThat(sum(PrometheusCollectors.incomingPackets, "asset-changing", "USD")).isEqualTo(1);
+    } finally {
+      PrometheusCollectors.incomingPackets.remove(counterKey(PacketStatusResult.PREPARED, usdAccountSettings));
+    }
+  }
+
+  @Test
+  public void trackCcpRouteUpdateRefused() {
+    final Counter counter = PrometheusCollectors.ccpRouteChanges;
+    assertThat(sum(counter)).isEqualTo(0);
+    for (int i = 0; i < 100; i++) {
+      metricsService.trackCcpRouteUpdateRefused(PEER_ACCOUNT_ID, 10);
+      assertThat(sum(counter, ROUTE_CHANGES_INGESTED)).isEqualTo(0);
+      assertThat(sum(counter, ROUTE_CHANGES_REFUSED)).isEqualTo((i + 1) * 10);
+    }
+  }
+
   //////////////////
   // Private Helpers
   //////////////////
@@ -347,10 +465,10 @@ public class PrometheusMetricsServiceTest {
         .reduce(0.0, Double::sum);
   }
 
-  private int sum(final Counter counter, final String label) {
+  private int sum(final Counter counter, final String... labels) {
     return (int) counter.collect().stream()
         .mapToDouble(foo -> foo.samples.stream()
-            .filter(sample -> sample.labelValues.contains(label))
+            .filter(sample -> sample.labelValues.containsAll(Arrays.asList(labels)))
             .map(sample -> sample.value)
             .reduce(0.0, Double::sum))
         .reduce(0.0, Double::sum);
@@ -372,5 +490,12 @@ public class PrometheusMetricsServiceTest {
     PrometheusCollectors.incomingSettlements.remove(counterKey(SETTLEMENT_FAILED, accountSettings()));
     PrometheusCollectors.outgoingSettlements.remove(counterKey(SETTLEMENT_SUCCEEDED, accountSettings()));
     PrometheusCollectors.outgoingSettlements.remove(counterKey(SETTLEMENT_FAILED, accountSettings()));
+
+    PrometheusCollectors.ccpRouteChanges.remove(ROUTE_CHANGES_INGESTED, PEER_ACCOUNT_ID.value());
+    PrometheusCollectors.ccpRouteChanges.remove(ROUTE_CHANGES_REFUSED, PEER_ACCOUNT_ID.value());
+    PrometheusCollectors.ccpRouteIngestLag.remove(PEER_ACCOUNT_ID.value());
+    PrometheusCollectors.linkCreationTime.remove(LINK_TYPE.value());
+    PrometheusCollectors.packetStageTime.remove(STAGE);
+    PrometheusCollectors.shedPackets.remove(SHED_REASON);
   }
 }
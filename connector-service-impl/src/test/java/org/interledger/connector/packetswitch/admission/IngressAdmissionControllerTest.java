@@ -0,0 +1,276 @@
+package org.interledger.connector.packetswitch.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.interledger.connector.packetswitch.admission.IngressAdmissionController.SHED_EXPIRY_BUDGET;
+import static org.interledger.connector.packetswitch.admission.IngressAdmissionController.SHED_IN_FLIGHT_LIMIT;
+import static org.interledger.connector.packetswitch.admission.IngressAdmissionController.SHED_QUEUE_DELAY;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.metrics.MetricsService;
+import org.interledger.connector.packetswitch.ILPv4PacketSwitch;
+import org.interledger.connector.settings.ConnectorSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.core.InterledgerResponsePacket;
+
+import com.google.common.base.Ticker;
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Unit tests for {@link IngressAdmissionController}.
+ */
+public class IngressAdmissionControllerTest {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.connector");
+  private static final AccountId ACCOUNT_ID = AccountId.of("alice");
+  private static final Instant NOW = Instant.parse("2020-01-01T00:00:00Z");
+
+  private static final long TARGET_MILLIS = 5;
+  private static final long INTERVAL_MILLIS = 100;
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Mock
+  private ILPv4PacketSwitch packetSwitchMock;
+
+  @Mock
+  private ConnectorSettings connectorSettingsMock;
+
+  @Mock
+  private MetricsService metricsServiceMock;
+
+  private final AtomicLong nanos = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+
+  private IngressAdmissionController admissionController;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+
+    when(connectorSettingsMock.operatorAddress()).thenReturn(OPERATOR_ADDRESS);
+    when(packetSwitchMock.switchPacket(any(), any())).thenReturn(InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build());
+
+    admissionController = newAdmissionController(IngressAdmissionConfig.custom()
+      .maxInFlightPackets(2)
+      .targetQueueDelay(Duration.ofMillis(TARGET_MILLIS))
+      .interval(Duration.ofMillis(INTERVAL_MILLIS))
+      .minExpiryBudget(Duration.ofMillis(500))
+      .overloadedMinExpiryBudget(Duration.ofSeconds(2))
+      .build());
+  }
+
+  @Test
+  public void admitsPacketThatWasNotQueued() {
+    final InterledgerResponsePacket response = admissionController.switchPacket(
+      ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), nanos.get()
+    );
+
+    assertThat(response).isInstanceOf(InterledgerFulfillPacket.class);
+    assertThat(admissionController.isOverloaded()).isFalse();
+    assertThat(admissionController.getInFlightPackets()).isZero();
+    verifyNoInteractions(metricsServiceMock);
+  }
+
+  @Test
+  public void admitsBurstThatWaitedLessThanAnInterval() {
+    final InterledgerResponsePacket response = admissionController.switchPacket(
+      ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), receivedMillisAgo(INTERVAL_MILLIS - 1)
+    );
+
+    assertThat(response).isInstanceOf(InterledgerFulfillPacket.class);
+  }
+
+  @Test
+  public void shedsPacketThatWaitedLongerThanAnInterval() {
+    final InterledgerResponsePacket response = admissionController.switchPacket(
+      ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), receivedMillisAgo(INTERVAL_MILLIS + 1)
+    );
+
+    assertShed(response, SHED_QUEUE_DELAY);
+    verifyNoInteractions(packetSwitchMock);
+  }
+
+  @Test
+  public void becomesOverloadedWhenEveryPacketInAnIntervalWaitedLongerThanTarget() {
+    // Every packet in the first interval waits longer than the target, but not long enough to be shed.
+    for (int i = 0; i < 10; i++) {
+      admissionController.switchPacket(ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), receivedMillisAgo(20));
+      advanceMillis(INTERVAL_MILLIS / 10);
+    }
+    assertThat(admissionController.isOverloaded()).isFalse();
+
+    // The first packet of the next interval closes the first one.
+    final InterledgerResponsePacket response = admissionController.switchPacket(
+      ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), receivedMillisAgo(20)
+    );
+
+    assertThat(admissionController.isOverloaded()).isTrue();
+    assertShed(response, SHED_QUEUE_DELAY);
+
+    // Packets that didn't queue for long are still admitted.
+    assertThat(admissionController.switchPacket(
+      ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), receivedMillisAgo(TARGET_MILLIS - 1)
+    )).isInstanceOf(InterledgerFulfillPacket.class);
+  }
+
+  @Test
+  public void recoversOnceAPacketInAnIntervalWaitedLessThanTarget() {
+    becomesOverloadedWhenEveryPacketInAnIntervalWaitedLongerThanTarget();
+
+    advanceMillis(INTERVAL_MILLIS);
+    admissionController.switchPacket(ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), nanos.get());
+
+    assertThat(admissionController.isOverloaded()).isFalse();
+  }
+
+  @Test
+  public void doesNotBecomeOverloadedIfOnePacketInAnIntervalWaitedLessThanTarget() {
+    admissionController.switchPacket(ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), receivedMillisAgo(20));
+    admissionController.switchPacket(ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), nanos.get());
+    admissionController.switchPacket(ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), receivedMillisAgo(20));
+    advanceMillis(INTERVAL_MILLIS);
+
+    admissionController.switchPacket(ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), receivedMillisAgo(20));
+
+    assertThat(admissionController.isOverloaded()).isFalse();
+  }
+
+  @Test
+  public void shedsPacketWithTooLittleExpiryBudget() {
+    final InterledgerResponsePacket response = admissionController.switchPacket(
+      ACCOUNT_ID, preparePacket(Duration.ofMillis(499)), nanos.get()
+    );
+
+    assertShed(response, SHED_EXPIRY_BUDGET);
+    verifyNoInteractions(packetSwitchMock);
+  }
+
+  @Test
+  public void requiresMoreExpiryBudgetWhileOverloaded() {
+    becomesOverloadedWhenEveryPacketInAnIntervalWaitedLongerThanTarget();
+
+    assertShed(
+      admissionController.switchPacket(ACCOUNT_ID, preparePacket(Duration.ofSeconds(1)), nanos.get()),
+      SHED_EXPIRY_BUDGET
+    );
+    assertThat(admissionController.switchPacket(ACCOUNT_ID, preparePacket(Duration.ofSeconds(2)), nanos.get()))
+      .isInstanceOf(InterledgerFulfillPacket.class);
+  }
+
+  @Test
+  public void shedsPacketBeyondInFlightLimit() {
+    final AtomicLong observedInFlight = new AtomicLong();
+    when(packetSwitchMock.switchPacket(any(), any())).thenAnswer(invocation -> {
+      if (observedInFlight.incrementAndGet() < 3) {
+        // Re-enter while this packet is in-flight, so that each nested packet adds one more.
+        return admissionController.switchPacket(ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), nanos.get());
+      }
+      throw new AssertionError("Only two packets may be in-flight");
+    });
+
+    final InterledgerResponsePacket response = admissionController.switchPacket(
+      ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), nanos.get()
+    );
+
+    assertShed(response, SHED_IN_FLIGHT_LIMIT);
+    assertThat(observedInFlight.get()).isEqualTo(2);
+    assertThat(admissionController.getInFlightPackets()).isZero();
+  }
+
+  @Test
+  public void releasesInFlightPacketWhenPacketSwitchThrows() {
+    when(packetSwitchMock.switchPacket(any(), any())).thenThrow(new RuntimeException("boom"));
+
+    expectedException.expect(RuntimeException.class);
+    try {
+      admissionController.switchPacket(ACCOUNT_ID, preparePacket(Duration.ofSeconds(30)), nanos.get());
+    } finally {
+      assertThat(admissionController.getInFlightPackets()).isZero();
+    }
+  }
+
+  @Test
+  public void configRejectsIntervalNotGreaterThanTarget() {
+    expectedException.expect(IllegalArgumentException.class);
+    IngressAdmissionConfig.custom()
+      .targetQueueDelay(Duration.ofMillis(100))
+      .interval(Duration.ofMillis(100))
+      .build();
+  }
+
+  @Test
+  public void configRejectsOverloadedExpiryBudgetBelowMinimum() {
+    expectedException.expect(IllegalArgumentException.class);
+    IngressAdmissionConfig.custom()
+      .minExpiryBudget(Duration.ofSeconds(2))
+      .overloadedMinExpiryBudget(Duration.ofSeconds(1))
+      .build();
+  }
+
+  //////////////////
+  // Private Helpers
+  //////////////////
+
+  private IngressAdmissionController newAdmissionController(final IngressAdmissionConfig config) {
+    final Ticker ticker = new Ticker() {
+      @Override
+      public long read() {
+        return nanos.get();
+      }
+    };
+    final Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    return new IngressAdmissionController(
+      packetSwitchMock, () -> connectorSettingsMock, metricsServiceMock, config, ticker, clock
+    );
+  }
+
+  private void assertShed(final InterledgerResponsePacket response, final String reason) {
+    assertThat(response).isInstanceOf(InterledgerRejectPacket.class);
+    final InterledgerRejectPacket rejectPacket = (InterledgerRejectPacket) response;
+    assertThat(rejectPacket.getCode()).isEqualTo(InterledgerErrorCode.T03_CONNECTOR_BUSY);
+    assertThat(rejectPacket.getTriggeredBy()).hasValue(OPERATOR_ADDRESS);
+    verify(metricsServiceMock).trackIngressPacketShed(reason);
+  }
+
+  private long receivedMillisAgo(final long millis) {
+    return nanos.get() - TimeUnit.MILLISECONDS.toNanos(millis);
+  }
+
+  private void advanceMillis(final long millis) {
+    nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+  }
+
+  private InterledgerPreparePacket preparePacket(final Duration expiresIn) {
+    return InterledgerPreparePacket.builder()
+      .destination(InterledgerAddress.of("test.bob"))
+      .executionCondition(InterledgerCondition.of(new byte[32]))
+      .amount(UnsignedLong.ONE)
+      .expiresAt(NOW.plus(expiresIn))
+      .build();
+  }
+}
@@ -5,7 +5,9 @@ import static org.assertj.core.api.Assertions.fail;
 import static org.interledger.connector.accounts.sub.LocalDestinationAddressUtils.PING_ACCOUNT_ID;
 import static org.interledger.link.PingLoopbackLink.PING_PROTOCOL_CONDITION;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -22,6 +24,10 @@ import org.interledger.connector.links.LinkManager;
 import org.interledger.connector.links.NextHopInfo;
 import org.interledger.connector.links.NextHopPacketMapper;
 import org.interledger.connector.links.filters.LinkFilter;
+import org.interledger.connector.metrics.MetricsService;
+import org.interledger.connector.metrics.PacketStageTimer;
+import org.interledger.connector.packetswitch.trace.PacketTrace;
+import org.interledger.connector.packetswitch.trace.PacketTraceRecorder;
 import org.interledger.core.InterledgerAddress;
 import org.interledger.core.InterledgerCondition;
 import org.interledger.core.InterledgerErrorCode;
@@ -46,6 +52,7 @@ import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -674,4 +681,111 @@ public class DefaultPacketSwitchFilterChainTest {
     verify(linkManagerMock).getOrCreateLink(INCOMING_ACCOUNT_SETTINGS);
     verifyNoMoreInteractions(linkManagerMock);
   }
+
+  @Test
+  public void filterPacketRecordsTimeOfEachStageWhenTimed() {
+    final MetricsService metricsServiceMock = mock(MetricsService.class);
+    // The outer filter does no work of its own, so its time must exclude the time spent in the slow filter.
+    this.packetSwitchFilters.add(new PassThroughFilter());
+    this.packetSwitchFilters.add(new SlowFilter());
+    this.filterChain = new DefaultPacketSwitchFilterChain(
+      new PacketRejector(() -> OPERATOR_ADDRESS),
+      packetSwitchFilters,
+      Lists.newArrayList(),
+      localDestinationAddressUtilsMock,
+      linkManagerMock,
+      nextHopPacketMapperMock,
+      accountSettingsLoadingCacheMock,
+      packetEventPublisherMock,
+      Optional.of(new PacketStageTimer(metricsServiceMock, 1.0))
+    );
+
+    final NextHopInfo nextHopInfo = NextHopInfo.builder()
+      .nextHopAccountId(OUTGOING_ACCOUNT_ID)
+      .nextHopPacket(PREPARE_PACKET)
+      .build();
+    when(nextHopPacketMapperMock.getNextHopPacket(INCOMING_ACCOUNT_SETTINGS, PREPARE_PACKET)).thenReturn(nextHopInfo);
+    when(linkManagerMock.getOrCreateLink(Mockito.<AccountSettings>any())).thenReturn(outgoingLink);
+    when(nextHopPacketMapperMock.determineExchangeRate(any(), any(), any())).thenReturn(BigDecimal.ZERO);
+
+    filterChain.doFilter(INCOMING_ACCOUNT_SETTINGS, PREPARE_PACKET).handle(
+      fulfillPacket -> assertThat(fulfillPacket.getFulfillment()).isEqualTo(LoopbackLink.LOOPBACK_FULFILLMENT),
+      rejectPacket -> fail("Should have fulfilled but rejected!")
+    );
+
+    final long slowFilterNanos = TimeUnit.MILLISECONDS.toNanos(SlowFilter.DELAY_MILLIS);
+    verify(metricsServiceMock).trackPacketStage(eq("SlowFilter"), longThat(nanos -> nanos >= slowFilterNanos));
+    verify(metricsServiceMock).trackPacketStage(eq("PassThroughFilter"), longThat(nanos -> nanos < slowFilterNanos));
+    verify(metricsServiceMock).trackPacketStage(eq(PacketStageTimer.NEXT_HOP_MAPPING), anyLong());
+    verify(metricsServiceMock).trackPacketStage(eq(PacketStageTimer.NEXT_HOP_LINK), anyLong());
+    verify(metricsServiceMock).trackPacketStage(eq(PacketStageTimer.LINK_SEND), anyLong());
+    verify(metricsServiceMock).trackPacketStage(eq(PacketStageTimer.PACKET_EVENTS), anyLong());
+    verifyNoMoreInteractions(metricsServiceMock);
+  }
+
+  @Test
+  public void filterPacketRecordsTraceWhenTraced() {
+    this.packetSwitchFilters.add(new PassThroughFilter());
+    final PacketTraceRecorder packetTrace = new PacketTraceRecorder(INCOMING_ACCOUNT_ID, PREPARE_PACKET);
+    this.filterChain = new DefaultPacketSwitchFilterChain(
+      new PacketRejector(() -> OPERATOR_ADDRESS),
+      packetSwitchFilters,
+      Lists.newArrayList(),
+      localDestinationAddressUtilsMock,
+      linkManagerMock,
+      nextHopPacketMapperMock,
+      accountSettingsLoadingCacheMock,
+      packetEventPublisherMock,
+      Optional.empty(),
+      Optional.of(packetTrace)
+    );
+
+    final NextHopInfo nextHopInfo = NextHopInfo.builder()
+      .nextHopAccountId(OUTGOING_ACCOUNT_ID)
+      .nextHopPacket(PREPARE_PACKET)
+      .build();
+    when(nextHopPacketMapperMock.getNextHopPacket(INCOMING_ACCOUNT_SETTINGS, PREPARE_PACKET)).thenReturn(nextHopInfo);
+    when(linkManagerMock.getOrCreateLink(Mockito.<AccountSettings>any())).thenReturn(outgoingLink);
+    when(nextHopPacketMapperMock.determineExchangeRate(any(), any(), any())).thenReturn(BigDecimal.ZERO);
+
+    final PacketTrace trace = packetTrace.complete(filterChain.doFilter(INCOMING_ACCOUNT_SETTINGS, PREPARE_PACKET));
+
+    assertThat(trace.sourceAccountId()).isEqualTo(INCOMING_ACCOUNT_ID);
+    assertThat(trace.nextHopAccountId()).hasValue(OUTGOING_ACCOUNT_ID);
+    assertThat(trace.amountOut()).hasValue(PREPARE_PACKET.getAmount());
+    assertThat(trace.stageMicros()).containsOnlyKeys(
+      "PassThroughFilter", PacketStageTimer.NEXT_HOP_MAPPING, PacketStageTimer.NEXT_HOP_LINK,
+      PacketStageTimer.LINK_SEND, PacketStageTimer.PACKET_EVENTS
+    );
+    assertThat(trace.rejectCode()).isEmpty();
+  }
+
+  private static class PassThroughFilter implements PacketSwitchFilter {
+    @Override
+    public InterledgerResponsePacket doFilter(
+      final AccountSettings sourceAccountSettings,
+      final InterledgerPreparePacket sourcePreparePacket,
+      final PacketSwitchFilterChain filterChain
+    ) {
+      return filterChain.doFilter(sourceAccountSettings, sourcePreparePacket);
+    }
+  }
+
+  private static class SlowFilter implements PacketSwitchFilter {
+    private static final long DELAY_MILLIS = 50;
+
+    @Override
+    public InterledgerResponsePacket doFilter(
+      final AccountSettings sourceAccountSettings,
+      final InterledgerPreparePacket sourcePreparePacket,
+      final PacketSwitchFilterChain filterChain
+    ) {
+      try {
+        Thread.sleep(DELAY_MILLIS);
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      return filterChain.doFilter(sourceAccountSettings, sourcePreparePacket);
+    }
+  }
 }
@@ -349,6 +349,43 @@ public class PeerProtocolPacketFilterTest {
     );
   }
 
+  ////////////////
+  // `peer.settle`
+  ////////////////
+
+  @Test
+  public void handlePeerSettlementWhenSettlementEngineFails() {
+    final InterledgerPreparePacket preparePacket = this.constructPreparePacket(InterledgerAddress.of("peer.settle"));
+    when(settlementService.onSettlementMessageFromPeer(any(), any(), any())).thenThrow(new RuntimeException("foo"));
+
+    filter.handlePeerSettlement(accountSettingsMock, preparePacket);
+
+    final ArgumentCaptor<InterledgerErrorCode> errorCodeArgumentCaptor =
+        ArgumentCaptor.forClass(InterledgerErrorCode.class);
+    verify(packetRejectorMock).reject(any(), any(), errorCodeArgumentCaptor.capture(), any());
+    assertThat(errorCodeArgumentCaptor.getValue()).isEqualTo(InterledgerErrorCode.T00_INTERNAL_ERROR);
+  }
+
+  @Test
+  public void handlePeerSettlementWhenPacketExpires() {
+    final InterledgerPreparePacket preparePacket = InterledgerPreparePacket.builder()
+        .from(this.constructPreparePacket(InterledgerAddress.of("peer.settle")))
+        .expiresAt(Instant.now().minusMillis(1))
+        .build();
+    when(settlementService.onSettlementMessageFromPeer(any(), any(), any())).thenThrow(new RuntimeException("foo"));
+
+    filter.handlePeerSettlement(accountSettingsMock, preparePacket);
+
+    final ArgumentCaptor<InterledgerErrorCode> errorCodeArgumentCaptor =
+        ArgumentCaptor.forClass(InterledgerErrorCode.class);
+    final ArgumentCaptor<String> errorMessageCaptor = ArgumentCaptor.forClass(String.class);
+    verify(packetRejectorMock)
+        .reject(any(), any(), errorCodeArgumentCaptor.capture(), errorMessageCaptor.capture());
+    assertThat(errorCodeArgumentCaptor.getValue()).isEqualTo(InterledgerErrorCode.R00_TRANSFER_TIMED_OUT);
+    assertThat(errorMessageCaptor.getValue())
+        .isEqualTo("Packet expired before the settlement engine responded. accountId=test-account");
+  }
+
   ///////////////
   // Helpers
   ////////////////
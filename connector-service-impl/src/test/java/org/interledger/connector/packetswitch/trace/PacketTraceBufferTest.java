@@ -0,0 +1,97 @@
+package org.interledger.connector.packetswitch.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.core.InterledgerAddress;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Unit tests for {@link PacketTraceBuffer}.
+ */
+public class PacketTraceBufferTest {
+
+  private static final AccountId ALICE = AccountId.of("alice");
+  private static final AccountId BOB = AccountId.of("bob");
+  private static final AccountId CAROL = AccountId.of("carol");
+
+  @Test(expected = IllegalArgumentException.class)
+  public void sampleRateMustNotExceedOne() {
+    new PacketTraceBuffer(16, 1.5);
+  }
+
+  @Test
+  public void sampleRates() {
+    assertThat(new PacketTraceBuffer(16, 0).sample()).isFalse();
+    assertThat(new PacketTraceBuffer(16, 1).sample()).isTrue();
+  }
+
+  @Test
+  public void findReturnsNewestFirst() {
+    final PacketTraceBuffer buffer = new PacketTraceBuffer(16, 1);
+    buffer.add(trace(ALICE, BOB, 1, Optional.empty()));
+    buffer.add(trace(ALICE, BOB, 2, Optional.empty()));
+    buffer.add(trace(ALICE, BOB, 3, Optional.empty()));
+
+    assertThat(amountsIn(buffer.find(Optional.empty(), Optional.empty(), 100))).containsExactly(3L, 2L, 1L);
+    assertThat(amountsIn(buffer.find(Optional.empty(), Optional.empty(), 2))).containsExactly(3L, 2L);
+  }
+
+  @Test
+  public void oldestTracesAreOverwrittenWhenFull() {
+    // Rounded up to a capacity of 4.
+    final PacketTraceBuffer buffer = new PacketTraceBuffer(3, 1);
+    for (long amount = 1; amount <= 10; amount++) {
+      buffer.add(trace(ALICE, BOB, amount, Optional.empty()));
+    }
+
+    assertThat(amountsIn(buffer.find(Optional.empty(), Optional.empty(), 100))).containsExactly(10L, 9L, 8L, 7L);
+  }
+
+  @Test
+  public void findByAccountMatchesSourceOrNextHop() {
+    final PacketTraceBuffer buffer = new PacketTraceBuffer(16, 1);
+    buffer.add(trace(ALICE, BOB, 1, Optional.empty()));
+    buffer.add(trace(BOB, CAROL, 2, Optional.empty()));
+    buffer.add(trace(CAROL, ALICE, 3, Optional.empty()));
+
+    assertThat(amountsIn(buffer.find(Optional.of(BOB), Optional.empty(), 100))).containsExactly(2L, 1L);
+    assertThat(amountsIn(buffer.find(Optional.of(AccountId.of("dave")), Optional.empty(), 100))).isEmpty();
+  }
+
+  @Test
+  public void findByRejectCode() {
+    final PacketTraceBuffer buffer = new PacketTraceBuffer(16, 1);
+    buffer.add(trace(ALICE, BOB, 1, Optional.of("F02")));
+    buffer.add(trace(ALICE, BOB, 2, Optional.empty()));
+    buffer.add(trace(ALICE, BOB, 3, Optional.of("T04")));
+
+    assertThat(amountsIn(buffer.find(Optional.empty(), Optional.of("T04"), 100))).containsExactly(3L);
+    assertThat(amountsIn(buffer.find(Optional.of(ALICE), Optional.of("F02"), 100))).containsExactly(1L);
+  }
+
+  private PacketTrace trace(
+    final AccountId source, final AccountId nextHop, final long amountIn, final Optional<String> rejectCode
+  ) {
+    return PacketTrace.builder()
+      .receivedAt(Instant.now())
+      .sourceAccountId(source)
+      .destination(InterledgerAddress.of("test.receiver"))
+      .nextHopAccountId(nextHop)
+      .amountIn(UnsignedLong.valueOf(amountIn))
+      .totalMicros(10)
+      .rejectCode(rejectCode)
+      .build();
+  }
+
+  private List<Long> amountsIn(final List<PacketTrace> traces) {
+    return traces.stream().map(trace -> trace.amountIn().longValue()).collect(Collectors.toList());
+  }
+}
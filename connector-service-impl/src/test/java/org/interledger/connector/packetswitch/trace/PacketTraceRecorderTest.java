@@ -0,0 +1,94 @@
+package org.interledger.connector.packetswitch.trace;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountRelationship;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerCondition;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+import org.interledger.link.LinkType;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Unit tests for {@link PacketTraceRecorder}.
+ */
+public class PacketTraceRecorderTest {
+
+  private static final InterledgerPreparePacket PREPARE_PACKET = InterledgerPreparePacket.builder()
+    .destination(InterledgerAddress.of("test.bob.receiver"))
+    .amount(UnsignedLong.valueOf(250))
+    .executionCondition(InterledgerCondition.of(new byte[32]))
+    .expiresAt(Instant.now().plusSeconds(30))
+    .build();
+
+  @Test
+  public void traceOfPacketRejectedBeforeNextHop() {
+    final PacketTraceRecorder recorder = new PacketTraceRecorder(AccountId.of("alice"), PREPARE_PACKET);
+    recorder.recordStage("ExpiryPacketFilter", 3_000);
+
+    final PacketTrace trace = recorder.complete(InterledgerRejectPacket.builder()
+      .code(InterledgerErrorCode.F02_UNREACHABLE)
+      .triggeredBy(InterledgerAddress.of("test.connector"))
+      .build());
+
+    assertThat(trace.sourceAccountId()).isEqualTo(AccountId.of("alice"));
+    assertThat(trace.amountIn()).isEqualTo(UnsignedLong.valueOf(250));
+    assertThat(trace.nextHopAccountId()).isEmpty();
+    assertThat(trace.amountOut()).isEmpty();
+    assertThat(trace.exchangeRate()).isEmpty();
+    assertThat(trace.stageMicros()).containsEntry("ExpiryPacketFilter", 3L);
+    assertThat(trace.rejectCode()).hasValue("F02");
+  }
+
+  @Test
+  public void traceOfForwardedPacket() {
+    final PacketTraceRecorder recorder = new PacketTraceRecorder(AccountId.of("alice"), PREPARE_PACKET);
+    recorder.recordStage("linkSend", 1_000);
+    recorder.recordStage("linkSend", 2_000);
+    // 250 cents of USD (scale 2) became 5000 units of scale 3, i.e., 2.50 became 5.000.
+    recorder.recordNextHop(
+      accountSettings("alice", "USD", 2),
+      accountSettings("bob", "EUR", 3),
+      InterledgerPreparePacket.builder().from(PREPARE_PACKET).amount(UnsignedLong.valueOf(5000)).build()
+    );
+
+    final PacketTrace trace = recorder.complete(InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build());
+
+    assertThat(trace.nextHopAccountId()).hasValue(AccountId.of("bob"));
+    assertThat(trace.amountOut()).hasValue(UnsignedLong.valueOf(5000));
+    assertThat(trace.exchangeRate().get()).isEqualByComparingTo(new BigDecimal("2"));
+    assertThat(trace.stageMicros()).containsEntry("linkSend", 3L);
+    assertThat(trace.rejectCode()).isEmpty();
+  }
+
+  @Test
+  public void traceOfUnansweredPacket() {
+    final PacketTrace trace = new PacketTraceRecorder(AccountId.of("alice"), PREPARE_PACKET).complete(null);
+
+    assertThat(trace.rejectCode()).isEqualTo(Optional.of("FAILED"));
+  }
+
+  private AccountSettings accountSettings(final String accountId, final String assetCode, final int assetScale) {
+    return AccountSettings.builder()
+      .accountId(AccountId.of(accountId))
+      .accountRelationship(AccountRelationship.PEER)
+      .linkType(LinkType.of("LOOPBACK"))
+      .assetCode(assetCode)
+      .assetScale(assetScale)
+      .build();
+  }
+}
@@ -0,0 +1,186 @@
+package org.interledger.connector.selftest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.interledger.link.PingLoopbackLink.PING_PROTOCOL_CONDITION;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.interledger.connector.accounts.AccountId;
+import org.interledger.connector.accounts.AccountNotFoundProblem;
+import org.interledger.connector.accounts.AccountSettings;
+import org.interledger.connector.caching.AccountSettingsLoadingCache;
+import org.interledger.connector.packetswitch.ILPv4PacketSwitch;
+import org.interledger.connector.settings.ConnectorSettings;
+import org.interledger.core.InterledgerAddress;
+import org.interledger.core.InterledgerErrorCode;
+import org.interledger.core.InterledgerFulfillPacket;
+import org.interledger.core.InterledgerFulfillment;
+import org.interledger.core.InterledgerPreparePacket;
+import org.interledger.core.InterledgerRejectPacket;
+
+import com.google.common.primitives.UnsignedLong;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.Answers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Unit tests for {@link LoopbackSelfTest}.
+ */
+public class LoopbackSelfTestTest {
+
+  private static final InterledgerAddress OPERATOR_ADDRESS = InterledgerAddress.of("test.connector");
+  private static final AccountId SOURCE_ACCOUNT_ID = AccountId.of("alice");
+  private static final Duration DURATION = Duration.ofMillis(200);
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Mock
+  private ILPv4PacketSwitch packetSwitchMock;
+
+  @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+  private ConnectorSettings connectorSettingsMock;
+
+  @Mock
+  private AccountSettingsLoadingCache accountSettingsLoadingCacheMock;
+
+  @Mock
+  private AccountSettings accountSettingsMock;
+
+  private LoopbackSelfTest loopbackSelfTest;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+
+    when(connectorSettingsMock.operatorAddress()).thenReturn(OPERATOR_ADDRESS);
+    when(connectorSettingsMock.enabledProtocols().isPingProtocolEnabled()).thenReturn(true);
+    when(accountSettingsLoadingCacheMock.getAccount(SOURCE_ACCOUNT_ID)).thenReturn(Optional.of(accountSettingsMock));
+    when(packetSwitchMock.switchPacket(any(), any())).thenReturn(InterledgerFulfillPacket.builder()
+      .fulfillment(InterledgerFulfillment.of(new byte[32]))
+      .build());
+
+    loopbackSelfTest = new LoopbackSelfTest(packetSwitchMock, () -> connectorSettingsMock,
+      accountSettingsLoadingCacheMock);
+  }
+
+  @Test
+  public void sendsPingPacketsToOperatorAddressAtRequestedRate() {
+    final SelfTestResult result = loopbackSelfTest.run(SOURCE_ACCOUNT_ID, DURATION, 100, 2, UnsignedLong.ONE);
+
+    // 100 packets per second for 200ms.
+    assertThat(result.packetsSent()).isEqualTo(20);
+    assertThat(result.packetsFulfilled()).isEqualTo(20);
+    assertThat(result.packetsRejected()).isZero();
+    assertThat(result.packetsFailed()).isZero();
+    assertThat(result.requestedPacketsPerSecond()).isEqualTo(100);
+    assertThat(result.concurrency()).isEqualTo(2);
+    assertThat(result.elapsedMillis()).isGreaterThanOrEqualTo(190);
+    assertThat(result.fulfilledPacketsPerSecond()).isPositive();
+    assertThat(result.p50Micros()).isLessThanOrEqualTo(result.p99Micros());
+    assertThat(result.p99Micros()).isLessThanOrEqualTo(result.maxMicros());
+
+    final ArgumentCaptor<InterledgerPreparePacket> preparePacket =
+      ArgumentCaptor.forClass(InterledgerPreparePacket.class);
+    verify(packetSwitchMock, atLeastOnce()).switchPacket(eq(SOURCE_ACCOUNT_ID), preparePacket.capture());
+    assertThat(preparePacket.getValue().getDestination()).isEqualTo(OPERATOR_ADDRESS);
+    assertThat(preparePacket.getValue().getExecutionCondition()).isEqualTo(PING_PROTOCOL_CONDITION);
+    assertThat(preparePacket.getValue().getAmount()).isEqualTo(UnsignedLong.ONE);
+  }
+
+  @Test
+  public void countsRejectsByCodeAndFailures() {
+    when(packetSwitchMock.switchPacket(any(), any()))
+      .thenReturn(InterledgerRejectPacket.builder()
+        .code(InterledgerErrorCode.T03_CONNECTOR_BUSY)
+        .message("busy")
+        .build())
+      .thenThrow(new RuntimeException("boom"));
+
+    final SelfTestResult result = loopbackSelfTest.run(SOURCE_ACCOUNT_ID, DURATION, 100, 1, UnsignedLong.ZERO);
+
+    assertThat(result.packetsSent()).isEqualTo(20);
+    assertThat(result.packetsFulfilled()).isZero();
+    assertThat(result.packetsRejected()).isEqualTo(1);
+    assertThat(result.packetsFailed()).isEqualTo(19);
+    assertThat(result.rejectCodes()).containsEntry("T03", 1L);
+  }
+
+  @Test
+  public void rejectsDurationAboveMaximum() {
+    expectedException.expect(SelfTestProblem.class);
+    loopbackSelfTest.run(
+      SOURCE_ACCOUNT_ID, LoopbackSelfTest.MAX_DURATION.plusSeconds(1), 100, 1, UnsignedLong.ZERO
+    );
+  }
+
+  @Test
+  public void rejectsRateAboveMaximum() {
+    expectedException.expect(SelfTestProblem.class);
+    loopbackSelfTest.run(
+      SOURCE_ACCOUNT_ID, DURATION, LoopbackSelfTest.MAX_PACKETS_PER_SECOND + 1, 1, UnsignedLong.ZERO
+    );
+  }
+
+  @Test
+  public void rejectsConcurrencyAboveMaximum() {
+    expectedException.expect(SelfTestProblem.class);
+    loopbackSelfTest.run(SOURCE_ACCOUNT_ID, DURATION, 100, LoopbackSelfTest.MAX_CONCURRENCY + 1, UnsignedLong.ZERO);
+  }
+
+  @Test
+  public void rejectsWhenPingProtocolIsDisabled() {
+    when(connectorSettingsMock.enabledProtocols().isPingProtocolEnabled()).thenReturn(false);
+
+    expectedException.expect(SelfTestProblem.class);
+    loopbackSelfTest.run(SOURCE_ACCOUNT_ID, DURATION, 100, 1, UnsignedLong.ZERO);
+  }
+
+  @Test
+  public void rejectsUnknownSourceAccount() {
+    when(accountSettingsLoadingCacheMock.getAccount(SOURCE_ACCOUNT_ID)).thenReturn(Optional.empty());
+
+    expectedException.expect(AccountNotFoundProblem.class);
+    loopbackSelfTest.run(SOURCE_ACCOUNT_ID, DURATION, 100, 1, UnsignedLong.ZERO);
+  }
+
+  @Test
+  public void rejectsSecondSelfTestWhileOneIsRunning() throws InterruptedException {
+    final CountDownLatch firstPacketSent = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    when(packetSwitchMock.switchPacket(any(), any())).thenAnswer(invocation -> {
+      firstPacketSent.countDown();
+      release.await();
+      return InterledgerFulfillPacket.builder()
+        .fulfillment(InterledgerFulfillment.of(new byte[32]))
+        .build();
+    });
+
+    final Thread firstSelfTest = new Thread(
+      () -> loopbackSelfTest.run(SOURCE_ACCOUNT_ID, DURATION, 100, 1, UnsignedLong.ZERO)
+    );
+    firstSelfTest.start();
+    try {
+      assertThat(firstPacketSent.await(5, TimeUnit.SECONDS)).isTrue();
+
+      expectedException.expect(SelfTestProblem.class);
+      loopbackSelfTest.run(SOURCE_ACCOUNT_ID, DURATION, 100, 1, UnsignedLong.ZERO);
+    } finally {
+      release.countDown();
+      firstSelfTest.join();
+    }
+  }
+}
@@ -84,6 +84,11 @@ public class ConnectorSettingsFromPropertyFileTest {
     assertThat(ilpOverHttpConnectorSettings.maxRequestsPerHost()).isEqualTo(75);
     assertThat(ilpOverHttpConnectorSettings.maxIdleConnections()).isEqualTo(12);
     assertThat(ilpOverHttpConnectorSettings.keepAliveSeconds()).isEqualTo(40);
+    assertThat(ilpOverHttpConnectorSettings.isHttp2Enabled()).isFalse();
+    assertThat(ilpOverHttpConnectorSettings.isHttp2PriorKnowledge()).isTrue();
+    assertThat(ilpOverHttpConnectorSettings.maxConcurrentStreamsPerPeer()).isEqualTo(20);
+    assertThat(connectorSettings.ilpOverHttpSettings().isH2cEnabled()).isFalse();
+    assertThat(connectorSettings.ilpOverHttpSettings().maxConcurrentStreams()).isEqualTo(64);
 
     assertThat(connectorSettings.enabledFeatures().isRequire32ByteSharedSecrets()).isTrue();
 